@@ -0,0 +1,63 @@
+-- ======================================
+-- 仪表板统计汇总模块数据库脚本
+-- 版本: 1.0
+-- 说明: 仪表板统计汇总表，由订单、用户、收藏、购物车事件增量维护
+--       首次上线时汇总表为空，服务启动后会自动从历史数据回填；
+--       也可通过 POST /api/dashboard/rollup/rebuild 手动重建
+-- ======================================
+
+-- 设置字符集
+SET NAMES utf8mb4;
+
+-- ======================================
+-- 每日统计汇总表 (t_stats_daily)
+-- ======================================
+DROP TABLE IF EXISTS `t_stats_daily`;
+CREATE TABLE `t_stats_daily` (
+  `stat_date` date NOT NULL COMMENT '统计日期',
+  `order_count` bigint(20) NOT NULL DEFAULT '0' COMMENT '订单数',
+  `order_amount` bigint(20) NOT NULL DEFAULT '0' COMMENT '订单金额（单位：分）',
+  `completed_orders` bigint(20) NOT NULL DEFAULT '0' COMMENT '完成订单数（按完成时间统计）',
+  `new_users` bigint(20) NOT NULL DEFAULT '0' COMMENT '新增用户数',
+  `new_favorites` bigint(20) NOT NULL DEFAULT '0' COMMENT '新增收藏数',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='每日统计汇总表';
+
+-- ======================================
+-- 每月统计汇总表 (t_stats_monthly)
+-- ======================================
+DROP TABLE IF EXISTS `t_stats_monthly`;
+CREATE TABLE `t_stats_monthly` (
+  `stat_month` char(7) NOT NULL COMMENT '统计月份（yyyy-MM）',
+  `order_count` bigint(20) NOT NULL DEFAULT '0' COMMENT '订单数',
+  `order_amount` bigint(20) NOT NULL DEFAULT '0' COMMENT '订单金额（单位：分）',
+  `completed_orders` bigint(20) NOT NULL DEFAULT '0' COMMENT '完成订单数（按完成时间统计）',
+  `new_users` bigint(20) NOT NULL DEFAULT '0' COMMENT '新增用户数',
+  `new_favorites` bigint(20) NOT NULL DEFAULT '0' COMMENT '新增收藏数',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`stat_month`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='每月统计汇总表';
+
+-- ======================================
+-- 分类销量统计汇总表 (t_stats_category_sales)
+-- ======================================
+DROP TABLE IF EXISTS `t_stats_category_sales`;
+CREATE TABLE `t_stats_category_sales` (
+  `category_id` bigint(20) NOT NULL COMMENT '分类ID',
+  `sales_count` bigint(20) NOT NULL DEFAULT '0' COMMENT '销量（不含已取消订单）',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`category_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='分类销量统计汇总表';
+
+-- ======================================
+-- 当前状态统计汇总表 (t_stats_gauge)
+-- 活跃用户数、各状态订单数、购物车用户数与商品件数，随状态变化增量调整
+-- ======================================
+DROP TABLE IF EXISTS `t_stats_gauge`;
+CREATE TABLE `t_stats_gauge` (
+  `gauge_key` varchar(64) NOT NULL COMMENT '统计项',
+  `gauge_value` bigint(20) NOT NULL DEFAULT '0' COMMENT '当前值',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`gauge_key`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='当前状态统计汇总表';
@@ -0,0 +1,17 @@
+-- ======================================
+-- 文件清理索引脚本
+-- 版本: 1.0
+-- 说明: 过期临时文件按 (expire_time, id) 游标分批清理，每批只扫描本批记录；
+--       清理后和孤立文件扫描时按 file_path 核对文件是否仍被有效记录引用
+-- ======================================
+
+-- 设置字符集
+SET NAMES utf8mb4;
+
+-- ======================================
+-- 文件信息表 (sys_file_info)
+-- ======================================
+-- WHERE is_temp = 1 AND expire_time < ? AND (expire_time, id) > (?, ?) ORDER BY expire_time, id LIMIT ?
+CREATE INDEX `idx_file_temp_expire` ON `sys_file_info` (`is_temp`, `expire_time`, `id`);
+-- WHERE file_path IN (...) AND status = 1，路径较长，使用前缀索引
+CREATE INDEX `idx_file_path_status` ON `sys_file_info` (`file_path`(191), `status`);
@@ -0,0 +1,35 @@
+-- ======================================
+-- 游标分页索引脚本
+-- 版本: 1.0
+-- 说明: 游标分页按 (create_time, id) 倒序定位下一页，
+--       为各列表的过滤列 + create_time + id 建立联合索引，任意深度翻页都只扫描一页数据
+-- ======================================
+
+-- 设置字符集
+SET NAMES utf8mb4;
+
+-- ======================================
+-- 订单表 (t_order)
+-- ======================================
+-- 用户订单列表：WHERE user_id = ? [AND status = ?] ORDER BY create_time DESC, id DESC
+CREATE INDEX `idx_order_user_create` ON `t_order` (`user_id`, `create_time`, `id`);
+-- 管理员订单列表：ORDER BY create_time DESC, id DESC
+CREATE INDEX `idx_order_create_id` ON `t_order` (`create_time`, `id`);
+-- 管理员按状态筛选：WHERE status = ? ORDER BY create_time DESC, id DESC
+CREATE INDEX `idx_order_status_create` ON `t_order` (`status`, `create_time`, `id`);
+
+-- ======================================
+-- 零食表 (t_snack)
+-- ======================================
+CREATE INDEX `idx_snack_create_id` ON `t_snack` (`create_time`, `id`);
+CREATE INDEX `idx_snack_category_create` ON `t_snack` (`category_id`, `create_time`, `id`);
+
+-- ======================================
+-- 评价表 (t_review)
+-- ======================================
+CREATE INDEX `idx_review_snack_create` ON `t_review` (`snack_id`, `create_time`, `id`);
+
+-- ======================================
+-- 收藏表 (t_favorite)
+-- ======================================
+CREATE INDEX `idx_favorite_user_create` ON `t_favorite` (`user_id`, `create_time`, `id`);
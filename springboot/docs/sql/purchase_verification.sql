@@ -0,0 +1,21 @@
+-- ======================================
+-- 评价资格校验索引脚本
+-- 版本: 1.0
+-- 说明: 校验"用户是否有包含该零食的已完成订单"使用单条 EXISTS 关联查询，
+--       以下两个索引覆盖查询涉及的全部列，按用户的已完成订单逐个探测订单项，不回表
+-- ======================================
+
+-- 设置字符集
+SET NAMES utf8mb4;
+
+-- ======================================
+-- 订单表 (t_order)
+-- ======================================
+-- WHERE user_id = ? AND status = 'COMPLETED'，二级索引自带主键 id，用于关联订单项
+CREATE INDEX `idx_order_user_status` ON `t_order` (`user_id`, `status`);
+
+-- ======================================
+-- 订单项表 (t_order_item)
+-- ======================================
+-- ON order_id = ? AND snack_id = ?
+CREATE INDEX `idx_order_item_order_snack` ON `t_order_item` (`order_id`, `snack_id`);
@@ -0,0 +1,38 @@
+-- ======================================
+-- 评价汇总模块数据库脚本
+-- 版本: 1.0
+-- 说明: 每个零食的评价数、评分总和与1-5星分布，随评价创建/删除在同一事务内增量维护；
+--       零食表冗余评价数和平均评分，前台按评分排序、筛选无需关联查询；
+--       首次上线时汇总表为空，服务启动后会自动从评价表回填，
+--       也可通过 POST /review/summary/rebuild 手动重建
+-- ======================================
+
+-- 设置字符集
+SET NAMES utf8mb4;
+
+-- ======================================
+-- 评价汇总表 (t_review_summary)
+-- ======================================
+DROP TABLE IF EXISTS `t_review_summary`;
+CREATE TABLE `t_review_summary` (
+  `snack_id` bigint(20) NOT NULL COMMENT '零食ID',
+  `review_count` int(11) NOT NULL DEFAULT '0' COMMENT '评价数',
+  `rating_sum` bigint(20) NOT NULL DEFAULT '0' COMMENT '评分总和',
+  `rating_1` int(11) NOT NULL DEFAULT '0' COMMENT '1星评价数',
+  `rating_2` int(11) NOT NULL DEFAULT '0' COMMENT '2星评价数',
+  `rating_3` int(11) NOT NULL DEFAULT '0' COMMENT '3星评价数',
+  `rating_4` int(11) NOT NULL DEFAULT '0' COMMENT '4星评价数',
+  `rating_5` int(11) NOT NULL DEFAULT '0' COMMENT '5星评价数',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`snack_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='评价汇总表';
+
+-- ======================================
+-- 零食表 (t_snack) 冗余评分字段
+-- ======================================
+ALTER TABLE `t_snack`
+  ADD COLUMN `review_count` int NOT NULL DEFAULT 0 COMMENT '评价数' AFTER `favorite_count`,
+  ADD COLUMN `rating_avg` decimal(3,2) NOT NULL DEFAULT 0.00 COMMENT '平均评分（无评价时为0）' AFTER `review_count`;
+
+-- 前台按评分排序/筛选：WHERE status = 'ON_SALE' [AND rating_avg >= ?] ORDER BY rating_avg DESC, review_count DESC
+CREATE INDEX `idx_snack_status_rating` ON `t_snack` (`status`, `rating_avg`, `review_count`);
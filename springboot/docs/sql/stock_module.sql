@@ -0,0 +1,23 @@
+-- ======================================
+-- 库存引擎模块数据库脚本
+-- 版本: 1.0
+-- 说明: 内存库存模式（stock.engine=memory）使用的库存流水表
+--       每次库存变动随业务事务写入一条流水，回写任务合并后批量更新 t_snack.stock 并删除流水；
+--       服务启动时会先回写遗留流水，保证异常退出后库存不丢失
+-- ======================================
+
+-- 设置字符集
+SET NAMES utf8mb4;
+
+-- ======================================
+-- 库存流水表 (t_stock_ledger)
+-- ======================================
+DROP TABLE IF EXISTS `t_stock_ledger`;
+CREATE TABLE `t_stock_ledger` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '流水ID',
+  `snack_id` bigint(20) NOT NULL COMMENT '零食ID',
+  `delta` int(11) NOT NULL COMMENT '库存变动量（正数增加，负数减少）',
+  `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_snack_id` (`snack_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='库存流水表';
@@ -0,0 +1,141 @@
+package org.example.springboot.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试数据填充
+ * 按数据集规模批量写入用户、分类、零食、地址、购物车、订单和订单项
+ * 自增ID从1开始连续分配，基准测试可以直接按范围随机选取ID
+ * 使用固定随机种子，同一规模的数据集每次生成的内容相同，便于对比
+ * @author system
+ */
+class BenchmarkDataSeeder {
+
+    /**
+     * 明文密码 123456 的BCrypt摘要
+     */
+    static final String PASSWORD_HASH = "$2a$10$0EB8hAzCT25cUhNeXDOhkujD./0TYjjiENnpirImJg4q4MeE/pKPa";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] ORDER_STATUSES = {"UNPAID", "PAID", "SHIPPED", "COMPLETED", "CANCELLED"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BenchmarkDataset dataset;
+
+    private final Random random = new Random(20250101L);
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    BenchmarkDataSeeder(JdbcTemplate jdbcTemplate, BenchmarkDataset dataset) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataset = dataset;
+    }
+
+    void seed() {
+        seedUsers();
+        seedCategories();
+        seedSnacks();
+        seedAddresses();
+        seedCarts();
+        seedOrders();
+    }
+
+    private void seedUsers() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= dataset.users(); i++) {
+            rows.add(new Object[]{"bench_user_" + i, PASSWORD_HASH, "用户" + i, i == 1 ? "ADMIN" : "USER", "ACTIVE", pastTime(365)});
+        }
+        batch("INSERT INTO t_user (username, password, nickname, user_type, status, create_time) VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void seedCategories() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= dataset.categories(); i++) {
+            rows.add(new Object[]{"分类" + i, i, "ACTIVE"});
+        }
+        batch("INSERT INTO t_category (name, sort_order, status) VALUES (?, ?, ?)", rows);
+    }
+
+    private void seedSnacks() {
+        String[] flavors = {"原味", "香辣", "麻辣", "五香", "海苔", "芝士", "番茄", "烧烤"};
+        String[] kinds = {"薯片", "饼干", "牛肉干", "坚果", "果冻", "巧克力", "辣条", "瓜子"};
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= dataset.snacks(); i++) {
+            String name = flavors[random.nextInt(flavors.length)] + kinds[random.nextInt(kinds.length)] + i;
+            rows.add(new Object[]{
+                    1 + random.nextInt(dataset.categories()), name, "基准测试零食" + i,
+                    100 + random.nextInt(20000), 1_000_000_000, "/files/bussiness/snack_cover/" + i + ".jpg",
+                    // 约10%的商品下架
+                    random.nextInt(10) == 0 ? "OFF_SHELF" : "ON_SALE",
+                    random.nextInt(1000), pastTime(365)});
+        }
+        batch("INSERT INTO t_snack (category_id, name, description, price, stock, cover_image, status, sales_count, create_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void seedAddresses() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= dataset.users(); i++) {
+            rows.add(new Object[]{i, "收货人" + i, "13800000000", "广西", "南宁", "青秀区", "基准路" + i + "号", 1});
+        }
+        batch("INSERT INTO t_address (user_id, consignee_name, phone, province, city, district, detailed_address, is_default) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void seedCarts() {
+        List<Object[]> rows = new ArrayList<>();
+        int perUser = Math.min(dataset.cartItemsPerUser(), dataset.snacks());
+        for (int user = 1; user <= dataset.users(); user++) {
+            int start = random.nextInt(dataset.snacks());
+            for (int j = 0; j < perUser; j++) {
+                rows.add(new Object[]{user, 1 + (start + j) % dataset.snacks(), 1 + random.nextInt(3)});
+            }
+        }
+        batch("INSERT INTO t_cart (user_id, snack_id, quantity) VALUES (?, ?, ?)", rows);
+    }
+
+    private void seedOrders() {
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        long orderId = 0;
+        for (int user = 1; user <= dataset.users(); user++) {
+            for (int j = 0; j < dataset.ordersPerUser(); j++) {
+                orderId++;
+                Timestamp createTime = pastTime(90);
+                String status = ORDER_STATUSES[random.nextInt(ORDER_STATUSES.length)];
+                int total = 0;
+                for (int k = 0; k < dataset.itemsPerOrder(); k++) {
+                    int snackId = 1 + random.nextInt(dataset.snacks());
+                    int price = 100 + random.nextInt(20000);
+                    int quantity = 1 + random.nextInt(3);
+                    total += price * quantity;
+                    items.add(new Object[]{orderId, snackId, quantity, price, "零食" + snackId, createTime});
+                }
+                orders.add(new Object[]{"BENCH" + orderId, user, user, total, status, createTime,
+                        "COMPLETED".equals(status) ? createTime : null});
+            }
+        }
+        batch("INSERT INTO t_order (order_no, user_id, address_id, total_amount, status, create_time, complete_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", orders);
+        batch("INSERT INTO t_order_item (order_id, snack_id, quantity, price, snack_name, create_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", items);
+    }
+
+    private Timestamp pastTime(int maxDays) {
+        return Timestamp.valueOf(now.minusMinutes(random.nextInt(maxDays * 24 * 60)));
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.springboot.benchmark;
+
+/**
+ * 基准测试数据集规模
+ * @param users 用户数
+ * @param categories 分类数
+ * @param snacks 零食数
+ * @param ordersPerUser 每个用户的历史订单数
+ * @param itemsPerOrder 每个订单的订单项数
+ * @param cartItemsPerUser 每个用户的购物车商品数
+ * @author system
+ */
+public record BenchmarkDataset(int users, int categories, int snacks, int ordersPerUser,
+                               int itemsPerOrder, int cartItemsPerUser) {
+
+    /**
+     * 按零食数推导其余规模，保持各表比例与线上接近
+     * @param snacks 零食数
+     * @return 数据集规模
+     */
+    public static BenchmarkDataset ofSnacks(int snacks) {
+        return new BenchmarkDataset(Math.max(10, snacks / 10), Math.max(5, snacks / 100), snacks, 20, 3, 10);
+    }
+}
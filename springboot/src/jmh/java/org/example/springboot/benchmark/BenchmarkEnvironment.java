@@ -0,0 +1,110 @@
+package org.example.springboot.benchmark;
+
+import org.example.springboot.SpringbootApplication;
+import org.example.springboot.service.DashboardRollupService;
+import org.example.springboot.service.cache.CategoryDictionary;
+import org.example.springboot.service.search.SnackSearchIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 基准测试运行环境
+ * 以 H2 内存库（MySQL兼容模式）启动完整的 Spring 上下文，建表后按数据集规模填充数据，
+ * 再刷新启动时已加载的内存结构（分类字典、搜索索引、统计汇总）
+ *
+ * Redis 相关的二级缓存和跨节点广播全部关闭，测量的是单节点进程内的开销；
+ * SQL 日志关闭，避免控制台输出淹没被测代码
+ * @author system
+ */
+public final class BenchmarkEnvironment implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private final BenchmarkDataset dataset;
+
+    private BenchmarkEnvironment(ConfigurableApplicationContext context, BenchmarkDataset dataset) {
+        this.context = context;
+        this.dataset = dataset;
+    }
+
+    /**
+     * 启动上下文并填充数据
+     * @param dataset 数据集规模
+     * @param extraProperties 额外的配置项（key=value），可覆盖默认配置
+     * @return 运行环境
+     */
+    public static BenchmarkEnvironment start(BenchmarkDataset dataset, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.sql.init.mode=always",
+                "spring.sql.init.schema-locations=classpath:benchmark/schema.sql",
+                // 数据由 BenchmarkDataSeeder 按规模生成，不执行测试类路径下的 data.sql
+                "spring.sql.init.data-locations=optional:classpath:benchmark/data.sql",
+                "spring.main.banner-mode=off",
+                // 被测的是服务层，不启动内嵌 Web 服务器
+                "spring.main.web-application-type=none",
+                "mybatis-plus.configuration.log-impl=org.apache.ibatis.logging.nologging.NoLoggingImpl",
+                "logging.level.root=WARN",
+                "logging.level.org.example.springboot=WARN",
+                "catalog.cache.redis-enabled=false",
+                "auth.cache.broadcast-enabled=false",
+                "auth.revocation.broadcast-enabled=false",
+                "purchase.cache.broadcast-enabled=false",
+                // 后台刷新会与被测代码争抢CPU，基准测试期间不触发
+                "dashboard.refresh-interval=3600000",
+                "dashboard.max-staleness=3600000"
+        ));
+        properties.addAll(List.of(extraProperties));
+
+        // 同名配置后者覆盖前者；以命令行参数传入，优先级高于 application.yml
+        Map<String, String> merged = new LinkedHashMap<>();
+        for (String property : properties) {
+            merged.put(property.substring(0, property.indexOf('=')), property);
+        }
+        String[] args = merged.values().stream().map(property -> "--" + property).toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringbootApplication.class).run(args);
+        try {
+            new BenchmarkDataSeeder(context.getBean(JdbcTemplate.class), dataset).seed();
+            context.getBean(CategoryDictionary.class).refresh();
+            context.getBean(SnackSearchIndex.class).rebuild();
+            context.getBean(DashboardRollupService.class).rebuild();
+        } catch (RuntimeException e) {
+            context.close();
+            throw e;
+        }
+        return new BenchmarkEnvironment(context, dataset);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * 读取运行时配置，如启用 Web 服务器后的 local.server.port
+     * @param key 配置键
+     * @return 配置值，不存在返回null
+     */
+    public String getProperty(String key) {
+        return context.getEnvironment().getProperty(key);
+    }
+
+    public BenchmarkDataset dataset() {
+        return dataset;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
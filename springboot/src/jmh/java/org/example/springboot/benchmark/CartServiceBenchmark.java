@@ -0,0 +1,65 @@
+package org.example.springboot.benchmark;
+
+import org.example.springboot.DTO.response.CartListResponseDTO;
+import org.example.springboot.service.CartService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 购物车列表基准测试
+ * 随机用户读取购物车，覆盖购物车查询、零食批量加载和分类名称填充
+ *
+ * 运行方式：mvn -Pbenchmark test-compile exec:exec -Djmh.args="CartServiceBenchmark -prof gc"
+ * @author system
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CartServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    private int snacks;
+
+    @Param({"10", "50"})
+    private int cartItemsPerUser;
+
+    private BenchmarkEnvironment environment;
+
+    private CartService cartService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDataset base = BenchmarkDataset.ofSnacks(snacks);
+        environment = BenchmarkEnvironment.start(new BenchmarkDataset(base.users(), base.categories(), base.snacks(),
+                base.ordersPerUser(), base.itemsPerOrder(), cartItemsPerUser));
+        cartService = environment.getBean(CartService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public CartListResponseDTO getCartList() {
+        long userId = ThreadLocalRandom.current().nextInt(environment.dataset().users()) + 1;
+        return cartService.getCartList(userId);
+    }
+}
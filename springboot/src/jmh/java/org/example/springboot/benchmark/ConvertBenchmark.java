@@ -0,0 +1,108 @@
+package org.example.springboot.benchmark;
+
+import org.example.springboot.DTO.response.OrderItemResponseDTO;
+import org.example.springboot.DTO.response.OrderResponseDTO;
+import org.example.springboot.DTO.response.SnackListResponseDTO;
+import org.example.springboot.DTO.response.SnackResponseDTO;
+import org.example.springboot.entity.Order;
+import org.example.springboot.entity.OrderItem;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.service.convert.OrderConvert;
+import org.example.springboot.service.convert.SnackConvert;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体转换基准测试
+ * 不启动 Spring 上下文，单独测量列表页和详情页使用的实体到响应DTO的转换开销
+ *
+ * 运行方式：mvn -Pbenchmark test-compile exec:exec -Djmh.args="ConvertBenchmark -prof gc"
+ * @author system
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConvertBenchmark {
+
+    @Param({"12", "100"})
+    private int size;
+
+    private List<Snack> snacks;
+
+    private List<Order> orders;
+
+    private List<OrderItem> orderItems;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        snacks = new ArrayList<>(size);
+        orders = new ArrayList<>(size);
+        orderItems = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            snacks.add(Snack.builder()
+                    .id((long) i).categoryId((long) (i % 10 + 1))
+                    .name("零食" + i).description("基准测试零食" + i)
+                    .price(100 + i).stock(1000).salesCount(i)
+                    .coverImage("/files/bussiness/snack_cover/" + i + ".jpg")
+                    .detailImages("[\"/files/bussiness/snack_detail/" + i + "-1.jpg\",\"/files/bussiness/snack_detail/" + i + "-2.jpg\"]")
+                    .status("ON_SALE").createTime(now).updateTime(now)
+                    .build());
+            orders.add(Order.builder()
+                    .id((long) i).orderNo(String.valueOf(1_000_000L + i)).userId(1L).addressId(1L)
+                    .totalAmount(1000 + i).status("COMPLETED").remark("基准测试")
+                    .createTime(now).paymentTime(now).shipTime(now).completeTime(now)
+                    .build());
+            orderItems.add(OrderItem.builder()
+                    .id((long) i).orderId((long) i).snackId((long) i).quantity(2).price(100 + i)
+                    .snackName("零食" + i).snackImage("/files/bussiness/snack_cover/" + i + ".jpg")
+                    .createTime(now)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public void snackListResponse(Blackhole blackhole) {
+        for (Snack snack : snacks) {
+            blackhole.consume(SnackConvert.entityToListResponse(snack, "分类"));
+        }
+    }
+
+    /**
+     * 详情转换包含详情图片的JSON解析
+     */
+    @Benchmark
+    public void snackDetailResponse(Blackhole blackhole) {
+        for (Snack snack : snacks) {
+            blackhole.consume(SnackConvert.entityToResponse(snack, "分类"));
+        }
+    }
+
+    @Benchmark
+    public List<OrderResponseDTO> orderResponseList() {
+        return OrderConvert.convertToResponseDTOList(orders);
+    }
+
+    @Benchmark
+    public List<OrderItemResponseDTO> orderItemResponseList() {
+        return OrderConvert.convertToOrderItemResponseDTOList(orderItems);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.springboot.benchmark;
+
+import org.example.springboot.DTO.response.DashboardStatsResponseDTO;
+import org.example.springboot.service.DashboardStatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 仪表盘统计基准测试
+ * 对比读取内存快照与重新计算全部统计（汇总表查询和实时分组统计）的开销
+ *
+ * 运行方式：mvn -Pbenchmark test-compile exec:exec -Djmh.args="DashboardStatsBenchmark -prof gc"
+ * @author system
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DashboardStatsBenchmark {
+
+    @Param({"1000", "10000"})
+    private int snacks;
+
+    private BenchmarkEnvironment environment;
+
+    private DashboardStatsService dashboardStatsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = BenchmarkEnvironment.start(BenchmarkDataset.ofSnacks(snacks));
+        dashboardStatsService = environment.getBean(DashboardStatsService.class);
+        dashboardStatsService.refreshDashboardStats();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public DashboardStatsResponseDTO snapshot() {
+        return dashboardStatsService.getDashboardStats();
+    }
+
+    @Benchmark
+    public DashboardStatsResponseDTO refresh() {
+        return dashboardStatsService.refreshDashboardStats();
+    }
+}
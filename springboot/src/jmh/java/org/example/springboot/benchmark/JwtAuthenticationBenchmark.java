@@ -0,0 +1,108 @@
+package org.example.springboot.benchmark;
+
+import org.example.springboot.DTO.response.UserDetailResponseDTO;
+import org.example.springboot.config.AuthCacheConfig;
+import org.example.springboot.config.JwtAuthenticationFilter;
+import org.example.springboot.service.UserService;
+import org.example.springboot.util.JwtTokenUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT认证基准测试
+ * 以预先签发的一批token轮流请求，测量认证过滤器在认证主体缓存开启与关闭时的开销，
+ * 并保留原实现（同一token解码四次再查用户）作为对照
+ *
+ * 每次调用都新建模拟请求和过滤器链，这部分分配同样计入结果，对比时看差值
+ *
+ * 运行方式：mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtAuthenticationBenchmark -prof gc"
+ * @author system
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    @Param({"true", "false"})
+    private boolean authCacheEnabled;
+
+    @Param({"100"})
+    private int activeTokens;
+
+    private BenchmarkEnvironment environment;
+
+    private JwtAuthenticationFilter filter;
+
+    private UserService userService;
+
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = BenchmarkEnvironment.start(BenchmarkDataset.ofSnacks(1000));
+        environment.getBean(AuthCacheConfig.class).setEnabled(authCacheEnabled);
+        filter = environment.getBean(JwtAuthenticationFilter.class);
+        userService = environment.getBean(UserService.class);
+
+        int users = environment.dataset().users();
+        tokens = new String[activeTokens];
+        for (int i = 0; i < activeTokens; i++) {
+            long userId = i % users + 1;
+            tokens[i] = JwtTokenUtils.generateToken(userId, "bench_user_" + userId, "USER");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cart/list");
+        request.addHeader("Authorization", "Bearer " + nextToken());
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        return request.getAttribute("currentUserId");
+    }
+
+    /**
+     * 原实现的认证路径：分别解析用户ID、用户名、角色和过期时间，再查询用户
+     */
+    @Benchmark
+    public UserDetailResponseDTO legacyDecode() {
+        String token = nextToken();
+        Long userId = JwtTokenUtils.getUserIdFromToken(token);
+        JwtTokenUtils.getUsernameFromToken(token);
+        JwtTokenUtils.getRoleTypeFromToken(token);
+        if (JwtTokenUtils.isTokenExpired(token)) {
+            return null;
+        }
+        return userService.getUserById(userId);
+    }
+
+    private String nextToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+}
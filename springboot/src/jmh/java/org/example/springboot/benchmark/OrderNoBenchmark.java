@@ -0,0 +1,66 @@
+package org.example.springboot.benchmark;
+
+import cn.hutool.core.util.IdUtil;
+import org.example.springboot.util.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单号生成基准测试
+ * 对比原实现（时间戳 + UUID前缀）与雪花ID生成器的单线程和多线程吞吐
+ *
+ * 运行方式：mvn -Pbenchmark test-compile exec:exec -Djmh.args="OrderNoBenchmark"
+ * @author system
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderNoBenchmark {
+
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, SnowflakeIdGenerator.DEFAULT_EPOCH, 5);
+
+    /**
+     * 原订单号生成方式
+     */
+    @Benchmark
+    public String legacyOrderNo() {
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        String randomId = IdUtil.fastSimpleUUID().substring(0, 6);
+        return "ORDER" + timestamp + randomId.toUpperCase();
+    }
+
+    @Benchmark
+    public String snowflakeOrderNo() {
+        return String.valueOf(generator.nextId());
+    }
+
+    @Benchmark
+    public long snowflakeId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String legacyOrderNoContended() {
+        return legacyOrderNo();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String snowflakeOrderNoContended() {
+        return snowflakeOrderNo();
+    }
+}
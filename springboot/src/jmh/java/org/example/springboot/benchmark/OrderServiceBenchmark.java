@@ -0,0 +1,86 @@
+package org.example.springboot.benchmark;
+
+import org.example.springboot.DTO.command.OrderCreateDTO;
+import org.example.springboot.DTO.response.OrderResponseDTO;
+import org.example.springboot.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 下单基准测试
+ * 随机用户以直接购买方式下单，覆盖库存扣减、订单和订单项写入、订单号生成的完整事务
+ * 只从在售零食中选取，零食库存预置为10亿，测量期间不会因库存不足失败
+ *
+ * 运行方式：mvn -Pbenchmark test-compile exec:exec -Djmh.args="OrderServiceBenchmark -prof gc"
+ * @author system
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    private int snacks;
+
+    private BenchmarkEnvironment environment;
+
+    private OrderService orderService;
+
+    private long[] onSaleSnackIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = BenchmarkEnvironment.start(BenchmarkDataset.ofSnacks(snacks));
+        orderService = environment.getBean(OrderService.class);
+        onSaleSnackIds = environment.getBean(JdbcTemplate.class)
+                .queryForList("SELECT id FROM t_snack WHERE status = 'ON_SALE'", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public OrderResponseDTO createDirectOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // 每个用户的默认地址ID与用户ID相同
+        long userId = random.nextInt(environment.dataset().users()) + 1;
+
+        OrderCreateDTO.DirectOrderItem item = new OrderCreateDTO.DirectOrderItem();
+        item.setSnackId(onSaleSnackIds[random.nextInt(onSaleSnackIds.length)]);
+        item.setQuantity(1);
+
+        OrderCreateDTO createDTO = new OrderCreateDTO();
+        createDTO.setOrderType("DIRECT_ORDER");
+        createDTO.setAddressId(userId);
+        createDTO.setDirectOrderItem(item);
+        return orderService.createOrder(createDTO, userId);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public OrderResponseDTO createDirectOrderContended() {
+        return createDirectOrder();
+    }
+}
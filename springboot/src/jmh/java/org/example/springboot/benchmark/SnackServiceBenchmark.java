@@ -0,0 +1,76 @@
+package org.example.springboot.benchmark;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.example.springboot.DTO.response.SnackListResponseDTO;
+import org.example.springboot.config.CatalogCacheConfig;
+import org.example.springboot.service.SnackService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 前台零食分页基准测试
+ * 分别测量按分类浏览和按名称搜索两条路径，并对比商品缓存开启与关闭
+ *
+ * 运行方式：mvn -Pbenchmark test-compile exec:exec -Djmh.args="SnackServiceBenchmark -prof gc"
+ * @author system
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SnackServiceBenchmark {
+
+    private static final String[] KEYWORDS = {"薯片", "巧克力", "饼干", "坚果"};
+
+    @Param({"1000", "10000"})
+    private int snacks;
+
+    @Param({"true", "false"})
+    private boolean catalogCacheEnabled;
+
+    private BenchmarkEnvironment environment;
+
+    private SnackService snackService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = BenchmarkEnvironment.start(BenchmarkDataset.ofSnacks(snacks));
+        environment.getBean(CatalogCacheConfig.class).setEnabled(catalogCacheEnabled);
+        snackService = environment.getBean(SnackService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public Page<SnackListResponseDTO> browseByCategory() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long categoryId = random.nextInt(environment.dataset().categories()) + 1;
+        return snackService.getFrontendSnackPage((long) random.nextInt(3) + 1, 12L, null, categoryId,
+                null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Page<SnackListResponseDTO> searchByName() {
+        String keyword = KEYWORDS[ThreadLocalRandom.current().nextInt(KEYWORDS.length)];
+        return snackService.getFrontendSnackPage(1L, 12L, keyword, null, "sales_count", "desc", null, null, null);
+    }
+}
@@ -0,0 +1,199 @@
+-- ======================================
+-- 基准测试数据库结构（H2，MySQL兼容模式）
+-- 与 snack_db_2025.sql 及 docs/sql 下各模块脚本保持字段一致，省略外键和注释
+-- ======================================
+
+CREATE ALIAS DATE_FORMAT FOR 'org.example.springboot.support.H2Functions.dateFormat';
+
+CREATE TABLE t_user (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    nickname VARCHAR(255),
+    avatar VARCHAR(500),
+    phone VARCHAR(20),
+    user_type VARCHAR(50) NOT NULL DEFAULT 'USER',
+    status VARCHAR(50) NOT NULL DEFAULT 'ACTIVE',
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE t_category (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    sort_order INT DEFAULT 0,
+    status VARCHAR(50) NOT NULL DEFAULT 'ACTIVE',
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE t_snack (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    category_id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    price INT NOT NULL,
+    stock INT NOT NULL DEFAULT 0,
+    cover_image VARCHAR(500),
+    detail_images VARCHAR(2000),
+    status VARCHAR(50) NOT NULL DEFAULT 'ON_SALE',
+    sales_count INT NOT NULL DEFAULT 0,
+    favorite_count INT NOT NULL DEFAULT 0,
+    review_count INT NOT NULL DEFAULT 0,
+    rating_avg DECIMAL(3,2) NOT NULL DEFAULT 0,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_snack_category_id ON t_snack(category_id);
+CREATE INDEX idx_snack_status ON t_snack(status);
+CREATE INDEX idx_snack_status_create_time ON t_snack(status, create_time, id);
+
+CREATE TABLE t_address (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    consignee_name VARCHAR(100) NOT NULL,
+    phone VARCHAR(20) NOT NULL,
+    province VARCHAR(100),
+    city VARCHAR(100),
+    district VARCHAR(100),
+    detailed_address VARCHAR(255) NOT NULL,
+    is_default TINYINT NOT NULL DEFAULT 0,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_address_user_id ON t_address(user_id);
+
+CREATE TABLE t_cart (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    snack_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_user_snack UNIQUE (user_id, snack_id)
+);
+CREATE INDEX idx_cart_user_id ON t_cart(user_id);
+
+CREATE TABLE t_order (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_no VARCHAR(100) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL,
+    address_id BIGINT NOT NULL,
+    total_amount INT NOT NULL,
+    status VARCHAR(50) NOT NULL DEFAULT 'UNPAID',
+    remark VARCHAR(500),
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    payment_time TIMESTAMP,
+    ship_time TIMESTAMP,
+    complete_time TIMESTAMP,
+    cancel_time TIMESTAMP
+);
+CREATE INDEX idx_order_user_id ON t_order(user_id);
+CREATE INDEX idx_order_status ON t_order(status);
+CREATE INDEX idx_order_create_time ON t_order(create_time);
+CREATE INDEX idx_order_user_create_time ON t_order(user_id, create_time, id);
+
+CREATE TABLE t_order_item (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    snack_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    price INT NOT NULL,
+    snack_name VARCHAR(255) NOT NULL,
+    snack_image VARCHAR(500),
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_order_item_order_id ON t_order_item(order_id);
+CREATE INDEX idx_order_item_snack_id ON t_order_item(snack_id);
+
+CREATE TABLE t_favorite (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    snack_id BIGINT NOT NULL,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_favorite_user_id ON t_favorite(user_id);
+
+CREATE TABLE t_review (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    snack_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    rating INT NOT NULL DEFAULT 5,
+    content VARCHAR(1000) NOT NULL,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_review_snack ON t_review(snack_id);
+
+CREATE TABLE t_review_summary (
+    snack_id BIGINT PRIMARY KEY,
+    review_count INT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    rating_1 INT NOT NULL DEFAULT 0,
+    rating_2 INT NOT NULL DEFAULT 0,
+    rating_3 INT NOT NULL DEFAULT 0,
+    rating_4 INT NOT NULL DEFAULT 0,
+    rating_5 INT NOT NULL DEFAULT 0,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE t_carousel (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(255),
+    jump_type VARCHAR(32) DEFAULT 'URL',
+    jump_target VARCHAR(512),
+    sort_order INT NOT NULL DEFAULT 0,
+    status VARCHAR(16) NOT NULL DEFAULT 'ENABLED',
+    start_time TIMESTAMP,
+    end_time TIMESTAMP,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE sys_file_info (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    original_name VARCHAR(255) NOT NULL,
+    file_path VARCHAR(500) NOT NULL,
+    file_size BIGINT NOT NULL,
+    file_type VARCHAR(20) NOT NULL,
+    business_type VARCHAR(50) NOT NULL,
+    business_id VARCHAR(255) NOT NULL,
+    business_field VARCHAR(50),
+    upload_user_id BIGINT,
+    is_temp TINYINT DEFAULT 0,
+    status TINYINT DEFAULT 1,
+    create_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expire_time TIMESTAMP
+);
+
+CREATE TABLE t_stock_ledger (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    snack_id BIGINT NOT NULL,
+    delta INT NOT NULL,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE t_stats_daily (
+    stat_date DATE PRIMARY KEY,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    order_amount BIGINT NOT NULL DEFAULT 0,
+    completed_orders BIGINT NOT NULL DEFAULT 0,
+    new_users BIGINT NOT NULL DEFAULT 0,
+    new_favorites BIGINT NOT NULL DEFAULT 0,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE t_stats_monthly (
+    stat_month CHAR(7) PRIMARY KEY,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    order_amount BIGINT NOT NULL DEFAULT 0,
+    completed_orders BIGINT NOT NULL DEFAULT 0,
+    new_users BIGINT NOT NULL DEFAULT 0,
+    new_favorites BIGINT NOT NULL DEFAULT 0,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE t_stats_category_sales (
+    category_id BIGINT PRIMARY KEY,
+    sales_count BIGINT NOT NULL DEFAULT 0,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
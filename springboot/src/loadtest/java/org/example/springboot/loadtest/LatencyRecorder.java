@@ -0,0 +1,113 @@
+package org.example.springboot.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按接口记录请求耗时和错误数
+ * 预热结束时调用 reset 丢弃已有记录；耗时保留全部样本，结束后排序计算分位数
+ * @author system
+ */
+final class LatencyRecorder {
+
+    private final Map<String, EndpointSamples> endpoints = new ConcurrentHashMap<>();
+
+    private volatile long startedAt = System.nanoTime();
+
+    void record(String endpoint, long latencyNanos, boolean success) {
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointSamples()).add(latencyNanos, success);
+    }
+
+    void reset() {
+        endpoints.clear();
+        startedAt = System.nanoTime();
+    }
+
+    /**
+     * 汇总结果
+     * @return 总请求数、实际速率、错误率及各接口的分位数耗时（毫秒）
+     */
+    Map<String, Object> summarize() {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        long total = 0;
+        long errors = 0;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (String endpoint : endpoints.keySet().stream().sorted().toList()) {
+            EndpointSamples samples = endpoints.get(endpoint);
+            long[] latencies = samples.snapshot();
+            Arrays.sort(latencies);
+            long endpointErrors = samples.errors();
+            total += latencies.length;
+            errors += endpointErrors;
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint);
+            row.put("count", latencies.length);
+            row.put("errors", endpointErrors);
+            row.put("errorRate", rate(endpointErrors, latencies.length));
+            row.put("rps", round(latencies.length / seconds));
+            row.put("meanMs", round(Arrays.stream(latencies).average().orElse(0) / 1e6));
+            row.put("p50Ms", percentile(latencies, 0.50));
+            row.put("p90Ms", percentile(latencies, 0.90));
+            row.put("p99Ms", percentile(latencies, 0.99));
+            row.put("maxMs", latencies.length == 0 ? 0 : round(latencies[latencies.length - 1] / 1e6));
+            rows.add(row);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("measuredSeconds", round(seconds));
+        summary.put("totalRequests", total);
+        summary.put("achievedRps", round(total / seconds));
+        summary.put("errors", errors);
+        summary.put("errorRate", rate(errors, total));
+        summary.put("endpoints", rows);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return round(sorted[Math.max(index, 0)] / 1e6);
+    }
+
+    private static double rate(long errors, long total) {
+        return total == 0 ? 0 : Math.round(errors * 10000.0 / total) / 10000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static final class EndpointSamples {
+
+        private long[] latencies = new long[1024];
+
+        private int size;
+
+        private long errors;
+
+        synchronized void add(long latencyNanos, boolean success) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(latencies, size);
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.springboot.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.springboot.benchmark.BenchmarkDataset;
+import org.example.springboot.benchmark.BenchmarkEnvironment;
+import org.example.springboot.util.JwtTokenUtils;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 商城端到端压测
+ *
+ * 以 H2 内存库启动完整应用（含内嵌 Web 服务器），按数据集规模填充数据后，
+ * 由一组虚拟用户经 HTTP 模拟浏览、加购、下单、支付、收货和评价，全部接口合计速率受节拍器限制
+ * 预热结束后开始计入结果，结束时按接口输出 p50/p90/p99 耗时和错误率，并写入 JSON 结果文件
+ *
+ * 压测客户端与被测应用运行在同一进程，结果包含客户端自身的开销，适合同一机器上的前后对比；
+ * 实际速率明显低于目标速率时说明虚拟用户数不足或应用已饱和
+ *
+ * 运行方式：mvn -Pbenchmark test-compile exec:exec@loadtest -Dloadtest.args="--rps=100 --duration=120 --vus=50"
+ * @author system
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        // 每个虚拟用户独占一个顾客账号，1号用户为管理员负责发货
+        BenchmarkDataset base = BenchmarkDataset.ofSnacks(options.snacks());
+        BenchmarkDataset dataset = new BenchmarkDataset(Math.max(base.users(), options.vus() + 1), base.categories(),
+                base.snacks(), base.ordersPerUser(), base.itemsPerOrder(), base.cartItemsPerUser());
+
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.main.web-application-type=servlet",
+                "server.port=0"));
+        if (options.redis() != null) {
+            String[] address = options.redis().split(":");
+            properties.add("spring.data.redis.host=" + address[0]);
+            properties.add("spring.data.redis.port=" + (address.length > 1 ? address[1] : "6379"));
+            properties.add("catalog.cache.redis-enabled=true");
+            properties.add("auth.cache.broadcast-enabled=true");
+            properties.add("auth.revocation.broadcast-enabled=true");
+            properties.add("purchase.cache.broadcast-enabled=true");
+        }
+
+        System.out.println("启动应用，数据集: " + dataset);
+        Map<String, Object> summary;
+        try (BenchmarkEnvironment environment = BenchmarkEnvironment.start(dataset, properties.toArray(String[]::new))) {
+            String baseUrl = "http://localhost:" + environment.getProperty("local.server.port");
+            LatencyRecorder recorder = new LatencyRecorder();
+            StorefrontClient client = new StorefrontClient(baseUrl, new RequestPacer(options.rps()), recorder);
+            String adminToken = JwtTokenUtils.generateToken(1L, "bench_user_1", "ADMIN");
+
+            List<VirtualUser> users = new ArrayList<>();
+            for (long userId = 2; userId <= options.vus() + 1; userId++) {
+                String token = JwtTokenUtils.generateToken(userId, "bench_user_" + userId, "USER");
+                // 每个用户的默认地址ID与用户ID相同
+                users.add(new VirtualUser(client, options, dataset.categories(), userId, token, adminToken));
+            }
+
+            AtomicInteger threadIndex = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(options.vus(),
+                    r -> new Thread(r, "loadtest-vu-" + threadIndex.incrementAndGet()));
+            users.forEach(executor::submit);
+
+            System.out.printf("预热%d秒，压测%d秒，目标速率%d/s，虚拟用户%d个%n",
+                    options.warmup(), options.duration(), options.rps(), options.vus());
+            TimeUnit.SECONDS.sleep(options.warmup());
+            recorder.reset();
+            TimeUnit.SECONDS.sleep(options.duration());
+            summary = recorder.summarize();
+
+            users.forEach(VirtualUser::stop);
+            executor.shutdownNow();
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.out.println("部分虚拟用户未在30秒内结束");
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", LocalDateTime.now().toString());
+        report.put("options", options.toMap());
+        report.putAll(summary);
+
+        File output = new File(options.output());
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, report);
+        print(summary);
+        System.out.println("结果已写入: " + output.getAbsolutePath());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> summary) {
+        System.out.printf("%-36s %8s %8s %8s %10s %10s %10s%n", "接口", "请求数", "错误率", "速率", "p50(ms)", "p99(ms)", "max(ms)");
+        for (Map<String, Object> row : (List<Map<String, Object>>) summary.get("endpoints")) {
+            System.out.printf("%-36s %8s %8s %8s %10s %10s %10s%n", row.get("endpoint"), row.get("count"),
+                    row.get("errorRate"), row.get("rps"), row.get("p50Ms"), row.get("p99Ms"), row.get("maxMs"));
+        }
+        System.out.printf("合计: %s 个请求，实际速率 %s/s，错误率 %s%n",
+                summary.get("totalRequests"), summary.get("achievedRps"), summary.get("errorRate"));
+    }
+}
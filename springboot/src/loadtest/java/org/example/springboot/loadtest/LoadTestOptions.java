@@ -0,0 +1,80 @@
+package org.example.springboot.loadtest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 压测参数
+ *
+ * 命令行格式为 --key=value，未指定的使用默认值：
+ * - rps: 目标请求速率（全部接口合计），默认50
+ * - duration: 计入结果的压测时长（秒），默认60
+ * - warmup: 预热时长（秒），期间的请求不计入结果，默认10
+ * - vus: 虚拟用户数，每个虚拟用户独占一个顾客账号，默认20
+ * - snacks: 零食数，其余数据规模按比例推导，默认1000
+ * - think-time: 两次操作之间的平均思考时间（毫秒），按指数分布随机，默认500
+ * - cart-rate: 浏览后加入购物车的比例，默认0.5
+ * - checkout-rate: 加购后下单并完成支付、发货、收货的比例，默认0.6
+ * - review-rate: 收货后发表评价的比例，默认0.5
+ * - redis: Redis 地址（host:port），指定后开启二级缓存和跨节点广播，默认不连接 Redis
+ * - output: 结果文件路径，默认 target/loadtest/report.json
+ * @author system
+ */
+public record LoadTestOptions(int rps, int duration, int warmup, int vus, int snacks, long thinkTime,
+                              double cartRate, double checkoutRate, double reviewRate,
+                              String redis, String output) {
+
+    /**
+     * 解析命令行参数
+     * @param args 命令行参数
+     * @return 压测参数
+     * @throws IllegalArgumentException 参数格式错误或取值非法
+     */
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --key=value: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("rps", "50")),
+                Integer.parseInt(values.getOrDefault("duration", "60")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Integer.parseInt(values.getOrDefault("vus", "20")),
+                Integer.parseInt(values.getOrDefault("snacks", "1000")),
+                Long.parseLong(values.getOrDefault("think-time", "500")),
+                Double.parseDouble(values.getOrDefault("cart-rate", "0.5")),
+                Double.parseDouble(values.getOrDefault("checkout-rate", "0.6")),
+                Double.parseDouble(values.getOrDefault("review-rate", "0.5")),
+                values.get("redis"),
+                values.getOrDefault("output", "target/loadtest/report.json"));
+        if (options.rps() <= 0 || options.duration() <= 0 || options.vus() <= 0 || options.snacks() <= 0) {
+            throw new IllegalArgumentException("rps、duration、vus、snacks 必须大于0");
+        }
+        return options;
+    }
+
+    /**
+     * 写入结果文件的参数快照
+     * @return 参数名 -> 参数值
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("rps", rps);
+        map.put("duration", duration);
+        map.put("warmup", warmup);
+        map.put("vus", vus);
+        map.put("snacks", snacks);
+        map.put("thinkTime", thinkTime);
+        map.put("cartRate", cartRate);
+        map.put("checkoutRate", checkoutRate);
+        map.put("reviewRate", reviewRate);
+        map.put("redis", redis);
+        return map;
+    }
+}
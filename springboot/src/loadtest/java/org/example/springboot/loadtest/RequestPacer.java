@@ -0,0 +1,34 @@
+package org.example.springboot.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 全局请求节拍器
+ * 按目标速率为每个请求分配发送时刻，所有虚拟用户共用，合计速率不超过目标值
+ * 虚拟用户都在思考时不会积压发送时刻，恢复后不会突发补发
+ * @author system
+ */
+final class RequestPacer {
+
+    private final long intervalNanos;
+
+    private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+
+    RequestPacer(int rps) {
+        this.intervalNanos = 1_000_000_000L / rps;
+    }
+
+    /**
+     * 等待到分配的发送时刻
+     */
+    void acquire() {
+        long now = System.nanoTime();
+        long slot = Math.max(nextSlot.getAndAccumulate(now, (next, current) -> Math.max(next, current) + intervalNanos), now);
+        long wait = slot - now;
+        while (wait > 0) {
+            LockSupport.parkNanos(wait);
+            wait = slot - System.nanoTime();
+        }
+    }
+}
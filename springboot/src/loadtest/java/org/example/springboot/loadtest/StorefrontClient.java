@@ -0,0 +1,97 @@
+package org.example.springboot.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.springboot.common.ResultCode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * 商城接口客户端
+ * 每次请求先经节拍器限速，再记录从发送到收到完整响应的耗时；
+ * HTTP 状态非200、业务码非成功或请求异常都计为错误
+ * @author system
+ */
+final class StorefrontClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+
+    private final RequestPacer pacer;
+
+    private final LatencyRecorder recorder;
+
+    StorefrontClient(String baseUrl, RequestPacer pacer, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.pacer = pacer;
+        this.recorder = recorder;
+    }
+
+    JsonNode get(String endpoint, String path, String token) {
+        return send(endpoint, "GET", path, null, token);
+    }
+
+    JsonNode post(String endpoint, String path, Object body, String token) {
+        return send(endpoint, "POST", path, body, token);
+    }
+
+    JsonNode put(String endpoint, String path, String token) {
+        return send(endpoint, "PUT", path, null, token);
+    }
+
+    /**
+     * 发送请求
+     * @param endpoint 结果中的接口名，路径参数用占位符表示
+     * @param method HTTP方法
+     * @param path 请求路径
+     * @param body 请求体，为空时不发送
+     * @param token 访问令牌，为空时匿名访问
+     * @return 响应中的 data 节点，失败返回null
+     */
+    private JsonNode send(String endpoint, String method, String path, Object body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        try {
+            if (body != null) {
+                builder.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } else {
+                builder.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("请求体序列化失败: " + endpoint, e);
+        }
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+
+        pacer.acquire();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            long latency = System.nanoTime() - start;
+            JsonNode result = response.statusCode() == 200 ? objectMapper.readTree(response.body()) : null;
+            boolean success = result != null && ResultCode.SUCCESS.getCode().equals(result.path("code").asText());
+            recorder.record(endpoint, latency, success);
+            return success ? result.path("data") : null;
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.springboot.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 虚拟用户，循环执行一次完整的购物会话直到压测结束：
+ * 1. 浏览：按分类或关键词翻阅1-3页商品列表，查看其中一个商品详情
+ * 2. 加购：按比例把该商品加入购物车并查看购物车
+ * 3. 结算：按比例从购物车下单、支付，由管理员发货后确认收货
+ * 4. 评价：按比例校验可评价后发表评价
+ * 任一步失败即结束本次会话，两次操作之间按指数分布随机思考
+ * @author system
+ */
+final class VirtualUser implements Runnable {
+
+    private static final String[] KEYWORDS = {"薯片", "饼干", "牛肉干", "坚果", "果冻", "巧克力", "辣条", "瓜子"};
+
+    private final StorefrontClient client;
+
+    private final LoadTestOptions options;
+
+    private final int categories;
+
+    private final long addressId;
+
+    private final String token;
+
+    private final String adminToken;
+
+    private volatile boolean running = true;
+
+    VirtualUser(StorefrontClient client, LoadTestOptions options, int categories,
+                long addressId, String token, String adminToken) {
+        this.client = client;
+        this.options = options;
+        this.categories = categories;
+        this.addressId = addressId;
+        this.token = token;
+        this.adminToken = adminToken;
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            runSession();
+        }
+    }
+
+    private void runSession() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        Long snackId = null;
+        int pages = 1 + random.nextInt(3);
+        for (int page = 1; page <= pages && running; page++) {
+            String query = random.nextBoolean()
+                    ? "categoryId=" + (1 + random.nextInt(categories))
+                    : "name=" + URLEncoder.encode(KEYWORDS[random.nextInt(KEYWORDS.length)], StandardCharsets.UTF_8);
+            JsonNode records = client.get("GET /api/snack/frontend/page",
+                    "/api/snack/frontend/page?current=" + page + "&size=12&" + query, token);
+            if (records != null && records.path("records").size() > 0) {
+                JsonNode picked = records.path("records").get(random.nextInt(records.path("records").size()));
+                snackId = picked.path("id").asLong();
+            }
+            think();
+        }
+        if (snackId == null || !running) {
+            return;
+        }
+        if (client.get("GET /api/snack/{id}", "/api/snack/" + snackId, token) == null) {
+            return;
+        }
+        think();
+
+        if (random.nextDouble() >= options.cartRate()) {
+            return;
+        }
+        JsonNode cartItem = client.post("POST /api/cart/add", "/api/cart/add",
+                Map.of("snackId", snackId, "quantity", 1 + random.nextInt(2)), token);
+        if (cartItem == null) {
+            return;
+        }
+        client.get("GET /api/cart/list", "/api/cart/list", token);
+        think();
+
+        if (random.nextDouble() >= options.checkoutRate() || !running) {
+            return;
+        }
+        JsonNode order = client.post("POST /api/order/create", "/api/order/create", Map.of(
+                "orderType", "CART_ORDER",
+                "addressId", addressId,
+                "cartItemIds", List.of(cartItem.path("id").asLong())), token);
+        if (order == null) {
+            return;
+        }
+        long orderId = order.path("id").asLong();
+        think();
+        if (client.put("PUT /api/order/{id}/pay", "/api/order/" + orderId + "/pay", token) == null) {
+            return;
+        }
+        if (client.put("PUT /api/order/admin/{id}/ship", "/api/order/admin/" + orderId + "/ship", adminToken) == null) {
+            return;
+        }
+        think();
+        if (client.put("PUT /api/order/{id}/complete", "/api/order/" + orderId + "/complete", token) == null) {
+            return;
+        }
+
+        if (random.nextDouble() >= options.reviewRate() || !running) {
+            return;
+        }
+        think();
+        JsonNode canReview = client.get("GET /api/review/can-review", "/api/review/can-review?snackId=" + snackId, token);
+        if (canReview != null && canReview.asBoolean()) {
+            client.post("POST /api/review/create", "/api/review/create", Map.of(
+                    "snackId", snackId,
+                    "rating", 1 + random.nextInt(5),
+                    "content", "压测评价"), token);
+        }
+        think();
+    }
+
+    private void think() {
+        if (options.thinkTime() <= 0) {
+            return;
+        }
+        // 指数分布，截断在平均值的4倍以内
+        double sample = -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * options.thinkTime();
+        try {
+            Thread.sleep((long) Math.min(sample, options.thinkTime() * 4.0));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.springboot.DTO.command;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * 刷新令牌命令DTO
+ * @author system
+ */
+@Data
+@Schema(description = "刷新令牌命令")
+public class TokenRefreshCommandDTO {
+
+    @Schema(description = "刷新令牌")
+    @NotBlank(message = "刷新令牌不能为空")
+    private String refreshToken;
+}
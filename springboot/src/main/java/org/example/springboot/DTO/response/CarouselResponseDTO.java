@@ -17,6 +17,7 @@ public class CarouselResponseDTO {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private String imageUrl; // 关联图片访问路径（从文件中心查询）
+    private String bannerUrl; // 按轮播展示宽度缩放的衍生图路径，首页轮播使用
 }
 
 
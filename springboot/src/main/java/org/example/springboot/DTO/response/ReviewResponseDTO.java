@@ -29,6 +29,9 @@ public class ReviewResponseDTO {
 
     @Schema(description = "图片列表URL")
     private List<String> images;
+
+    @Schema(description = "图片缩略图URL，与 images 一一对应，列表展示使用")
+    private List<String> imageThumbnails;
 }
 
 
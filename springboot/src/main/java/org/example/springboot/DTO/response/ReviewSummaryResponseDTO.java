@@ -0,0 +1,34 @@
+package org.example.springboot.DTO.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 零食评价汇总响应DTO
+ * @author system
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "零食评价汇总响应")
+public class ReviewSummaryResponseDTO {
+
+    @Schema(description = "零食ID", example = "1")
+    private Long snackId;
+
+    @Schema(description = "评价数", example = "12")
+    private Integer reviewCount;
+
+    @Schema(description = "平均评分，无评价时为空", example = "4.58")
+    private BigDecimal averageRating;
+
+    @Schema(description = "各星级评价数，依次为1星到5星", example = "[0, 0, 1, 3, 8]")
+    private List<Integer> ratingCounts;
+}
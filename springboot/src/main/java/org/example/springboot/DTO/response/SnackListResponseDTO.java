@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
  * @author system
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "零食列表响应")
@@ -44,6 +44,9 @@ public class SnackListResponseDTO {
     @Schema(description = "封面图片URL", example = "/files/snack/cover/1.jpg")
     private String coverImage;
 
+    @Schema(description = "封面缩略图URL，列表页使用", example = "/files/snack/cover/1.jpg?w=320")
+    private String coverThumbnail;
+
     @Schema(description = "零食状态", example = "ON_SALE")
     private String status;
 
@@ -53,6 +56,12 @@ public class SnackListResponseDTO {
     @Schema(description = "销售数量", example = "0")
     private Integer salesCount;
 
+    @Schema(description = "评价数", example = "12")
+    private Integer reviewCount;
+
+    @Schema(description = "平均评分，无评价时为空", example = "4.58")
+    private BigDecimal averageRating;
+
     @Schema(description = "创建时间")
     private LocalDateTime createTime;
 
@@ -15,7 +15,7 @@ import java.util.List;
  * @author system
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "零食响应")
@@ -57,6 +57,9 @@ public class SnackResponseDTO {
     @Schema(description = "销售数量", example = "0")
     private Integer salesCount;
 
+    @Schema(description = "评价汇总")
+    private ReviewSummaryResponseDTO reviewSummary;
+
     @Schema(description = "创建时间")
     private LocalDateTime createTime;
 
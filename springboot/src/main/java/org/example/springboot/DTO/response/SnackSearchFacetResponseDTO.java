@@ -0,0 +1,71 @@
+package org.example.springboot.DTO.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 零食搜索分面统计响应DTO
+ * @author system
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "零食搜索分面统计响应")
+public class SnackSearchFacetResponseDTO {
+
+    @Schema(description = "命中总数", example = "36")
+    private Long total;
+
+    @Schema(description = "按分类统计")
+    private List<CategoryFacet> categories;
+
+    @Schema(description = "按价格区间统计")
+    private List<PriceFacet> priceRanges;
+
+    /**
+     * 分类分面
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "分类分面")
+    public static class CategoryFacet {
+
+        @Schema(description = "分类ID", example = "1")
+        private Long categoryId;
+
+        @Schema(description = "分类名称", example = "膨化食品")
+        private String categoryName;
+
+        @Schema(description = "命中数量", example = "12")
+        private Long count;
+    }
+
+    /**
+     * 价格区间分面
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "价格区间分面")
+    public static class PriceFacet {
+
+        @Schema(description = "最低价格（元，含）", example = "10.00")
+        private BigDecimal minPrice;
+
+        @Schema(description = "最高价格（元，不含），为空表示不设上限", example = "20.00")
+        private BigDecimal maxPrice;
+
+        @Schema(description = "命中数量", example = "8")
+        private Long count;
+    }
+}
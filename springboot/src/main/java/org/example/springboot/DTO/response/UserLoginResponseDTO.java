@@ -23,6 +23,9 @@ public class UserLoginResponseDTO {
     @Schema(description = "访问令牌")
     private String token;
 
+    @Schema(description = "刷新令牌，用于换取新的访问令牌，每次使用后轮换")
+    private String refreshToken;
+
     @Schema(description = "角色代码")
     private String roleType;
 
@@ -0,0 +1,37 @@
+package org.example.springboot.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * 按 (创建时间, ID) 倒序翻页，下一页携带 nextCursor 请求，翻页耗时与页码深度无关
+ * @author system
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "游标分页结果")
+public class CursorPage<T> {
+
+    @Schema(description = "当前页数据")
+    private List<T> records;
+
+    @Schema(description = "每页大小", example = "10")
+    private Integer size;
+
+    @Schema(description = "下一页游标，没有更多数据时为空")
+    private String nextCursor;
+
+    @Schema(description = "是否还有更多数据", example = "true")
+    private Boolean hasMore;
+
+    @Schema(description = "总记录数，仅在请求时指定 withTotal=true 才统计")
+    private Long total;
+}
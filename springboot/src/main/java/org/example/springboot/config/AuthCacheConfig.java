@@ -0,0 +1,45 @@
+package org.example.springboot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 认证主体缓存配置类
+ *
+ * 配置项：
+ * - auth.cache.enabled: 是否缓存已验证的认证主体
+ * - auth.cache.max-size: 最大缓存条目数（按token计）
+ * - auth.cache.ttl: 缓存过期时间（毫秒），不会超过token本身的过期时间
+ * - auth.cache.broadcast-enabled: 是否通过 Redis 向其他节点广播用户失效通知
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "auth.cache")
+public class AuthCacheConfig {
+
+    /**
+     * 用户失效广播频道
+     */
+    public static final String EVICT_CHANNEL = "auth:principal:evict";
+
+    /**
+     * 是否启用缓存
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 最大缓存条目数
+     */
+    private Integer maxSize = 10000;
+
+    /**
+     * 缓存过期时间（毫秒），默认60秒
+     */
+    private Long ttl = 60000L;
+
+    /**
+     * 是否广播用户失效通知
+     */
+    private Boolean broadcastEnabled = true;
+}
@@ -0,0 +1,68 @@
+package org.example.springboot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 商品目录缓存配置类
+ *
+ * 配置项：
+ * - catalog.cache.enabled: 是否启用商品目录缓存
+ * - catalog.cache.redis-enabled: 是否启用 Redis 二级缓存及跨节点失效广播
+ * - catalog.cache.local-max-size: 本地一级缓存最大条目数（详情、列表各自独立计数）
+ * - catalog.cache.local-ttl: 本地一级缓存过期时间（毫秒）
+ * - catalog.cache.redis-ttl: Redis 二级缓存过期时间（毫秒）
+ * - catalog.cache.redis-retry-interval: Redis 访问失败后暂停使用二级缓存的时长（毫秒）
+ * - catalog.cache.category-refresh-interval: 分类字典兜底重新加载间隔（毫秒），防止错过变更通知
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "catalog.cache")
+public class CatalogCacheConfig {
+
+    /**
+     * 失效广播频道
+     */
+    public static final String INVALIDATE_CHANNEL = "catalog:cache:invalidate";
+
+    /**
+     * 分类字典变更广播频道
+     */
+    public static final String CATEGORY_CHANNEL = "catalog:category:changed";
+
+    /**
+     * 是否启用缓存
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 是否启用 Redis 二级缓存
+     */
+    private Boolean redisEnabled = true;
+
+    /**
+     * 本地缓存最大条目数
+     */
+    private Integer localMaxSize = 1000;
+
+    /**
+     * 本地缓存过期时间（毫秒），默认30秒
+     */
+    private Long localTtl = 30000L;
+
+    /**
+     * Redis 缓存过期时间（毫秒），默认10分钟
+     */
+    private Long redisTtl = 600000L;
+
+    /**
+     * Redis 访问失败后的重试间隔（毫秒），期间直接查库
+     */
+    private Long redisRetryInterval = 30000L;
+
+    /**
+     * 分类字典兜底重新加载间隔（毫秒），默认5分钟
+     */
+    private Long categoryRefreshInterval = 300000L;
+}
@@ -0,0 +1,40 @@
+package org.example.springboot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 仪表板统计缓存配置类
+ *
+ * 配置项：
+ * - dashboard.refresh-interval: 后台刷新快照的间隔（毫秒），超过该时长的快照在请求时触发异步刷新
+ * - dashboard.max-staleness: 快照最大容忍时长（毫秒），超过后请求线程同步重算
+ * - dashboard.pool-size: 并行计算统计区块的线程数，每个线程占用一个数据库连接
+ * - dashboard.repair-interval: 统计汇总增量更新失败后，定时检查并全量重建的间隔（毫秒）
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "dashboard")
+public class DashboardConfig {
+
+    /**
+     * 后台刷新间隔（毫秒），默认30秒
+     */
+    private Long refreshInterval = 30000L;
+
+    /**
+     * 快照最大容忍时长（毫秒），默认5分钟
+     */
+    private Long maxStaleness = 300000L;
+
+    /**
+     * 统计计算线程数
+     */
+    private Integer poolSize = 4;
+
+    /**
+     * 汇总修复检查间隔（毫秒），默认1分钟
+     */
+    private Long repairInterval = 60000L;
+}
@@ -0,0 +1,53 @@
+package org.example.springboot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 文件清理配置类
+ *
+ * 配置项：
+ * - file.cleanup.temp-cron: 清理过期临时文件和孤立文件的执行时间
+ * - file.cleanup.monitor-cron: 文件存储监控的执行时间
+ * - file.cleanup.batch-size: 每批删除的记录数和每批核对的磁盘文件数
+ * - file.cleanup.orphan-grace-period: 孤立文件的最短存在时间（毫秒），更新的文件可能属于尚未提交的上传，不处理
+ * - file.cleanup.delete-legacy-orphans: 是否删除非内容寻址目录下的孤立文件
+ *   这些文件可能被业务表直接引用（如初始化数据中的图片），默认只统计不删除
+ * - file.cleanup.disk-warn-free-ratio: 磁盘可用空间低于该比例时告警
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "file.cleanup")
+public class FileCleanupConfig {
+
+    /**
+     * 清理任务 cron 表达式
+     */
+    private String tempCron = "0 0 3 * * ?";
+
+    /**
+     * 监控任务 cron 表达式
+     */
+    private String monitorCron = "0 0 8 * * ?";
+
+    /**
+     * 每批处理数量
+     */
+    private Integer batchSize = 500;
+
+    /**
+     * 孤立文件宽限期（毫秒）
+     */
+    private Long orphanGracePeriod = 86400000L;
+
+    /**
+     * 是否删除非内容寻址的孤立文件
+     */
+    private Boolean deleteLegacyOrphans = false;
+
+    /**
+     * 磁盘可用空间告警比例
+     */
+    private Double diskWarnFreeRatio = 0.1;
+}
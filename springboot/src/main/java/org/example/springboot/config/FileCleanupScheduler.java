@@ -1,14 +1,16 @@
 package org.example.springboot.config;
 
 import lombok.extern.slf4j.Slf4j;
-import org.example.springboot.service.FileService;
+import org.example.springboot.service.storage.FileStorageMaintenanceService;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.Resource;
+import java.util.Map;
 
 /**
  * 文件清理定时任务
+ * 执行时间见 file.cleanup.temp-cron / file.cleanup.monitor-cron
  * @author system
  */
 @Slf4j
@@ -16,20 +18,21 @@ import jakarta.annotation.Resource;
 public class FileCleanupScheduler {
 
     @Resource
-    private FileService sysFileInfoService;
+    private FileStorageMaintenanceService fileStorageMaintenanceService;
 
     /**
-     * 清理过期临时文件
-     * 每天凌晨3点执行
+     * 清理过期临时文件和孤立文件
+     * 默认每天凌晨3点执行
      */
-    @Scheduled(cron = "0 0 3 * * ?")
+    @Scheduled(cron = "${file.cleanup.temp-cron:0 0 3 * * ?}")
     public void cleanupExpiredTempFiles() {
         try {
             log.info("开始执行定时清理过期临时文件任务");
             
-            int cleanupCount = sysFileInfoService.cleanupExpiredTempFiles();
+            int cleanupCount = fileStorageMaintenanceService.cleanupExpiredTempFiles();
+            int orphanCount = fileStorageMaintenanceService.cleanupOrphanFiles();
             
-            log.info("定时清理过期临时文件任务完成，清理数量: {}", cleanupCount);
+            log.info("定时清理过期临时文件任务完成，清理数量: {}，删除孤立文件: {}", cleanupCount, orphanCount);
             
         } catch (Exception e) {
             log.error("定时清理过期临时文件任务执行失败", e);
@@ -38,23 +41,19 @@ public class FileCleanupScheduler {
 
     /**
      * 文件存储监控
-     * 每天上午8点执行
+     * 默认每天上午8点执行
      */
-    @Scheduled(cron = "0 0 8 * * ?")
+    @Scheduled(cron = "${file.cleanup.monitor-cron:0 0 8 * * ?}")
     public void monitorFileStorage() {
         try {
             log.info("开始执行文件存储监控任务");
             
-            // TODO: 实现文件存储监控逻辑
-            // 1. 统计文件总数
-            // 2. 统计存储空间使用情况
-            // 3. 检查孤立文件
-            // 4. 生成监控报告
+            Map<String, Object> report = fileStorageMaintenanceService.monitorStorage();
             
-            log.info("文件存储监控任务完成");
+            log.info("文件存储监控任务完成，报告: {}", report);
             
         } catch (Exception e) {
             log.error("文件存储监控任务执行失败", e);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package org.example.springboot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 文件访问配置类
+ *
+ * 配置项：
+ * - file.serving.sendfile-enabled: 容器支持时是否交给 Tomcat sendfile 直接从内核发送文件
+ * - file.serving.cache-max-age: 非内容寻址文件的缓存时间（秒），过期后凭 ETag 协商
+ *
+ * 内容寻址文件（/files/cas/**）的路径即内容哈希，始终按不可变资源缓存一年
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "file.serving")
+public class FileServingConfig {
+
+    /**
+     * 是否启用 sendfile
+     */
+    private Boolean sendfileEnabled = true;
+
+    /**
+     * 非内容寻址文件缓存时间（秒）
+     */
+    private Long cacheMaxAge = 86400L;
+}
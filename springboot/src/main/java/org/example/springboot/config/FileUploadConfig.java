@@ -0,0 +1,30 @@
+package org.example.springboot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 文件上传配置类
+ *
+ * 配置项：
+ * - file.upload.batch-threads: 批量上传时并行校验和保存文件的线程数
+ * - file.upload.batch-queue-capacity: 等待保存的文件上限，队列满时由请求线程自己保存，形成背压
+ *
+ * 上传目录和大小上限见 file.upload.path / file.upload.maxSize
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "file.upload")
+public class FileUploadConfig {
+
+    /**
+     * 批量上传线程数
+     */
+    private Integer batchThreads = 4;
+
+    /**
+     * 批量上传任务队列容量
+     */
+    private Integer batchQueueCapacity = 32;
+}
@@ -0,0 +1,66 @@
+package org.example.springboot.config;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.util.SnowflakeIdGenerator;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+
+/**
+ * ID生成器配置类
+ *
+ * 配置项：
+ * - id-generator.node-id: 节点ID（0-1023），多实例部署时必须逐台配置且互不相同；不配置时按主机名和进程号推导
+ * - id-generator.epoch: 纪元时间戳（毫秒），上线后不可修改
+ * - id-generator.max-backward-millis: 可容忍的时钟回拨毫秒数
+ */
+@Data
+@Slf4j
+@Configuration
+@ConfigurationProperties(prefix = "id-generator")
+public class IdGeneratorConfig {
+
+    /**
+     * 节点ID，为空时自动推导
+     */
+    private Long nodeId;
+
+    /**
+     * 纪元时间戳（毫秒），默认 2025-01-01 00:00:00 UTC
+     */
+    private Long epoch = SnowflakeIdGenerator.DEFAULT_EPOCH;
+
+    /**
+     * 可容忍的时钟回拨（毫秒），默认5毫秒
+     */
+    private Long maxBackwardMillis = 5L;
+
+    /**
+     * 雪花算法ID生成器Bean
+     * @return ID生成器
+     */
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator() {
+        long resolvedNodeId = nodeId != null ? nodeId : deriveNodeId();
+        log.info("雪花ID生成器初始化，节点ID: {}{}", resolvedNodeId, nodeId == null ? "（自动推导）" : "");
+        return new SnowflakeIdGenerator(resolvedNodeId, epoch, maxBackwardMillis);
+    }
+
+    /**
+     * 按主机名和进程号推导节点ID，只能降低冲突概率，生产环境应显式配置
+     */
+    private long deriveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "localhost";
+        }
+        String seed = host + "@" + ManagementFactory.getRuntimeMXBean().getPid();
+        return (seed.hashCode() & Integer.MAX_VALUE) % (SnowflakeIdGenerator.MAX_NODE_ID + 1);
+    }
+}
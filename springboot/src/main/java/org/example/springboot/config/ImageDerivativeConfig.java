@@ -0,0 +1,70 @@
+package org.example.springboot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * 图片衍生图配置类
+ *
+ * 配置项：
+ * - file.image.enabled: 是否生成并提供缩略图（访问 /files/...?w=宽度）
+ * - file.image.widths: 允许的衍生图宽度，请求宽度向上取整到其中一档，上传图片时按全部宽度预生成
+ * - file.image.jpeg-quality: JPEG 衍生图压缩质量（0-1）
+ * - file.image.worker-threads: 生成衍生图的工作线程数
+ * - file.image.queue-capacity: 等待生成的任务上限，队列满时上传预生成任务直接放弃，访问时再生成
+ * - file.image.cache-max-bytes: 衍生图磁盘缓存上限（字节），超出后按最近最少访问淘汰
+ * - file.image.max-source-pixels: 原图像素上限，超出不生成衍生图，防止解码耗尽内存
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "file.image")
+public class ImageDerivativeConfig {
+
+    /**
+     * 列表页缩略图宽度
+     */
+    public static final int THUMBNAIL_WIDTH = 320;
+
+    /**
+     * 首页轮播图展示宽度
+     */
+    public static final int BANNER_WIDTH = 1280;
+
+    /**
+     * 是否启用衍生图
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 允许的衍生图宽度
+     */
+    private List<Integer> widths = List.of(160, THUMBNAIL_WIDTH, 640, BANNER_WIDTH);
+
+    /**
+     * JPEG 压缩质量
+     */
+    private Float jpegQuality = 0.85f;
+
+    /**
+     * 工作线程数
+     */
+    private Integer workerThreads = 2;
+
+    /**
+     * 任务队列容量
+     */
+    private Integer queueCapacity = 200;
+
+    /**
+     * 磁盘缓存上限（字节）
+     */
+    private Long cacheMaxBytes = 512L * 1024 * 1024;
+
+    /**
+     * 原图像素上限
+     */
+    private Long maxSourcePixels = 40_000_000L;
+}
@@ -1,6 +1,8 @@
 package org.example.springboot.config;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.Resource;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,9 +10,16 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.example.springboot.DTO.response.UserDetailResponseDTO;
+import org.example.springboot.common.Result;
+import org.example.springboot.common.ResultCode;
 import org.example.springboot.enumClass.UserStatus;
+import org.example.springboot.exception.BusinessException;
 import org.example.springboot.service.UserService;
+import org.example.springboot.service.auth.TokenRevocationService;
+import org.example.springboot.service.cache.AuthPrincipalCache;
+import org.example.springboot.service.cache.AuthPrincipalCache.AuthPrincipal;
 import org.example.springboot.util.JwtTokenUtils;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,8 +27,10 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 /**
  * JWT认证过滤器
@@ -28,6 +39,12 @@ import java.util.List;
  * 3. 统一的token验证和用户上下文设置
  * 4. 完善的异常处理和日志记录
  * 5. 标准的用户认证系统，支持角色权限
+ * 6. 已验证的认证主体按token缓存，命中时不再校验签名和查询用户
+ * 7. 每次请求都在内存中检查token是否已吊销（退出登录、修改密码、封禁）
+ * 8. 携带的token被拒绝（无效、过期、已吊销、用户不存在或被禁用）时标记请求，业务接口（/api/**）直接返回401，
+ *    业务接口大多公开放行，不能依赖Spring Security拦截；登录、注册、刷新等认证接口和静态资源等其他路径按匿名请求放行
+ * 9. 加载用户等过程中数据库、Redis 等基础设施异常不视为token被拒绝：业务接口返回503，客户端不会因此退出登录，
+ *    其他路径按匿名请求放行
  *
  * @author system
  * @date 2025-01-13
@@ -35,9 +52,33 @@ import java.util.List;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * 业务接口路径前缀（见 WebConfig 的路径前缀）
+     */
+    private static final String API_PREFIX = "/api/";
+
+    /**
+     * token被拒绝时仍然放行的认证接口（UserController），客户端持有失效token时需要通过这些接口重新获取
+     */
+    private static final Set<String> AUTH_PATHS = Set.of(
+            "/api/user/login",
+            "/api/user/register",
+            "/api/user/logout",
+            "/api/user/token/refresh"
+    );
+
     @Resource
     private UserService userService;
 
+    @Resource
+    private AuthPrincipalCache authPrincipalCache;
+
+    @Resource
+    private TokenRevocationService tokenRevocationService;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -47,6 +88,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String method = request.getMethod();
         log.debug("JWT认证过滤器处理请求：{} {}", method, requestUri);
 
+        boolean rejected = false;
+        boolean unavailable = false;
         try {
             // 1. 提取JWT token
             String token = extractToken(request);
@@ -56,73 +99,132 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         token.length(),
                         token.length() > 20 ? token.substring(0, 20) + "..." : token);
 
-                // 2. 验证token并获取用户信息
-                Long userId = JwtTokenUtils.getUserIdFromToken(token);
-                String username = JwtTokenUtils.getUsernameFromToken(token);
-                String roleCode = JwtTokenUtils.getRoleTypeFromToken(token);
-
-                if (userId != null && StringUtils.hasText(username) && StringUtils.hasText(roleCode)) {
-                    // 检查token是否过期
-                    if (JwtTokenUtils.isTokenExpired(token)) {
-                        log.warn("JWT token已过期，用户ID：{}，用户名：{}", userId, username);
-                        SecurityContextHolder.clearContext();
-                        filterChain.doFilter(request, response);
-                        return;
-                    }
-
-                    // 3. 查询用户信息（可选，用于验证用户是否仍然存在和有效）
-                    UserDetailResponseDTO user = userService.getUserById(userId);
-
-                    if (user != null && user.getStatus().equals(UserStatus.ACTIVE.getCode())) { // 用户存在且状态正常
-                        // 4. 创建Spring Security认证对象
-                        List<SimpleGrantedAuthority> authorities = Collections.singletonList(
-                                new SimpleGrantedAuthority("ROLE_" + roleCode)
-                        );
-
-                        UsernamePasswordAuthenticationToken authentication =
-                                new UsernamePasswordAuthenticationToken(
-                                        username,
-                                        null,
-                                        authorities
-                                );
-
-                        // 5. 设置认证信息到Spring Security上下文
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-
-                        // 6. 设置用户信息到请求属性（方便Controller使用）
-                        request.setAttribute("currentUser", user);
-                        request.setAttribute("currentUserId", userId);
-                        request.setAttribute("currentUsername", username);
-                        request.setAttribute("currentUserRole", roleCode);
-
-                        log.debug("JWT认证成功，用户ID：{}，用户名：{}，角色：{}", userId, username, roleCode);
-                    } else {
-                        log.warn("JWT验证失败：用户不存在或已被禁用，用户ID：{}，用户名：{}", userId, username);
-                        // 清理认证上下文，防止安全问题
-                        SecurityContextHolder.clearContext();
-                    }
+                // 2. 读取认证主体：缓存命中时跳过签名校验和用户查询，未命中时只解码一次token
+                AuthPrincipal principal = authPrincipalCache.get(token, () -> authenticate(token));
+
+                // 3. 吊销检查只做内存查找，缓存命中的令牌同样需要检查
+                if (principal != null && tokenRevocationService.isRevoked(principal.tokenId(),
+                        principal.expireAt(), principal.userId(), principal.issuedAt())) {
+                    log.warn("JWT验证失败：token已被吊销，用户ID：{}", principal.userId());
+                    principal = null;
+                }
+
+                if (principal != null) {
+                    // 4. 创建Spring Security认证对象
+                    List<SimpleGrantedAuthority> authorities = Collections.singletonList(
+                            new SimpleGrantedAuthority("ROLE_" + principal.roleCode())
+                    );
+
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    principal.username(),
+                                    null,
+                                    authorities
+                            );
+
+                    // 5. 设置认证信息到Spring Security上下文
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+
+                    // 6. 设置用户信息到请求属性（方便Controller使用）
+                    request.setAttribute("currentUser", principal.user());
+                    request.setAttribute("currentUserId", principal.userId());
+                    request.setAttribute("currentUsername", principal.username());
+                    request.setAttribute("currentUserRole", principal.roleCode());
+
+                    log.debug("JWT认证成功，用户ID：{}，用户名：{}，角色：{}",
+                            principal.userId(), principal.username(), principal.roleCode());
                 } else {
-                    log.warn("JWT验证失败：无法从token中解析完整的用户信息");
-                    // 清理认证上下文
-                    SecurityContextHolder.clearContext();
+                    // token被拒绝，统一在下方清理认证上下文并返回401
+                    rejected = true;
                 }
             } else {
                 log.debug("未找到token，跳过JWT认证");
             }
         } catch (JWTVerificationException e) {
             log.warn("JWT验证失败：{}，清理认证上下文", e.getMessage());
-            // JWT验证失败时清理认证上下文
-            SecurityContextHolder.clearContext();
+            rejected = true;
         } catch (Exception e) {
+            // 基础设施异常无法确认token是否有效，不按被拒绝处理，避免一次故障让所有在线用户退出登录
             log.error("JWT认证过程中发生异常，请求：{} {}，异常：{}，清理认证上下文", method, requestUri, e.getMessage(), e);
-            // 发生异常时清理认证上下文，确保安全
             SecurityContextHolder.clearContext();
+            unavailable = true;
+        }
+
+        String path = requestUri.substring(request.getContextPath().length());
+        boolean guarded = path.startsWith(API_PREFIX) && !AUTH_PATHS.contains(path);
+        if (rejected) {
+            SecurityContextHolder.clearContext();
+            request.setAttribute(JwtTokenUtils.AUTH_REJECTED_ATTRIBUTE, Boolean.TRUE);
+            if (guarded) {
+                writeError(response, HttpServletResponse.SC_UNAUTHORIZED,
+                        ResultCode.UNAUTHORIZED.getCode(), ResultCode.UNAUTHORIZED.getMsg());
+                return;
+            }
+        } else if (unavailable && guarded) {
+            writeError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                    ResultCode.SYSTEM_ERROR.getCode(), "认证服务暂不可用，请稍后重试");
+            return;
         }
 
         // 继续过滤器链
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 直接返回错误，响应体与全局异常处理的统一结果格式一致
+     *
+     * @param response HTTP响应对象
+     * @param status HTTP状态码
+     * @param code 结果码
+     * @param message 提示信息
+     */
+    private void writeError(HttpServletResponse response, int status, String code, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(), Result.error(code, message));
+    }
+
+    /**
+     * 验证token并加载认证主体
+     * token只解码和校验签名一次（过期时间在校验时一并检查），随后确认用户仍然存在且状态正常
+     * 查询用户时的数据库异常原样抛出，由调用方按基础设施异常处理
+     *
+     * @param token JWT token
+     * @return 认证主体，用户信息不完整、用户不存在或已被禁用时返回null
+     * @throws JWTVerificationException token签名无效或已过期
+     */
+    private AuthPrincipal authenticate(String token) {
+        DecodedJWT jwt = JwtTokenUtils.verifyToken(token);
+        if (!JwtTokenUtils.TOKEN_TYPE_ACCESS.equals(JwtTokenUtils.getTokenType(jwt))) {
+            log.warn("JWT验证失败：刷新token不能用于访问接口");
+            return null;
+        }
+        Long userId = jwt.getClaim("userId").asLong();
+        String username = jwt.getClaim("username").asString();
+        String roleCode = jwt.getClaim("roleType").asString();
+
+        if (userId == null || !StringUtils.hasText(username) || !StringUtils.hasText(roleCode)) {
+            log.warn("JWT验证失败：无法从token中解析完整的用户信息");
+            return null;
+        }
+
+        // 查询用户信息，验证用户是否仍然存在和有效
+        UserDetailResponseDTO user;
+        try {
+            user = userService.getUserById(userId);
+        } catch (BusinessException e) {
+            user = null;
+        }
+        if (user == null || !UserStatus.ACTIVE.getCode().equals(user.getStatus())) {
+            log.warn("JWT验证失败：用户不存在或已被禁用，用户ID：{}，用户名：{}", userId, username);
+            return null;
+        }
+
+        return new AuthPrincipal(userId, username, roleCode, user, JwtTokenUtils.getTokenId(jwt),
+                JwtTokenUtils.getIssuedAtMillis(jwt), jwt.getExpiresAt().getTime());
+    }
+
     /**
      * 从请求中提取JWT token
      *
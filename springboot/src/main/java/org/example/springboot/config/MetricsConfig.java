@@ -0,0 +1,41 @@
+package org.example.springboot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 运行指标配置类
+ * 接口耗时、连接池和 JVM 指标由 Actuator 自动采集，这里只控制应用自定义的指标
+ *
+ * 配置项：
+ * - metrics.service-enabled: 是否记录 service 包下各业务服务方法的耗时
+ * - metrics.sql-enabled: 是否记录每条 SQL 的耗时、行数以及每个请求执行的 SQL 条数
+ * - metrics.repeated-statement-threshold: 同一语句形态在一次请求中执行达到该次数时告警（疑似 N+1 查询）
+ * - metrics.sql-budget-strict: 超出 @SqlBudget 声明的预算时是否抛出错误，测试环境开启
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "metrics")
+public class MetricsConfig {
+
+    /**
+     * 是否记录业务服务方法耗时
+     */
+    private Boolean serviceEnabled = true;
+
+    /**
+     * 是否记录 SQL 指标
+     */
+    private Boolean sqlEnabled = true;
+
+    /**
+     * 重复语句告警阈值
+     */
+    private Integer repeatedStatementThreshold = 5;
+
+    /**
+     * 超出 SQL 预算时是否抛出错误
+     */
+    private Boolean sqlBudgetStrict = false;
+}
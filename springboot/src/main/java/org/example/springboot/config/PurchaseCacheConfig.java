@@ -0,0 +1,45 @@
+package org.example.springboot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 购买记录缓存配置类
+ *
+ * 配置项：
+ * - purchase.cache.enabled: 是否缓存用户已完成订单中购买过的零食ID，关闭时每次校验直接查库
+ * - purchase.cache.max-size: 最大缓存用户数
+ * - purchase.cache.ttl: 缓存过期时间（毫秒）
+ * - purchase.cache.broadcast-enabled: 是否通过 Redis 向其他节点广播订单完成通知
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "purchase.cache")
+public class PurchaseCacheConfig {
+
+    /**
+     * 订单完成广播频道
+     */
+    public static final String COMPLETE_CHANNEL = "purchase:history:complete";
+
+    /**
+     * 是否启用缓存
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 最大缓存用户数
+     */
+    private Integer maxSize = 10000;
+
+    /**
+     * 缓存过期时间（毫秒），默认10分钟
+     */
+    private Long ttl = 600000L;
+
+    /**
+     * 是否广播订单完成通知
+     */
+    private Boolean broadcastEnabled = true;
+}
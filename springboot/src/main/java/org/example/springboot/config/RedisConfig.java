@@ -4,10 +4,12 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -18,6 +20,7 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
  * 1. 配置RedisTemplate使用JSON序列化器
  * 2. 解决默认JDK序列化器的兼容性问题
  * 3. 提高缓存数据的可读性和跨语言兼容性
+ * 4. 提供消息监听容器，用于商品目录缓存、认证缓存和令牌吊销的跨节点通知
  * 
  * @author system
  * @date 2025-01-27
@@ -46,6 +49,8 @@ public class RedisConfig {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
         objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL);
+        // 支持 LocalDateTime 等时间类型
+        objectMapper.registerModule(new JavaTimeModule());
         
         // 创建Jackson序列化器（使用新的构造方法）
         Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
@@ -66,4 +71,19 @@ public class RedisConfig {
         
         return template;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 配置Redis消息监听容器
+     * 商品目录缓存、认证缓存、令牌吊销和购买记录缓存都通过它订阅跨节点通知，
+     * 各自的广播开关互相独立，因此容器始终创建；没有注册监听器时容器不会建立订阅连接
+     *
+     * @param connectionFactory Redis连接工厂
+     * @return 消息监听容器
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+}
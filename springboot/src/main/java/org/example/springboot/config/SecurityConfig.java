@@ -1,5 +1,6 @@
 package org.example.springboot.config;
 
+import org.example.springboot.enumClass.UserType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -44,6 +45,9 @@ public class SecurityConfig {
         "/health",
         "/favicon.ico",
         
+        // 健康检查（Prometheus 指标只对管理员开放，见 filterChain）
+        "/actuator/health",
+        
         // API文档相关
         "/doc.html",
         "/webjars/**",
@@ -134,6 +138,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 // 公开路径，允许匿名访问
                 .requestMatchers(PUBLIC_PATHS).permitAll()
+                // 除健康检查外的 actuator 端点（metrics、prometheus 等）包含接口路径和耗时分布，只允许管理员访问
+                .requestMatchers("/actuator/**").hasRole(UserType.ADMIN.getCode())
                 // 其他所有请求都需要认证
                 .anyRequest().authenticated()
             )
@@ -0,0 +1,39 @@
+package org.example.springboot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 库存引擎配置类
+ *
+ * 配置项：
+ * - stock.engine: 库存扣减模式，row-lock（数据库行锁，默认）/ memory（内存计数 + 异步回写）
+ * - stock.flush-interval: 内存模式下库存流水回写间隔（毫秒）
+ * - stock.flush-batch-size: 每批回写的最大流水条数
+ *
+ * 注意：memory 模式的计数器只存在于当前进程，仅适用于单实例部署
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "stock")
+public class StockConfig {
+
+    public static final String ENGINE_ROW_LOCK = "row-lock";
+    public static final String ENGINE_MEMORY = "memory";
+
+    /**
+     * 库存扣减模式
+     */
+    private String engine = ENGINE_ROW_LOCK;
+
+    /**
+     * 库存流水回写间隔（毫秒），默认1秒
+     */
+    private Long flushInterval = 1000L;
+
+    /**
+     * 每批回写的最大流水条数
+     */
+    private Integer flushBatchSize = 500;
+}
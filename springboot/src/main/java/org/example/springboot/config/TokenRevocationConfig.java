@@ -0,0 +1,51 @@
+package org.example.springboot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 令牌吊销配置类
+ *
+ * 配置项：
+ * - auth.revocation.expected-insertions: 布隆过滤器预期容纳的吊销令牌数
+ * - auth.revocation.false-positive-rate: 布隆过滤器目标误判率，误判只会多做一次精确查找
+ * - auth.revocation.bucket-interval: 精确集合按令牌过期时间分桶的宽度（毫秒）
+ * - auth.revocation.purge-interval: 清理过期分桶、重建布隆过滤器并与 Redis 对账的间隔（毫秒）
+ * - auth.revocation.broadcast-enabled: 是否通过 Redis 持久化吊销记录并广播给其他节点
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "auth.revocation")
+public class TokenRevocationConfig {
+
+    /**
+     * 吊销广播频道
+     */
+    public static final String REVOKE_CHANNEL = "auth:token:revoked";
+
+    /**
+     * 布隆过滤器预期容量
+     */
+    private Integer expectedInsertions = 100000;
+
+    /**
+     * 布隆过滤器目标误判率
+     */
+    private Double falsePositiveRate = 0.001;
+
+    /**
+     * 分桶宽度（毫秒），默认1小时
+     */
+    private Long bucketInterval = 3600000L;
+
+    /**
+     * 清理间隔（毫秒），默认10分钟
+     */
+    private Long purgeInterval = 600000L;
+
+    /**
+     * 是否持久化并广播吊销记录
+     */
+    private Boolean broadcastEnabled = true;
+}
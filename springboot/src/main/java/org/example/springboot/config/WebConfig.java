@@ -1,7 +1,10 @@
 package org.example.springboot.config;
 
+import jakarta.annotation.Resource;
+import org.example.springboot.service.metrics.SqlRequestMetricsInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -13,6 +16,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * 1. API前缀配置
  * 2. 静态资源映射配置  
  * 3. API文档资源配置
+ * 4. 接口拦截器配置
  * 
  * 🚀 架构优势：
  * - 统一管理所有Web相关配置
@@ -26,6 +30,9 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Resource
+    private SqlRequestMetricsInterceptor sqlRequestMetricsInterceptor;
+
     /**
      * 配置API路径前缀
      * 
@@ -64,7 +71,7 @@ public class WebConfig implements WebMvcConfigurer {
      * 
      * 📁 资源映射规则：
      * - /static/** → classpath:/static/ (项目静态资源)
-     * - /files/** → file:./files/ (文件上传目录)
+     * - /files/** 由 FileServingController 处理（Range、ETag、sendfile），不在此映射
      * - /doc.html → Knife4j文档首页
      * - /webjars/** → Maven webjars资源
      * - /swagger-ui/** → Swagger UI资源
@@ -79,11 +86,6 @@ public class WebConfig implements WebMvcConfigurer {
                 .addResourceLocations("classpath:/static/")
                 .setCachePeriod(3600); // 缓存1小时
         
-        // 2. 文件上传目录配置 - 用户上传文件访问
-        registry.addResourceHandler("/files/**")
-                .addResourceLocations("file:./files/")
-                .setCachePeriod(86400); // 缓存24小时
-        
         // 2. API文档资源配置 - Knife4j/Swagger相关
         registry.addResourceHandler("doc.html")
                 .addResourceLocations("classpath:/META-INF/resources/");
@@ -100,4 +102,16 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/v3/api-docs/**")
                 .addResourceLocations("classpath:/META-INF/resources/webjars/");
     }
+
+    /**
+     * 注册接口拦截器
+     * 
+     * - SqlRequestMetricsInterceptor：统计每个 API 请求执行的 SQL 条数
+     * 
+     * @param registry 拦截器注册表
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlRequestMetricsInterceptor).addPathPatterns("/api/**");
+    }
 }
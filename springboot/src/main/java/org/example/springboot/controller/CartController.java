@@ -14,6 +14,7 @@ import org.example.springboot.DTO.response.CartItemResponseDTO;
 import org.example.springboot.DTO.response.CartListResponseDTO;
 import org.example.springboot.common.Result;
 import org.example.springboot.service.CartService;
+import org.example.springboot.service.metrics.SqlBudget;
 import org.example.springboot.util.JwtTokenUtils;
 import org.springframework.web.bind.annotation.*;
 
@@ -50,6 +51,7 @@ public class CartController {
      */
     @Operation(summary = "获取用户购物车列表")
     @GetMapping("/list")
+    @SqlBudget(3)
     public Result<CartListResponseDTO> getCartList(HttpServletRequest request) {
         Long userId = JwtTokenUtils.getCurrentUserIdFromRequest(request);
         log.info("获取用户{}的购物车列表", userId);
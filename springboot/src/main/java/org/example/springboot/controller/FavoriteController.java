@@ -11,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.springboot.DTO.command.FavoriteToggleCommandDTO;
 import org.example.springboot.DTO.response.FavoriteResponseDTO;
 import org.example.springboot.DTO.response.FavoriteStatusResponseDTO;
+import org.example.springboot.common.CursorPage;
 import org.example.springboot.common.Result;
 import org.example.springboot.service.FavoriteService;
 import org.example.springboot.util.JwtTokenUtils;
@@ -79,6 +80,22 @@ public class FavoriteController {
         return Result.success(response);
     }
 
+    /**
+     * 游标分页获取用户收藏列表（适用于无限滚动）
+     */
+    @Operation(summary = "游标分页获取用户收藏列表")
+    @GetMapping("/cursor")
+    public Result<CursorPage<FavoriteResponseDTO>> getFavoriteCursor(
+            @Parameter(description = "上一页返回的游标，首页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "是否统计总数") @RequestParam(defaultValue = "false") Boolean withTotal,
+            HttpServletRequest request) {
+        Long userId = JwtTokenUtils.getCurrentUserIdFromRequest(request);
+        
+        CursorPage<FavoriteResponseDTO> response = favoriteService.getUserFavoriteCursor(userId, cursor, size, withTotal);
+        return Result.success(response);
+    }
+
     /**
      * 获取用户收藏总数
      */
@@ -11,14 +11,20 @@ import org.example.springboot.DTO.SimpleFileInfoDTO;
 import org.example.springboot.common.Result;
 import org.example.springboot.service.FileService;
 import org.example.springboot.service.SimpleFileService;
+import org.example.springboot.service.storage.FileStorageMaintenanceService;
+import org.example.springboot.util.FileUtil;
 import org.example.springboot.util.JwtTokenUtils;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 文件管理控制器
@@ -38,6 +44,9 @@ public class FileController {
     @Resource
     private SimpleFileService simpleFileService;
 
+    @Resource
+    private FileStorageMaintenanceService fileStorageMaintenanceService;
+
     // ========== 简单文件上传接口（不保存在数据库） ==========
 
     @Operation(summary = "简单图片上传", description = "上传图片文件，返回访问路径")
@@ -66,6 +75,20 @@ public class FileController {
         return simpleFileService.uploadMultipleFiles(files, fileType);
     }
 
+    @Operation(summary = "流式文件上传", description = "请求体即文件内容（application/octet-stream），直接写入磁盘，适合大文件")
+    @PostMapping(value = "/simple/upload/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public Result<String> uploadStream(
+            @Parameter(description = "原始文件名") @RequestParam("filename") String filename,
+            @RequestParam(value = "type", defaultValue = "COMMON") String fileType,
+            HttpServletRequest request) throws IOException {
+        log.info("收到流式文件上传请求，文件名：{}，大小：{}", filename, request.getContentLengthLong());
+        // 只是提前拒绝声明过大的请求：分块传输时长度为 -1，真正的大小上限由 ContentAddressedFileStore.copy 在写入时检查
+        if (request.getContentLengthLong() > FileUtil.getMaxFileSize()) {
+            return Result.error("文件大小超出限制，最大允许: " + FileUtil.getMaxFileSize() + " 字节");
+        }
+        return simpleFileService.uploadStream(request.getInputStream(), filename, fileType);
+    }
+
     @Operation(summary = "简单文件删除", description = "根据文件名删除文件")
     @DeleteMapping("/simple/delete/{filename}")
     public Result<Void> deleteSimpleFile(@PathVariable String filename) {
@@ -283,6 +306,12 @@ public class FileController {
         }
     }
 
+    @Operation(summary = "文件存储统计", description = "系统管理接口：统计各目录文件数、占用空间、磁盘剩余空间和孤立文件")
+    @GetMapping("/storage/stats")
+    public Result<Map<String, Object>> getStorageStats() {
+        return Result.success(fileStorageMaintenanceService.monitorStorage());
+    }
+
     // ========== 私有方法 ==========
 
     /**
@@ -0,0 +1,39 @@
+package org.example.springboot.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.springboot.service.storage.FileServingService;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+/**
+ * 上传文件访问控制器
+ * 不使用 @RestController，路径不加 /api 前缀，与数据库中保存的 /files/... 访问路径一致
+ * @author system
+ */
+@Tag(name = "文件访问", description = "上传文件下载，支持 Range 断点续传、ETag 协商缓存和图片缩略图")
+@Controller
+public class FileServingController {
+
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    @Resource
+    private FileServingService fileServingService;
+
+    @Operation(summary = "访问上传文件", description = "按访问路径返回文件内容，图片可通过 w 参数获取缩略图")
+    @RequestMapping(value = "/files/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(@Parameter(description = "图片宽度，向上取整到配置的衍生图宽度")
+                      @RequestParam(value = "w", required = false) Integer width,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        fileServingService.serve(URL_PATH_HELPER.getPathWithinApplication(request), width, request, response);
+    }
+}
@@ -5,14 +5,19 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.example.springboot.common.Result;
 import org.example.springboot.DTO.response.DashboardStatsResponseDTO;
+import org.example.springboot.service.DashboardRollupService;
 import org.example.springboot.service.DashboardStatsService;
+import org.example.springboot.service.metrics.SqlBudget;
+import org.example.springboot.util.JwtTokenUtils;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
 
 /**
  * 首页控制器
@@ -26,6 +31,9 @@ public class IndexController {
     @Resource
     private DashboardStatsService dashboardStatsService;
 
+    @Resource
+    private DashboardRollupService dashboardRollupService;
+
     /**
      * 根路径欢迎页面
      * 当访问根路径时显示欢迎信息和API文档链接
@@ -146,4 +154,48 @@ public class IndexController {
         DashboardStatsResponseDTO stats = dashboardStatsService.getDashboardStats();
         return Result.success(stats);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 强制刷新仪表板统计数据
+     * 跳过快照缓存立即重新计算，并更新快照
+     *
+     * @return 返回最新统计数据
+     */
+    @Tag(name = "仪表板管理", description = "仪表板统计数据接口")
+    @Operation(summary = "强制刷新仪表板统计数据（管理员）")
+    @PostMapping("/api/dashboard/stats/refresh")
+    @ResponseBody
+    @SqlBudget(15)
+    public Result<DashboardStatsResponseDTO> refreshDashboardStats(HttpServletRequest request) {
+        // 权限检查：只有管理员可以强制刷新
+        String currentUserRole = JwtTokenUtils.getCurrentRoleFromRequest(request);
+        if (!"ADMIN".equals(currentUserRole)) {
+            return Result.error("权限不足");
+        }
+
+        log.info("管理员强制刷新仪表板统计数据");
+        return Result.success(dashboardStatsService.refreshDashboardStats());
+    }
+
+    /**
+     * 重建仪表板统计汇总
+     * 从订单、用户、收藏等业务表全量回填汇总表，用于首次上线或数据修复
+     *
+     * @return 操作结果
+     */
+    @Tag(name = "仪表板管理", description = "仪表板统计数据接口")
+    @Operation(summary = "重建仪表板统计汇总（管理员）")
+    @PostMapping("/api/dashboard/rollup/rebuild")
+    @ResponseBody
+    public Result<Void> rebuildDashboardRollup(HttpServletRequest request) {
+        // 权限检查：只有管理员可以重建统计
+        String currentUserRole = JwtTokenUtils.getCurrentRoleFromRequest(request);
+        if (!"ADMIN".equals(currentUserRole)) {
+            return Result.error("权限不足");
+        }
+
+        log.info("管理员重建仪表板统计汇总");
+        dashboardRollupService.rebuild();
+        return Result.success();
+    }
+}
@@ -10,8 +10,10 @@ import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.example.springboot.DTO.command.OrderCreateDTO;
 import org.example.springboot.DTO.response.OrderResponseDTO;
+import org.example.springboot.common.CursorPage;
 import org.example.springboot.common.Result;
 import org.example.springboot.service.OrderService;
+import org.example.springboot.service.metrics.SqlBudget;
 import org.example.springboot.util.JwtTokenUtils;
 import org.springframework.web.bind.annotation.*;
 
@@ -93,15 +95,35 @@ public class OrderController {
      */
     @Operation(summary = "获取用户订单列表")
     @GetMapping("/page")
+    @SqlBudget(5)
     public Result<Page<OrderResponseDTO>> getUserOrderPage(
             @Parameter(description = "当前页码") @RequestParam(defaultValue = "1") Long current,
             @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Long size,
             @Parameter(description = "订单状态") @RequestParam(required = false) String status,
+            @Parameter(description = "展开关联数据，逗号分隔，可选 items、address") @RequestParam(required = false) String expand,
             HttpServletRequest request) {
         Long userId = JwtTokenUtils.getCurrentUserIdFromRequest(request);
         log.info("获取用户{}的订单列表: current={}, size={}, status={}", userId, current, size, status);
         
-        Page<OrderResponseDTO> response = orderService.getUserOrderPage(current, size, status, userId);
+        Page<OrderResponseDTO> response = orderService.getUserOrderPage(current, size, status, userId, expand);
+        return Result.success(response);
+    }
+
+    /**
+     * 游标分页获取用户订单列表（适用于无限滚动）
+     */
+    @Operation(summary = "游标分页获取用户订单列表")
+    @GetMapping("/cursor")
+    public Result<CursorPage<OrderResponseDTO>> getUserOrderCursor(
+            @Parameter(description = "上一页返回的游标，首页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "订单状态") @RequestParam(required = false) String status,
+            @Parameter(description = "是否统计总数") @RequestParam(defaultValue = "false") Boolean withTotal,
+            @Parameter(description = "展开关联数据，逗号分隔，可选 items、address") @RequestParam(required = false) String expand,
+            HttpServletRequest request) {
+        Long userId = JwtTokenUtils.getCurrentUserIdFromRequest(request);
+        
+        CursorPage<OrderResponseDTO> response = orderService.getUserOrderCursor(cursor, size, status, userId, withTotal, expand);
         return Result.success(response);
     }
 
@@ -125,14 +147,33 @@ public class OrderController {
      */
     @Operation(summary = "管理员获取所有订单列表")
     @GetMapping("/admin/page")
+    @SqlBudget(5)
     public Result<Page<OrderResponseDTO>> getAllOrderPage(
             @Parameter(description = "当前页码") @RequestParam(defaultValue = "1") Long current,
             @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Long size,
             @Parameter(description = "订单号") @RequestParam(required = false) String orderNo,
-            @Parameter(description = "订单状态") @RequestParam(required = false) String status) {
+            @Parameter(description = "订单状态") @RequestParam(required = false) String status,
+            @Parameter(description = "展开关联数据，逗号分隔，可选 items、address") @RequestParam(required = false) String expand) {
         log.info("管理员获取订单列表: current={}, size={}, orderNo={}, status={}", current, size, orderNo, status);
         
-        Page<OrderResponseDTO> response = orderService.getAllOrderPage(current, size, orderNo, status);
+        Page<OrderResponseDTO> response = orderService.getAllOrderPage(current, size, orderNo, status, expand);
+        return Result.success(response);
+    }
+
+    /**
+     * 管理员游标分页获取所有订单列表
+     */
+    @Operation(summary = "管理员游标分页获取所有订单列表")
+    @GetMapping("/admin/cursor")
+    public Result<CursorPage<OrderResponseDTO>> getAllOrderCursor(
+            @Parameter(description = "上一页返回的游标，首页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "订单号") @RequestParam(required = false) String orderNo,
+            @Parameter(description = "订单状态") @RequestParam(required = false) String status,
+            @Parameter(description = "是否统计总数") @RequestParam(defaultValue = "false") Boolean withTotal,
+            @Parameter(description = "展开关联数据，逗号分隔，可选 items、address") @RequestParam(required = false) String expand) {
+        
+        CursorPage<OrderResponseDTO> response = orderService.getAllOrderCursor(cursor, size, orderNo, status, withTotal, expand);
         return Result.success(response);
     }
 
@@ -5,14 +5,20 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.example.springboot.DTO.FileUploadDTO;
 import org.example.springboot.DTO.command.ReviewCreateDTO;
 import org.example.springboot.DTO.response.ReviewResponseDTO;
+import org.example.springboot.DTO.response.ReviewSummaryResponseDTO;
+import org.example.springboot.common.CursorPage;
 import org.example.springboot.common.Result;
 import org.example.springboot.enumClass.FileBusinessTypeEnum;
 import org.example.springboot.service.FileService;
 import org.example.springboot.service.ReviewService;
+import org.example.springboot.service.ReviewSummaryService;
+import org.example.springboot.service.metrics.SqlBudget;
+import org.example.springboot.util.JwtTokenUtils;
 import org.springframework.web.bind.annotation.*;
 
 @Tag(name = "评价管理")
@@ -26,6 +32,9 @@ public class ReviewController {
     @Resource
     private FileService fileService;
 
+    @Resource
+    private ReviewSummaryService reviewSummaryService;
+
     @Operation(summary = "创建评价")
     @PostMapping("/create")
     public Result<Long> create(@Valid @RequestBody ReviewCreateDTO dto) {
@@ -49,6 +58,7 @@ public class ReviewController {
 
     @Operation(summary = "分页查询评价")
     @GetMapping("/page")
+    @SqlBudget(4)
     public Result<Page<ReviewResponseDTO>> page(
             @Parameter(description = "当前页码") @RequestParam(defaultValue = "1") Long current,
             @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Long size,
@@ -59,6 +69,39 @@ public class ReviewController {
         return Result.success(page);
     }
 
+    @Operation(summary = "游标分页查询评价")
+    @GetMapping("/cursor")
+    @SqlBudget(4)
+    public Result<CursorPage<ReviewResponseDTO>> cursor(
+            @Parameter(description = "上一页返回的游标，首页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "零食ID") @RequestParam(required = false) Long snackId,
+            @Parameter(description = "用户ID") @RequestParam(required = false) Long userId,
+            @Parameter(description = "评分") @RequestParam(required = false) Integer rating,
+            @Parameter(description = "是否统计总数") @RequestParam(defaultValue = "false") Boolean withTotal) {
+        return Result.success(reviewService.getReviewCursor(snackId, userId, rating, cursor, size, withTotal));
+    }
+
+    @Operation(summary = "获取零食评价汇总（评价数、平均评分、星级分布）")
+    @GetMapping("/summary")
+    @SqlBudget(1)
+    public Result<ReviewSummaryResponseDTO> summary(
+            @Parameter(description = "零食ID") @RequestParam Long snackId) {
+        return Result.success(reviewSummaryService.getSummary(snackId));
+    }
+
+    @Operation(summary = "重建评价汇总（管理员）")
+    @PostMapping("/summary/rebuild")
+    public Result<Void> rebuildSummary(HttpServletRequest request) {
+        // 权限检查：只有管理员可以重建汇总
+        String currentUserRole = JwtTokenUtils.getCurrentRoleFromRequest(request);
+        if (!"ADMIN".equals(currentUserRole)) {
+            return Result.error("权限不足");
+        }
+        reviewSummaryService.rebuild();
+        return Result.success();
+    }
+
     @Operation(summary = "确认评价图片（策略A第二阶段）")
     @PutMapping("/{reviewId}/confirm-image/{tempFileId}")
     public Result<?> confirmImage(
@@ -5,18 +5,25 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.example.springboot.DTO.command.SnackCreateDTO;
 import org.example.springboot.DTO.command.SnackUpdateDTO;
 import org.example.springboot.DTO.response.SnackResponseDTO;
 import org.example.springboot.DTO.response.SnackListResponseDTO;
+import org.example.springboot.DTO.response.SnackSearchFacetResponseDTO;
+import org.example.springboot.common.CursorPage;
 import org.example.springboot.common.Result;
 import org.example.springboot.service.SnackService;
+import org.example.springboot.service.cache.CatalogCache;
+import org.example.springboot.service.metrics.SqlBudget;
+import org.example.springboot.util.JwtTokenUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 零食管理控制器
@@ -31,6 +38,9 @@ public class SnackController {
     @Resource
     private SnackService snackService;
 
+    @Resource
+    private CatalogCache catalogCache;
+
     /**
      * 创建零食
      */
@@ -72,6 +82,7 @@ public class SnackController {
      */
     @Operation(summary = "根据ID获取零食详情")
     @GetMapping("/{id}")
+    @SqlBudget(3)
     public Result<SnackResponseDTO> getSnackById(@Parameter(description = "零食ID") @PathVariable Long id) {
         log.info("根据ID获取零食详情: snackId={}", id);
         SnackResponseDTO response = snackService.getSnackDetail(id);
@@ -98,24 +109,42 @@ public class SnackController {
         return Result.success(response);
     }
 
+    /**
+     * 后台游标分页查询零食列表
+     */
+    @Operation(summary = "后台游标分页查询零食列表")
+    @GetMapping("/cursor")
+    public Result<CursorPage<SnackListResponseDTO>> getSnackCursor(
+            @Parameter(description = "上一页返回的游标，首页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Long size,
+            @Parameter(description = "分类ID") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "零食状态") @RequestParam(required = false) String status,
+            @Parameter(description = "是否统计总数") @RequestParam(defaultValue = "false") Boolean withTotal) {
+        
+        CursorPage<SnackListResponseDTO> response = snackService.getSnackCursor(cursor, size, categoryId, status, withTotal);
+        return Result.success(response);
+    }
+
     /**
      * 前台分页查询零食列表（只显示上架商品）
      */
     @Operation(summary = "前台分页查询零食列表")
     @GetMapping("/frontend/page")
+    @SqlBudget(4)
     public Result<Page<SnackListResponseDTO>> getFrontendSnackPage(
             @Parameter(description = "当前页码") @RequestParam(defaultValue = "1") Long current,
             @Parameter(description = "每页大小") @RequestParam(defaultValue = "12") Long size,
             @Parameter(description = "零食名称") @RequestParam(required = false) String name,
             @Parameter(description = "分类ID") @RequestParam(required = false) Long categoryId,
-            @Parameter(description = "排序字段") @RequestParam(required = false) String sortBy,
+            @Parameter(description = "排序字段（price, sales_count, create_time, rating）") @RequestParam(required = false) String sortBy,
             @Parameter(description = "排序方向") @RequestParam(required = false) String sortOrder,
             @Parameter(description = "最低价格（元）") @RequestParam(required = false) BigDecimal minPrice,
-            @Parameter(description = "最高价格（元）") @RequestParam(required = false) BigDecimal maxPrice) {
+            @Parameter(description = "最高价格（元）") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "最低平均评分") @RequestParam(required = false) BigDecimal minRating) {
         
-        log.info("前台分页查询零食列表: current={}, size={}, name={}, categoryId={}, sort={} {}, priceRange={}-{}", 
-                current, size, name, categoryId, sortBy, sortOrder, minPrice, maxPrice);
-        Page<SnackListResponseDTO> response = snackService.getFrontendSnackPage(current, size, name, categoryId, sortBy, sortOrder, minPrice, maxPrice);
+        log.info("前台分页查询零食列表: current={}, size={}, name={}, categoryId={}, sort={} {}, priceRange={}-{}, minRating={}", 
+                current, size, name, categoryId, sortBy, sortOrder, minPrice, maxPrice, minRating);
+        Page<SnackListResponseDTO> response = snackService.getFrontendSnackPage(current, size, name, categoryId, sortBy, sortOrder, minPrice, maxPrice, minRating);
         return Result.success(response);
     }
 
@@ -170,7 +199,7 @@ public class SnackController {
             @Parameter(description = "限制数量") @RequestParam(defaultValue = "20") Integer limit) {
         
         log.info("根据分类ID获取零食列表: categoryId={}, limit={}", categoryId, limit);
-        Page<SnackListResponseDTO> page = snackService.getFrontendSnackPage(1L, limit.longValue(), null, categoryId, "create_time", "desc", null, null);
+        Page<SnackListResponseDTO> page = snackService.getFrontendSnackPage(1L, limit.longValue(), null, categoryId, "create_time", "desc", null, null, null);
         return Result.success(page.getRecords());
     }
 
@@ -189,7 +218,58 @@ public class SnackController {
         
         log.info("搜索零食: current={}, size={}, keyword={}, categoryId={}, sort={} {}", 
                 current, size, keyword, categoryId, sortBy, sortOrder);
-        Page<SnackListResponseDTO> response = snackService.getFrontendSnackPage(current, size, keyword, categoryId, sortBy, sortOrder, null, null);
+        Page<SnackListResponseDTO> response = snackService.getFrontendSnackPage(current, size, keyword, categoryId, sortBy, sortOrder, null, null, null);
         return Result.success(response);
     }
+
+    /**
+     * 搜索关键词联想（前台）
+     */
+    @Operation(summary = "搜索关键词联想")
+    @GetMapping("/search/suggest")
+    public Result<List<String>> suggestSnackNames(
+            @Parameter(description = "输入前缀") @RequestParam String prefix,
+            @Parameter(description = "限制数量") @RequestParam(defaultValue = "10") Integer limit) {
+        
+        return Result.success(snackService.suggestSnackNames(prefix, limit));
+    }
+
+    /**
+     * 搜索结果分面统计（前台）
+     */
+    @Operation(summary = "搜索结果分面统计")
+    @GetMapping("/search/facets")
+    public Result<SnackSearchFacetResponseDTO> getSearchFacets(
+            @Parameter(description = "搜索关键词") @RequestParam String keyword,
+            @Parameter(description = "分类ID") @RequestParam(required = false) Long categoryId) {
+        
+        log.info("搜索分面统计: keyword={}, categoryId={}", keyword, categoryId);
+        return Result.success(snackService.getSearchFacets(keyword, categoryId));
+    }
+
+    /**
+     * 重建搜索索引（管理员）
+     */
+    @Operation(summary = "重建搜索索引")
+    @PostMapping("/search/rebuild")
+    public Result<Integer> rebuildSearchIndex(HttpServletRequest request) {
+        String currentUserRole = JwtTokenUtils.getCurrentRoleFromRequest(request);
+        if (!"ADMIN".equals(currentUserRole)) {
+            return Result.error("权限不足");
+        }
+        return Result.success(snackService.rebuildSearchIndex());
+    }
+
+    /**
+     * 获取商品目录缓存命中统计（管理员）
+     */
+    @Operation(summary = "获取商品目录缓存统计")
+    @GetMapping("/cache/stats")
+    public Result<Map<String, Object>> getCacheStats(HttpServletRequest request) {
+        String currentUserRole = JwtTokenUtils.getCurrentRoleFromRequest(request);
+        if (!"ADMIN".equals(currentUserRole)) {
+            return Result.error("权限不足");
+        }
+        return Result.success(catalogCache.getStats());
+    }
 }
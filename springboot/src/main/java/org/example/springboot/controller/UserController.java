@@ -111,13 +111,25 @@ public class UserController {
      */
     @Operation(summary = "用户退出登录")
     @PostMapping("/logout")
-    public Result<Void> logout(HttpServletRequest request) {
+    public Result<Void> logout(
+            @Parameter(description = "刷新令牌，传入时一并吊销") @RequestParam(required = false) String refreshToken,
+            HttpServletRequest request) {
         Long currentUserId = JwtTokenUtils.getCurrentUserIdFromRequest(request);
         log.info("用户退出登录: userId={}", currentUserId);
-        // 这里可以添加token黑名单逻辑，目前简单返回成功
+        userService.logout(JwtTokenUtils.extractTokenFromRequest(request), refreshToken);
         return Result.success();
     }
 
+    /**
+     * 刷新访问令牌
+     */
+    @Operation(summary = "刷新访问令牌", description = "使用刷新令牌换取新的访问令牌和刷新令牌，旧刷新令牌随即失效")
+    @PostMapping("/token/refresh")
+    public Result<UserLoginResponseDTO> refreshToken(@Valid @RequestBody TokenRefreshCommandDTO refreshDTO) {
+        UserLoginResponseDTO response = userService.refreshToken(refreshDTO.getRefreshToken());
+        return Result.success("刷新成功", response);
+    }
+
     /**
      * 分页查询用户列表（管理员功能）
      */
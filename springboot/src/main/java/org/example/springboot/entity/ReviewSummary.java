@@ -0,0 +1,82 @@
+package org.example.springboot.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 评价汇总实体类
+ * 随评价创建/删除增量维护，可通过重建任务从评价表回填
+ * @author system
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("t_review_summary")
+@Schema(description = "评价汇总实体类")
+public class ReviewSummary {
+
+    @TableId(value = "snack_id", type = IdType.INPUT)
+    @Schema(description = "零食ID")
+    private Long snackId;
+
+    @Schema(description = "评价数")
+    @TableField("review_count")
+    private Integer reviewCount;
+
+    @Schema(description = "评分总和")
+    @TableField("rating_sum")
+    private Long ratingSum;
+
+    @Schema(description = "1星评价数")
+    @TableField("rating_1")
+    private Integer rating1;
+
+    @Schema(description = "2星评价数")
+    @TableField("rating_2")
+    private Integer rating2;
+
+    @Schema(description = "3星评价数")
+    @TableField("rating_3")
+    private Integer rating3;
+
+    @Schema(description = "4星评价数")
+    @TableField("rating_4")
+    private Integer rating4;
+
+    @Schema(description = "5星评价数")
+    @TableField("rating_5")
+    private Integer rating5;
+
+    @Schema(description = "更新时间")
+    @TableField("update_time")
+    private LocalDateTime updateTime;
+
+    /**
+     * 单条评价对汇总的增量
+     * @param snackId 零食ID
+     * @param rating 评分（1-5）
+     * @param sign 1表示新增，-1表示删除
+     */
+    public static ReviewSummary delta(Long snackId, int rating, int sign) {
+        return ReviewSummary.builder()
+                .snackId(snackId)
+                .reviewCount(sign)
+                .ratingSum((long) rating * sign)
+                .rating1(rating == 1 ? sign : 0)
+                .rating2(rating == 2 ? sign : 0)
+                .rating3(rating == 3 ? sign : 0)
+                .rating4(rating == 4 ? sign : 0)
+                .rating5(rating == 5 ? sign : 0)
+                .build();
+    }
+}
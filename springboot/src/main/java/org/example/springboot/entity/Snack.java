@@ -75,6 +75,14 @@ public class Snack {
     @TableField("sales_count")
     private Integer salesCount;
 
+    @Schema(description = "评价数")
+    @TableField("review_count")
+    private Integer reviewCount;
+
+    @Schema(description = "平均评分（无评价时为0）")
+    @TableField("rating_avg")
+    private BigDecimal ratingAvg;
+
     @Schema(description = "创建时间")
     @TableField("create_time")
     private LocalDateTime createTime;
@@ -0,0 +1,39 @@
+package org.example.springboot.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分类销量统计汇总实体类
+ * 下单时累加、取消订单时扣回，可通过重建任务从订单项回填
+ * @author system
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("t_stats_category_sales")
+@Schema(description = "分类销量统计汇总实体类")
+public class StatsCategorySales {
+
+    @TableId(value = "category_id", type = IdType.INPUT)
+    @Schema(description = "分类ID")
+    private Long categoryId;
+
+    @Schema(description = "销量")
+    @TableField("sales_count")
+    private Long salesCount;
+
+    @Schema(description = "更新时间")
+    @TableField("update_time")
+    private LocalDateTime updateTime;
+}
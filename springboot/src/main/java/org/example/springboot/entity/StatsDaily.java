@@ -0,0 +1,56 @@
+package org.example.springboot.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日统计汇总实体类
+ * 由业务事件增量维护，可通过重建任务从历史数据回填
+ * @author system
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("t_stats_daily")
+@Schema(description = "每日统计汇总实体类")
+public class StatsDaily {
+
+    @TableId(value = "stat_date", type = IdType.INPUT)
+    @Schema(description = "统计日期")
+    private LocalDate statDate;
+
+    @Schema(description = "订单数")
+    @TableField("order_count")
+    private Long orderCount;
+
+    @Schema(description = "订单金额（单位：分）")
+    @TableField("order_amount")
+    private Long orderAmount;
+
+    @Schema(description = "完成订单数（按完成时间统计）")
+    @TableField("completed_orders")
+    private Long completedOrders;
+
+    @Schema(description = "新增用户数")
+    @TableField("new_users")
+    private Long newUsers;
+
+    @Schema(description = "新增收藏数")
+    @TableField("new_favorites")
+    private Long newFavorites;
+
+    @Schema(description = "更新时间")
+    @TableField("update_time")
+    private LocalDateTime updateTime;
+}
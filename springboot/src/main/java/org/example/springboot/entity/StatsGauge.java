@@ -0,0 +1,59 @@
+package org.example.springboot.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 当前状态统计汇总实体类
+ * 活跃用户数、各状态订单数、购物车统计等时点数值，由业务事件增量维护，可通过重建任务回填
+ * @author system
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("t_stats_gauge")
+@Schema(description = "当前状态统计汇总实体类")
+public class StatsGauge {
+
+    /**
+     * 活跃用户数
+     */
+    public static final String ACTIVE_USERS = "ACTIVE_USERS";
+
+    /**
+     * 各状态订单数的键前缀，后接订单状态
+     */
+    public static final String ORDER_STATUS_PREFIX = "ORDER_STATUS_";
+
+    /**
+     * 有商品的购物车数（按用户计）
+     */
+    public static final String CART_USERS = "CART_USERS";
+
+    /**
+     * 购物车商品总数
+     */
+    public static final String CART_ITEMS = "CART_ITEMS";
+
+    @TableId(value = "gauge_key", type = IdType.INPUT)
+    @Schema(description = "统计项")
+    private String gaugeKey;
+
+    @Schema(description = "统计值")
+    @TableField("gauge_value")
+    private Long gaugeValue;
+
+    @Schema(description = "更新时间")
+    @TableField("update_time")
+    private LocalDateTime updateTime;
+}
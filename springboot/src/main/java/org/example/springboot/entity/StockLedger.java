@@ -0,0 +1,44 @@
+package org.example.springboot.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 库存流水实体类
+ * 内存库存模式下，每次库存变动随业务事务写入一条流水，
+ * 由回写任务合并后批量应用到 t_snack.stock 并删除
+ * @author system
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("t_stock_ledger")
+@Schema(description = "库存流水实体类")
+public class StockLedger {
+
+    @TableId(type = IdType.AUTO)
+    @Schema(description = "流水ID")
+    private Long id;
+
+    @Schema(description = "零食ID")
+    @TableField("snack_id")
+    private Long snackId;
+
+    @Schema(description = "库存变动量（正数增加，负数减少）")
+    @TableField("delta")
+    private Integer delta;
+
+    @Schema(description = "创建时间")
+    @TableField("create_time")
+    private LocalDateTime createTime;
+}
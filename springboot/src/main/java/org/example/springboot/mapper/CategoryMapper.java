@@ -2,6 +2,8 @@ package org.example.springboot.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+import org.example.springboot.DTO.response.DashboardStatsResponseDTO;
 import org.example.springboot.entity.Category;
 
 /**
@@ -10,6 +12,16 @@ import org.example.springboot.entity.Category;
  */
 @Mapper
 public interface CategoryMapper extends BaseMapper<Category> {
-    // 继承BaseMapper，获得基础的CRUD操作
-    // 所有复杂查询都在Service层使用Lambda构造器实现
+    // 继承BaseMapper，获得基础的CRUD操作，统计类聚合查询使用注解SQL
+
+    /**
+     * 分类汇总统计（单次扫描）
+     * @return 分类统计
+     */
+    @Select("SELECT " +
+            "COUNT(*) AS totalCategories, " +
+            "COALESCE(SUM(CASE WHEN status = 'ACTIVE' THEN 1 ELSE 0 END), 0) AS activeCategories, " +
+            "COALESCE(SUM(CASE WHEN status = 'INACTIVE' THEN 1 ELSE 0 END), 0) AS inactiveCategories " +
+            "FROM t_category")
+    DashboardStatsResponseDTO.CategoryStats selectCategoryStats();
 }
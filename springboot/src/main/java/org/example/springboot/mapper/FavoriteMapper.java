@@ -8,6 +8,9 @@ import org.apache.ibatis.annotations.Select;
 import org.example.springboot.DTO.response.FavoriteResponseDTO;
 import org.example.springboot.entity.Favorite;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * 收藏数据访问层
  * @author system
@@ -43,6 +46,55 @@ public interface FavoriteMapper extends BaseMapper<Favorite> {
             "ORDER BY f.create_time DESC")
     Page<FavoriteResponseDTO> selectUserFavoritesWithDetails(Page<FavoriteResponseDTO> page, @Param("userId") Long userId);
 
+    /**
+     * 游标查询用户收藏列表（包含商品详细信息），按收藏时间、收藏ID倒序
+     * @param userId 用户ID
+     * @param cursorTime 游标位置的收藏时间，首页为空
+     * @param cursorId 游标位置的收藏ID，首页为空
+     * @param limit 查询条数
+     * @return 收藏列表
+     */
+    @Select("<script>" +
+            "SELECT " +
+            "f.id AS favoriteId, " +
+            "f.create_time AS favoriteTime, " +
+            "s.id AS snackId, " +
+            "s.name AS snackName, " +
+            "s.description AS snackDescription, " +
+            "ROUND(s.price / 100.0, 2) AS price, " +
+            "s.stock, " +
+            "s.cover_image AS coverImage, " +
+            "s.status, " +
+            "s.sales_count AS salesCount, " +
+            "s.favorite_count AS favoriteCount, " +
+            "c.id AS categoryId, " +
+            "c.name AS categoryName, " +
+            "CASE WHEN s.status = 'ON_SALE' AND s.stock > 0 THEN 1 ELSE 0 END AS canPurchase " +
+            "FROM t_favorite f " +
+            "LEFT JOIN t_snack s ON f.snack_id = s.id " +
+            "LEFT JOIN t_category c ON s.category_id = c.id " +
+            "WHERE f.user_id = #{userId} AND s.status = 'ON_SALE' " +
+            "<if test='cursorTime != null'>" +
+            "AND (f.create_time &lt; #{cursorTime} OR (f.create_time = #{cursorTime} AND f.id &lt; #{cursorId})) " +
+            "</if>" +
+            "ORDER BY f.create_time DESC, f.id DESC " +
+            "LIMIT #{limit}" +
+            "</script>")
+    List<FavoriteResponseDTO> selectUserFavoritesAfter(@Param("userId") Long userId,
+                                                       @Param("cursorTime") LocalDateTime cursorTime,
+                                                       @Param("cursorId") Long cursorId,
+                                                       @Param("limit") int limit);
+
+    /**
+     * 统计用户收藏的上架商品数量（与收藏列表口径一致）
+     * @param userId 用户ID
+     * @return 收藏数量
+     */
+    @Select("SELECT COUNT(*) FROM t_favorite f " +
+            "JOIN t_snack s ON f.snack_id = s.id " +
+            "WHERE f.user_id = #{userId} AND s.status = 'ON_SALE'")
+    Long countUserOnSaleFavorites(@Param("userId") Long userId);
+
     /**
      * 获取商品的收藏总数
      * @param snackId 商品ID
@@ -2,12 +2,45 @@ package org.example.springboot.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import org.example.springboot.entity.OrderItem;
 
+import java.util.List;
+
 /**
  * 订单项Mapper接口
  * @author system
  */
 @Mapper
 public interface OrderItemMapper extends BaseMapper<OrderItem> {
+
+    /**
+     * 用户是否有包含该零食的已完成订单
+     * 订单表 (user_id, status) 与订单项表 (order_id, snack_id) 索引覆盖，不回表
+     * @param userId 用户ID
+     * @param snackId 零食ID
+     * @return 是否购买过
+     */
+    @Select("SELECT EXISTS (" +
+            "SELECT 1 FROM t_order o JOIN t_order_item oi ON oi.order_id = o.id " +
+            "WHERE o.user_id = #{userId} AND o.status = 'COMPLETED' AND oi.snack_id = #{snackId})")
+    boolean existsCompletedPurchase(@Param("userId") Long userId, @Param("snackId") Long snackId);
+
+    /**
+     * 用户已完成订单中购买过的全部零食ID
+     * @param userId 用户ID
+     * @return 零食ID（去重）
+     */
+    @Select("SELECT DISTINCT oi.snack_id FROM t_order o JOIN t_order_item oi ON oi.order_id = o.id " +
+            "WHERE o.user_id = #{userId} AND o.status = 'COMPLETED'")
+    List<Long> selectCompletedSnackIds(@Param("userId") Long userId);
+
+    /**
+     * 订单包含的零食ID
+     * @param orderId 订单ID
+     * @return 零食ID（去重）
+     */
+    @Select("SELECT DISTINCT snack_id FROM t_order_item WHERE order_id = #{orderId}")
+    List<Long> selectSnackIdsByOrderId(@Param("orderId") Long orderId);
 }
@@ -2,12 +2,35 @@ package org.example.springboot.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.example.springboot.DTO.response.DashboardStatsResponseDTO;
 import org.example.springboot.entity.Order;
 
+import java.util.List;
+
 /**
  * 订单Mapper接口
  * @author system
  */
 @Mapper
 public interface OrderMapper extends BaseMapper<Order> {
+
+    /**
+     * 查询最近订单（关联用户名）
+     * @param limit 返回条数
+     * @return 最近订单列表
+     */
+    @Select("SELECT " +
+            "o.id, " +
+            "o.order_no AS orderNo, " +
+            "COALESCE(u.username, '未知用户') AS username, " +
+            "ROUND(o.total_amount / 100.0, 2) AS totalAmount, " +
+            "o.status, " +
+            "DATE_FORMAT(o.create_time, '%Y-%m-%d %H:%i:%s') AS createTime " +
+            "FROM t_order o " +
+            "LEFT JOIN t_user u ON o.user_id = u.id " +
+            "ORDER BY o.create_time DESC " +
+            "LIMIT #{limit}")
+    List<DashboardStatsResponseDTO.RecentOrderDTO> selectRecentOrdersWithUsername(@Param("limit") int limit);
 }
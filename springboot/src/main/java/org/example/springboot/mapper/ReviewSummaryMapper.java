@@ -0,0 +1,43 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.example.springboot.entity.ReviewSummary;
+
+/**
+ * 评价汇总数据访问层
+ * @author system
+ */
+@Mapper
+public interface ReviewSummaryMapper extends BaseMapper<ReviewSummary> {
+
+    /**
+     * 累加一个零食的评价增量，记录不存在时插入
+     * @param delta 评价增量
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO t_review_summary (snack_id, review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5, update_time) " +
+            "VALUES (#{snackId}, #{reviewCount}, #{ratingSum}, #{rating1}, #{rating2}, #{rating3}, #{rating4}, #{rating5}, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "review_count = review_count + VALUES(review_count), " +
+            "rating_sum = rating_sum + VALUES(rating_sum), " +
+            "rating_1 = rating_1 + VALUES(rating_1), " +
+            "rating_2 = rating_2 + VALUES(rating_2), " +
+            "rating_3 = rating_3 + VALUES(rating_3), " +
+            "rating_4 = rating_4 + VALUES(rating_4), " +
+            "rating_5 = rating_5 + VALUES(rating_5), " +
+            "update_time = NOW()")
+    int upsertDelta(ReviewSummary delta);
+
+    /**
+     * 从评价表回填全部零食的汇总
+     */
+    @Insert("INSERT INTO t_review_summary (snack_id, review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5, update_time) " +
+            "SELECT snack_id, COUNT(*), SUM(rating), " +
+            "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END), NOW() " +
+            "FROM t_review GROUP BY snack_id")
+    int rebuild();
+}
@@ -2,15 +2,100 @@ package org.example.springboot.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.example.springboot.DTO.response.DashboardStatsResponseDTO;
 import org.example.springboot.entity.Snack;
 
+import java.util.Map;
+
 /**
  * 零食数据访问层
  * @author system
  */
 @Mapper
 public interface SnackMapper extends BaseMapper<Snack> {
-    // 继承BaseMapper，获得基础的CRUD操作
-    // 所有复杂查询都在Service层使用Lambda构造器实现
-}
+    // 继承BaseMapper，获得基础的CRUD操作，统计类聚合查询使用注解SQL
+
+    /**
+     * 批量条件扣减库存（单条语句，带 stock >= 扣减数 守卫）
+     * 只有库存充足的行会被更新，返回值为实际更新的行数；
+     * 调用方需比较返回值与商品数量，不一致时抛异常回滚整个事务
+     * @param stockMap 商品ID -> 扣减数量
+     * @return 实际扣减成功的行数
+     */
+    @Update("<script>" +
+            "UPDATE t_snack SET stock = stock - CASE id " +
+            "<foreach collection='stockMap' index='snackId' item='quantity'>" +
+            "WHEN #{snackId} THEN #{quantity} " +
+            "</foreach>" +
+            "END " +
+            "WHERE id IN " +
+            "<foreach collection='stockMap' index='snackId' open='(' separator=',' close=')'>" +
+            "#{snackId}" +
+            "</foreach>" +
+            " AND stock >= CASE id " +
+            "<foreach collection='stockMap' index='snackId' item='quantity'>" +
+            "WHEN #{snackId} THEN #{quantity} " +
+            "</foreach>" +
+            "END" +
+            "</script>")
+    int deductStockBatch(@Param("stockMap") Map<Long, Integer> stockMap);
+
+    /**
+     * 批量增加库存（单条语句，数量可为负数，不做守卫）
+     * 用于取消订单恢复库存以及内存库存模式的流水回写
+     * @param stockMap 商品ID -> 增加数量
+     * @return 更新的行数
+     */
+    @Update("<script>" +
+            "UPDATE t_snack SET stock = stock + CASE id " +
+            "<foreach collection='stockMap' index='snackId' item='quantity'>" +
+            "WHEN #{snackId} THEN #{quantity} " +
+            "</foreach>" +
+            "END " +
+            "WHERE id IN " +
+            "<foreach collection='stockMap' index='snackId' open='(' separator=',' close=')'>" +
+            "#{snackId}" +
+            "</foreach>" +
+            "</script>")
+    int addStockBatch(@Param("stockMap") Map<Long, Integer> stockMap);
 
+    /**
+     * 条件调整单个商品库存，调整后库存不能小于0
+     * @param snackId 商品ID
+     * @param delta 调整数量（正数增加，负数减少）
+     * @return 更新的行数，0表示商品不存在或库存不足
+     */
+    @Update("UPDATE t_snack SET stock = stock + #{delta} WHERE id = #{snackId} AND stock + #{delta} >= 0")
+    int adjustStock(@Param("snackId") Long snackId, @Param("delta") Integer delta);
+
+    /**
+     * 从评价汇总表同步评价数和平均评分（冗余字段，供前台排序和筛选），不改变更新时间
+     * @param snackId 商品ID，为空时同步全部商品
+     * @return 更新的行数
+     */
+    @Update("<script>" +
+            "UPDATE t_snack s SET " +
+            "review_count = COALESCE((SELECT r.review_count FROM t_review_summary r WHERE r.snack_id = s.id), 0), " +
+            "rating_avg = COALESCE((SELECT ROUND(r.rating_sum * 1.0 / r.review_count, 2) FROM t_review_summary r " +
+            "WHERE r.snack_id = s.id AND r.review_count > 0), 0), " +
+            "update_time = update_time" +
+            "<if test='snackId != null'> WHERE s.id = #{snackId}</if>" +
+            "</script>")
+    int syncReviewStats(@Param("snackId") Long snackId);
+
+    /**
+     * 商品汇总统计（单次扫描）
+     * @param lowStockThreshold 库存不足阈值
+     * @return 商品统计
+     */
+    @Select("SELECT " +
+            "COUNT(*) AS totalSnacks, " +
+            "COALESCE(SUM(CASE WHEN status = 'ON_SALE' THEN 1 ELSE 0 END), 0) AS onSaleSnacks, " +
+            "COALESCE(SUM(CASE WHEN status = 'OFF_SHELF' THEN 1 ELSE 0 END), 0) AS offShelfSnacks, " +
+            "COALESCE(SUM(CASE WHEN stock <= #{lowStockThreshold} THEN 1 ELSE 0 END), 0) AS lowStockSnacks " +
+            "FROM t_snack")
+    DashboardStatsResponseDTO.SnackStats selectSnackStats(@Param("lowStockThreshold") int lowStockThreshold);
+}
@@ -0,0 +1,60 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.example.springboot.DTO.response.DashboardStatsResponseDTO;
+import org.example.springboot.entity.StatsCategorySales;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分类销量统计汇总数据访问层
+ * @author system
+ */
+@Mapper
+public interface StatsCategorySalesMapper extends BaseMapper<StatsCategorySales> {
+
+    /**
+     * 批量累加分类销量（单条语句）
+     * @param salesMap 分类ID -> 销量增量（可为负数）
+     * @return 影响行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO t_stats_category_sales (category_id, sales_count, update_time) VALUES " +
+            "<foreach collection='salesMap' index='categoryId' item='sales' separator=','>" +
+            "(#{categoryId}, #{sales}, NOW())" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE sales_count = sales_count + VALUES(sales_count), update_time = NOW()" +
+            "</script>")
+    int upsertDelta(@Param("salesMap") Map<Long, Long> salesMap);
+
+    /**
+     * 从订单项回填分类销量（不含已取消订单）
+     */
+    @Insert("INSERT INTO t_stats_category_sales (category_id, sales_count, update_time) " +
+            "SELECT s.category_id, SUM(oi.quantity), NOW() " +
+            "FROM t_order_item oi " +
+            "INNER JOIN t_order o ON oi.order_id = o.id " +
+            "INNER JOIN t_snack s ON oi.snack_id = s.id " +
+            "WHERE o.status <> 'CANCELLED' " +
+            "GROUP BY s.category_id")
+    int rebuild();
+
+    /**
+     * 查询启用分类的销量（过滤无销量的分类）
+     * @return 分类销量，按销量降序
+     */
+    @Select("SELECT " +
+            "c.name AS categoryName, " +
+            "r.sales_count AS salesCount, " +
+            "(SELECT COUNT(*) FROM t_snack s WHERE s.category_id = c.id AND s.status = 'ON_SALE') AS snackCount " +
+            "FROM t_stats_category_sales r " +
+            "INNER JOIN t_category c ON r.category_id = c.id " +
+            "WHERE c.status = 'ACTIVE' AND r.sales_count > 0 " +
+            "ORDER BY r.sales_count DESC")
+    List<DashboardStatsResponseDTO.CategorySalesDTO> selectCategorySales();
+}
@@ -0,0 +1,66 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.example.springboot.entity.StatsDaily;
+
+/**
+ * 每日统计汇总数据访问层
+ * @author system
+ */
+@Mapper
+public interface StatsDailyMapper extends BaseMapper<StatsDaily> {
+
+    /**
+     * 累加一天的统计增量，当天记录不存在时插入
+     * @param delta 统计增量
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO t_stats_daily (stat_date, order_count, order_amount, completed_orders, new_users, new_favorites, update_time) " +
+            "VALUES (#{statDate}, #{orderCount}, #{orderAmount}, #{completedOrders}, #{newUsers}, #{newFavorites}, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "order_count = order_count + VALUES(order_count), " +
+            "order_amount = order_amount + VALUES(order_amount), " +
+            "completed_orders = completed_orders + VALUES(completed_orders), " +
+            "new_users = new_users + VALUES(new_users), " +
+            "new_favorites = new_favorites + VALUES(new_favorites), " +
+            "update_time = NOW()")
+    int upsertDelta(StatsDaily delta);
+
+    /**
+     * 从订单表回填每日订单数和订单金额
+     */
+    @Insert("INSERT INTO t_stats_daily (stat_date, order_count, order_amount, update_time) " +
+            "SELECT DATE(create_time), COUNT(*), SUM(total_amount), NOW() FROM t_order " +
+            "WHERE create_time IS NOT NULL GROUP BY DATE(create_time) " +
+            "ON DUPLICATE KEY UPDATE order_count = VALUES(order_count), order_amount = VALUES(order_amount)")
+    int rebuildOrders();
+
+    /**
+     * 从订单表回填每日完成订单数
+     */
+    @Insert("INSERT INTO t_stats_daily (stat_date, completed_orders, update_time) " +
+            "SELECT DATE(complete_time), COUNT(*), NOW() FROM t_order " +
+            "WHERE status = 'COMPLETED' AND complete_time IS NOT NULL GROUP BY DATE(complete_time) " +
+            "ON DUPLICATE KEY UPDATE completed_orders = VALUES(completed_orders)")
+    int rebuildCompletedOrders();
+
+    /**
+     * 从用户表回填每日新增用户数
+     */
+    @Insert("INSERT INTO t_stats_daily (stat_date, new_users, update_time) " +
+            "SELECT DATE(create_time), COUNT(*), NOW() FROM t_user " +
+            "WHERE create_time IS NOT NULL GROUP BY DATE(create_time) " +
+            "ON DUPLICATE KEY UPDATE new_users = VALUES(new_users)")
+    int rebuildNewUsers();
+
+    /**
+     * 从收藏表回填每日新增收藏数
+     */
+    @Insert("INSERT INTO t_stats_daily (stat_date, new_favorites, update_time) " +
+            "SELECT DATE(create_time), COUNT(*), NOW() FROM t_favorite " +
+            "WHERE create_time IS NOT NULL GROUP BY DATE(create_time) " +
+            "ON DUPLICATE KEY UPDATE new_favorites = VALUES(new_favorites)")
+    int rebuildNewFavorites();
+}
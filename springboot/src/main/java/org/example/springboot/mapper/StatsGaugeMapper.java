@@ -0,0 +1,54 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.example.springboot.entity.StatsGauge;
+
+import java.util.Map;
+
+/**
+ * 当前状态统计汇总数据访问层
+ * @author system
+ */
+@Mapper
+public interface StatsGaugeMapper extends BaseMapper<StatsGauge> {
+
+    /**
+     * 批量累加统计值（单条语句）
+     * @param deltaMap 统计项 -> 增量（可为负数）
+     * @return 影响行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO t_stats_gauge (gauge_key, gauge_value, update_time) VALUES " +
+            "<foreach collection='deltaMap' index='gaugeKey' item='delta' separator=','>" +
+            "(#{gaugeKey}, #{delta}, NOW())" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE gauge_value = gauge_value + VALUES(gauge_value), update_time = NOW()" +
+            "</script>")
+    int upsertDelta(@Param("deltaMap") Map<String, Long> deltaMap);
+
+    /**
+     * 从用户表回填活跃用户数
+     */
+    @Insert("INSERT INTO t_stats_gauge (gauge_key, gauge_value, update_time) " +
+            "SELECT 'ACTIVE_USERS', COUNT(*), NOW() FROM t_user WHERE status = 'ACTIVE'")
+    int rebuildActiveUsers();
+
+    /**
+     * 从订单表回填各状态订单数
+     */
+    @Insert("INSERT INTO t_stats_gauge (gauge_key, gauge_value, update_time) " +
+            "SELECT CONCAT('ORDER_STATUS_', status), COUNT(*), NOW() FROM t_order GROUP BY status")
+    int rebuildOrderStatus();
+
+    /**
+     * 从购物车表回填有商品的购物车数和商品总数
+     */
+    @Insert("INSERT INTO t_stats_gauge (gauge_key, gauge_value, update_time) " +
+            "SELECT 'CART_USERS', COUNT(DISTINCT CASE WHEN quantity > 0 THEN user_id END), NOW() FROM t_cart " +
+            "UNION ALL " +
+            "SELECT 'CART_ITEMS', COALESCE(SUM(quantity), 0), NOW() FROM t_cart")
+    int rebuildCart();
+}
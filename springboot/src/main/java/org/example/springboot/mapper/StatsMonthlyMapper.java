@@ -0,0 +1,53 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+import org.example.springboot.entity.StatsMonthly;
+
+/**
+ * 每月统计汇总数据访问层
+ * @author system
+ */
+@Mapper
+public interface StatsMonthlyMapper extends BaseMapper<StatsMonthly> {
+
+    /**
+     * 累加一个月的统计增量，当月记录不存在时插入
+     * @param delta 统计增量
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO t_stats_monthly (stat_month, order_count, order_amount, completed_orders, new_users, new_favorites, update_time) " +
+            "VALUES (#{statMonth}, #{orderCount}, #{orderAmount}, #{completedOrders}, #{newUsers}, #{newFavorites}, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "order_count = order_count + VALUES(order_count), " +
+            "order_amount = order_amount + VALUES(order_amount), " +
+            "completed_orders = completed_orders + VALUES(completed_orders), " +
+            "new_users = new_users + VALUES(new_users), " +
+            "new_favorites = new_favorites + VALUES(new_favorites), " +
+            "update_time = NOW()")
+    int upsertDelta(StatsMonthly delta);
+
+    /**
+     * 汇总全部月份，得到历史累计值（每年只有12行，开销可忽略）
+     * @return 累计统计，statMonth 为空
+     */
+    @Select("SELECT " +
+            "COALESCE(SUM(order_count), 0) AS orderCount, " +
+            "COALESCE(SUM(order_amount), 0) AS orderAmount, " +
+            "COALESCE(SUM(completed_orders), 0) AS completedOrders, " +
+            "COALESCE(SUM(new_users), 0) AS newUsers, " +
+            "COALESCE(SUM(new_favorites), 0) AS newFavorites " +
+            "FROM t_stats_monthly")
+    StatsMonthly selectTotals();
+
+    /**
+     * 由每日汇总重建每月汇总
+     */
+    @Insert("INSERT INTO t_stats_monthly (stat_month, order_count, order_amount, completed_orders, new_users, new_favorites, update_time) " +
+            "SELECT DATE_FORMAT(stat_date, '%Y-%m'), SUM(order_count), SUM(order_amount), " +
+            "SUM(completed_orders), SUM(new_users), SUM(new_favorites), NOW() " +
+            "FROM t_stats_daily GROUP BY DATE_FORMAT(stat_date, '%Y-%m')")
+    int rebuildFromDaily();
+}
@@ -0,0 +1,41 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.example.springboot.entity.StockLedger;
+
+import java.util.Map;
+
+/**
+ * 库存流水数据访问层
+ * @author system
+ */
+@Mapper
+public interface StockLedgerMapper extends BaseMapper<StockLedger> {
+
+    /**
+     * 批量写入库存流水（单条 INSERT）
+     * @param deltaMap 零食ID -> 库存变动量
+     * @return 写入行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO t_stock_ledger (snack_id, delta, create_time) VALUES " +
+            "<foreach collection='deltaMap' index='snackId' item='delta' separator=','>" +
+            "(#{snackId}, #{delta}, CURRENT_TIMESTAMP)" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("deltaMap") Map<Long, Integer> deltaMap);
+
+    /**
+     * 查询商品的实时库存：t_snack.stock 加上尚未回写的流水
+     * 单条语句读取，保证与回写任务并发时读到一致快照
+     * @param snackId 零食ID
+     * @return 实时库存，商品不存在时返回 null
+     */
+    @Select("SELECT s.stock + COALESCE((SELECT SUM(l.delta) FROM t_stock_ledger l WHERE l.snack_id = s.id), 0) " +
+            "FROM t_snack s WHERE s.id = #{snackId}")
+    Integer selectEffectiveStock(@Param("snackId") Long snackId);
+}
@@ -15,7 +15,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.annotation.Resource;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 收货地址管理服务
@@ -162,6 +165,21 @@ public class AddressService {
         return AddressConvert.convertToResponseDTO(address);
     }
 
+    /**
+     * 批量获取地址（供订单列表展开地址使用，一次查询）
+     * 不校验归属，调用方需保证地址ID来自有权访问的订单
+     * @param addressIds 地址ID
+     * @return 地址ID到地址的映射，已删除的地址不包含在内
+     */
+    public Map<Long, AddressResponseDTO> getAddressMapByIds(Collection<Long> addressIds) {
+        if (addressIds == null || addressIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Address> addressList = addressMapper.selectBatchIds(addressIds);
+        return addressList.stream()
+                .collect(Collectors.toMap(Address::getId, AddressConvert::convertToResponseDTO));
+    }
+
     /**
      * 获取用户默认地址
      */
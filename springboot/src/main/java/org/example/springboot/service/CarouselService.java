@@ -7,17 +7,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.springboot.DTO.command.CarouselCreateDTO;
 import org.example.springboot.DTO.command.CarouselUpdateDTO;
 import org.example.springboot.DTO.response.CarouselResponseDTO;
+import org.example.springboot.config.ImageDerivativeConfig;
 import org.example.springboot.entity.Carousel;
 import org.example.springboot.enumClass.FileBusinessTypeEnum;
 import org.example.springboot.exception.BusinessException;
 import org.example.springboot.mapper.CarouselMapper;
 import org.example.springboot.service.convert.CarouselConvert;
 import org.example.springboot.DTO.FileInfoDTO;
+import org.example.springboot.util.FileUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -82,9 +85,8 @@ public class CarouselService {
         Page<CarouselResponseDTO> dtoPage = new Page<>(entityPage.getCurrent(), entityPage.getSize(), entityPage.getTotal());
         List<CarouselResponseDTO> records = entityPage.getRecords().stream()
                 .map(CarouselConvert::toResponse)
-                .map(this::attachImage)
                 .collect(Collectors.toList());
-        dtoPage.setRecords(records);
+        dtoPage.setRecords(attachImages(records));
         return dtoPage;
     }
 
@@ -96,7 +98,7 @@ public class CarouselService {
                 .and(w -> w.isNull(Carousel::getEndTime).or().ge(Carousel::getEndTime, now))
                 .orderByAsc(Carousel::getSortOrder).orderByDesc(Carousel::getCreateTime);
         List<Carousel> list = carouselMapper.selectList(wrapper);
-        return list.stream().map(CarouselConvert::toResponse).map(this::attachImage).collect(Collectors.toList());
+        return attachImages(list.stream().map(CarouselConvert::toResponse).collect(Collectors.toList()));
     }
 
     private void validateTimeRange(LocalDateTime start, LocalDateTime end) {
@@ -111,10 +113,35 @@ public class CarouselService {
         }
         List<FileInfoDTO> files = fileService.getFilesByBusiness(FileBusinessTypeEnum.CAROUSEL_IMAGE.getCode(), String.valueOf(dto.getId()));
         if (files != null && !files.isEmpty()) {
-            dto.setImageUrl(files.get(0).getFilePath());
+            setImage(dto, files.get(0).getFilePath());
         }
         return dto;
     }
+
+    /**
+     * 批量填充图片地址，一次查询列表中全部轮播图的图片
+     */
+    private List<CarouselResponseDTO> attachImages(List<CarouselResponseDTO> dtos) {
+        List<String> ids = dtos.stream()
+                .map(CarouselResponseDTO::getId)
+                .filter(Objects::nonNull)
+                .map(String::valueOf)
+                .collect(Collectors.toList());
+        Map<String, List<FileInfoDTO>> filesByCarousel =
+                fileService.getFilesByBusinessIds(FileBusinessTypeEnum.CAROUSEL_IMAGE.getCode(), ids);
+        for (CarouselResponseDTO dto : dtos) {
+            List<FileInfoDTO> files = dto.getId() == null ? null : filesByCarousel.get(String.valueOf(dto.getId()));
+            if (files != null && !files.isEmpty()) {
+                setImage(dto, files.get(0).getFilePath());
+            }
+        }
+        return dtos;
+    }
+
+    private void setImage(CarouselResponseDTO dto, String filePath) {
+        dto.setImageUrl(filePath);
+        dto.setBannerUrl(FileUtil.imageVariantUrl(filePath, ImageDerivativeConfig.BANNER_WIDTH));
+    }
 }
 
 
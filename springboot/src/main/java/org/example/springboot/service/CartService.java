@@ -14,16 +14,16 @@ import java.util.stream.Collectors;
 
 import org.example.springboot.entity.Cart;
 import org.example.springboot.entity.Snack;
-import org.example.springboot.entity.Category;
 import org.example.springboot.mapper.CartMapper;
 import org.example.springboot.mapper.SnackMapper;
-import org.example.springboot.mapper.CategoryMapper;
 import org.example.springboot.DTO.command.CartAddCommandDTO;
 import org.example.springboot.DTO.command.CartUpdateCommandDTO;
 import org.example.springboot.DTO.response.CartItemResponseDTO;
 import org.example.springboot.DTO.response.CartListResponseDTO;
 import org.example.springboot.exception.BusinessException;
+import org.example.springboot.service.cache.CategoryDictionary;
 import org.example.springboot.service.convert.CartConvert;
+import org.example.springboot.service.stock.StockEngine;
 
 /**
  * 购物车业务逻辑层
@@ -40,7 +40,13 @@ public class CartService {
     private SnackMapper snackMapper;
 
     @Resource
-    private CategoryMapper categoryMapper;
+    private CategoryDictionary categoryDictionary;
+
+    @Resource
+    private StockEngine stockEngine;
+
+    @Resource
+    private DashboardRollupService dashboardRollupService;
 
     /**
      * 添加商品到购物车
@@ -66,8 +72,9 @@ public class CartService {
             int newQuantity = existingCart.getQuantity() + commandDTO.getQuantity();
             
             // 再次校验总数量是否超过库存
-            if (newQuantity > snack.getStock()) {
-                throw new BusinessException("商品库存不足，当前库存: " + snack.getStock() + 
+            int stock = stockEngine.getAvailableStock(snack);
+            if (newQuantity > stock) {
+                throw new BusinessException("商品库存不足，当前库存: " + stock + 
                                           "，购物车已有: " + existingCart.getQuantity() + 
                                           "，尝试添加: " + commandDTO.getQuantity());
             }
@@ -75,6 +82,7 @@ public class CartService {
             existingCart.setQuantity(newQuantity);
             existingCart.setUpdateTime(LocalDateTime.now());
             cartMapper.updateById(existingCart);
+            dashboardRollupService.onCartChanged(userId, commandDTO.getQuantity(), 0);
             
             log.info("更新购物车商品数量成功，购物车ID: {}, 新数量: {}", existingCart.getId(), newQuantity);
             return buildCartItemResponse(existingCart, snack);
@@ -84,6 +92,7 @@ public class CartService {
             newCart.setCreateTime(LocalDateTime.now());
             newCart.setUpdateTime(LocalDateTime.now());
             cartMapper.insert(newCart);
+            dashboardRollupService.onCartChanged(userId, commandDTO.getQuantity(), 1);
             
             log.info("添加商品到购物车成功，购物车ID: {}", newCart.getId());
             return buildCartItemResponse(newCart, snack);
@@ -121,22 +130,12 @@ public class CartService {
         Map<Long, Snack> snackMap = snackList.stream()
                 .collect(Collectors.toMap(Snack::getId, snack -> snack));
         
-        // 4. 批量查询分类信息
+        // 4. 从分类字典获取分类名称
         List<Long> categoryIds = snackList.stream()
                 .map(Snack::getCategoryId)
                 .distinct()
                 .collect(Collectors.toList());
-        
-        final Map<Long, String> categoryMap;
-        if (!categoryIds.isEmpty()) {
-            LambdaQueryWrapper<Category> categoryQueryWrapper = new LambdaQueryWrapper<>();
-            categoryQueryWrapper.in(Category::getId, categoryIds);
-            List<Category> categoryList = categoryMapper.selectList(categoryQueryWrapper);
-            categoryMap = categoryList.stream()
-                    .collect(Collectors.toMap(Category::getId, Category::getName));
-        } else {
-            categoryMap = Map.of();
-        }
+        Map<Long, String> categoryMap = categoryDictionary.getNames(categoryIds);
         
         // 5. 构建响应DTO列表
         List<CartItemResponseDTO> itemList = cartList.stream()
@@ -148,7 +147,7 @@ public class CartService {
                         return null;
                     }
                     String categoryName = categoryMap.get(snack.getCategoryId());
-                    return CartConvert.toCartItemResponse(cart, snack, categoryName);
+                    return CartConvert.toCartItemResponse(cart, snack, categoryName, stockEngine.getAvailableStock(snack));
                 })
                 .filter(item -> item != null) // 过滤掉null项（商品不存在的情况）
                 .collect(Collectors.toList());
@@ -175,9 +174,11 @@ public class CartService {
         Snack snack = validateSnackForCart(cart.getSnackId(), commandDTO.getQuantity());
         
         // 3. 更新数量
+        int oldQuantity = cart.getQuantity();
         cart.setQuantity(commandDTO.getQuantity());
         cart.setUpdateTime(LocalDateTime.now());
         cartMapper.updateById(cart);
+        dashboardRollupService.onCartChanged(userId, commandDTO.getQuantity() - oldQuantity, 0);
         
         log.info("更新购物车商品数量成功，购物车ID: {}, 新数量: {}", cartId, commandDTO.getQuantity());
         return buildCartItemResponse(cart, snack);
@@ -197,6 +198,7 @@ public class CartService {
         
         // 删除购物车项
         cartMapper.deleteById(cartId);
+        dashboardRollupService.onCartChanged(userId, -cart.getQuantity(), -1);
         
         log.info("删除购物车商品成功，购物车ID: {}", cartId);
     }
@@ -226,6 +228,8 @@ public class CartService {
         
         // 批量删除
         cartMapper.deleteBatchIds(cartIds);
+        dashboardRollupService.onCartChanged(userId,
+                -cartList.stream().mapToLong(Cart::getQuantity).sum(), -cartList.size());
         
         log.info("批量删除购物车商品成功，删除数量: {}", cartIds.size());
     }
@@ -240,7 +244,13 @@ public class CartService {
         
         LambdaQueryWrapper<Cart> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(Cart::getUserId, userId);
+        List<Cart> cartList = cartMapper.selectList(queryWrapper);
+        if (cartList.isEmpty()) {
+            return;
+        }
         cartMapper.delete(queryWrapper);
+        dashboardRollupService.onCartChanged(userId,
+                -cartList.stream().mapToLong(Cart::getQuantity).sum(), -cartList.size());
         
         log.info("清空购物车成功，用户ID: {}", userId);
     }
@@ -278,9 +288,10 @@ public class CartService {
             throw new BusinessException("商品已下架，无法加入购物车");
         }
         
-        // 检查库存
-        if (snack.getStock() == null || snack.getStock() < quantity) {
-            throw new BusinessException("商品库存不足，当前库存: " + (snack.getStock() == null ? 0 : snack.getStock()));
+        // 检查库存（内存库存模式下 t_snack.stock 可能尚未回写）
+        int stock = stockEngine.getAvailableStock(snack);
+        if (stock < quantity) {
+            throw new BusinessException("商品库存不足，当前库存: " + stock);
         }
         
         return snack;
@@ -306,13 +317,9 @@ public class CartService {
      * 构建购物车项响应DTO
      */
     private CartItemResponseDTO buildCartItemResponse(Cart cart, Snack snack) {
-        // 获取分类信息
-        String categoryName = null;
-        if (snack.getCategoryId() != null) {
-            Category category = categoryMapper.selectById(snack.getCategoryId());
-            categoryName = category != null ? category.getName() : null;
-        }
+        // 从分类字典获取分类名称
+        String categoryName = categoryDictionary.getName(snack.getCategoryId());
         
-        return CartConvert.toCartItemResponse(cart, snack, categoryName);
+        return CartConvert.toCartItemResponse(cart, snack, categoryName, stockEngine.getAvailableStock(snack));
     }
 }
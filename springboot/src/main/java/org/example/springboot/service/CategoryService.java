@@ -19,6 +19,7 @@ import org.example.springboot.DTO.command.CategoryUpdateDTO;
 import org.example.springboot.DTO.response.CategoryResponseDTO;
 import org.example.springboot.enumClass.CategoryStatus;
 import org.example.springboot.exception.BusinessException;
+import org.example.springboot.service.cache.CategoryDictionary;
 import org.example.springboot.service.convert.CategoryConvert;
 
 /**
@@ -32,6 +33,9 @@ public class CategoryService {
     @Resource
     private CategoryMapper categoryMapper;
 
+    @Resource
+    private CategoryDictionary categoryDictionary;
+
     /**
      * 创建分类
      * @param createDTO 创建分类命令
@@ -47,6 +51,7 @@ public class CategoryService {
         // 转换并保存
         Category category = CategoryConvert.createCommandToEntity(createDTO);
         categoryMapper.insert(category);
+        categoryDictionary.refresh();
         
         log.info("分类创建成功，ID: {}", category.getId());
         return CategoryConvert.entityToResponse(category);
@@ -86,6 +91,7 @@ public class CategoryService {
         }
         
         categoryMapper.update(null, updateWrapper);
+        categoryDictionary.refresh();
         
         // 查询更新后的数据
         Category updatedCategory = getCategoryById(updateDTO.getId());
@@ -108,6 +114,7 @@ public class CategoryService {
         checkRelatedSnacks(categoryId);
         
         categoryMapper.deleteById(categoryId);
+        categoryDictionary.refresh();
         log.info("分类删除成功，ID: {}", categoryId);
     }
 
@@ -195,6 +202,7 @@ public class CategoryService {
         updateWrapper.set(Category::getStatus, status);
         
         categoryMapper.update(null, updateWrapper);
+        categoryDictionary.refresh();
         log.info("分类状态更新成功，ID: {}", categoryId);
     }
 
@@ -0,0 +1,375 @@
+package org.example.springboot.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.Resource;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.entity.Cart;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.entity.StatsDaily;
+import org.example.springboot.entity.StatsGauge;
+import org.example.springboot.entity.StatsMonthly;
+import org.example.springboot.enumClass.OrderStatus;
+import org.example.springboot.enumClass.UserStatus;
+import org.example.springboot.mapper.CartMapper;
+import org.example.springboot.mapper.SnackMapper;
+import org.example.springboot.mapper.StatsCategorySalesMapper;
+import org.example.springboot.mapper.StatsDailyMapper;
+import org.example.springboot.mapper.StatsGaugeMapper;
+import org.example.springboot.mapper.StatsMonthlyMapper;
+import org.example.springboot.util.TransactionUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 仪表板统计汇总服务
+ * 维护每日/每月统计汇总表、分类销量汇总表和当前状态汇总表：
+ * - 订单、用户、收藏等业务事务提交后，按事件累加对应日期和月份的统计增量
+ * - 活跃用户数、各状态订单数、购物车统计按状态变化累加，仪表板不再对业务表计数
+ * - 增量在事务提交后单独执行，汇总表行锁不会延长业务事务，统计失败也不影响业务；
+ *   失败的增量记录日志并标记待重建，由定时任务（dashboard.repair-interval）全量重建修复
+ * - 提供重建任务，从业务表全量回填汇总数据
+ * @author system
+ */
+@Slf4j
+@Service
+public class DashboardRollupService {
+
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    @Resource
+    private StatsDailyMapper statsDailyMapper;
+
+    @Resource
+    private StatsMonthlyMapper statsMonthlyMapper;
+
+    @Resource
+    private StatsCategorySalesMapper statsCategorySalesMapper;
+
+    @Resource
+    private StatsGaugeMapper statsGaugeMapper;
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @Resource
+    private CartMapper cartMapper;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 有增量更新失败，汇总数据已不准确，等待定时重建
+     */
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    /**
+     * 订单创建
+     * @param createTime 下单时间
+     * @param totalAmount 订单金额（分）
+     * @param categorySales 分类ID -> 购买数量
+     */
+    public void onOrderCreated(LocalDateTime createTime, int totalAmount, Map<Long, Long> categorySales) {
+        TransactionUtils.afterCommit(() -> apply("订单创建", () -> {
+            applyDelta(createTime, RollupDelta.builder().orderCount(1).orderAmount(totalAmount).build());
+            statsGaugeMapper.upsertDelta(Map.of(StatsGauge.ORDER_STATUS_PREFIX + OrderStatus.UNPAID.name(), 1L));
+            if (!categorySales.isEmpty()) {
+                statsCategorySalesMapper.upsertDelta(categorySales);
+            }
+        }));
+    }
+
+    /**
+     * 订单状态变更，订单创建时的初始状态由 onOrderCreated 计入
+     * @param fromStatus 原状态
+     * @param toStatus 新状态
+     */
+    public void onOrderStatusChanged(String fromStatus, String toStatus) {
+        if (Objects.equals(fromStatus, toStatus)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> apply("订单状态变更", () -> statsGaugeMapper.upsertDelta(Map.of(
+                StatsGauge.ORDER_STATUS_PREFIX + fromStatus, -1L,
+                StatsGauge.ORDER_STATUS_PREFIX + toStatus, 1L))));
+    }
+
+    /**
+     * 订单取消，扣回分类销量（订单数和金额按下单统计，不扣减）
+     * @param snackQuantity 商品ID -> 购买数量
+     */
+    public void onOrderCancelled(Map<Long, Integer> snackQuantity) {
+        if (snackQuantity.isEmpty()) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> apply("订单取消", () -> {
+            List<Snack> snacks = snackMapper.selectBatchIds(snackQuantity.keySet());
+            Map<Long, Long> categorySales = new HashMap<>();
+            for (Snack snack : snacks) {
+                categorySales.merge(snack.getCategoryId(), -snackQuantity.get(snack.getId()).longValue(), Long::sum);
+            }
+            if (!categorySales.isEmpty()) {
+                statsCategorySalesMapper.upsertDelta(categorySales);
+            }
+        }));
+    }
+
+    /**
+     * 订单完成
+     * @param completeTime 完成时间
+     */
+    public void onOrderCompleted(LocalDateTime completeTime) {
+        TransactionUtils.afterCommit(() -> apply("订单完成",
+                () -> applyDelta(completeTime, RollupDelta.builder().completedOrders(1).build())));
+    }
+
+    /**
+     * 用户注册
+     * @param createTime 注册时间
+     * @param status 用户状态
+     */
+    public void onUserRegistered(LocalDateTime createTime, String status) {
+        TransactionUtils.afterCommit(() -> apply("用户注册", () -> {
+            applyDelta(createTime, RollupDelta.builder().newUsers(1).build());
+            if (isActive(status)) {
+                statsGaugeMapper.upsertDelta(Map.of(StatsGauge.ACTIVE_USERS, 1L));
+            }
+        }));
+    }
+
+    /**
+     * 用户删除，从注册当天扣减
+     * @param createTime 注册时间
+     * @param status 删除前的用户状态
+     */
+    public void onUserDeleted(LocalDateTime createTime, String status) {
+        TransactionUtils.afterCommit(() -> apply("用户删除", () -> {
+            applyDelta(createTime, RollupDelta.builder().newUsers(-1).build());
+            if (isActive(status)) {
+                statsGaugeMapper.upsertDelta(Map.of(StatsGauge.ACTIVE_USERS, -1L));
+            }
+        }));
+    }
+
+    /**
+     * 用户状态变更（启用、停用）
+     * @param fromStatus 原状态
+     * @param toStatus 新状态
+     */
+    public void onUserStatusChanged(String fromStatus, String toStatus) {
+        if (isActive(fromStatus) == isActive(toStatus)) {
+            return;
+        }
+        long delta = isActive(toStatus) ? 1L : -1L;
+        TransactionUtils.afterCommit(() -> apply("用户状态变更",
+                () -> statsGaugeMapper.upsertDelta(Map.of(StatsGauge.ACTIVE_USERS, delta))));
+    }
+
+    /**
+     * 购物车变动
+     * 购物车数按用户计：新增行后用户只剩这些行说明此前为空，删除行后用户没有剩余行说明已清空；
+     * 同一用户并发变动时可能有偏差，可通过重建任务修复
+     * @param userId 用户ID
+     * @param quantityDelta 商品数量增量（可为负数）
+     * @param rowDelta 购物车行数增量（可为负数）
+     */
+    public void onCartChanged(Long userId, long quantityDelta, int rowDelta) {
+        if (quantityDelta == 0 && rowDelta == 0) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> apply("购物车变动", () -> {
+            Map<String, Long> deltaMap = new HashMap<>();
+            if (quantityDelta != 0) {
+                deltaMap.put(StatsGauge.CART_ITEMS, quantityDelta);
+            }
+            if (rowDelta != 0) {
+                long rows = cartMapper.selectCount(new LambdaQueryWrapper<Cart>().eq(Cart::getUserId, userId));
+                if (rowDelta > 0 && rows == rowDelta) {
+                    deltaMap.put(StatsGauge.CART_USERS, 1L);
+                } else if (rowDelta < 0 && rows == 0) {
+                    deltaMap.put(StatsGauge.CART_USERS, -1L);
+                }
+            }
+            if (!deltaMap.isEmpty()) {
+                statsGaugeMapper.upsertDelta(deltaMap);
+            }
+        }));
+    }
+
+    /**
+     * 新增收藏
+     * @param createTime 收藏时间
+     */
+    public void onFavoriteAdded(LocalDateTime createTime) {
+        TransactionUtils.afterCommit(() -> apply("新增收藏",
+                () -> applyDelta(createTime, RollupDelta.builder().newFavorites(1).build())));
+    }
+
+    /**
+     * 取消收藏，从收藏当天扣减
+     * @param createTime 收藏时间
+     */
+    public void onFavoriteRemoved(LocalDateTime createTime) {
+        TransactionUtils.afterCommit(() -> apply("取消收藏",
+                () -> applyDelta(createTime, RollupDelta.builder().newFavorites(-1).build())));
+    }
+
+    /**
+     * 重建全部汇总数据
+     * 在单个事务中清空并回填，重建期间产生的增量可能被覆盖，建议在业务低峰执行
+     */
+    public void rebuild() {
+        log.info("开始重建仪表板统计汇总");
+        long start = System.currentTimeMillis();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> doRebuild());
+        log.info("仪表板统计汇总重建完成，耗时{}ms", System.currentTimeMillis() - start);
+    }
+
+    private void doRebuild() {
+        statsDailyMapper.delete(null);
+        statsMonthlyMapper.delete(null);
+        statsCategorySalesMapper.delete(null);
+        statsGaugeMapper.delete(null);
+
+        statsDailyMapper.rebuildOrders();
+        statsDailyMapper.rebuildCompletedOrders();
+        statsDailyMapper.rebuildNewUsers();
+        statsDailyMapper.rebuildNewFavorites();
+        int months = statsMonthlyMapper.rebuildFromDaily();
+        int categories = statsCategorySalesMapper.rebuild();
+        statsGaugeMapper.rebuildActiveUsers();
+        statsGaugeMapper.rebuildOrderStatus();
+        statsGaugeMapper.rebuildCart();
+
+        log.info("统计汇总回填: months={}, categories={}", months, categories);
+    }
+
+    /**
+     * 增量更新失败后的修复任务，有待重建标记时执行全量重建，重建失败保留标记下次重试
+     */
+    @Scheduled(fixedDelayString = "${dashboard.repair-interval:60000}")
+    public void rebuildIfPending() {
+        if (!rebuildPending.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            rebuildPending.set(true);
+            log.error("修复仪表板统计汇总失败，等待下次重试", e);
+        }
+    }
+
+    /**
+     * 是否有失败的增量等待重建修复
+     */
+    public boolean isRebuildPending() {
+        return rebuildPending.get();
+    }
+
+    /**
+     * 首次部署时汇总表为空，自动从历史数据回填
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (statsMonthlyMapper.selectCount(null) == 0 || statsGaugeMapper.selectCount(null) == 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("回填仪表板统计汇总失败", e);
+        }
+    }
+
+    /**
+     * 获取某天的汇总，不存在时返回全0
+     */
+    public StatsDaily getDaily(LocalDate date) {
+        StatsDaily daily = statsDailyMapper.selectById(date);
+        return daily != null ? daily : RollupDelta.builder().build().toDaily(date);
+    }
+
+    /**
+     * 获取某月的汇总，不存在时返回全0
+     */
+    public StatsMonthly getMonthly(LocalDate date) {
+        String month = date.format(MONTH_FORMATTER);
+        StatsMonthly monthly = statsMonthlyMapper.selectById(month);
+        return monthly != null ? monthly : RollupDelta.builder().build().toMonthly(month);
+    }
+
+    /**
+     * 获取当前状态汇总，一次查询返回全部统计项
+     * @return 统计项 -> 统计值，不存在的统计项视为0
+     */
+    public Map<String, Long> getGauges() {
+        return statsGaugeMapper.selectList(null).stream()
+                .collect(Collectors.toMap(StatsGauge::getGaugeKey, StatsGauge::getGaugeValue));
+    }
+
+    private boolean isActive(String status) {
+        return UserStatus.ACTIVE.getCode().equals(status);
+    }
+
+    private void applyDelta(LocalDateTime time, RollupDelta delta) {
+        LocalDate date = time != null ? time.toLocalDate() : LocalDate.now();
+        statsDailyMapper.upsertDelta(delta.toDaily(date));
+        statsMonthlyMapper.upsertDelta(delta.toMonthly(date.format(MONTH_FORMATTER)));
+    }
+
+    private void apply(String event, Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            rebuildPending.set(true);
+            log.error("更新仪表板统计汇总失败: event={}，已标记待重建，由定时任务修复", event, e);
+        }
+    }
+
+    /**
+     * 统计增量
+     */
+    @Builder
+    private static class RollupDelta {
+        private long orderCount;
+        private long orderAmount;
+        private long completedOrders;
+        private long newUsers;
+        private long newFavorites;
+
+        StatsDaily toDaily(LocalDate date) {
+            return StatsDaily.builder()
+                    .statDate(date)
+                    .orderCount(orderCount)
+                    .orderAmount(orderAmount)
+                    .completedOrders(completedOrders)
+                    .newUsers(newUsers)
+                    .newFavorites(newFavorites)
+                    .build();
+        }
+
+        StatsMonthly toMonthly(String month) {
+            return StatsMonthly.builder()
+                    .statMonth(month)
+                    .orderCount(orderCount)
+                    .orderAmount(orderAmount)
+                    .completedOrders(completedOrders)
+                    .newUsers(newUsers)
+                    .newFavorites(newFavorites)
+                    .build();
+        }
+    }
+}
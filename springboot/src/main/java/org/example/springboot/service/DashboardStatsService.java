@@ -1,22 +1,40 @@
 package org.example.springboot.service;
 
-import cn.hutool.core.date.DateUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.example.springboot.DTO.response.DashboardStatsResponseDTO;
-import org.example.springboot.entity.*;
+import org.example.springboot.config.DashboardConfig;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.entity.StatsDaily;
+import org.example.springboot.entity.StatsGauge;
+import org.example.springboot.entity.StatsMonthly;
+import org.example.springboot.exception.ServiceException;
 import org.example.springboot.mapper.*;
+import org.example.springboot.service.metrics.SqlStatementCounter;
 import org.example.springboot.util.DateUtils;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -27,9 +45,6 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DashboardStatsService {
 
-    @Resource
-    private UserMapper userMapper;
-
     @Resource
     private SnackMapper snackMapper;
 
@@ -37,71 +52,209 @@ public class DashboardStatsService {
     private OrderMapper orderMapper;
 
     @Resource
-    private OrderItemMapper orderItemMapper;
+    private CategoryMapper categoryMapper;
 
     @Resource
-    private CategoryMapper categoryMapper;
+    private StatsDailyMapper statsDailyMapper;
+
+    @Resource
+    private StatsMonthlyMapper statsMonthlyMapper;
+
+    @Resource
+    private StatsCategorySalesMapper statsCategorySalesMapper;
 
     @Resource
-    private FavoriteMapper favoriteMapper;
+    private DashboardRollupService dashboardRollupService;
 
     @Resource
-    private CartMapper cartMapper;
+    private DashboardConfig dashboardConfig;
+
+    /**
+     * 统计区块数量
+     */
+    private static final int SECTION_COUNT = 11;
+
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    /**
+     * 库存不足阈值
+     */
+    private static final int LOW_STOCK_THRESHOLD = 10;
+
+    /**
+     * 最近订单条数
+     */
+    private static final int RECENT_ORDER_LIMIT = 10;
+
+    /**
+     * 订单趋势统计天数
+     */
+    private static final int TREND_DAYS = 7;
+
+    /**
+     * 用户增长统计月数
+     */
+    private static final int GROWTH_MONTHS = 12;
+
+    private final AtomicReference<StatsSnapshot> snapshot = new AtomicReference<>();
+
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+
+    private final Object refreshLock = new Object();
+
+    private ThreadPoolExecutor sectionExecutor;
+
+    private ScheduledExecutorService refreshScheduler;
+
+    /**
+     * 启动统计计算线程池和后台刷新任务
+     */
+    @PostConstruct
+    public void init() {
+        int poolSize = dashboardConfig.getPoolSize();
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 有界线程池：队列满时由调用线程执行，避免无限堆积
+        sectionExecutor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(SECTION_COUNT * 2),
+                r -> {
+                    Thread thread = new Thread(r, "dashboard-stats-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        refreshScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dashboard-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = dashboardConfig.getRefreshInterval();
+        refreshScheduler.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (refreshScheduler != null) {
+            refreshScheduler.shutdownNow();
+        }
+        if (sectionExecutor != null) {
+            sectionExecutor.shutdownNow();
+        }
+    }
 
     /**
      * 获取仪表板统计数据
+     * 直接返回最近一次的快照：
+     * - 快照超过刷新间隔时，触发后台异步刷新，本次仍返回旧快照
+     * - 没有快照或快照超过最大容忍时长时，在请求线程同步重算
      */
     public DashboardStatsResponseDTO getDashboardStats() {
-        log.info("开始获取仪表板统计数据");
-
-        return DashboardStatsResponseDTO.builder()
-                .userStats(getUserStats())
-                .snackStats(getSnackStats())
-                .orderStats(getOrderStats())
-                .categoryStats(getCategoryStats())
-                .favoriteStats(getFavoriteStats())
-                .cartStats(getCartStats())
-                .popularSnacks(getPopularSnacks())
-                .recentOrders(getRecentOrders())
-                .orderTrendData(getOrderTrendData())
-                .categorySalesData(getCategorySalesData())
-                .userGrowthData(getUserGrowthData())
-                .build();
+        StatsSnapshot current = snapshot.get();
+        if (current == null || current.ageMillis() > dashboardConfig.getMaxStaleness()) {
+            return refreshDashboardStats();
+        }
+        if (current.ageMillis() > dashboardConfig.getRefreshInterval()) {
+            triggerAsyncRefresh();
+        }
+        return current.stats();
     }
 
     /**
-     * 获取用户统计数据
+     * 强制重新计算仪表板统计数据并更新快照
+     * 多个请求同时刷新时只计算一次，后到的请求直接复用本次结果
      */
-    private DashboardStatsResponseDTO.UserStats getUserStats() {
-        // 总用户数
-        Long totalUsers = userMapper.selectCount(null);
-
-        // 活跃用户数（状态为ACTIVE）
-        Long activeUsers = userMapper.selectCount(
-                new LambdaQueryWrapper<User>()
-                        .eq(User::getStatus, "ACTIVE")
-        );
+    public DashboardStatsResponseDTO refreshDashboardStats() {
+        long requestTime = System.currentTimeMillis();
+        synchronized (refreshLock) {
+            StatsSnapshot current = snapshot.get();
+            if (current != null && current.generatedAt() >= requestTime) {
+                return current.stats();
+            }
+
+            long start = System.currentTimeMillis();
+            DashboardStatsResponseDTO stats = computeDashboardStats();
+            snapshot.set(new StatsSnapshot(stats, start));
+            log.info("仪表板统计快照已刷新，耗时{}ms", System.currentTimeMillis() - start);
+            return stats;
+        }
+    }
 
-        // 今日新增用户数
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        LocalDateTime todayEnd = LocalDate.now().atTime(LocalTime.MAX);
-        Long todayNewUsers = userMapper.selectCount(
-                new LambdaQueryWrapper<User>()
-                        .between(User::getCreateTime, todayStart, todayEnd)
-        );
+    /**
+     * 计算仪表板统计数据
+     * 汇总表的公共数据先查出，各统计区块再在线程池中并行计算
+     */
+    private DashboardStatsResponseDTO computeDashboardStats() {
+        // 订单、用户、收藏、购物车统计只读汇总表：历史累计、今日、本月各一行，当前状态一次查出
+        StatsMonthly totals = statsMonthlyMapper.selectTotals();
+        StatsDaily today = dashboardRollupService.getDaily(LocalDate.now());
+        StatsMonthly month = dashboardRollupService.getMonthly(LocalDate.now());
+        Map<String, Long> gauges = dashboardRollupService.getGauges();
+
+        CompletableFuture<DashboardStatsResponseDTO.UserStats> userStats = supply(() -> getUserStats(totals, today, month, gauges));
+        CompletableFuture<DashboardStatsResponseDTO.SnackStats> snackStats = supply(this::getSnackStats);
+        CompletableFuture<DashboardStatsResponseDTO.OrderStats> orderStats = supply(() -> getOrderStats(totals, today, month, gauges));
+        CompletableFuture<DashboardStatsResponseDTO.CategoryStats> categoryStats = supply(this::getCategoryStats);
+        CompletableFuture<DashboardStatsResponseDTO.FavoriteStats> favoriteStats = supply(() -> getFavoriteStats(totals, today, month));
+        CompletableFuture<DashboardStatsResponseDTO.CartStats> cartStats = supply(() -> getCartStats(gauges));
+        CompletableFuture<List<DashboardStatsResponseDTO.PopularSnackDTO>> popularSnacks = supply(this::getPopularSnacks);
+        CompletableFuture<List<DashboardStatsResponseDTO.RecentOrderDTO>> recentOrders = supply(this::getRecentOrders);
+        CompletableFuture<List<DashboardStatsResponseDTO.OrderTrendDTO>> orderTrendData = supply(this::getOrderTrendData);
+        CompletableFuture<List<DashboardStatsResponseDTO.CategorySalesDTO>> categorySalesData = supply(this::getCategorySalesData);
+        CompletableFuture<List<DashboardStatsResponseDTO.UserGrowthDTO>> userGrowthData = supply(() -> getUserGrowthData(totals.getNewUsers()));
+
+        try {
+            return DashboardStatsResponseDTO.builder()
+                    .userStats(userStats.join())
+                    .snackStats(snackStats.join())
+                    .orderStats(orderStats.join())
+                    .categoryStats(categoryStats.join())
+                    .favoriteStats(favoriteStats.join())
+                    .cartStats(cartStats.join())
+                    .popularSnacks(popularSnacks.join())
+                    .recentOrders(recentOrders.join())
+                    .orderTrendData(orderTrendData.join())
+                    .categorySalesData(categorySalesData.join())
+                    .userGrowthData(userGrowthData.join())
+                    .build();
+        } catch (CompletionException e) {
+            log.error("计算仪表板统计数据失败", e.getCause());
+            throw new ServiceException("获取统计数据失败，请稍后重试");
+        }
+    }
 
-        // 本月新增用户数
-        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        Long monthNewUsers = userMapper.selectCount(
-                new LambdaQueryWrapper<User>()
-                        .between(User::getCreateTime, monthStart, LocalDateTime.now())
-        );
+    private <T> CompletableFuture<T> supply(Supplier<T> section) {
+        // 区块查询在线程池中执行，仍计入发起刷新的请求的 SQL 条数
+        return CompletableFuture.supplyAsync(SqlStatementCounter.propagate(section), sectionExecutor);
+    }
+
+    /**
+     * 触发一次后台刷新，已有刷新在排队时忽略
+     */
+    private void triggerAsyncRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            refreshScheduler.execute(this::refreshQuietly);
+        }
+    }
+
+    private void refreshQuietly() {
+        refreshPending.set(false);
+        try {
+            refreshDashboardStats();
+        } catch (Exception e) {
+            log.error("后台刷新仪表板统计快照失败", e);
+        }
+    }
 
+    /**
+     * 获取用户统计数据
+     */
+    private DashboardStatsResponseDTO.UserStats getUserStats(StatsMonthly totals, StatsDaily today, StatsMonthly month,
+                                                             Map<String, Long> gauges) {
         return DashboardStatsResponseDTO.UserStats.builder()
-                .totalUsers(totalUsers)
-                .activeUsers(activeUsers)
-                .todayNewUsers(todayNewUsers)
-                .monthNewUsers(monthNewUsers)
+                .totalUsers(totals.getNewUsers())
+                .activeUsers(gauges.getOrDefault(StatsGauge.ACTIVE_USERS, 0L))
+                .todayNewUsers(today.getNewUsers())
+                .monthNewUsers(month.getNewUsers())
                 .build();
     }
 
@@ -109,104 +262,26 @@ public class DashboardStatsService {
      * 获取零食商品统计数据
      */
     private DashboardStatsResponseDTO.SnackStats getSnackStats() {
-        // 总商品数
-        Long totalSnacks = snackMapper.selectCount(null);
-
-        // 上架商品数
-        Long onSaleSnacks = snackMapper.selectCount(
-                new LambdaQueryWrapper<Snack>()
-                        .eq(Snack::getStatus, "ON_SALE")
-        );
-
-        // 下架商品数
-        Long offShelfSnacks = snackMapper.selectCount(
-                new LambdaQueryWrapper<Snack>()
-                        .eq(Snack::getStatus, "OFF_SHELF")
-        );
-
         // 库存不足商品数（库存<=10）
-        Long lowStockSnacks = snackMapper.selectCount(
-                new LambdaQueryWrapper<Snack>()
-                        .le(Snack::getStock, 10)
-        );
-
-        return DashboardStatsResponseDTO.SnackStats.builder()
-                .totalSnacks(totalSnacks)
-                .onSaleSnacks(onSaleSnacks)
-                .offShelfSnacks(offShelfSnacks)
-                .lowStockSnacks(lowStockSnacks)
-                .build();
+        return snackMapper.selectSnackStats(LOW_STOCK_THRESHOLD);
     }
 
     /**
      * 获取订单统计数据
      */
-    private DashboardStatsResponseDTO.OrderStats getOrderStats() {
-        // 总订单数
-        Long totalOrders = orderMapper.selectCount(null);
-
-        // 今日订单数
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        LocalDateTime todayEnd = LocalDate.now().atTime(LocalTime.MAX);
-        Long todayOrders = orderMapper.selectCount(
-                new LambdaQueryWrapper<Order>()
-                        .between(Order::getCreateTime, todayStart, todayEnd)
-        );
-
-        // 本月订单数
-        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        Long monthOrders = orderMapper.selectCount(
-                new LambdaQueryWrapper<Order>()
-                        .between(Order::getCreateTime, monthStart, LocalDateTime.now())
-        );
-
-        // 计算订单金额统计
-        List<Order> allOrders = orderMapper.selectList(null);
-        List<Order> todayOrderList = orderMapper.selectList(
-                new LambdaQueryWrapper<Order>()
-                        .between(Order::getCreateTime, todayStart, todayEnd)
-        );
-        List<Order> monthOrderList = orderMapper.selectList(
-                new LambdaQueryWrapper<Order>()
-                        .between(Order::getCreateTime, monthStart, LocalDateTime.now())
-        );
-
-        // 订单总金额(分转元)
-        BigDecimal totalAmount = allOrders.stream()
-                .map(order -> new BigDecimal(order.getTotalAmount()).divide(new BigDecimal(100), 2, RoundingMode.HALF_UP))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // 今日订单金额
-        BigDecimal todayAmount = todayOrderList.stream()
-                .map(order -> new BigDecimal(order.getTotalAmount()).divide(new BigDecimal(100), 2, RoundingMode.HALF_UP))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // 本月订单金额
-        BigDecimal monthAmount = monthOrderList.stream()
-                .map(order -> new BigDecimal(order.getTotalAmount()).divide(new BigDecimal(100), 2, RoundingMode.HALF_UP))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // 待处理订单数
-        Long pendingOrders = orderMapper.selectCount(
-                new LambdaQueryWrapper<Order>()
-                        .eq(Order::getStatus, "PENDING")
-        );
-
-        // 已完成订单数
-        Long completedOrders = orderMapper.selectCount(
-                new LambdaQueryWrapper<Order>()
-                        .eq(Order::getStatus, "COMPLETED")
-        );
+    private DashboardStatsResponseDTO.OrderStats getOrderStats(StatsMonthly totals, StatsDaily today, StatsMonthly month,
+                                                               Map<String, Long> gauges) {
+        Long pendingOrders = gauges.getOrDefault(StatsGauge.ORDER_STATUS_PREFIX + "PENDING", 0L);
 
         return DashboardStatsResponseDTO.OrderStats.builder()
-                .totalOrders(totalOrders)
-                .todayOrders(todayOrders)
-                .monthOrders(monthOrders)
-                .totalAmount(totalAmount)
-                .todayAmount(todayAmount)
-                .monthAmount(monthAmount)
+                .totalOrders(totals.getOrderCount())
+                .todayOrders(today.getOrderCount())
+                .monthOrders(month.getOrderCount())
+                .totalAmount(fenToYuan(totals.getOrderAmount()))
+                .todayAmount(fenToYuan(today.getOrderAmount()))
+                .monthAmount(fenToYuan(month.getOrderAmount()))
                 .pendingOrders(pendingOrders)
-                .completedOrders(completedOrders)
+                .completedOrders(totals.getCompletedOrders())
                 .build();
     }
 
@@ -214,77 +289,27 @@ public class DashboardStatsService {
      * 获取分类统计数据
      */
     private DashboardStatsResponseDTO.CategoryStats getCategoryStats() {
-        // 总分类数
-        Long totalCategories = categoryMapper.selectCount(null);
-
-        // 活跃分类数
-        Long activeCategories = categoryMapper.selectCount(
-                new LambdaQueryWrapper<Category>()
-                        .eq(Category::getStatus, "ACTIVE")
-        );
-
-        // 非活跃分类数
-        Long inactiveCategories = categoryMapper.selectCount(
-                new LambdaQueryWrapper<Category>()
-                        .eq(Category::getStatus, "INACTIVE")
-        );
-
-        return DashboardStatsResponseDTO.CategoryStats.builder()
-                .totalCategories(totalCategories)
-                .activeCategories(activeCategories)
-                .inactiveCategories(inactiveCategories)
-                .build();
+        return categoryMapper.selectCategoryStats();
     }
 
     /**
      * 获取收藏统计数据
      */
-    private DashboardStatsResponseDTO.FavoriteStats getFavoriteStats() {
-        // 总收藏数
-        Long totalFavorites = favoriteMapper.selectCount(null);
-
-        // 今日收藏数
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        LocalDateTime todayEnd = LocalDate.now().atTime(LocalTime.MAX);
-        Long todayFavorites = favoriteMapper.selectCount(
-                new LambdaQueryWrapper<Favorite>()
-                        .between(Favorite::getCreateTime, todayStart, todayEnd)
-        );
-
-        // 本月收藏数
-        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        Long monthFavorites = favoriteMapper.selectCount(
-                new LambdaQueryWrapper<Favorite>()
-                        .between(Favorite::getCreateTime, monthStart, LocalDateTime.now())
-        );
-
+    private DashboardStatsResponseDTO.FavoriteStats getFavoriteStats(StatsMonthly totals, StatsDaily today, StatsMonthly month) {
         return DashboardStatsResponseDTO.FavoriteStats.builder()
-                .totalFavorites(totalFavorites)
-                .todayFavorites(todayFavorites)
-                .monthFavorites(monthFavorites)
+                .totalFavorites(totals.getNewFavorites())
+                .todayFavorites(today.getNewFavorites())
+                .monthFavorites(month.getNewFavorites())
                 .build();
     }
 
     /**
      * 获取购物车统计数据
      */
-    private DashboardStatsResponseDTO.CartStats getCartStats() {
-        // 活跃购物车数（有商品的购物车，按用户ID去重）
-        Long activeCartCount = cartMapper.selectCount(
-                new LambdaQueryWrapper<Cart>()
-                        .gt(Cart::getQuantity, 0)
-                        .groupBy(Cart::getUserId)
-        );
-
-        // 购物车商品总数
-        List<Cart> cartItems = cartMapper.selectList(null);
-        Long totalCartItems = cartItems.stream()
-                .mapToLong(Cart::getQuantity)
-                .sum();
-
+    private DashboardStatsResponseDTO.CartStats getCartStats(Map<String, Long> gauges) {
         return DashboardStatsResponseDTO.CartStats.builder()
-                .activeCartCount(activeCartCount)
-                .totalCartItems(totalCartItems)
+                .activeCartCount(gauges.getOrDefault(StatsGauge.CART_USERS, 0L))
+                .totalCartItems(gauges.getOrDefault(StatsGauge.CART_ITEMS, 0L))
                 .build();
     }
 
@@ -294,6 +319,7 @@ public class DashboardStatsService {
     private List<DashboardStatsResponseDTO.PopularSnackDTO> getPopularSnacks() {
         List<Snack> popularSnacks = snackMapper.selectList(
                 new LambdaQueryWrapper<Snack>()
+                        .select(Snack::getId, Snack::getName, Snack::getSalesCount, Snack::getPrice, Snack::getCoverImage)
                         .eq(Snack::getStatus, "ON_SALE")
                         .orderByDesc(Snack::getSalesCount)
                         .last("LIMIT 5")
@@ -311,67 +337,34 @@ public class DashboardStatsService {
     }
 
     /**
-     * 获取最近订单列表（取最近10个订单）
+     * 获取最近订单列表（取最近10个订单，关联查询用户名）
      */
     private List<DashboardStatsResponseDTO.RecentOrderDTO> getRecentOrders() {
-        List<Order> recentOrders = orderMapper.selectList(
-                new LambdaQueryWrapper<Order>()
-                        .orderByDesc(Order::getCreateTime)
-                        .last("LIMIT 10")
-        );
-
-        return recentOrders.stream()
-                .map(order -> {
-                    // 获取用户信息
-                    User user = userMapper.selectById(order.getUserId());
-                    String username = user != null ? user.getUsername() : "未知用户";
-
-                    return DashboardStatsResponseDTO.RecentOrderDTO.builder()
-                            .id(order.getId())
-                            .orderNo(order.getOrderNo())
-                            .username(username)
-                            .totalAmount(new BigDecimal(order.getTotalAmount()).divide(new BigDecimal(100), 2, RoundingMode.HALF_UP))
-                            .status(order.getStatus())
-                            .createTime(DateUtils.formatDateTime(order.getCreateTime()))
-                            .build();
-                })
-                .collect(Collectors.toList());
+        return orderMapper.selectRecentOrdersWithUsername(RECENT_ORDER_LIMIT);
     }
 
     /**
      * 获取订单趋势数据（最近7天）
+     * 读取每日汇总，没有记录的日期补0
      */
     private List<DashboardStatsResponseDTO.OrderTrendDTO> getOrderTrendData() {
+        LocalDate firstDay = LocalDate.now().minusDays(TREND_DAYS - 1);
+        Map<LocalDate, StatsDaily> dailyMap = statsDailyMapper.selectList(
+                new LambdaQueryWrapper<StatsDaily>()
+                        .ge(StatsDaily::getStatDate, firstDay)
+        ).stream().collect(Collectors.toMap(StatsDaily::getStatDate, daily -> daily));
+
         List<DashboardStatsResponseDTO.OrderTrendDTO> trendData = new ArrayList<>();
-        
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            LocalDateTime dayStart = date.atStartOfDay();
-            LocalDateTime dayEnd = date.atTime(LocalTime.MAX);
-            
-            // 获取当天订单数量
-            Long orderCount = orderMapper.selectCount(
-                    new LambdaQueryWrapper<Order>()
-                            .between(Order::getCreateTime, dayStart, dayEnd)
-            );
-            
-            // 获取当天订单金额
-            List<Order> dayOrders = orderMapper.selectList(
-                    new LambdaQueryWrapper<Order>()
-                            .between(Order::getCreateTime, dayStart, dayEnd)
-            );
-            
-            BigDecimal dayRevenue = dayOrders.stream()
-                    .map(order -> new BigDecimal(order.getTotalAmount()).divide(new BigDecimal(100), 2, RoundingMode.HALF_UP))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
+        for (int i = 0; i < TREND_DAYS; i++) {
+            LocalDate date = firstDay.plusDays(i);
+            StatsDaily daily = dailyMap.get(date);
             trendData.add(DashboardStatsResponseDTO.OrderTrendDTO.builder()
                     .date(DateUtils.formatDate(date))
-                    .orderCount(orderCount)
-                    .revenue(dayRevenue)
+                    .orderCount(daily != null ? daily.getOrderCount() : 0L)
+                    .revenue(fenToYuan(daily != null ? daily.getOrderAmount() : 0L))
                     .build());
         }
-        
+
         return trendData;
     }
 
@@ -379,70 +372,56 @@ public class DashboardStatsService {
      * 获取分类销量统计数据
      */
     private List<DashboardStatsResponseDTO.CategorySalesDTO> getCategorySalesData() {
-        List<Category> categories = categoryMapper.selectList(
-                new LambdaQueryWrapper<Category>()
-                        .eq(Category::getStatus, "ACTIVE")
-        );
-        
-        return categories.stream()
-                .map(category -> {
-                    // 获取该分类下的商品
-                    List<Snack> snacks = snackMapper.selectList(
-                            new LambdaQueryWrapper<Snack>()
-                                    .eq(Snack::getCategoryId, category.getId())
-                                    .eq(Snack::getStatus, "ON_SALE")
-                    );
-                    
-                    // 计算该分类的总销量
-                    Integer totalSales = snacks.stream()
-                            .mapToInt(snack -> snack.getSalesCount() != null ? snack.getSalesCount() : 0)
-                            .sum();
-                    
-                    return DashboardStatsResponseDTO.CategorySalesDTO.builder()
-                            .categoryName(category.getName())
-                            .salesCount(totalSales)
-                            .snackCount(snacks.size())
-                            .build();
-                })
-                .filter(dto -> dto.getSalesCount() > 0) // 只返回有销量的分类
-                .sorted((a, b) -> b.getSalesCount().compareTo(a.getSalesCount())) // 按销量降序
-                .collect(Collectors.toList());
+        return statsCategorySalesMapper.selectCategorySales();
     }
 
     /**
      * 获取用户增长数据（最近12个月）
+     * 读取每月汇总，累计用户数由总用户数倒推，没有记录的月份补0
+     * @param totalUsers 当前总用户数
      */
-    private List<DashboardStatsResponseDTO.UserGrowthDTO> getUserGrowthData() {
+    private List<DashboardStatsResponseDTO.UserGrowthDTO> getUserGrowthData(Long totalUsers) {
+        LocalDate firstMonth = LocalDate.now().minusMonths(GROWTH_MONTHS - 1).withDayOfMonth(1);
+        Map<String, Long> monthlyMap = statsMonthlyMapper.selectList(
+                new LambdaQueryWrapper<StatsMonthly>()
+                        .ge(StatsMonthly::getStatMonth, firstMonth.format(MONTH_FORMATTER))
+        ).stream().collect(Collectors.toMap(StatsMonthly::getStatMonth, StatsMonthly::getNewUsers));
+
+        // 统计区间之前注册的用户数
+        long cumulative = totalUsers - monthlyMap.values().stream().mapToLong(Long::longValue).sum();
+
         List<DashboardStatsResponseDTO.UserGrowthDTO> growthData = new ArrayList<>();
-        
-        for (int i = 11; i >= 0; i--) {
-            LocalDate monthStart = LocalDate.now().minusMonths(i).withDayOfMonth(1);
-            LocalDate monthEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
-            LocalDateTime monthStartTime = monthStart.atStartOfDay();
-            LocalDateTime monthEndTime = monthEnd.atTime(LocalTime.MAX);
-            
-            // 获取该月新增用户数
-            Long newUsers = userMapper.selectCount(
-                    new LambdaQueryWrapper<User>()
-                            .between(User::getCreateTime, monthStartTime, monthEndTime)
-            );
-            
-            // 获取该月结束时的累计用户数
-            Long totalUsers = userMapper.selectCount(
-                    new LambdaQueryWrapper<User>()
-                            .le(User::getCreateTime, monthEndTime)
-            );
-            
-            String monthStr = monthStart.getYear() + "-" + 
-                            String.format("%02d", monthStart.getMonthValue());
-            
+        for (int i = 0; i < GROWTH_MONTHS; i++) {
+            String monthStr = firstMonth.plusMonths(i).format(MONTH_FORMATTER);
+            long newUsers = monthlyMap.getOrDefault(monthStr, 0L);
+            cumulative += newUsers;
+
             growthData.add(DashboardStatsResponseDTO.UserGrowthDTO.builder()
                     .month(monthStr)
                     .newUsers(newUsers)
-                    .totalUsers(totalUsers)
+                    .totalUsers(cumulative)
                     .build());
         }
-        
+
         return growthData;
     }
+
+    /**
+     * 分转元
+     */
+    private BigDecimal fenToYuan(Long fen) {
+        return BigDecimal.valueOf(fen != null ? fen : 0L, 2);
+    }
+
+    /**
+     * 统计快照
+     * @param stats 统计数据
+     * @param generatedAt 开始计算的时间戳
+     */
+    private record StatsSnapshot(DashboardStatsResponseDTO stats, long generatedAt) {
+
+        long ageMillis() {
+            return System.currentTimeMillis() - generatedAt;
+        }
+    }
 }
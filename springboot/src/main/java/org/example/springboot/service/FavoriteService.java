@@ -5,16 +5,19 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.extern.slf4j.Slf4j;
 import org.example.springboot.DTO.response.FavoriteResponseDTO;
 import org.example.springboot.DTO.response.FavoriteStatusResponseDTO;
+import org.example.springboot.common.CursorPage;
 import org.example.springboot.entity.Favorite;
 import org.example.springboot.entity.Snack;
 import org.example.springboot.exception.BusinessException;
 import org.example.springboot.mapper.FavoriteMapper;
 import org.example.springboot.mapper.SnackMapper;
 import org.example.springboot.service.convert.FavoriteConvert;
+import org.example.springboot.util.CursorUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.annotation.Resource;
+import java.util.List;
 
 /**
  * 收藏业务逻辑层
@@ -30,6 +33,9 @@ public class FavoriteService {
     @Resource
     private SnackMapper snackMapper;
 
+    @Resource
+    private DashboardRollupService dashboardRollupService;
+
     /**
      * 切换收藏状态（收藏/取消收藏）
      * @param snackId 商品ID
@@ -53,12 +59,14 @@ public class FavoriteService {
         if (existingFavorite != null) {
             // 已收藏，执行取消收藏
             favoriteMapper.deleteById(existingFavorite.getId());
+            dashboardRollupService.onFavoriteRemoved(existingFavorite.getCreateTime());
             isFavorited = false;
             log.info("用户{}取消收藏商品{}成功", userId, snackId);
         } else {
             // 未收藏，执行收藏
             Favorite newFavorite = FavoriteConvert.createFavoriteEntity(userId, snackId);
             favoriteMapper.insert(newFavorite);
+            dashboardRollupService.onFavoriteAdded(newFavorite.getCreateTime());
             isFavorited = true;
             log.info("用户{}收藏商品{}成功", userId, snackId);
         }
@@ -107,6 +115,28 @@ public class FavoriteService {
         return favoriteMapper.selectUserFavoritesWithDetails(page, userId);
     }
 
+    /**
+     * 游标分页获取用户收藏列表，按收藏时间倒序
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，首页为空
+     * @param size 每页大小
+     * @param withTotal 是否统计总数
+     * @return 收藏列表游标分页结果
+     */
+    public CursorPage<FavoriteResponseDTO> getUserFavoriteCursor(Long userId, String cursor, Long size, boolean withTotal) {
+        log.info("游标获取用户{}的收藏列表，游标: {}, 每页大小: {}", userId, cursor, size);
+        
+        int pageSize = CursorUtils.normalizeSize(size);
+        CursorUtils.Cursor position = CursorUtils.decode(cursor);
+        List<FavoriteResponseDTO> favorites = favoriteMapper.selectUserFavoritesAfter(userId,
+                position == null ? null : position.createTime(),
+                position == null ? null : position.id(),
+                pageSize + 1);
+        Long total = withTotal ? favoriteMapper.countUserOnSaleFavorites(userId) : null;
+        return CursorUtils.toPage(favorites, pageSize, FavoriteResponseDTO::getFavoriteTime,
+                FavoriteResponseDTO::getFavoriteId, rows -> rows, total);
+    }
+
     /**
      * 获取用户收藏总数
      * @param userId 用户ID
@@ -126,7 +156,7 @@ public class FavoriteService {
      * @param userId 用户ID
      * @return 商品ID和收藏状态的映射
      */
-    public java.util.Map<Long, Boolean> batchCheckFavoriteStatus(java.util.List<Long> snackIds, Long userId) {
+    public java.util.Map<Long, Boolean> batchCheckFavoriteStatus(List<Long> snackIds, Long userId) {
         log.info("批量检查用户{}对商品{}的收藏状态", userId, snackIds);
         
         if (snackIds == null || snackIds.isEmpty()) {
@@ -137,7 +167,7 @@ public class FavoriteService {
         LambdaQueryWrapper<Favorite> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(Favorite::getUserId, userId)
                    .in(Favorite::getSnackId, snackIds);
-        java.util.List<Favorite> favorites = favoriteMapper.selectList(queryWrapper);
+        List<Favorite> favorites = favoriteMapper.selectList(queryWrapper);
         
         // 构建收藏状态映射
         java.util.Set<Long> favoritedSnackIds = favorites.stream()
@@ -14,6 +14,9 @@ import org.example.springboot.enumClass.FileBusinessTypeEnum;
 import org.example.springboot.enumClass.FileTypeEnum;
 import org.example.springboot.exception.BusinessException;
 import org.example.springboot.mapper.SysFileInfoMapper;
+import org.example.springboot.service.storage.ContentAddressedFileStore;
+import org.example.springboot.service.storage.FileStorageMaintenanceService;
+import org.example.springboot.service.storage.ImageDerivativeService;
 import org.example.springboot.util.FileUtil;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -23,7 +26,12 @@ import org.springframework.web.multipart.MultipartFile;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -41,12 +49,17 @@ public class FileService {
     @Resource
     private BussinessFileValidationService bussinessFileValidationService;
 
-    @Value("${file.upload.path:/files}")
-    private String uploadBasePath;
+    @Resource
+    private ContentAddressedFileStore contentAddressedFileStore;
 
+    @Resource
+    private ImageDerivativeService imageDerivativeService;
 
-    private final static  String BUSSINESS_FILE_RELATIVE_PATH = "bussiness";
+    @Resource
+    private FileStorageMaintenanceService fileStorageMaintenanceService;
 
+    @Value("${file.upload.path:/files}")
+    private String uploadBasePath;
 
 
     /**
@@ -70,8 +83,9 @@ public class FileService {
                 handleOldFiles(uploadDTO.getBusinessType(), uploadDTO.getBusinessId(), uploadDTO.getBusinessField());
             }
 
-            // 4. 保存文件到磁盘
-            String filePath = FileUtil.saveFile(file, BUSSINESS_FILE_RELATIVE_PATH, FileUtil.parseBussinessFileTypeToFolerName(uploadDTO.getBusinessType()));
+            // 4. 保存文件到磁盘（按内容寻址，相同内容只存一份）
+            String filePath = contentAddressedFileStore.store(file).filePath();
+            imageDerivativeService.scheduleVariants(filePath);
 
             // 5. 保存文件信息到数据库
             SysFileInfo fileInfo = createFileInfo(file, uploadDTO, filePath, uploadUserId);
@@ -97,8 +111,9 @@ public class FileService {
             // 基础验证
             FileUtil.validateBasicFile(file);
 
-            // 保存到临时目录
-            String filePath = FileUtil.saveFile(file, "temp",null);
+            // 保存文件，临时与否由记录标记区分
+            String filePath = contentAddressedFileStore.store(file).filePath();
+            imageDerivativeService.scheduleVariants(filePath);
 
             // 创建临时文件记录
             FileUploadDTO tempDTO = buildTempUploadDTO();
@@ -167,6 +182,30 @@ public class FileService {
         return convertToDTOList(fileList);
     }
 
+    /**
+     * 批量获取多个业务对象的文件列表，一次 IN 查询
+     * 用于列表页展示附件，避免逐条查询
+     * @param businessType 业务类型
+     * @param businessIds 业务对象ID
+     * @return 业务对象ID -> 文件列表（按创建时间倒序），没有文件的业务对象不在结果中
+     */
+    public Map<String, List<FileInfoDTO>> getFilesByBusinessIds(String businessType, Collection<String> businessIds) {
+        if (businessIds == null || businessIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        log.debug("批量查询业务文件: 业务类型={}, 业务ID数量={}", businessType, businessIds.size());
+
+        LambdaQueryWrapper<SysFileInfo> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(SysFileInfo::getBusinessType, businessType)
+                .in(SysFileInfo::getBusinessId, new LinkedHashSet<>(businessIds))
+                .eq(SysFileInfo::getStatus, 1)
+                .orderByDesc(SysFileInfo::getCreateTime);
+
+        return fileInfoMapper.selectList(queryWrapper).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.groupingBy(FileInfoDTO::getBusinessId, LinkedHashMap::new, Collectors.toList()));
+    }
+
     /**
      * 获取业务字段的文件
      */
@@ -266,43 +305,10 @@ public class FileService {
 
     /**
      * 清理过期临时文件
+     * 分批在独立事务中删除，见 FileStorageMaintenanceService
      */
-    @Transactional(rollbackFor = Exception.class)
     public int cleanupExpiredTempFiles() {
-        try {
-            log.info("开始清理过期临时文件");
-
-            LocalDateTime now = LocalDateTime.now();
-
-            // 查询过期的临时文件（创建时间超过24小时且业务类型为temp的文件）
-            LambdaQueryWrapper<SysFileInfo> queryWrapper = new LambdaQueryWrapper<>();
-            queryWrapper.eq(SysFileInfo::getBusinessType, "temp")
-                    .eq(SysFileInfo::getStatus, 1)  // 有效文件
-                    .lt(SysFileInfo::getCreateTime, now.minusHours(24));  // 创建时间超过24小时
-
-            List<SysFileInfo> expiredFiles = fileInfoMapper.selectList(queryWrapper);
-
-            if (expiredFiles.isEmpty()) {
-                log.info("没有过期的临时文件需要清理");
-                return 0;
-            }
-
-            // 批量逻辑删除
-            List<Long> fileIds = expiredFiles.stream().map(SysFileInfo::getId).toList();
-            int result = fileInfoMapper.deleteByIds(fileIds);
-
-            // 异步删除物理文件
-            for (SysFileInfo fileInfo : expiredFiles) {
-                deletePhysicalFileAsync(fileInfo.getFilePath());
-            }
-
-            log.info("清理过期临时文件完成: 清理数量={}", result);
-            return result;
-
-        } catch (Exception e) {
-            log.error("清理过期临时文件失败: 错误={}", e.getMessage(), e);
-            return 0;
-        }
+        return fileStorageMaintenanceService.cleanupExpiredTempFiles();
     }
 
     /**
@@ -468,8 +474,13 @@ public class FileService {
 
     /**
      * 异步删除物理文件
+     * 内容寻址文件可能被多条记录引用，事务提交后无引用时才删除
      */
     private void deletePhysicalFileAsync(String filePath) {
+        if (contentAddressedFileStore.isContentAddressed(filePath)) {
+            contentAddressedFileStore.dereference(filePath);
+            return;
+        }
         // 这里可以使用异步任务来删除物理文件
         try {
             if (StrUtil.isNotBlank(filePath)) {
@@ -485,5 +496,4 @@ public class FileService {
             log.error("删除物理文件异常: 路径={}, 错误={}", filePath, e.getMessage());
         }
     }
-} 
- 
\ No newline at end of file
+}
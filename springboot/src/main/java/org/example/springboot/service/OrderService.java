@@ -1,28 +1,38 @@
 package org.example.springboot.service;
 
-import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.extern.slf4j.Slf4j;
 import org.example.springboot.DTO.command.OrderCreateDTO;
 import org.example.springboot.DTO.response.AddressResponseDTO;
 import org.example.springboot.DTO.response.OrderResponseDTO;
+import org.example.springboot.common.CursorPage;
 import org.example.springboot.entity.*;
 import org.example.springboot.enumClass.OrderStatus;
 import org.example.springboot.enumClass.SnackStatus;
 import org.example.springboot.exception.BusinessException;
 import org.example.springboot.mapper.*;
+import org.example.springboot.service.cache.CatalogCache;
 import org.example.springboot.service.convert.OrderConvert;
+import org.example.springboot.service.stock.StockEngine;
+import org.example.springboot.util.CursorUtils;
+import org.example.springboot.util.SnowflakeIdGenerator;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.annotation.Resource;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -48,9 +58,30 @@ public class OrderService {
     @Resource
     private AddressService addressService;
 
+    @Resource
+    private StockEngine stockEngine;
+
+    @Resource
+    private DashboardRollupService dashboardRollupService;
+
+    @Resource
+    private CatalogCache catalogCache;
+
+    @Resource
+    private SnowflakeIdGenerator snowflakeIdGenerator;
+
+    @Resource
+    private PurchaseVerificationService purchaseVerificationService;
+
     private static final String ORDER_TYPE_CART = "CART_ORDER";
     private static final String ORDER_TYPE_DIRECT = "DIRECT_ORDER";
 
+    /**
+     * 订单列表可展开的关联数据
+     */
+    private static final String EXPAND_ITEMS = "items";
+    private static final String EXPAND_ADDRESS = "address";
+
     /**
      * 创建订单
      */
@@ -120,15 +151,22 @@ public class OrderService {
 
         // 7. 如果是购物车下单，清空对应的购物车项
         if (ORDER_TYPE_CART.equals(createDTO.getOrderType())) {
-            clearCartItems(createDTO.getCartItemIds(), userId);
+            clearCartItems(createDTO.getCartItemIds(), userId, orderItemInfos);
         }
 
         // 8. 扣减库存
         updateSnackStock(orderItemInfos);
 
+        // 9. 累加仪表板统计（事务提交后执行）
+        Map<Long, Long> categorySales = new HashMap<>();
+        for (OrderItemInfo itemInfo : orderItemInfos) {
+            categorySales.merge(itemInfo.getCategoryId(), itemInfo.getQuantity().longValue(), Long::sum);
+        }
+        dashboardRollupService.onOrderCreated(order.getCreateTime(), totalAmount, categorySales);
+
         log.info("订单创建成功: orderId={}, orderNo={}", order.getId(), orderNo);
 
-        // 9. 返回订单详情
+        // 10. 返回订单详情
         return getOrderDetail(order.getId(), userId);
     }
 
@@ -156,6 +194,7 @@ public class OrderService {
         if (result <= 0) {
             throw new BusinessException("支付订单失败");
         }
+        dashboardRollupService.onOrderStatusChanged(currentStatus.name(), order.getStatus());
 
         log.info("订单支付成功: orderId={}", orderId);
         return getOrderDetail(orderId, userId);
@@ -178,7 +217,7 @@ public class OrderService {
         }
 
         // 3. 恢复库存
-        restoreSnackStock(orderId);
+        Map<Long, Integer> restoredStock = restoreSnackStock(orderId);
 
         // 4. 更新订单状态
         order.setStatus(OrderStatus.CANCELLED.name());
@@ -188,6 +227,8 @@ public class OrderService {
         if (result <= 0) {
             throw new BusinessException("取消订单失败");
         }
+        dashboardRollupService.onOrderStatusChanged(currentStatus.name(), order.getStatus());
+        dashboardRollupService.onOrderCancelled(restoredStock);
 
         log.info("订单取消成功: orderId={}", orderId);
         return getOrderDetail(orderId, userId);
@@ -217,6 +258,9 @@ public class OrderService {
         if (result <= 0) {
             throw new BusinessException("确认收货失败");
         }
+        dashboardRollupService.onOrderStatusChanged(currentStatus.name(), order.getStatus());
+        dashboardRollupService.onOrderCompleted(order.getCompleteTime());
+        purchaseVerificationService.onOrderCompleted(userId, orderId);
 
         log.info("订单确认收货成功: orderId={}", orderId);
         return getOrderDetail(orderId, userId);
@@ -249,6 +293,7 @@ public class OrderService {
         if (result <= 0) {
             throw new BusinessException("订单发货失败");
         }
+        dashboardRollupService.onOrderStatusChanged(currentStatus.name(), order.getStatus());
 
         log.info("订单发货成功: orderId={}", orderId);
         return getOrderDetail(orderId, null);
@@ -257,8 +302,9 @@ public class OrderService {
     /**
      * 获取用户订单列表
      */
-    public Page<OrderResponseDTO> getUserOrderPage(Long current, Long size, String status, Long userId) {
-        log.info("获取用户{}的订单列表: current={}, size={}, status={}", userId, current, size, status);
+    public Page<OrderResponseDTO> getUserOrderPage(Long current, Long size, String status, Long userId, String expand) {
+        log.info("获取用户{}的订单列表: current={}, size={}, status={}, expand={}", userId, current, size, status, expand);
+        Set<String> expandFields = parseExpand(expand);
 
         Page<Order> page = new Page<>(current, size);
         LambdaQueryWrapper<Order> queryWrapper = new LambdaQueryWrapper<>();
@@ -271,14 +317,17 @@ public class OrderService {
         queryWrapper.orderByDesc(Order::getCreateTime);
 
         Page<Order> orderPage = orderMapper.selectPage(page, queryWrapper);
-        return OrderConvert.convertToResponseDTOPage(orderPage);
+        Page<OrderResponseDTO> responsePage = OrderConvert.convertToResponseDTOPage(orderPage);
+        expandOrders(responsePage.getRecords(), expandFields);
+        return responsePage;
     }
 
     /**
      * 获取所有订单列表（管理员）
      */
-    public Page<OrderResponseDTO> getAllOrderPage(Long current, Long size, String orderNo, String status) {
-        log.info("管理员获取订单列表: current={}, size={}, orderNo={}, status={}", current, size, orderNo, status);
+    public Page<OrderResponseDTO> getAllOrderPage(Long current, Long size, String orderNo, String status, String expand) {
+        log.info("管理员获取订单列表: current={}, size={}, orderNo={}, status={}, expand={}", current, size, orderNo, status, expand);
+        Set<String> expandFields = parseExpand(expand);
 
         Page<Order> page = new Page<>(current, size);
         LambdaQueryWrapper<Order> queryWrapper = new LambdaQueryWrapper<>();
@@ -294,7 +343,67 @@ public class OrderService {
         queryWrapper.orderByDesc(Order::getCreateTime);
 
         Page<Order> orderPage = orderMapper.selectPage(page, queryWrapper);
-        return OrderConvert.convertToResponseDTOPage(orderPage);
+        Page<OrderResponseDTO> responsePage = OrderConvert.convertToResponseDTOPage(orderPage);
+        expandOrders(responsePage.getRecords(), expandFields);
+        return responsePage;
+    }
+
+    /**
+     * 游标分页获取用户订单列表
+     * @param cursor 上一页返回的游标，首页为空
+     * @param size 每页大小
+     * @param status 订单状态
+     * @param userId 用户ID
+     * @param withTotal 是否统计总数
+     * @param expand 展开的关联数据，逗号分隔，可选 items、address
+     */
+    public CursorPage<OrderResponseDTO> getUserOrderCursor(String cursor, Long size, String status, Long userId,
+                                                           boolean withTotal, String expand) {
+        log.info("游标获取用户{}的订单列表: cursor={}, size={}, status={}, expand={}", userId, cursor, size, status, expand);
+        Set<String> expandFields = parseExpand(expand);
+
+        int pageSize = CursorUtils.normalizeSize(size);
+        Supplier<LambdaQueryWrapper<Order>> filter = () -> new LambdaQueryWrapper<Order>()
+                .eq(Order::getUserId, userId)
+                .eq(StrUtil.isNotBlank(status), Order::getStatus, status);
+
+        List<Order> orders = orderMapper.selectList(
+                CursorUtils.seek(filter.get(), cursor, Order::getCreateTime, Order::getId, pageSize));
+        Long total = withTotal ? orderMapper.selectCount(filter.get()) : null;
+        return CursorUtils.toPage(orders, pageSize, Order::getCreateTime, Order::getId, rows -> {
+            List<OrderResponseDTO> responses = OrderConvert.convertToResponseDTOList(rows);
+            expandOrders(responses, expandFields);
+            return responses;
+        }, total);
+    }
+
+    /**
+     * 游标分页获取所有订单列表（管理员）
+     * @param cursor 上一页返回的游标，首页为空
+     * @param size 每页大小
+     * @param orderNo 订单号（模糊查询）
+     * @param status 订单状态
+     * @param withTotal 是否统计总数
+     * @param expand 展开的关联数据，逗号分隔，可选 items、address
+     */
+    public CursorPage<OrderResponseDTO> getAllOrderCursor(String cursor, Long size, String orderNo, String status,
+                                                          boolean withTotal, String expand) {
+        log.info("管理员游标获取订单列表: cursor={}, size={}, orderNo={}, status={}, expand={}", cursor, size, orderNo, status, expand);
+        Set<String> expandFields = parseExpand(expand);
+
+        int pageSize = CursorUtils.normalizeSize(size);
+        Supplier<LambdaQueryWrapper<Order>> filter = () -> new LambdaQueryWrapper<Order>()
+                .like(StrUtil.isNotBlank(orderNo), Order::getOrderNo, orderNo)
+                .eq(StrUtil.isNotBlank(status), Order::getStatus, status);
+
+        List<Order> orders = orderMapper.selectList(
+                CursorUtils.seek(filter.get(), cursor, Order::getCreateTime, Order::getId, pageSize));
+        Long total = withTotal ? orderMapper.selectCount(filter.get()) : null;
+        return CursorUtils.toPage(orders, pageSize, Order::getCreateTime, Order::getId, rows -> {
+            List<OrderResponseDTO> responses = OrderConvert.convertToResponseDTOList(rows);
+            expandOrders(responses, expandFields);
+            return responses;
+        }, total);
     }
 
     /**
@@ -330,6 +439,62 @@ public class OrderService {
         return response;
     }
 
+    /**
+     * 解析列表展开参数
+     * @param expand 逗号分隔的展开字段
+     * @return 展开字段集合
+     */
+    private Set<String> parseExpand(String expand) {
+        if (StrUtil.isBlank(expand)) {
+            return Set.of();
+        }
+        Set<String> fields = new HashSet<>();
+        for (String field : expand.split(",")) {
+            String trimmed = field.trim().toLowerCase();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!EXPAND_ITEMS.equals(trimmed) && !EXPAND_ADDRESS.equals(trimmed)) {
+                throw new BusinessException("不支持的展开字段: " + trimmed);
+            }
+            fields.add(trimmed);
+        }
+        return fields;
+    }
+
+    /**
+     * 为订单列表批量填充订单项和收货地址
+     * 订单项一次 IN 查询、地址一次批量查询，在内存中按订单拼装，避免逐单查询详情
+     */
+    private void expandOrders(List<OrderResponseDTO> orders, Set<String> expandFields) {
+        if (orders == null || orders.isEmpty() || expandFields.isEmpty()) {
+            return;
+        }
+
+        if (expandFields.contains(EXPAND_ITEMS)) {
+            List<Long> orderIds = orders.stream().map(OrderResponseDTO::getId).collect(Collectors.toList());
+            LambdaQueryWrapper<OrderItem> itemQueryWrapper = new LambdaQueryWrapper<>();
+            itemQueryWrapper.in(OrderItem::getOrderId, orderIds);
+            Map<Long, List<OrderItem>> itemsByOrder = orderItemMapper.selectList(itemQueryWrapper).stream()
+                    .collect(Collectors.groupingBy(OrderItem::getOrderId));
+            for (OrderResponseDTO order : orders) {
+                order.setOrderItems(OrderConvert.convertToOrderItemResponseDTOList(
+                        itemsByOrder.getOrDefault(order.getId(), List.of())));
+            }
+        }
+
+        if (expandFields.contains(EXPAND_ADDRESS)) {
+            Set<Long> addressIds = orders.stream()
+                    .map(OrderResponseDTO::getAddressId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Map<Long, AddressResponseDTO> addressMap = addressService.getAddressMapByIds(addressIds);
+            for (OrderResponseDTO order : orders) {
+                order.setAddress(addressMap.get(order.getAddressId()));
+            }
+        }
+    }
+
     /**
      * 处理购物车订单
      */
@@ -369,6 +534,7 @@ public class OrderService {
             
             OrderItemInfo itemInfo = new OrderItemInfo();
             itemInfo.setSnackId(snack.getId());
+            itemInfo.setCategoryId(snack.getCategoryId());
             itemInfo.setQuantity(cartItem.getQuantity());
             itemInfo.setPrice(snack.getPrice());
             itemInfo.setSnackName(snack.getName());
@@ -399,6 +565,7 @@ public class OrderService {
         // 3. 构建订单项信息
         OrderItemInfo itemInfo = new OrderItemInfo();
         itemInfo.setSnackId(snack.getId());
+        itemInfo.setCategoryId(snack.getCategoryId());
         itemInfo.setQuantity(directItem.getQuantity());
         itemInfo.setPrice(snack.getPrice());
         itemInfo.setSnackName(snack.getName());
@@ -415,55 +582,78 @@ public class OrderService {
             throw new BusinessException("商品已下架: " + snack.getName());
         }
         
-        if (snack.getStock() < quantity) {
+        if (stockEngine.getAvailableStock(snack) < quantity) {
             throw new BusinessException("商品库存不足: " + snack.getName());
         }
     }
 
     /**
      * 清空购物车项
+     * @param orderItemInfos 由这些购物车项生成的订单项
      */
-    private void clearCartItems(List<Long> cartItemIds, Long userId) {
+    private void clearCartItems(List<Long> cartItemIds, Long userId, List<OrderItemInfo> orderItemInfos) {
         LambdaQueryWrapper<Cart> deleteWrapper = new LambdaQueryWrapper<>();
         deleteWrapper.eq(Cart::getUserId, userId)
                      .in(Cart::getId, cartItemIds);
-        cartMapper.delete(deleteWrapper);
+        int deleted = cartMapper.delete(deleteWrapper);
+        // 订单项由这些购物车项逐一生成，数量一致
+        long quantity = orderItemInfos.stream().mapToLong(OrderItemInfo::getQuantity).sum();
+        dashboardRollupService.onCartChanged(userId, -quantity, -deleted);
         log.info("已清空用户{}的购物车项: {}", userId, cartItemIds);
     }
 
     /**
      * 扣减库存
+     * 由库存引擎保证所有订单项要么全部扣减成功，要么抛出异常回滚整个订单
      */
     private void updateSnackStock(List<OrderItemInfo> orderItemInfos) {
+        // 同一商品可能出现在多个订单项中，先按商品合并扣减数量
+        Map<Long, Integer> stockMap = new LinkedHashMap<>();
         for (OrderItemInfo itemInfo : orderItemInfos) {
-            LambdaUpdateWrapper<Snack> updateWrapper = new LambdaUpdateWrapper<>();
-            updateWrapper.eq(Snack::getId, itemInfo.getSnackId())
-                         .setSql("stock = stock - " + itemInfo.getQuantity());
-            
-            int result = snackMapper.update(null, updateWrapper);
-            if (result <= 0) {
-                throw new BusinessException("扣减库存失败: " + itemInfo.getSnackName());
-            }
-            log.info("扣减商品库存: snackId={}, quantity={}", itemInfo.getSnackId(), itemInfo.getQuantity());
+            stockMap.merge(itemInfo.getSnackId(), itemInfo.getQuantity(), Integer::sum);
         }
+        stockEngine.deduct(stockMap);
+        invalidateStockCaches(stockMap.keySet());
     }
 
     /**
      * 恢复库存
+     * @return 商品ID -> 恢复数量
      */
-    private void restoreSnackStock(Long orderId) {
+    private Map<Long, Integer> restoreSnackStock(Long orderId) {
+        Map<Long, Integer> stockMap = getItemQuantities(orderId);
+        if (stockMap.isEmpty()) {
+            return stockMap;
+        }
+        stockEngine.restore(stockMap);
+        invalidateStockCaches(stockMap.keySet());
+        return stockMap;
+    }
+
+    /**
+     * 库存变动后失效缓存
+     * 库存引擎掌握实时库存时列表由调用方叠加实时库存，只清理详情；否则列表中的库存同样过时，一并失效
+     */
+    private void invalidateStockCaches(Collection<Long> snackIds) {
+        if (stockEngine.tracksLiveStock()) {
+            catalogCache.invalidateSnackDetails(snackIds);
+        } else {
+            catalogCache.invalidateSnacks(snackIds);
+        }
+    }
+
+    /**
+     * 按商品合并订单项数量
+     * @return 商品ID -> 数量
+     */
+    private Map<Long, Integer> getItemQuantities(Long orderId) {
         LambdaQueryWrapper<OrderItem> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(OrderItem::getOrderId, orderId);
-        List<OrderItem> orderItems = orderItemMapper.selectList(queryWrapper);
-
-        for (OrderItem orderItem : orderItems) {
-            LambdaUpdateWrapper<Snack> updateWrapper = new LambdaUpdateWrapper<>();
-            updateWrapper.eq(Snack::getId, orderItem.getSnackId())
-                         .setSql("stock = stock + " + orderItem.getQuantity());
-            
-            snackMapper.update(null, updateWrapper);
-            log.info("恢复商品库存: snackId={}, quantity={}", orderItem.getSnackId(), orderItem.getQuantity());
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem orderItem : orderItemMapper.selectList(queryWrapper)) {
+            quantities.merge(orderItem.getSnackId(), orderItem.getQuantity(), Integer::sum);
         }
+        return quantities;
     }
 
     /**
@@ -491,12 +681,10 @@ public class OrderService {
 
     /**
      * 生成订单号
+     * 格式：雪花ID的十进制字符串（18-19位数字），按生成时间递增
      */
     private String generateOrderNo() {
-        // 格式：yyyyMMddHHmmss + 6位随机数
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String randomId = IdUtil.fastSimpleUUID().substring(0, 6);
-        return "ORDER" + timestamp + randomId.toUpperCase();
+        return String.valueOf(snowflakeIdGenerator.nextId());
     }
 
     /**
@@ -504,6 +692,7 @@ public class OrderService {
      */
     private static class OrderItemInfo {
         private Long snackId;
+        private Long categoryId;
         private Integer quantity;
         private Integer price;
         private String snackName;
@@ -513,6 +702,9 @@ public class OrderService {
         public Long getSnackId() { return snackId; }
         public void setSnackId(Long snackId) { this.snackId = snackId; }
         
+        public Long getCategoryId() { return categoryId; }
+        public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+        
         public Integer getQuantity() { return quantity; }
         public void setQuantity(Integer quantity) { this.quantity = quantity; }
         
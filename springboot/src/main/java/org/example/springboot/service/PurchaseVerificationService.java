@@ -0,0 +1,150 @@
+package org.example.springboot.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.config.PurchaseCacheConfig;
+import org.example.springboot.mapper.OrderItemMapper;
+import org.example.springboot.service.cache.LocalLruCache;
+import org.example.springboot.util.TransactionUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 购买记录校验服务
+ * 回答"用户是否有包含该零食的已完成订单"，用于评价资格校验
+ *
+ * 工作方式：
+ * 1. 未启用缓存时每次执行一条 EXISTS 关联查询，由订单和订单项的覆盖索引支撑
+ * 2. 启用缓存时按用户缓存其已完成订单中购买过的全部零食ID，一次查询加载，之后只做集合判断
+ * 3. 订单完成提交后把订单中的零食加入该用户已缓存的集合，并通过 Redis 广播给其他节点
+ * 4. 加载期间有订单完成时不回填，避免缓存缺少刚完成订单中的零食
+ * @author system
+ */
+@Slf4j
+@Service
+public class PurchaseVerificationService implements MessageListener {
+
+    @Resource
+    private PurchaseCacheConfig purchaseCacheConfig;
+
+    @Resource
+    private OrderItemMapper orderItemMapper;
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Resource
+    private ObjectProvider<RedisMessageListenerContainer> listenerContainerProvider;
+
+    /**
+     * 用户ID -> 购买过的零食ID
+     */
+    private LocalLruCache<Long, Set<Long>> purchasedSnacks;
+
+    private final AtomicLong completionSeq = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        purchasedSnacks = new LocalLruCache<>(purchaseCacheConfig.getMaxSize(), purchaseCacheConfig.getTtl());
+        if (purchaseCacheConfig.getBroadcastEnabled()) {
+            RedisMessageListenerContainer container = listenerContainerProvider.getIfAvailable();
+            if (container != null) {
+                container.addMessageListener(this, new ChannelTopic(PurchaseCacheConfig.COMPLETE_CHANNEL));
+            } else {
+                log.warn("订单完成广播已启用，但未找到Redis消息监听容器，将收不到其他节点的通知");
+            }
+        }
+    }
+
+    /**
+     * 用户是否有包含该零食的已完成订单
+     * @param userId 用户ID
+     * @param snackId 零食ID
+     * @return 是否购买过
+     */
+    public boolean hasPurchased(Long userId, Long snackId) {
+        if (userId == null || snackId == null) {
+            return false;
+        }
+        if (!purchaseCacheConfig.getEnabled()) {
+            return orderItemMapper.existsCompletedPurchase(userId, snackId);
+        }
+
+        Set<Long> cached = purchasedSnacks.get(userId);
+        if (cached != null) {
+            return cached.contains(snackId);
+        }
+        long seq = completionSeq.get();
+        Set<Long> loaded = ConcurrentHashMap.newKeySet();
+        loaded.addAll(orderItemMapper.selectCompletedSnackIds(userId));
+        if (completionSeq.get() == seq) {
+            purchasedSnacks.put(userId, loaded);
+        }
+        return loaded.contains(snackId);
+    }
+
+    /**
+     * 订单完成，需在订单状态更新的事务内调用，提交后更新缓存
+     * @param userId 用户ID
+     * @param orderId 订单ID
+     */
+    public void onOrderCompleted(Long userId, Long orderId) {
+        if (!purchaseCacheConfig.getEnabled() || userId == null || orderId == null) {
+            return;
+        }
+        List<Long> snackIds = orderItemMapper.selectSnackIdsByOrderId(orderId);
+        if (snackIds.isEmpty()) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            addLocal(userId, snackIds);
+            if (purchaseCacheConfig.getBroadcastEnabled()) {
+                try {
+                    redisTemplate.convertAndSend(PurchaseCacheConfig.COMPLETE_CHANNEL, userId + "|"
+                            + snackIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+                } catch (Exception e) {
+                    log.warn("广播订单完成通知失败，用户ID: {}，原因: {}", userId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (body == null) {
+            return;
+        }
+        String[] parts = body.toString().split("\\|", 2);
+        if (parts.length < 2) {
+            return;
+        }
+        addLocal(Long.valueOf(parts[0]), Arrays.stream(parts[1].split(",")).map(Long::valueOf).toList());
+        log.debug("收到订单完成通知: {}", body);
+    }
+
+    /**
+     * 把零食加入用户已缓存的集合，未缓存的用户下次校验时整体加载
+     */
+    private void addLocal(Long userId, Collection<Long> snackIds) {
+        completionSeq.incrementAndGet();
+        Set<Long> cached = purchasedSnacks.get(userId);
+        if (cached != null) {
+            cached.addAll(snackIds);
+        }
+    }
+}
@@ -4,22 +4,25 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.DTO.FileInfoDTO;
 import org.example.springboot.DTO.response.ReviewResponseDTO;
+import org.example.springboot.common.CursorPage;
+import org.example.springboot.config.ImageDerivativeConfig;
 import org.example.springboot.entity.Review;
 import org.example.springboot.enumClass.FileBusinessTypeEnum;
 import org.example.springboot.exception.BusinessException;
 import org.example.springboot.mapper.ReviewMapper;
-import org.example.springboot.mapper.OrderMapper;
-import org.example.springboot.mapper.OrderItemMapper;
-import org.example.springboot.entity.Order;
-import org.example.springboot.entity.OrderItem;
 import org.example.springboot.service.convert.ReviewConvert;
+import org.example.springboot.util.CursorUtils;
+import org.example.springboot.util.FileUtil;
 import org.example.springboot.util.JwtTokenUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
@@ -32,10 +35,10 @@ public class ReviewService {
     private FileService fileService;
 
     @Resource
-    private OrderMapper orderMapper;
+    private PurchaseVerificationService purchaseVerificationService;
 
     @Resource
-    private OrderItemMapper orderItemMapper;
+    private ReviewSummaryService reviewSummaryService;
 
     @Transactional(rollbackFor = Exception.class)
     public Long createReview(Long snackId, Integer rating, String content) {
@@ -56,6 +59,7 @@ public class ReviewService {
         review.setContent(content);
         review.setCreateTime(LocalDateTime.now());
         reviewMapper.insert(review);
+        reviewSummaryService.onReviewCreated(snackId, rating);
 
         return review.getId();
     }
@@ -71,15 +75,40 @@ public class ReviewService {
         Page<Review> entityPage = reviewMapper.selectPage(page, wrapper);
 
         Page<ReviewResponseDTO> result = new Page<>(entityPage.getCurrent(), entityPage.getSize(), entityPage.getTotal());
-        result.setRecords(entityPage.getRecords().stream().map(review -> {
+        result.setRecords(toResponseDTOList(entityPage.getRecords()));
+        return result;
+    }
+
+    /**
+     * 游标分页查询评价，按创建时间倒序
+     */
+    public CursorPage<ReviewResponseDTO> getReviewCursor(Long snackId, Long userId, Integer rating, String cursor, Long size, boolean withTotal) {
+        int pageSize = CursorUtils.normalizeSize(size);
+        Supplier<LambdaQueryWrapper<Review>> filter = () -> new LambdaQueryWrapper<Review>()
+                .eq(snackId != null, Review::getSnackId, snackId)
+                .eq(userId != null, Review::getUserId, userId)
+                .eq(rating != null, Review::getRating, rating);
+
+        List<Review> reviews = reviewMapper.selectList(
+                CursorUtils.seek(filter.get(), cursor, Review::getCreateTime, Review::getId, pageSize));
+        Long total = withTotal ? reviewMapper.selectCount(filter.get()) : null;
+        return CursorUtils.toPage(reviews, pageSize, Review::getCreateTime, Review::getId, this::toResponseDTOList, total);
+    }
+
+    private List<ReviewResponseDTO> toResponseDTOList(List<Review> reviews) {
+        // 一次查询本页全部评价绑定的图片
+        Map<String, List<FileInfoDTO>> imagesByReview = fileService.getFilesByBusinessIds(
+                FileBusinessTypeEnum.COMMENT_IMAGE.getCode(),
+                reviews.stream().map(review -> String.valueOf(review.getId())).toList());
+        return reviews.stream().map(review -> {
             ReviewResponseDTO dto = ReviewConvert.toResponseDTO(review);
-            // 查询绑定的图片
-            List<String> images = fileService.getFilesByBusiness(FileBusinessTypeEnum.COMMENT_IMAGE.getCode(), String.valueOf(review.getId()))
-                    .stream().map(f -> f.getFilePath()).toList();
+            List<String> images = imagesByReview.getOrDefault(String.valueOf(review.getId()), List.of())
+                    .stream().map(FileInfoDTO::getFilePath).toList();
             dto.setImages(images);
+            dto.setImageThumbnails(images.stream()
+                    .map(image -> FileUtil.imageVariantUrl(image, ImageDerivativeConfig.THUMBNAIL_WIDTH)).toList());
             return dto;
-        }).toList());
-        return result;
+        }).toList();
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -88,32 +117,17 @@ public class ReviewService {
         if (review == null) {
             throw new BusinessException("评价不存在");
         }
-        return reviewMapper.deleteById(id) > 0;
+        if (reviewMapper.deleteById(id) == 0) {
+            return false;
+        }
+        reviewSummaryService.onReviewDeleted(review.getSnackId(), review.getRating());
+        return true;
     }
 
     /**
      * 判断用户是否可以评价（是否购买过该零食且订单完成）
      */
     public boolean canUserReview(Long snackId, Long userId) {
-        if (snackId == null || userId == null) {
-            return false;
-        }
-        // 查询用户已完成订单
-        LambdaQueryWrapper<Order> orderWrapper = new LambdaQueryWrapper<>();
-        orderWrapper.eq(Order::getUserId, userId)
-                .eq(Order::getStatus, "COMPLETED");
-        List<Order> orders = orderMapper.selectList(orderWrapper);
-        if (orders == null || orders.isEmpty()) {
-            return false;
-        }
-        List<Long> orderIds = orders.stream().map(Order::getId).toList();
-        // 查询订单项是否包含该零食
-        LambdaQueryWrapper<OrderItem> itemWrapper = new LambdaQueryWrapper<>();
-        itemWrapper.in(OrderItem::getOrderId, orderIds)
-                .eq(OrderItem::getSnackId, snackId);
-        Long count = orderItemMapper.selectCount(itemWrapper);
-        return count != null && count > 0;
+        return purchaseVerificationService.hasPurchased(userId, snackId);
     }
 }
-
-
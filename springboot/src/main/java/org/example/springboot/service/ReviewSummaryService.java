@@ -0,0 +1,130 @@
+package org.example.springboot.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.DTO.response.ReviewSummaryResponseDTO;
+import org.example.springboot.entity.ReviewSummary;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.exception.BusinessException;
+import org.example.springboot.mapper.ReviewMapper;
+import org.example.springboot.mapper.ReviewSummaryMapper;
+import org.example.springboot.mapper.SnackMapper;
+import org.example.springboot.service.cache.CatalogCache;
+import org.example.springboot.service.convert.ReviewConvert;
+import org.example.springboot.service.search.SnackSearchIndex;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * 评价汇总服务
+ * 维护每个零食的评价数、评分总和与1-5星分布：
+ * - 评价创建/删除时在同一事务内累加增量，汇总与评价同时提交或回滚
+ * - 累加后同步零食表的评价数和平均评分，前台按评分排序、筛选直接查零食表
+ * - 事务提交后只清除该零食的详情缓存并刷新检索索引，详情页随零食信息一并读取缓存的汇总
+ *   列表缓存不清除，按评分排序、筛选的结果在列表缓存过期前可能滞后
+ * - 提供重建任务，从评价表全量回填
+ * @author system
+ */
+@Slf4j
+@Service
+public class ReviewSummaryService {
+
+    @Resource
+    private ReviewSummaryMapper reviewSummaryMapper;
+
+    @Resource
+    private ReviewMapper reviewMapper;
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @Resource
+    private CatalogCache catalogCache;
+
+    @Resource
+    private SnackSearchIndex snackSearchIndex;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 新增评价，需在评价所在事务内调用
+     * @param snackId 零食ID
+     * @param rating 评分（1-5）
+     */
+    public void onReviewCreated(Long snackId, Integer rating) {
+        applyDelta(snackId, rating, 1);
+    }
+
+    /**
+     * 删除评价，需在评价所在事务内调用
+     * @param snackId 零食ID
+     * @param rating 评分（1-5）
+     */
+    public void onReviewDeleted(Long snackId, Integer rating) {
+        applyDelta(snackId, rating, -1);
+    }
+
+    /**
+     * 获取零食的评价汇总
+     * @param snackId 零食ID
+     * @return 评价汇总，没有评价时评价数为0
+     */
+    public ReviewSummaryResponseDTO getSummary(Long snackId) {
+        if (snackId == null) {
+            throw new BusinessException("零食ID不能为空");
+        }
+        return ReviewConvert.toSummaryResponseDTO(snackId, reviewSummaryMapper.selectById(snackId));
+    }
+
+    /**
+     * 重建全部评价汇总
+     * 在单个事务中清空并回填，重建期间提交的评价可能被重复计入，建议在业务低峰执行
+     */
+    public void rebuild() {
+        log.info("开始重建评价汇总");
+        long start = System.currentTimeMillis();
+        int snacks = new TransactionTemplate(transactionManager).execute(status -> {
+            reviewSummaryMapper.delete(null);
+            reviewSummaryMapper.rebuild();
+            return snackMapper.syncReviewStats(null);
+        });
+
+        List<Long> snackIds = snackMapper.selectList(new LambdaQueryWrapper<Snack>().select(Snack::getId)).stream()
+                .map(Snack::getId)
+                .toList();
+        catalogCache.invalidateSnacks(snackIds);
+        snackSearchIndex.rebuild();
+        log.info("评价汇总重建完成，零食数: {}，耗时{}ms", snacks, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 首次部署时汇总表为空，自动从评价表回填
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (reviewSummaryMapper.selectCount(null) == 0 && reviewMapper.selectCount(null) > 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("回填评价汇总失败", e);
+        }
+    }
+
+    private void applyDelta(Long snackId, Integer rating, int sign) {
+        if (snackId == null || rating == null || rating < 1 || rating > 5) {
+            throw new BusinessException("评分必须在1到5之间");
+        }
+        reviewSummaryMapper.upsertDelta(ReviewSummary.delta(snackId, rating, sign));
+        snackMapper.syncReviewStats(snackId);
+        catalogCache.invalidateSnackDetails(List.of(snackId));
+        snackSearchIndex.refresh(List.of(snackId));
+    }
+}
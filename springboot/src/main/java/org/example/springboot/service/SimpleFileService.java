@@ -1,25 +1,47 @@
 package org.example.springboot.service;
 
 import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import lombok.extern.slf4j.Slf4j;
 import org.example.springboot.DTO.FileInfoDTO;
 import org.example.springboot.DTO.SimpleFileInfoDTO;
 import org.example.springboot.common.Result;
 import org.example.springboot.common.ResultCode;
+import org.example.springboot.config.FileUploadConfig;
+import org.example.springboot.entity.SysFileInfo;
 import org.example.springboot.enumClass.FileTypeEnum;
 import org.example.springboot.exception.ServiceException;
+import org.example.springboot.mapper.SysFileInfoMapper;
+import org.example.springboot.service.storage.ContentAddressedFileStore;
+import org.example.springboot.service.storage.ImageDerivativeService;
 import org.example.springboot.util.FileUtil;
+import org.example.springboot.util.JwtTokenUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import java.io.File;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 简单文件上传服务
@@ -31,11 +53,51 @@ import java.util.List;
 @Service
 public class SimpleFileService {
 
+    /**
+     * 简单上传文件的引用记录业务类型
+     */
+    public static final String SIMPLE_FILE_BUSINESS_TYPE = "SIMPLE_FILE";
+
+    @Resource
+    private ContentAddressedFileStore contentAddressedFileStore;
+
+    @Resource
+    private SysFileInfoMapper fileInfoMapper;
+
+    @Resource
+    private ImageDerivativeService imageDerivativeService;
+
+    @Resource
+    private FileUploadConfig fileUploadConfig;
 
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    private ThreadPoolExecutor uploadExecutor;
+
+    @PostConstruct
+    public void init() {
+        int threads = fileUploadConfig.getBatchThreads();
+        AtomicInteger threadIndex = new AtomicInteger();
+        uploadExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fileUploadConfig.getBatchQueueCapacity()), r -> {
+                    Thread thread = new Thread(r, "file-upload-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (uploadExecutor != null) {
+            uploadExecutor.shutdownNow();
+        }
+    }
 
     /**
      * 简单图片上传
      */
+    @Transactional(rollbackFor = Exception.class)
     public Result<String> uploadImage(MultipartFile file) {
         log.info("开始图片上传：{}", file.getOriginalFilename());
         return uploadSimpleFile(file, "IMG");
@@ -43,42 +105,51 @@ public class SimpleFileService {
 
     /**
      * 简单文件上传
+     * 文件按内容寻址保存，同时写入一条引用记录，避免被其他记录删除时连带删除
+     * 失败时返回错误结果并把事务标记为回滚，回滚后清理本次写入的无引用文件
      */
+    @Transactional(rollbackFor = Exception.class)
     public Result<String> uploadSimpleFile(MultipartFile file, String fileType) {
         try {
-            log.info("开始文件上传：{}，类型：{}", file.getOriginalFilename(), fileType);
-
-            // 解析目标目录
-            String relativeDir = FileUtil.parseFileTypeToRelativeDir(fileType);
-            
-            // 使用FileUtil保存文件（自动生成唯一文件名）
-            String filePath = FileUtil.saveFile(file, relativeDir, null);
-            if (filePath == null) {
-                return Result.error(ResultCode.ERROR.code(), "文件保存失败");
-            }
-
-            log.info("文件上传成功：{}", filePath);
-            return Result.success(filePath);
-
+            return Result.success(storeSimpleFile(file, fileType, JwtTokenUtils.getCurrentUserId()));
         } catch (Exception e) {
             log.error("文件上传异常：{}，错误：{}", file.getOriginalFilename(), e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return Result.error(ResultCode.ERROR.code(), "文件上传失败：" + e.getMessage());
         }
     }
 
     /**
      * 批量文件上传
+     * 各文件在有界线程池中并行校验和保存，每个文件使用独立事务，单个失败不影响其他文件
      */
     public Result<List<String>> uploadMultipleFiles(MultipartFile[] files, String fileType) {
         if (files == null || files.length == 0) {
             return Result.error(ResultCode.PARAM_ERROR.code(), "未选择文件");
         }
 
+        // 上传线程池拿不到请求上下文，在提交前取出上传用户
+        Long uploadUserId = JwtTokenUtils.getCurrentUserId();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<CompletableFuture<Result<String>>> futures = new ArrayList<>(files.length);
+        for (MultipartFile file : files) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> transactionTemplate.execute(
+                            status -> Result.success(storeSimpleFile(file, fileType, uploadUserId))),
+                    uploadExecutor));
+        }
+
         List<String> uploadedFiles = new ArrayList<>();
         List<String> failedFiles = new ArrayList<>();
 
-        for (MultipartFile file : files) {
-            Result<String> result = uploadSimpleFile(file, fileType);
+        for (int i = 0; i < files.length; i++) {
+            MultipartFile file = files[i];
+            Result<String> result;
+            try {
+                result = futures.get(i).join();
+            } catch (CompletionException e) {
+                result = Result.error(ResultCode.ERROR.code(), "文件上传失败：" + e.getCause().getMessage());
+            }
             if (result.isSuccess()) {
                 uploadedFiles.add(result.getData());
             } else {
@@ -97,13 +168,79 @@ public class SimpleFileService {
         return Result.success(uploadedFiles);
     }
 
+    /**
+     * 流式文件上传
+     * 请求体即文件内容，不经过 multipart 解析和容器临时文件，直接写入存储目录
+     * @param in 请求体
+     * @param filename 原始文件名
+     * @param fileType 文件类型
+     * @return 文件访问路径
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public Result<String> uploadStream(InputStream in, String filename, String fileType) {
+        try {
+            log.info("开始流式文件上传：{}，类型：{}", filename, fileType);
+
+            FileUtil.validateName(filename);
+            String extension = FileUtil.getFileExtension(filename);
+            if (StrUtil.isBlank(extension)) {
+                return Result.error(ResultCode.PARAM_ERROR.code(), "文件没有扩展名");
+            }
+
+            ContentAddressedFileStore.StoredFile stored = contentAddressedFileStore.store(in, extension);
+            if (stored.size() == 0) {
+                contentAddressedFileStore.dereference(stored.filePath());
+                throw new ServiceException("上传文件不能为空");
+            }
+            fileInfoMapper.insert(createReference(filename, stored.filePath(), stored.size(), fileType,
+                    JwtTokenUtils.getCurrentUserId()));
+            imageDerivativeService.scheduleVariants(stored.filePath());
+
+            log.info("流式文件上传成功：{}，大小：{}", stored.filePath(), stored.size());
+            return Result.success(stored.filePath());
+
+        } catch (Exception e) {
+            log.error("流式文件上传异常：{}，错误：{}", filename, e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Result.error(ResultCode.ERROR.code(), "文件上传失败：" + e.getMessage());
+        }
+    }
+
     /**
      * 删除文件
      */
+    @Transactional(rollbackFor = Exception.class)
     public Result<Void> deleteFile(String filename) {
         try {
             log.info("开始删除文件：{}", filename);
 
+            // 内容寻址文件按内容去重，同一路径可能有多个上传者的引用记录；
+            // 只失效当前用户自己的一条引用（匿名请求对应匿名上传），提交后无其他引用时再删除物理文件
+            String filePath = "/files/" + FileUtil.convertToRelativePath(filename);
+            if (contentAddressedFileStore.isContentAddressed(filePath)) {
+                Long userId = JwtTokenUtils.getCurrentUserId();
+                SysFileInfo reference = fileInfoMapper.selectOne(new LambdaQueryWrapper<SysFileInfo>()
+                        .eq(SysFileInfo::getFilePath, filePath)
+                        .eq(SysFileInfo::getBusinessType, SIMPLE_FILE_BUSINESS_TYPE)
+                        .eq(SysFileInfo::getStatus, 1)
+                        .eq(userId != null, SysFileInfo::getUploadUserId, userId)
+                        .isNull(userId == null, SysFileInfo::getUploadUserId)
+                        .orderByDesc(SysFileInfo::getId)
+                        .last("LIMIT 1"));
+                if (reference == null) {
+                    return Result.error(ResultCode.ERROR.code(), "文件不存在或无权删除");
+                }
+                int updated = fileInfoMapper.update(null, new LambdaUpdateWrapper<SysFileInfo>()
+                        .eq(SysFileInfo::getId, reference.getId())
+                        .eq(SysFileInfo::getStatus, 1)
+                        .set(SysFileInfo::getStatus, 0));
+                if (updated > 0) {
+                    contentAddressedFileStore.dereference(filePath);
+                }
+                log.info("文件引用已删除：{}，引用ID：{}", filePath, reference.getId());
+                return Result.success();
+            }
+
             // 使用FileUtil统一删除
             boolean success = FileUtil.deleteFile(filename);
             if (!success) {
@@ -187,7 +324,40 @@ public class SimpleFileService {
         }
     }
 
+    /**
+     * 校验并保存文件，写入引用记录，需在事务内调用
+     * @return 文件访问路径
+     */
+    private String storeSimpleFile(MultipartFile file, String fileType, Long uploadUserId) {
+        log.info("开始文件上传：{}，类型：{}", file.getOriginalFilename(), fileType);
 
+        FileUtil.validateBasicFile(file);
 
+        // 按内容寻址保存（文件名为内容哈希，相同内容只存一份）
+        String filePath = contentAddressedFileStore.store(file).filePath();
+        fileInfoMapper.insert(createReference(file.getOriginalFilename(), filePath, file.getSize(), fileType, uploadUserId));
+        imageDerivativeService.scheduleVariants(filePath);
 
-} 
\ No newline at end of file
+        log.info("文件上传成功：{}", filePath);
+        return filePath;
+    }
+
+    /**
+     * 创建简单上传文件的引用记录
+     */
+    private SysFileInfo createReference(String originalName, String filePath, long size, String fileType, Long uploadUserId) {
+        SysFileInfo fileInfo = new SysFileInfo();
+        fileInfo.setOriginalName(originalName);
+        fileInfo.setFilePath(filePath);
+        fileInfo.setFileSize(size);
+        fileInfo.setFileType(FileTypeEnum.getByFileName(originalName).getCode());
+        fileInfo.setBusinessType(SIMPLE_FILE_BUSINESS_TYPE);
+        fileInfo.setBusinessId("0");
+        fileInfo.setBusinessField(fileType);
+        fileInfo.setUploadUserId(uploadUserId);
+        fileInfo.setIsTemp(0);
+        fileInfo.setStatus(1);
+        fileInfo.setCreateTime(LocalDateTime.now());
+        return fileInfo;
+    }
+}
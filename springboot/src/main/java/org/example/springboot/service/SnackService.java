@@ -9,8 +9,12 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import jakarta.annotation.Resource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.example.springboot.entity.Snack;
@@ -21,9 +25,16 @@ import org.example.springboot.DTO.command.SnackCreateDTO;
 import org.example.springboot.DTO.command.SnackUpdateDTO;
 import org.example.springboot.DTO.response.SnackResponseDTO;
 import org.example.springboot.DTO.response.SnackListResponseDTO;
+import org.example.springboot.DTO.response.SnackSearchFacetResponseDTO;
+import org.example.springboot.common.CursorPage;
 import org.example.springboot.enumClass.SnackStatus;
 import org.example.springboot.exception.BusinessException;
+import org.example.springboot.service.cache.CatalogCache;
+import org.example.springboot.service.cache.CategoryDictionary;
 import org.example.springboot.service.convert.SnackConvert;
+import org.example.springboot.service.search.SnackSearchIndex;
+import org.example.springboot.util.CursorUtils;
+import org.example.springboot.service.stock.StockEngine;
 
 /**
  * 零食业务逻辑层
@@ -33,12 +44,32 @@ import org.example.springboot.service.convert.SnackConvert;
 @Service
 public class SnackService {
 
+    /**
+     * 关键词联想最多返回的条数
+     */
+    private static final int MAX_SUGGEST_LIMIT = 20;
+
     @Resource
     private SnackMapper snackMapper;
 
     @Resource
     private CategoryMapper categoryMapper;
 
+    @Resource
+    private StockEngine stockEngine;
+
+    @Resource
+    private CatalogCache catalogCache;
+
+    @Resource
+    private CategoryDictionary categoryDictionary;
+
+    @Resource
+    private SnackSearchIndex snackSearchIndex;
+
+    @Resource
+    private ReviewSummaryService reviewSummaryService;
+
     /**
      * 创建零食
      * @param createDTO 创建零食命令
@@ -57,9 +88,11 @@ public class SnackService {
         // 转换并保存
         Snack snack = SnackConvert.createCommandToEntity(createDTO);
         snackMapper.insert(snack);
+        catalogCache.invalidateSnacks(List.of(snack.getId()));
+        snackSearchIndex.refresh(List.of(snack.getId()));
         
         log.info("零食创建成功，ID: {}", snack.getId());
-        return SnackConvert.entityToResponse(snack, category.getName());
+        return toResponse(snack, category.getName());
     }
 
     /**
@@ -88,7 +121,6 @@ public class SnackService {
         updateWrapper.set(Snack::getName, updateDTO.getName());
         updateWrapper.set(Snack::getDescription, updateDTO.getDescription());
         updateWrapper.set(Snack::getPrice, updateDTO.getPrice().multiply(java.math.BigDecimal.valueOf(100)).intValue());
-        updateWrapper.set(Snack::getStock, updateDTO.getStock());
         updateWrapper.set(Snack::getCoverImage, updateDTO.getCoverImage());
         updateWrapper.set(Snack::getDetailImages, SnackConvert.listToJsonString(updateDTO.getDetailImages()));
         
@@ -102,10 +134,15 @@ public class SnackService {
         
         snackMapper.update(null, updateWrapper);
         
+        // 库存统一由库存引擎维护
+        stockEngine.setStock(updateDTO.getId(), updateDTO.getStock());
+        catalogCache.invalidateSnacks(List.of(updateDTO.getId()));
+        snackSearchIndex.refresh(List.of(updateDTO.getId()));
+        
         // 查询更新后的数据
         Snack updatedSnack = getSnackById(updateDTO.getId());
         log.info("零食更新成功，ID: {}", updateDTO.getId());
-        return SnackConvert.entityToResponse(updatedSnack, category.getName());
+        return toResponse(updatedSnack, category.getName());
     }
 
     /**
@@ -123,6 +160,8 @@ public class SnackService {
         checkRelatedData(snackId);
         
         snackMapper.deleteById(snackId);
+        catalogCache.invalidateSnacks(List.of(snackId));
+        snackSearchIndex.refresh(List.of(snackId));
         log.info("零食删除成功，ID: {}", snackId);
     }
 
@@ -134,10 +173,19 @@ public class SnackService {
     public SnackResponseDTO getSnackDetail(Long snackId) {
         log.info("获取零食详情，ID: {}", snackId);
         
-        Snack snack = getSnackById(snackId);
-        Category category = getCategoryById(snack.getCategoryId());
-        
-        return SnackConvert.entityToResponse(snack, category.getName());
+        if (snackId == null) {
+            throw new BusinessException("零食ID不能为空");
+        }
+        return withLiveStock(catalogCache.getSnackDetail(snackId, () -> {
+            Snack snack = getSnackById(snackId);
+            String categoryName = categoryDictionary.getName(snack.getCategoryId());
+            if (categoryName == null) {
+                throw new BusinessException("分类不存在");
+            }
+            SnackResponseDTO response = toResponse(snack, categoryName);
+            response.setReviewSummary(reviewSummaryService.getSummary(snackId));
+            return response;
+        }));
     }
 
     /**
@@ -156,6 +204,13 @@ public class SnackService {
         log.info("分页查询零食列表，当前页: {}, 每页大小: {}, 名称: {}, 分类ID: {}, 状态: {}, 价格范围: {}-{}", 
                 current, size, name, categoryId, status, minPrice, maxPrice);
         
+        // 按名称搜索走检索索引，索引未就绪时退回模糊查询
+        if (StringUtils.hasText(name) && snackSearchIndex.isReady()) {
+            SnackSearchIndex.Filter filter = new SnackSearchIndex.Filter(categoryId,
+                    StringUtils.hasText(status) ? status : null, toFen(minPrice), toFen(maxPrice));
+            return searchSnackPage(current, size, name, filter, null, null);
+        }
+        
         Page<Snack> page = new Page<>(current, size);
         LambdaQueryWrapper<Snack> wrapper = new LambdaQueryWrapper<>();
         
@@ -190,28 +245,83 @@ public class SnackService {
         result.setSize(snackPage.getSize());
         result.setTotal(snackPage.getTotal());
         result.setRecords(snackPage.getRecords().stream()
-                .map(snack -> SnackConvert.entityToListResponse(snack, categoryMap.get(snack.getCategoryId())))
+                .map(snack -> toListResponse(snack, categoryMap.get(snack.getCategoryId())))
                 .collect(Collectors.toList()));
         
         return result;
     }
 
+    /**
+     * 游标分页查询零食列表（后台），按创建时间倒序
+     * 按名称搜索请使用 getSnackPage，搜索结果按相关度排序，不适用游标
+     * @param cursor 上一页返回的游标，首页为空
+     * @param size 每页大小
+     * @param categoryId 分类ID
+     * @param status 状态
+     * @param withTotal 是否统计总数
+     * @return 游标分页结果
+     */
+    public CursorPage<SnackListResponseDTO> getSnackCursor(String cursor, Long size, Long categoryId, String status, boolean withTotal) {
+        log.info("游标查询零食列表，游标: {}, 每页大小: {}, 分类ID: {}, 状态: {}", cursor, size, categoryId, status);
+        
+        int pageSize = CursorUtils.normalizeSize(size);
+        Supplier<LambdaQueryWrapper<Snack>> filter = () -> new LambdaQueryWrapper<Snack>()
+                .eq(categoryId != null, Snack::getCategoryId, categoryId)
+                .eq(StringUtils.hasText(status), Snack::getStatus, status);
+        
+        List<Snack> snacks = snackMapper.selectList(
+                CursorUtils.seek(filter.get(), cursor, Snack::getCreateTime, Snack::getId, pageSize));
+        Long total = withTotal ? snackMapper.selectCount(filter.get()) : null;
+        return CursorUtils.toPage(snacks, pageSize, Snack::getCreateTime, Snack::getId, rows -> {
+            Map<Long, String> categoryMap = getCategoryMap(rows);
+            return rows.stream()
+                    .map(snack -> toListResponse(snack, categoryMap.get(snack.getCategoryId())))
+                    .collect(Collectors.toList());
+        }, total);
+    }
+
     /**
      * 获取前台展示的零食列表（只显示上架商品）
      * @param current 当前页
      * @param size 每页大小
      * @param name 零食名称（模糊查询）
      * @param categoryId 分类ID
-     * @param sortBy 排序字段（price, sales_count, create_time）
+     * @param sortBy 排序字段（price, sales_count, create_time, rating）
      * @param sortOrder 排序方向（asc, desc）
      * @param minPrice 最低价格（元）
      * @param maxPrice 最高价格（元）
+     * @param minRating 最低平均评分
      * @return 分页结果
      */
     public Page<SnackListResponseDTO> getFrontendSnackPage(Long current, Long size, String name, Long categoryId, 
-                                                           String sortBy, String sortOrder, java.math.BigDecimal minPrice, java.math.BigDecimal maxPrice) {
-        log.info("前台分页查询零食列表，当前页: {}, 每页大小: {}, 名称: {}, 分类ID: {}, 排序: {} {}, 价格范围: {}-{}", 
-                current, size, name, categoryId, sortBy, sortOrder, minPrice, maxPrice);
+                                                           String sortBy, String sortOrder, java.math.BigDecimal minPrice, java.math.BigDecimal maxPrice,
+                                                           BigDecimal minRating) {
+        log.info("前台分页查询零食列表，当前页: {}, 每页大小: {}, 名称: {}, 分类ID: {}, 排序: {} {}, 价格范围: {}-{}, 最低评分: {}", 
+                current, size, name, categoryId, sortBy, sortOrder, minPrice, maxPrice, minRating);
+        
+        String cacheKey = String.join(":", "page", String.valueOf(current), String.valueOf(size), String.valueOf(name),
+                String.valueOf(categoryId), String.valueOf(sortBy), String.valueOf(sortOrder),
+                minPrice == null ? "null" : minPrice.toPlainString(), maxPrice == null ? "null" : maxPrice.toPlainString(),
+                minRating == null ? "null" : minRating.toPlainString());
+        Page<SnackListResponseDTO> page = catalogCache.getList(cacheKey,
+                () -> loadFrontendSnackPage(current, size, name, categoryId, sortBy, sortOrder, minPrice, maxPrice, minRating));
+        Page<SnackListResponseDTO> result = new Page<>(page.getCurrent(), page.getSize(), page.getTotal());
+        result.setRecords(withLiveStock(page.getRecords()));
+        return result;
+    }
+
+    /**
+     * 查询前台零食分页（缓存未命中时调用）
+     */
+    private Page<SnackListResponseDTO> loadFrontendSnackPage(Long current, Long size, String name, Long categoryId,
+                                                             String sortBy, String sortOrder, java.math.BigDecimal minPrice, java.math.BigDecimal maxPrice,
+                                                             BigDecimal minRating) {
+        // 按名称搜索走检索索引，索引未就绪时退回模糊查询
+        if (StringUtils.hasText(name) && snackSearchIndex.isReady()) {
+            SnackSearchIndex.Filter filter = new SnackSearchIndex.Filter(categoryId,
+                    SnackStatus.ON_SALE.getCode(), toFen(minPrice), toFen(maxPrice), minRating);
+            return searchSnackPage(current, size, name, filter, sortBy, sortOrder);
+        }
         
         Page<Snack> page = new Page<>(current, size);
         LambdaQueryWrapper<Snack> wrapper = new LambdaQueryWrapper<>();
@@ -233,6 +343,10 @@ public class SnackService {
         if (maxPrice != null) {
             wrapper.le(Snack::getPrice, maxPrice.multiply(java.math.BigDecimal.valueOf(100)).intValue());
         }
+        // 评分筛选（零食表冗余的平均评分）
+        if (minRating != null) {
+            wrapper.ge(Snack::getRatingAvg, minRating);
+        }
         
         // 排序逻辑
         if (StringUtils.hasText(sortBy)) {
@@ -259,6 +373,14 @@ public class SnackService {
                         wrapper.orderByDesc(Snack::getCreateTime);
                     }
                     break;
+                case "rating":
+                    // 评分相同时按评价数排序
+                    if (isAsc) {
+                        wrapper.orderByAsc(Snack::getRatingAvg, Snack::getReviewCount);
+                    } else {
+                        wrapper.orderByDesc(Snack::getRatingAvg, Snack::getReviewCount);
+                    }
+                    break;
                 default:
                     wrapper.orderByDesc(Snack::getCreateTime);
                     break;
@@ -279,7 +401,7 @@ public class SnackService {
         result.setSize(snackPage.getSize());
         result.setTotal(snackPage.getTotal());
         result.setRecords(snackPage.getRecords().stream()
-                .map(snack -> SnackConvert.entityToListResponse(snack, categoryMap.get(snack.getCategoryId())))
+                .map(snack -> toListResponse(snack, categoryMap.get(snack.getCategoryId())))
                 .collect(Collectors.toList()));
         
         return result;
@@ -293,6 +415,13 @@ public class SnackService {
     public List<SnackListResponseDTO> getRecommendedSnacks(int limit) {
         log.info("获取推荐零食列表，限制数量: {}", limit);
         
+        return withLiveStock(catalogCache.getList("recommended:" + limit, () -> loadRecommendedSnacks(limit)));
+    }
+
+    /**
+     * 查询推荐零食（缓存未命中时调用）
+     */
+    private List<SnackListResponseDTO> loadRecommendedSnacks(int limit) {
         LambdaQueryWrapper<Snack> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(Snack::getStatus, SnackStatus.ON_SALE.getCode());
         wrapper.orderByDesc(Snack::getSalesCount, Snack::getCreateTime);
@@ -304,8 +433,66 @@ public class SnackService {
         Map<Long, String> categoryMap = getCategoryMap(snacks);
         
         return snacks.stream()
-                .map(snack -> SnackConvert.entityToListResponse(snack, categoryMap.get(snack.getCategoryId())))
+                .map(snack -> toListResponse(snack, categoryMap.get(snack.getCategoryId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 搜索关键词联想（前台）
+     * @param prefix 输入前缀
+     * @param limit 最多返回条数，超过 MAX_SUGGEST_LIMIT 时按上限处理
+     * @return 匹配前缀的上架零食名称
+     */
+    public List<String> suggestSnackNames(String prefix, int limit) {
+        return snackSearchIndex.suggest(prefix, Math.min(limit, MAX_SUGGEST_LIMIT));
+    }
+
+    /**
+     * 统计搜索结果的分类和价格分布（前台）
+     * @param keyword 搜索关键词
+     * @param categoryId 分类ID
+     * @return 分面统计
+     */
+    public SnackSearchFacetResponseDTO getSearchFacets(String keyword, Long categoryId) {
+        if (!snackSearchIndex.isReady()) {
+            throw new BusinessException("搜索服务正在初始化，请稍后重试");
+        }
+        
+        List<SnackSearchIndex.SearchHit> hits = snackSearchIndex.search(keyword,
+                new SnackSearchIndex.Filter(categoryId, SnackStatus.ON_SALE.getCode(), null, null));
+        SnackSearchIndex.Facets facets = snackSearchIndex.facets(hits);
+        
+        Map<Long, String> categoryNames = categoryDictionary.getNames(facets.categoryCounts().keySet());
+        List<SnackSearchFacetResponseDTO.CategoryFacet> categories = facets.categoryCounts().entrySet().stream()
+                .map(entry -> SnackSearchFacetResponseDTO.CategoryFacet.builder()
+                        .categoryId(entry.getKey())
+                        .categoryName(categoryNames.get(entry.getKey()))
+                        .count(entry.getValue())
+                        .build())
+                .sorted(Comparator.comparing(SnackSearchFacetResponseDTO.CategoryFacet::getCount).reversed())
                 .collect(Collectors.toList());
+        List<SnackSearchFacetResponseDTO.PriceFacet> priceRanges = facets.priceBuckets().stream()
+                .map(bucket -> SnackSearchFacetResponseDTO.PriceFacet.builder()
+                        .minPrice(BigDecimal.valueOf(bucket.minPrice(), 2))
+                        .maxPrice(bucket.maxPrice() == null ? null : BigDecimal.valueOf(bucket.maxPrice(), 2))
+                        .count(bucket.count())
+                        .build())
+                .collect(Collectors.toList());
+        
+        return SnackSearchFacetResponseDTO.builder()
+                .total((long) hits.size())
+                .categories(categories)
+                .priceRanges(priceRanges)
+                .build();
+    }
+
+    /**
+     * 从数据库重建搜索索引（管理员）
+     * @return 索引的零食数量
+     */
+    public int rebuildSearchIndex() {
+        log.info("重建零食搜索索引");
+        return snackSearchIndex.rebuild();
     }
 
     /**
@@ -330,6 +517,8 @@ public class SnackService {
         updateWrapper.set(Snack::getStatus, status);
         
         snackMapper.update(null, updateWrapper);
+        catalogCache.invalidateSnacks(List.of(snackId));
+        snackSearchIndex.refresh(List.of(snackId));
         log.info("零食状态更新成功，ID: {}, 新状态: {}", snackId, status);
     }
 
@@ -342,15 +531,9 @@ public class SnackService {
     public void adjustStock(Long id, Integer quantity) {
         log.info("调整库存: snackId={}, quantity={}" , id, quantity);
         
-        Snack snack = getSnackById(id); // 使用现有的 getSnackById 方法
-        int newStock = snack.getStock() + quantity;
-        
-        if (newStock < 0 ) {
-            throw new BusinessException("库存不足，操作失败" );
-        }
-        
-        snack.setStock(newStock);
-        snackMapper.updateById(snack);
+        getSnackById(id); // 使用现有的 getSnackById 方法校验零食存在
+        int newStock = stockEngine.adjust(id, quantity);
+        catalogCache.invalidateSnacks(List.of(id));
         log.info("库存调整成功，当前库存: {}" , newStock);
     }
 
@@ -422,6 +605,115 @@ public class SnackService {
         log.debug("检查零食关联数据，ID: {}", snackId);
     }
 
+    /**
+     * 通过检索索引分页查询
+     * 未指定排序字段时按相关度排序，分页后只按ID回表查询当前页
+     */
+    private Page<SnackListResponseDTO> searchSnackPage(Long current, Long size, String keyword, SnackSearchIndex.Filter filter,
+                                                       String sortBy, String sortOrder) {
+        List<SnackSearchIndex.SearchHit> hits = new ArrayList<>(snackSearchIndex.search(keyword, filter));
+        Comparator<SnackSearchIndex.IndexedSnack> comparator = searchComparator(sortBy);
+        if (comparator != null) {
+            if (!"asc".equalsIgnoreCase(sortOrder)) {
+                comparator = comparator.reversed();
+            }
+            Comparator<SnackSearchIndex.IndexedSnack> snackComparator = comparator;
+            hits.sort((a, b) -> snackComparator.compare(a.snack(), b.snack()));
+        }
+        
+        long from = Math.min((Math.max(current, 1) - 1) * size, hits.size());
+        long to = Math.min(from + size, hits.size());
+        List<Long> pageIds = hits.subList((int) from, (int) to).stream()
+                .map(hit -> hit.snack().id())
+                .collect(Collectors.toList());
+        
+        List<Snack> snacks = new ArrayList<>();
+        if (!pageIds.isEmpty()) {
+            Map<Long, Snack> snackMap = snackMapper.selectBatchIds(pageIds).stream()
+                    .collect(Collectors.toMap(Snack::getId, snack -> snack));
+            for (Long id : pageIds) {
+                Snack snack = snackMap.get(id);
+                if (snack != null) {
+                    snacks.add(snack);
+                }
+            }
+        }
+        Map<Long, String> categoryMap = getCategoryMap(snacks);
+        
+        Page<SnackListResponseDTO> result = new Page<>();
+        result.setCurrent(current);
+        result.setSize(size);
+        result.setTotal(hits.size());
+        result.setRecords(snacks.stream()
+                .map(snack -> toListResponse(snack, categoryMap.get(snack.getCategoryId())))
+                .collect(Collectors.toList()));
+        return result;
+    }
+
+    /**
+     * 搜索结果的排序规则，未知字段返回null表示按相关度
+     */
+    private Comparator<SnackSearchIndex.IndexedSnack> searchComparator(String sortBy) {
+        if (!StringUtils.hasText(sortBy)) {
+            return null;
+        }
+        switch (sortBy.toLowerCase()) {
+            case "price":
+                return Comparator.comparingInt(SnackSearchIndex.IndexedSnack::price);
+            case "sales_count":
+                return Comparator.comparingInt(SnackSearchIndex.IndexedSnack::salesCount);
+            case "create_time":
+                return Comparator.comparing(SnackSearchIndex.IndexedSnack::createTime,
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "rating":
+                return Comparator.comparing(SnackSearchIndex.IndexedSnack::ratingAvg)
+                        .thenComparingInt(SnackSearchIndex.IndexedSnack::reviewCount);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 元转分，为空返回null
+     */
+    private Integer toFen(BigDecimal yuan) {
+        return yuan == null ? null : yuan.multiply(BigDecimal.valueOf(100)).intValue();
+    }
+
+    /**
+     * 按库存引擎的可用库存转换零食详情
+     */
+    private SnackResponseDTO toResponse(Snack snack, String categoryName) {
+        return SnackConvert.entityToResponse(snack, categoryName, stockEngine.getAvailableStock(snack));
+    }
+
+    /**
+     * 按库存引擎的可用库存转换零食列表项
+     */
+    private SnackListResponseDTO toListResponse(Snack snack, String categoryName) {
+        return SnackConvert.entityToListResponse(snack, categoryName, stockEngine.getAvailableStock(snack));
+    }
+
+    /**
+     * 缓存的零食详情换上库存引擎的实时库存，引擎不掌握实时库存时保留缓存值
+     */
+    private SnackResponseDTO withLiveStock(SnackResponseDTO response) {
+        Integer stock = stockEngine.peekAvailableStock(response.getId());
+        return stock == null ? response : SnackConvert.withStock(response, stock);
+    }
+
+    /**
+     * 缓存的零食列表换上库存引擎的实时库存，返回新列表，不修改缓存中的对象
+     */
+    private List<SnackListResponseDTO> withLiveStock(List<SnackListResponseDTO> records) {
+        return records.stream()
+                .map(record -> {
+                    Integer stock = stockEngine.peekAvailableStock(record.getId());
+                    return stock == null ? record : SnackConvert.withStock(record, stock);
+                })
+                .collect(Collectors.toList());
+    }
+
     /**
      * 获取分类映射
      * @param snacks 零食列表
@@ -433,13 +725,6 @@ public class SnackService {
                 .distinct()
                 .collect(Collectors.toList());
         
-        if (categoryIds.isEmpty()) {
-            return Map.of();
-        }
-        
-        List<Category> categories = categoryMapper.selectBatchIds(categoryIds);
-        return categories.stream()
-                .collect(Collectors.toMap(Category::getId, Category::getName));
+        return categoryDictionary.getNames(categoryIds);
     }
 }
-
@@ -1,5 +1,7 @@
 package org.example.springboot.service;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -29,6 +31,8 @@ import org.example.springboot.exception.BusinessException;
 import org.example.springboot.exception.ServiceException;
 import org.example.springboot.util.JwtTokenUtils;
 import org.example.springboot.service.convert.UserConvert;
+import org.example.springboot.service.auth.TokenRevocationService;
+import org.example.springboot.service.cache.AuthPrincipalCache;
 
 /**
  * 用户业务逻辑层
@@ -41,6 +45,15 @@ public class UserService {
     @Resource
     private UserMapper userMapper;
 
+    @Resource
+    private DashboardRollupService dashboardRollupService;
+
+    @Resource
+    private AuthPrincipalCache authPrincipalCache;
+
+    @Resource
+    private TokenRevocationService tokenRevocationService;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     /**
@@ -74,12 +87,8 @@ public class UserService {
                 }
             }
 
-            // 生成JWT token
-            String token = JwtTokenUtils.generateToken(user.getId(), user.getUsername(), user.getUserType());
-
-            // 构建响应
-            UserDetailResponseDTO userInfo = UserConvert.entityToDetailResponse(user);
-            return UserConvert.buildLoginResponse(token, userInfo);
+            // 生成访问token和刷新token
+            return issueTokens(user);
 
         } catch (BusinessException e) {
             throw e;
@@ -89,6 +98,57 @@ public class UserService {
         }
     }
 
+    /**
+     * 刷新令牌（轮换）
+     * 旧刷新令牌使用后立即吊销；已吊销的刷新令牌再次出现说明可能被盗用，吊销该用户全部令牌
+     * 消费旧刷新令牌是原子操作，同一刷新令牌并发刷新时只有一个请求能换到新令牌
+     * @param refreshToken 刷新令牌
+     * @return 新的访问令牌和刷新令牌
+     */
+    public UserLoginResponseDTO refreshToken(String refreshToken) {
+        DecodedJWT jwt;
+        try {
+            jwt = JwtTokenUtils.verifyToken(refreshToken);
+        } catch (JWTVerificationException e) {
+            throw new BusinessException("刷新令牌无效或已过期，请重新登录");
+        }
+        if (!JwtTokenUtils.TOKEN_TYPE_REFRESH.equals(JwtTokenUtils.getTokenType(jwt))) {
+            throw new BusinessException("刷新令牌无效或已过期，请重新登录");
+        }
+
+        Long userId = jwt.getClaim("userId").asLong();
+        String tokenId = JwtTokenUtils.getTokenId(jwt);
+        long issuedAt = JwtTokenUtils.getIssuedAtMillis(jwt);
+        long expireAt = jwt.getExpiresAt().getTime();
+        if (tokenRevocationService.isRevoked(tokenId, expireAt, userId, issuedAt)) {
+            log.warn("已吊销的刷新令牌被再次使用，吊销用户{}的全部令牌", userId);
+            tokenRevocationService.revokeUser(userId);
+            authPrincipalCache.evictUser(userId);
+            throw new BusinessException("刷新令牌已失效，请重新登录");
+        }
+
+        User user = userMapper.selectById(userId);
+        if (user == null || !user.isActive()) {
+            throw new BusinessException("账号不存在或已被禁用，请联系管理员");
+        }
+
+        if (!tokenRevocationService.consumeToken(tokenId, expireAt)) {
+            log.warn("刷新令牌已被并发请求使用，用户ID：{}", userId);
+            throw new BusinessException("刷新令牌已失效，请重新登录");
+        }
+        return issueTokens(user);
+    }
+
+    /**
+     * 退出登录，吊销当前访问令牌和刷新令牌
+     * @param accessToken 访问令牌
+     * @param refreshToken 刷新令牌，可为空
+     */
+    public void logout(String accessToken, String refreshToken) {
+        revokeQuietly(accessToken);
+        revokeQuietly(refreshToken);
+    }
+
     /**
      * 用户注册
      * @param registerDTO 注册命令
@@ -130,6 +190,7 @@ public class UserService {
             User user = UserConvert.registerCommandToEntity(registerDTO, encodedPassword);
 
             userMapper.insert(user);
+            dashboardRollupService.onUserRegistered(user.getCreateTime(), user.getStatus());
             log.info("用户注册成功: {}", user.getUsername());
 
             return UserConvert.entityToDetailResponse(user);
@@ -217,6 +278,9 @@ public class UserService {
             }
 
             userMapper.deleteById(userId);
+            dashboardRollupService.onUserDeleted(user.getCreateTime(), user.getStatus());
+            authPrincipalCache.evictUser(userId);
+            tokenRevocationService.revokeUser(userId);
             log.info("用户删除成功: {}", user.getUsername());
 
         } catch (BusinessException e) {
@@ -264,15 +328,27 @@ public class UserService {
             if (StringUtils.hasText(updateDTO.getPhone())) {
                 user.setPhone(updateDTO.getPhone());
             }
+            // 角色写在令牌中，角色变更或账号停用后已签发的令牌全部吊销
+            String oldStatus = user.getStatus();
+            boolean revokeTokens = false;
             if (StringUtils.hasText(updateDTO.getUserType()) && UserType.isValidCode(updateDTO.getUserType())) {
+                revokeTokens = !updateDTO.getUserType().equals(user.getUserType());
                 user.setUserType(updateDTO.getUserType());
             }
             if (StringUtils.hasText(updateDTO.getStatus()) && UserStatus.isValidCode(updateDTO.getStatus())) {
+                revokeTokens |= !UserStatus.ACTIVE.getCode().equals(updateDTO.getStatus())
+                        && !updateDTO.getStatus().equals(user.getStatus());
                 user.setStatus(updateDTO.getStatus());
             }
             
             user.setUpdateTime(LocalDateTime.now());
             userMapper.updateById(user);
+            dashboardRollupService.onUserStatusChanged(oldStatus, user.getStatus());
+            // 状态、角色变更需要立即生效，缓存的用户信息也随之刷新
+            authPrincipalCache.evictUser(userId);
+            if (revokeTokens) {
+                tokenRevocationService.revokeUser(userId);
+            }
             
             log.info("用户信息更新成功: {}", user.getUsername());
             return UserConvert.entityToDetailResponse(user);
@@ -307,6 +383,8 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(passwordDTO.getNewPassword()));
             user.setUpdateTime(LocalDateTime.now());
             userMapper.updateById(user);
+            authPrincipalCache.evictUser(userId);
+            tokenRevocationService.revokeUser(userId);
 
             log.info("用户密码修改成功: {}", user.getUsername());
 
@@ -318,5 +396,27 @@ public class UserService {
         }
     }
 
+    private UserLoginResponseDTO issueTokens(User user) {
+        String token = JwtTokenUtils.generateToken(user.getId(), user.getUsername(), user.getUserType());
+        String refreshToken = JwtTokenUtils.generateRefreshToken(user.getId(), user.getUsername(), user.getUserType());
+        UserDetailResponseDTO userInfo = UserConvert.entityToDetailResponse(user);
+        return UserConvert.buildLoginResponse(token, refreshToken, userInfo);
+    }
+
+    /**
+     * 吊销令牌，令牌无效或已过期时无需处理
+     */
+    private void revokeQuietly(String token) {
+        if (!StringUtils.hasText(token)) {
+            return;
+        }
+        try {
+            DecodedJWT jwt = JwtTokenUtils.verifyToken(token);
+            tokenRevocationService.revokeToken(JwtTokenUtils.getTokenId(jwt), jwt.getExpiresAt().getTime());
+        } catch (JWTVerificationException e) {
+            log.debug("吊销令牌时令牌已无效: {}", e.getMessage());
+        }
+    }
+
 
 }
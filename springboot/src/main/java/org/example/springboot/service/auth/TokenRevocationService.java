@@ -0,0 +1,337 @@
+package org.example.springboot.service.auth;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.config.TokenRevocationConfig;
+import org.example.springboot.util.JwtTokenUtils;
+import org.example.springboot.util.TransactionUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 令牌吊销服务
+ *
+ * 工作方式：
+ * 1. 单个令牌吊销（退出登录、刷新令牌轮换）：令牌ID写入布隆过滤器，并按令牌过期时间分桶存入精确集合
+ *    校验时布隆过滤器判定不存在即放行，判定存在再到对应分桶精确确认，全程不访问数据库和 Redis
+ * 2. 用户级吊销（修改密码、封禁、角色变更、删除）：记录吊销时间，签发时间不晚于该时间的令牌全部失效
+ *    签发时间取令牌中毫秒精度的签发时间声明，吊销后立即重新登录签发的令牌不受影响；
+ *    早期令牌只有精确到秒的 iat，按该秒起点比较，同一秒内签发的旧令牌同样失效
+ * 3. 分桶整体过期后直接丢弃（其中的令牌已自然过期），随后按剩余条目重建布隆过滤器
+ * 4. 吊销记录持久化到 Redis 并广播，其他节点实时同步，重启或漏收广播时在定期清理中对账
+ * 5. 刷新令牌只能消费一次：本地集合添加和 Redis SET NX 都是原子操作，并发刷新时只有一个请求成功
+ * @author system
+ */
+@Slf4j
+@Service
+public class TokenRevocationService implements MessageListener {
+
+    private static final String TOKENS_KEY = "auth:revoked:tokens";
+
+    private static final String USERS_KEY = "auth:revoked:users";
+
+    private static final String CONSUMED_KEY_PREFIX = "auth:consumed:";
+
+    private static final String TYPE_TOKEN = "T";
+
+    private static final String TYPE_USER = "U";
+
+    @Resource
+    private TokenRevocationConfig tokenRevocationConfig;
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Resource
+    private ObjectProvider<RedisMessageListenerContainer> listenerContainerProvider;
+
+    /**
+     * 分桶结束时间 -> 该时间段内过期的吊销令牌ID
+     */
+    private final ConcurrentSkipListMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+
+    /**
+     * 用户ID -> 吊销时间（毫秒）
+     */
+    private final ConcurrentHashMap<Long, Long> userRevokedAt = new ConcurrentHashMap<>();
+
+    private final AtomicInteger tokenCount = new AtomicInteger();
+
+    private volatile RevocationBloomFilter bloomFilter;
+
+    private ScheduledExecutorService purgeScheduler;
+
+    @PostConstruct
+    public void init() {
+        bloomFilter = newBloomFilter(0);
+        if (tokenRevocationConfig.getBroadcastEnabled()) {
+            syncFromRedis();
+            RedisMessageListenerContainer container = listenerContainerProvider.getIfAvailable();
+            if (container != null) {
+                container.addMessageListener(this, new ChannelTopic(TokenRevocationConfig.REVOKE_CHANNEL));
+            } else {
+                log.warn("令牌吊销广播已启用，但未找到Redis消息监听容器，将收不到其他节点的通知");
+            }
+        }
+
+        purgeScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "token-revocation-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = tokenRevocationConfig.getPurgeInterval();
+        purgeScheduler.scheduleWithFixedDelay(this::purge, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (purgeScheduler != null) {
+            purgeScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 判断令牌是否已吊销（认证热路径，只做内存查找）
+     * @param tokenId 令牌ID
+     * @param expireAt 令牌过期时间（毫秒）
+     * @param userId 用户ID
+     * @param issuedAt 令牌签发时间（毫秒），见 JwtTokenUtils#getIssuedAtMillis
+     * @return 是否已吊销
+     */
+    public boolean isRevoked(String tokenId, long expireAt, Long userId, long issuedAt) {
+        Long revokedAt = userId == null ? null : userRevokedAt.get(userId);
+        if (revokedAt != null && issuedAt <= revokedAt) {
+            return true;
+        }
+        if (tokenId == null || !bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        Set<String> bucket = buckets.get(bucketOf(expireAt));
+        return bucket != null && bucket.contains(tokenId);
+    }
+
+    /**
+     * 吊销单个令牌，令牌过期后记录自动清除
+     * @param tokenId 令牌ID
+     * @param expireAt 令牌过期时间（毫秒）
+     */
+    public void revokeToken(String tokenId, long expireAt) {
+        if (tokenId == null || expireAt <= System.currentTimeMillis()) {
+            return;
+        }
+        addToken(tokenId, expireAt);
+        if (tokenRevocationConfig.getBroadcastEnabled()) {
+            try {
+                redisTemplate.opsForZSet().add(TOKENS_KEY, tokenId, expireAt);
+                redisTemplate.convertAndSend(TokenRevocationConfig.REVOKE_CHANNEL,
+                        TYPE_TOKEN + "|" + tokenId + "|" + expireAt);
+            } catch (Exception e) {
+                log.warn("同步令牌吊销记录失败，仅本节点生效，令牌ID: {}，原因: {}", tokenId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 消费一次性令牌（刷新令牌轮换），检查与吊销在同一个原子操作中完成
+     * @param tokenId 令牌ID
+     * @param expireAt 令牌过期时间（毫秒）
+     * @return 本次是否消费成功，令牌已被消费或已吊销时返回false
+     */
+    public boolean consumeToken(String tokenId, long expireAt) {
+        long ttl = expireAt - System.currentTimeMillis();
+        if (tokenId == null || ttl <= 0) {
+            return false;
+        }
+        if (!addToken(tokenId, expireAt)) {
+            return false;
+        }
+        if (tokenRevocationConfig.getBroadcastEnabled()) {
+            try {
+                Boolean first = redisTemplate.opsForValue()
+                        .setIfAbsent(CONSUMED_KEY_PREFIX + tokenId, 1, ttl, TimeUnit.MILLISECONDS);
+                if (Boolean.FALSE.equals(first)) {
+                    return false;
+                }
+                redisTemplate.opsForZSet().add(TOKENS_KEY, tokenId, expireAt);
+                redisTemplate.convertAndSend(TokenRevocationConfig.REVOKE_CHANNEL,
+                        TYPE_TOKEN + "|" + tokenId + "|" + expireAt);
+            } catch (Exception e) {
+                log.warn("同步令牌消费记录失败，仅本节点保证只消费一次，令牌ID: {}，原因: {}", tokenId, e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 吊销用户当前已签发的全部令牌，在当前事务提交后执行
+     * @param userId 用户ID
+     */
+    public void revokeUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            long revokedAt = System.currentTimeMillis();
+            userRevokedAt.merge(userId, revokedAt, Math::max);
+            if (tokenRevocationConfig.getBroadcastEnabled()) {
+                try {
+                    redisTemplate.opsForHash().put(USERS_KEY, String.valueOf(userId), revokedAt);
+                    redisTemplate.convertAndSend(TokenRevocationConfig.REVOKE_CHANNEL,
+                            TYPE_USER + "|" + userId + "|" + revokedAt);
+                } catch (Exception e) {
+                    log.warn("同步用户令牌吊销记录失败，仅本节点生效，用户ID: {}，原因: {}", userId, e.getMessage());
+                }
+            }
+            log.info("用户{}的已签发令牌全部吊销", userId);
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (body == null) {
+            return;
+        }
+        String[] parts = body.toString().split("\\|", 3);
+        if (parts.length < 3) {
+            return;
+        }
+        if (TYPE_TOKEN.equals(parts[0])) {
+            addToken(parts[1], Long.parseLong(parts[2]));
+        } else if (TYPE_USER.equals(parts[0])) {
+            userRevokedAt.merge(Long.valueOf(parts[1]), Long.parseLong(parts[2]), Math::max);
+        }
+        log.debug("收到令牌吊销通知: {}", body);
+    }
+
+    /**
+     * 吊销记录统计
+     * @return 令牌数、分桶数、用户级吊销数和布隆过滤器占用
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("revokedTokens", tokenCount.get());
+        stats.put("buckets", buckets.size());
+        stats.put("revokedUsers", userRevokedAt.size());
+        stats.put("bloomFilterBytes", bloomFilter.sizeInBytes());
+        return stats;
+    }
+
+    /**
+     * 清理过期分桶和用户级吊销记录，与 Redis 对账后重建布隆过滤器
+     */
+    void purge() {
+        try {
+            long now = System.currentTimeMillis();
+            buckets.headMap(now, true).clear();
+
+            if (tokenRevocationConfig.getBroadcastEnabled()) {
+                try {
+                    redisTemplate.opsForZSet().removeRangeByScore(TOKENS_KEY, 0, now);
+                } catch (Exception e) {
+                    log.warn("清理 Redis 令牌吊销记录失败: {}", e.getMessage());
+                }
+                syncFromRedis();
+            }
+
+            // 吊销时间早于最长令牌有效期的用户记录不再有意义
+            long userCutoff = now - JwtTokenUtils.MAX_TOKEN_LIFETIME;
+            List<Long> staleUsers = userRevokedAt.entrySet().stream()
+                    .filter(entry -> entry.getValue() < userCutoff)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            if (!staleUsers.isEmpty()) {
+                staleUsers.forEach(userRevokedAt::remove);
+                if (tokenRevocationConfig.getBroadcastEnabled()) {
+                    try {
+                        redisTemplate.opsForHash().delete(USERS_KEY, staleUsers.stream().map(String::valueOf).toArray());
+                    } catch (Exception e) {
+                        log.warn("清理 Redis 用户吊销记录失败: {}", e.getMessage());
+                    }
+                }
+            }
+            rebuildBloomFilter();
+        } catch (Exception e) {
+            log.error("清理令牌吊销记录失败", e);
+        }
+    }
+
+    /**
+     * 记录吊销令牌
+     * @return 是否为新增记录
+     */
+    private boolean addToken(String tokenId, long expireAt) {
+        bloomFilter.put(tokenId);
+        if (buckets.computeIfAbsent(bucketOf(expireAt), key -> ConcurrentHashMap.newKeySet()).add(tokenId)) {
+            tokenCount.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 按剩余条目重建布隆过滤器，新过滤器写满后再替换，替换前后都不会漏判
+     */
+    private void rebuildBloomFilter() {
+        int count = buckets.values().stream().mapToInt(Set::size).sum();
+        RevocationBloomFilter rebuilt = newBloomFilter(count);
+        buckets.values().forEach(bucket -> bucket.forEach(rebuilt::put));
+        bloomFilter = rebuilt;
+        tokenCount.set(count);
+        // 重建期间新增的令牌可能只写入了旧过滤器，替换后再补写一遍
+        buckets.values().forEach(bucket -> bucket.forEach(rebuilt::put));
+    }
+
+    private RevocationBloomFilter newBloomFilter(int count) {
+        int capacity = Math.max(tokenRevocationConfig.getExpectedInsertions(), count * 2);
+        return new RevocationBloomFilter(capacity, tokenRevocationConfig.getFalsePositiveRate());
+    }
+
+    private void syncFromRedis() {
+        try {
+            long now = System.currentTimeMillis();
+            Set<ZSetOperations.TypedTuple<Object>> tokens =
+                    redisTemplate.opsForZSet().rangeByScoreWithScores(TOKENS_KEY, now, Double.MAX_VALUE);
+            if (tokens != null) {
+                for (ZSetOperations.TypedTuple<Object> token : tokens) {
+                    if (token.getValue() != null && token.getScore() != null) {
+                        addToken(token.getValue().toString(), token.getScore().longValue());
+                    }
+                }
+            }
+            Map<Object, Object> users = redisTemplate.opsForHash().entries(USERS_KEY);
+            users.forEach((userId, revokedAt) -> {
+                if (revokedAt instanceof Number number) {
+                    userRevokedAt.merge(Long.valueOf(userId.toString()), number.longValue(), Math::max);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("从 Redis 加载令牌吊销记录失败，继续使用本地记录: {}", e.getMessage());
+        }
+    }
+
+    private long bucketOf(long expireAt) {
+        long interval = tokenRevocationConfig.getBucketInterval();
+        return (expireAt / interval + 1) * interval;
+    }
+}
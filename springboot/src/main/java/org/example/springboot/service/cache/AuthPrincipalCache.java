@@ -0,0 +1,161 @@
+package org.example.springboot.service.cache;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.DTO.response.UserDetailResponseDTO;
+import org.example.springboot.config.AuthCacheConfig;
+import org.example.springboot.util.TransactionUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 认证主体缓存
+ *
+ * 工作方式：
+ * 1. 以token的SHA-256摘要为键缓存已验证的认证主体，命中时跳过签名校验和用户查询
+ * 2. 条目在配置的存活时间和token过期时间中取较早者失效
+ * 3. 用户状态、角色等变更提交后按用户ID清除其全部条目，并通过 Redis 广播给其他节点
+ * 4. 加载期间发生清除时不回填，避免把变更前读到的用户状态重新写入缓存
+ * @author system
+ */
+@Slf4j
+@Component
+public class AuthPrincipalCache implements MessageListener {
+
+    @Resource
+    private AuthCacheConfig authCacheConfig;
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Resource
+    private ObjectProvider<RedisMessageListenerContainer> listenerContainerProvider;
+
+    private LocalLruCache<String, AuthPrincipal> principals;
+
+    private final AtomicLong evictionSeq = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        principals = new LocalLruCache<>(authCacheConfig.getMaxSize(), authCacheConfig.getTtl());
+        if (authCacheConfig.getBroadcastEnabled()) {
+            RedisMessageListenerContainer container = listenerContainerProvider.getIfAvailable();
+            if (container != null) {
+                container.addMessageListener(this, new ChannelTopic(AuthCacheConfig.EVICT_CHANNEL));
+            } else {
+                log.warn("认证缓存失效广播已启用，但未找到Redis消息监听容器，将收不到其他节点的通知");
+            }
+        }
+    }
+
+    /**
+     * 读取认证主体，未命中时调用加载器完成验证并缓存结果
+     * @param token JWT token
+     * @param loader 加载器，返回null表示认证失败，失败结果不缓存
+     * @return 认证主体，认证失败返回null
+     */
+    public AuthPrincipal get(String token, Supplier<AuthPrincipal> loader) {
+        if (!authCacheConfig.getEnabled()) {
+            return loader.get();
+        }
+
+        String key = DigestUtil.sha256Hex(token);
+        AuthPrincipal cached = principals.get(key);
+        if (cached != null && cached.expireAt() > System.currentTimeMillis()) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        long seq = evictionSeq.get();
+        AuthPrincipal loaded = loader.get();
+        if (loaded != null && evictionSeq.get() == seq) {
+            principals.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * 清除用户的全部认证主体，在当前事务提交后执行
+     * @param userId 用户ID
+     */
+    public void evictUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            evictLocal(userId);
+            if (authCacheConfig.getBroadcastEnabled()) {
+                try {
+                    redisTemplate.convertAndSend(AuthCacheConfig.EVICT_CHANNEL, String.valueOf(userId));
+                } catch (Exception e) {
+                    log.warn("广播认证缓存失效通知失败，用户ID: {}，原因: {}", userId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (body == null) {
+            return;
+        }
+        evictLocal(Long.valueOf(body.toString()));
+        log.debug("收到认证缓存失效通知，用户ID: {}", body);
+    }
+
+    /**
+     * 缓存命中统计
+     * @return 命中次数、未命中次数、命中率和当前条目数
+     */
+    public Map<String, Object> getStats() {
+        long hit = hits.sum();
+        long miss = misses.sum();
+        long total = hit + miss;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hit);
+        stats.put("misses", miss);
+        stats.put("hitRate", total == 0 ? 0.0 : Math.round(hit * 10000.0 / total) / 100.0);
+        stats.put("size", principals.size());
+        return stats;
+    }
+
+    private void evictLocal(Long userId) {
+        evictionSeq.incrementAndGet();
+        int removed = principals.removeIf(principal -> userId.equals(principal.userId()));
+        log.debug("清除用户{}的认证缓存，条目数: {}", userId, removed);
+    }
+
+    /**
+     * 已验证的认证主体
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param roleCode 角色代码
+     * @param user 验证时加载的用户信息
+     * @param tokenId token唯一标识
+     * @param issuedAt token签发时间戳（毫秒）
+     * @param expireAt token过期时间戳（毫秒）
+     */
+    public record AuthPrincipal(Long userId, String username, String roleCode, UserDetailResponseDTO user,
+                                String tokenId, long issuedAt, long expireAt) {
+    }
+}
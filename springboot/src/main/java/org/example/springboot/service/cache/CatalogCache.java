@@ -0,0 +1,345 @@
+package org.example.springboot.service.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.DTO.response.SnackResponseDTO;
+import org.example.springboot.config.CatalogCacheConfig;
+import org.example.springboot.util.TransactionUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 商品目录两级缓存
+ *
+ * 工作方式：
+ * 1. 一级缓存为进程内LRU，二级缓存为 Redis，读取顺序 L1 -> L2 -> 数据库，逐级回填
+ * 2. 零食详情按ID缓存，失效时逐个删除
+ * 3. 列表类结果（前台分页、推荐）的键带有列表版本号，任一零食变动即递增版本号，旧版本的键自然过期；
+ *    库存引擎掌握实时库存时，库存变动只清理对应详情，不递增版本号，列表中的库存由调用方叠加实时库存
+ * 4. 所有键都带有分类字典版本号，分类变更后包含旧分类名称的缓存不再命中
+ * 5. 失效在事务提交后执行，并通过 Redis 发布订阅通知其他节点清理各自的一级缓存
+ * 6. Redis 不可用时暂停使用二级缓存，直接查库，不影响业务
+ * @author system
+ */
+@Slf4j
+@Component
+public class CatalogCache implements MessageListener {
+
+    private static final String DETAIL_KEY_PREFIX = "catalog:snack:";
+
+    private static final String LIST_KEY_PREFIX = "catalog:list:";
+
+    private static final String LIST_GENERATION_KEY = "catalog:list:gen";
+
+    @Resource
+    private CatalogCacheConfig catalogCacheConfig;
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Resource
+    private ObjectProvider<RedisMessageListenerContainer> listenerContainerProvider;
+
+    @Resource
+    private CategoryDictionary categoryDictionary;
+
+    private LocalLruCache<String, SnackResponseDTO> localDetails;
+
+    private LocalLruCache<String, Object> localLists;
+
+    /**
+     * 列表版本号，列表缓存键的一部分
+     */
+    private final AtomicLong listGeneration = new AtomicLong();
+
+    /**
+     * 本节点收到的失效次数，加载期间发生失效时不回填缓存，避免写回旧数据
+     */
+    private final AtomicLong invalidationSeq = new AtomicLong();
+
+    /**
+     * Redis 访问失败后，在此时间之前跳过二级缓存
+     */
+    private volatile long redisSuspendedUntil;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        localDetails = new LocalLruCache<>(catalogCacheConfig.getLocalMaxSize(), catalogCacheConfig.getLocalTtl());
+        localLists = new LocalLruCache<>(catalogCacheConfig.getLocalMaxSize(), catalogCacheConfig.getLocalTtl());
+
+        if (isRedisEnabled()) {
+            Object generation = redisCall(() -> redisTemplate.opsForValue().get(LIST_GENERATION_KEY));
+            if (generation instanceof Number number) {
+                listGeneration.set(number.longValue());
+            }
+            RedisMessageListenerContainer container = listenerContainerProvider.getIfAvailable();
+            if (container != null) {
+                container.addMessageListener(this, new ChannelTopic(CatalogCacheConfig.INVALIDATE_CHANNEL));
+            } else {
+                log.warn("商品目录缓存失效通知已启用，但未找到Redis消息监听容器，将收不到其他节点的通知");
+            }
+        }
+        log.info("商品目录缓存初始化完成，启用: {}，Redis二级缓存: {}", catalogCacheConfig.getEnabled(), isRedisEnabled());
+    }
+
+    /**
+     * 读取零食详情
+     * @param snackId 零食ID
+     * @param loader 未命中时的加载方法
+     * @return 零食详情
+     */
+    public SnackResponseDTO getSnackDetail(Long snackId, Supplier<SnackResponseDTO> loader) {
+        if (!catalogCacheConfig.getEnabled()) {
+            return loader.get();
+        }
+        String key = detailKey(snackId);
+        return getOrLoad(localDetails, key, DETAIL_KEY_PREFIX + key, SnackResponseDTO.class, loader);
+    }
+
+    /**
+     * 读取列表类结果
+     * @param key 由查询参数组成的键
+     * @param loader 未命中时的加载方法
+     * @return 列表结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getList(String key, Supplier<T> loader) {
+        if (!catalogCacheConfig.getEnabled()) {
+            return loader.get();
+        }
+        String versionedKey = categoryDictionary.getVersion() + ":" + listGeneration.get() + ":" + key;
+        return (T) getOrLoad(localLists, versionedKey, LIST_KEY_PREFIX + versionedKey, Object.class, loader::get);
+    }
+
+    /**
+     * 零食数据变动后失效缓存
+     * 有事务时在提交后执行，清理指定零食的详情缓存和全部列表缓存，并通知其他节点
+     * @param snackIds 变动的零食ID
+     */
+    public void invalidateSnacks(Collection<Long> snackIds) {
+        if (!catalogCacheConfig.getEnabled()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(snackIds);
+        TransactionUtils.afterCommit(() -> {
+            try {
+                doInvalidate(ids);
+            } catch (Exception e) {
+                log.error("商品目录缓存失效失败，零食ID: {}", ids, e);
+            }
+        });
+    }
+
+    /**
+     * 零食库存变动后失效详情缓存
+     * 有事务时在提交后执行，只清理指定零食的详情缓存并通知其他节点，列表缓存保留
+     * @param snackIds 库存变动的零食ID
+     */
+    public void invalidateSnackDetails(Collection<Long> snackIds) {
+        if (!catalogCacheConfig.getEnabled() || snackIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(snackIds);
+        TransactionUtils.afterCommit(() -> {
+            try {
+                doInvalidateDetails(ids);
+            } catch (Exception e) {
+                log.error("商品详情缓存失效失败，零食ID: {}", ids, e);
+            }
+        });
+    }
+
+    /**
+     * 接收其他节点的失效通知
+     * 消息格式：列表版本号|零食ID,零食ID，只清理详情时列表版本号为空
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (body == null) {
+            return;
+        }
+        String[] parts = body.toString().split("\\|", -1);
+        List<Long> ids = parts.length > 1 && !parts[1].isEmpty()
+                ? Arrays.stream(parts[1].split(",")).map(Long::valueOf).collect(Collectors.toList())
+                : List.of();
+        if (parts[0].isEmpty()) {
+            evictLocalDetails(ids);
+        } else {
+            evictLocal(ids, Long.parseLong(parts[0]));
+        }
+        log.debug("收到商品目录缓存失效通知: {}", body);
+    }
+
+    /**
+     * 缓存命中统计
+     * @return 各级命中次数、未命中次数和命中率
+     */
+    public Map<String, Object> getStats() {
+        long local = localHits.sum();
+        long redis = redisHits.sum();
+        long miss = misses.sum();
+        long total = local + redis + miss;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("localHits", local);
+        stats.put("redisHits", redis);
+        stats.put("misses", miss);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) (local + redis) / total);
+        stats.put("invalidations", invalidations.sum());
+        stats.put("redisErrors", redisErrors.sum());
+        stats.put("localDetailSize", localDetails.size());
+        stats.put("localListSize", localLists.size());
+        stats.put("listGeneration", listGeneration.get());
+        return stats;
+    }
+
+    private <K, V> V getOrLoad(LocalLruCache<K, V> local, K localKey, String redisKey, Class<V> type, Supplier<V> loader) {
+        V value = local.get(localKey);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+
+        long seq = invalidationSeq.get();
+        if (isRedisAvailable()) {
+            Object cached = redisCall(() -> redisTemplate.opsForValue().get(redisKey));
+            if (type.isInstance(cached)) {
+                redisHits.increment();
+                V hit = type.cast(cached);
+                putLocal(local, localKey, hit, seq);
+                return hit;
+            }
+        }
+
+        misses.increment();
+        V loaded = loader.get();
+        if (loaded != null && putLocal(local, localKey, loaded, seq) && isRedisAvailable()) {
+            redisCall(() -> {
+                redisTemplate.opsForValue().set(redisKey, loaded, catalogCacheConfig.getRedisTtl(), TimeUnit.MILLISECONDS);
+                // 写入期间收到失效通知时撤回，失效方可能已在写入前删除了该键
+                if (seq != invalidationSeq.get()) {
+                    redisTemplate.delete(redisKey);
+                    local.remove(localKey);
+                }
+                return null;
+            });
+        }
+        return loaded;
+    }
+
+    /**
+     * 回填本地缓存
+     * 加载开始后发生过失效时不回填；写入后再检查一次，写入与失效交错时移除刚写入的值
+     * @return 是否回填成功
+     */
+    private <K, V> boolean putLocal(LocalLruCache<K, V> local, K localKey, V value, long seq) {
+        if (seq != invalidationSeq.get()) {
+            return false;
+        }
+        local.put(localKey, value);
+        if (seq != invalidationSeq.get()) {
+            local.remove(localKey);
+            return false;
+        }
+        return true;
+    }
+
+    private void doInvalidate(List<Long> ids) {
+        invalidations.increment();
+        long generation = listGeneration.get() + 1;
+
+        if (isRedisAvailable()) {
+            Long redisGeneration = redisCall(() -> redisTemplate.opsForValue().increment(LIST_GENERATION_KEY));
+            if (redisGeneration != null) {
+                generation = redisGeneration;
+            }
+            if (!ids.isEmpty()) {
+                List<String> keys = ids.stream().map(id -> DETAIL_KEY_PREFIX + detailKey(id)).collect(Collectors.toList());
+                redisCall(() -> redisTemplate.delete(keys));
+            }
+        }
+        evictLocal(ids, generation);
+
+        if (isRedisAvailable()) {
+            String message = generation + "|" + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+            redisCall(() -> redisTemplate.convertAndSend(CatalogCacheConfig.INVALIDATE_CHANNEL, message));
+        }
+    }
+
+    private void doInvalidateDetails(List<Long> ids) {
+        invalidations.increment();
+        if (isRedisAvailable()) {
+            List<String> keys = ids.stream().map(id -> DETAIL_KEY_PREFIX + detailKey(id)).collect(Collectors.toList());
+            redisCall(() -> redisTemplate.delete(keys));
+        }
+        evictLocalDetails(ids);
+
+        if (isRedisAvailable()) {
+            String message = "|" + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+            redisCall(() -> redisTemplate.convertAndSend(CatalogCacheConfig.INVALIDATE_CHANNEL, message));
+        }
+    }
+
+    private void evictLocalDetails(List<Long> ids) {
+        invalidationSeq.incrementAndGet();
+        ids.forEach(id -> localDetails.remove(detailKey(id)));
+    }
+
+    private void evictLocal(List<Long> ids, long generation) {
+        invalidationSeq.incrementAndGet();
+        ids.forEach(id -> localDetails.remove(detailKey(id)));
+        listGeneration.accumulateAndGet(generation, Math::max);
+        localLists.clear();
+    }
+
+    private String detailKey(Long snackId) {
+        return categoryDictionary.getVersion() + ":" + snackId;
+    }
+
+    private boolean isRedisEnabled() {
+        return catalogCacheConfig.getEnabled() && catalogCacheConfig.getRedisEnabled();
+    }
+
+    private boolean isRedisAvailable() {
+        return isRedisEnabled() && System.currentTimeMillis() >= redisSuspendedUntil;
+    }
+
+    /**
+     * 执行 Redis 操作，失败时记录并暂停使用二级缓存
+     */
+    private <T> T redisCall(Supplier<T> action) {
+        try {
+            return action.get();
+        } catch (Exception e) {
+            redisErrors.increment();
+            redisSuspendedUntil = System.currentTimeMillis() + catalogCacheConfig.getRedisRetryInterval();
+            log.warn("Redis二级缓存访问失败，{}ms内直接查库: {}", catalogCacheConfig.getRedisRetryInterval(), e.getMessage());
+            return null;
+        }
+    }
+}
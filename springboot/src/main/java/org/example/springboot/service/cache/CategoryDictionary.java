@@ -0,0 +1,203 @@
+package org.example.springboot.service.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.config.CatalogCacheConfig;
+import org.example.springboot.entity.Category;
+import org.example.springboot.mapper.CategoryMapper;
+import org.example.springboot.util.TransactionUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分类名称字典
+ *
+ * 工作方式：
+ * 1. 启动时加载全部分类到不可变快照，读取只做哈希查找，不访问数据库
+ * 2. 分类变更提交后整体重建快照并替换（写时复制），读线程无需加锁
+ * 3. 版本号保存在 Redis，变更时递增并广播，其他节点收到更高版本后重新加载
+ * 4. 快照超过兜底间隔未刷新时，由下一次读取触发重新加载，防止错过广播
+ * 版本号同时作为商品目录缓存键的一部分，分类改名后旧的零食缓存不再命中
+ * @author system
+ */
+@Slf4j
+@Component
+public class CategoryDictionary implements MessageListener {
+
+    private static final String VERSION_KEY = "catalog:category:version";
+
+    @Resource
+    private CategoryMapper categoryMapper;
+
+    @Resource
+    private CatalogCacheConfig catalogCacheConfig;
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Resource
+    private ObjectProvider<RedisMessageListenerContainer> listenerContainerProvider;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0L, Map.of(), 0L));
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        reload(readRedisVersion());
+        if (catalogCacheConfig.getRedisEnabled()) {
+            RedisMessageListenerContainer container = listenerContainerProvider.getIfAvailable();
+            if (container != null) {
+                container.addMessageListener(this, new ChannelTopic(CatalogCacheConfig.CATEGORY_CHANNEL));
+            } else {
+                log.warn("分类字典变更通知已启用，但未找到Redis消息监听容器，将收不到其他节点的通知");
+            }
+        }
+        log.info("分类字典加载完成，分类数: {}，版本: {}", snapshot.get().names().size(), snapshot.get().version());
+    }
+
+    /**
+     * 获取分类名称
+     * @param categoryId 分类ID
+     * @return 分类名称，分类不存在返回null
+     */
+    public String getName(Long categoryId) {
+        return categoryId == null ? null : current().names().get(categoryId);
+    }
+
+    /**
+     * 批量获取分类名称
+     * @param categoryIds 分类ID
+     * @return 分类ID到分类名称的映射，不存在的分类不包含在内
+     */
+    public Map<Long, String> getNames(Collection<Long> categoryIds) {
+        Map<Long, String> names = current().names();
+        Map<Long, String> result = new HashMap<>();
+        for (Long categoryId : categoryIds) {
+            String name = categoryId == null ? null : names.get(categoryId);
+            if (name != null) {
+                result.put(categoryId, name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 当前字典版本号
+     */
+    public long getVersion() {
+        return snapshot.get().version();
+    }
+
+    /**
+     * 分类变更后刷新字典
+     * 有事务时在提交后执行：递增版本号、重建本地快照并通知其他节点
+     */
+    public void refresh() {
+        TransactionUtils.afterCommit(() -> {
+            try {
+                long version = nextVersion();
+                reload(version);
+                if (catalogCacheConfig.getRedisEnabled()) {
+                    redisTemplate.convertAndSend(CatalogCacheConfig.CATEGORY_CHANNEL, version);
+                }
+            } catch (Exception e) {
+                log.error("刷新分类字典失败", e);
+            }
+        });
+    }
+
+    /**
+     * 接收其他节点的变更通知，版本号不高于本地时忽略
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (body instanceof Number version && version.longValue() > getVersion()) {
+            reload(version.longValue());
+            log.debug("收到分类字典变更通知，版本: {}", version);
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        long age = System.currentTimeMillis() - current.loadedAt();
+        // 兜底刷新只由一个线程执行，其他线程继续使用旧快照
+        if (age > catalogCacheConfig.getCategoryRefreshInterval() && reloadLock.tryLock()) {
+            try {
+                if (snapshot.get() == current) {
+                    reload(Math.max(current.version(), readRedisVersion()));
+                }
+            } catch (Exception e) {
+                log.error("重新加载分类字典失败，继续使用旧数据", e);
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return snapshot.get();
+    }
+
+    private void reload(long version) {
+        reloadLock.lock();
+        try {
+            List<Category> categories = categoryMapper.selectList(null);
+            Map<Long, String> names = new HashMap<>(categories.size() * 2);
+            for (Category category : categories) {
+                names.put(category.getId(), category.getName());
+            }
+            long newVersion = Math.max(version, snapshot.get().version());
+            snapshot.set(new Snapshot(newVersion, Map.copyOf(names), System.currentTimeMillis()));
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private long nextVersion() {
+        if (catalogCacheConfig.getRedisEnabled()) {
+            try {
+                Long version = redisTemplate.opsForValue().increment(VERSION_KEY);
+                if (version != null) {
+                    return version;
+                }
+            } catch (Exception e) {
+                log.warn("递增分类字典版本号失败，使用本地版本号: {}", e.getMessage());
+            }
+        }
+        return getVersion() + 1;
+    }
+
+    private long readRedisVersion() {
+        if (!catalogCacheConfig.getRedisEnabled()) {
+            return 0L;
+        }
+        try {
+            Object version = redisTemplate.opsForValue().get(VERSION_KEY);
+            return version instanceof Number number ? number.longValue() : 0L;
+        } catch (Exception e) {
+            log.warn("读取分类字典版本号失败: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * 字典快照，创建后不再修改
+     * @param version 版本号
+     * @param names 分类ID到分类名称的映射
+     * @param loadedAt 加载时间戳
+     */
+    private record Snapshot(long version, Map<Long, String> names, long loadedAt) {
+    }
+}
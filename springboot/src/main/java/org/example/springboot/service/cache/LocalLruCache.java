@@ -0,0 +1,135 @@
+package org.example.springboot.service.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * 本地LRU缓存
+ *
+ * 工作方式：
+ * 1. 基于 ConcurrentHashMap，读写不加全局锁，读取只记录一次访问时间
+ * 2. 条目数超过容量时由一个线程批量淘汰最久未访问的条目，降到容量的90%，其余线程不等待
+ *    淘汰期间并发写入可能使条目数短暂超过容量，访问顺序也只是近似值
+ * 3. 条目超过存活时间视为失效，读取时移除
+ * @author system
+ */
+public class LocalLruCache<K, V> {
+
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public LocalLruCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 获取缓存值
+     * @param key 键
+     * @return 未命中或已过期返回null
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (entry.expireAt < now) {
+            entries.remove(key, entry);
+            return null;
+        }
+        entry.accessedAt = System.nanoTime();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis, System.nanoTime()));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * 移除满足条件的条目
+     * @param filter 条目值的判断条件
+     * @return 移除的条目数
+     */
+    public int removeIf(Predicate<V> filter) {
+        int removed = 0;
+        for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+            if (filter.test(entry.getValue().value) && entries.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 先移除过期条目，仍超过容量时按访问时间淘汰最旧的条目
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            entries.entrySet().removeIf(entry -> entry.getValue().expireAt < now);
+            int excess = entries.size() - (maxSize - maxSize / 10);
+            if (excess <= 0) {
+                return;
+            }
+            // 先固定访问时间再排序，排序期间的并发访问不影响比较结果
+            List<Candidate<K, V>> candidates = new ArrayList<>(entries.size());
+            entries.forEach((key, entry) -> candidates.add(new Candidate<>(key, entry, entry.accessedAt)));
+            candidates.sort(Comparator.comparingLong(Candidate::accessedAt));
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                entries.remove(candidates.get(i).key(), candidates.get(i).entry());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private record Candidate<K, V>(K key, Entry<V> entry, long accessedAt) {
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long expireAt;
+
+        /**
+         * 最近访问时间，只用于淘汰排序，不要求读到最新值
+         */
+        private long accessedAt;
+
+        private Entry(V value, long expireAt, long accessedAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+            this.accessedAt = accessedAt;
+        }
+    }
+}
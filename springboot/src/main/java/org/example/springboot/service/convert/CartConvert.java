@@ -30,8 +30,9 @@ public class CartConvert {
 
     /**
      * 购物车实体和零食实体转换为购物车项响应DTO
+     * @param stock 库存引擎给出的可用库存
      */
-    public static CartItemResponseDTO toCartItemResponse(Cart cart, Snack snack, String categoryName) {
+    public static CartItemResponseDTO toCartItemResponse(Cart cart, Snack snack, String categoryName, int stock) {
         CartItemResponseDTO responseDTO = new CartItemResponseDTO();
         responseDTO.setId(cart.getId());
         responseDTO.setSnackId(snack.getId());
@@ -39,7 +40,7 @@ public class CartConvert {
         responseDTO.setSnackDescription(snack.getDescription());
         responseDTO.setSnackImage(snack.getCoverImage());
         responseDTO.setQuantity(cart.getQuantity());
-        responseDTO.setStock(snack.getStock());
+        responseDTO.setStock(stock);
         responseDTO.setStatus(snack.getStatus());
         responseDTO.setCategoryName(categoryName);
         
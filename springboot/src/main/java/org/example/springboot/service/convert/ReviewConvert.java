@@ -1,7 +1,13 @@
 package org.example.springboot.service.convert;
 
 import org.example.springboot.DTO.response.ReviewResponseDTO;
+import org.example.springboot.DTO.response.ReviewSummaryResponseDTO;
 import org.example.springboot.entity.Review;
+import org.example.springboot.entity.ReviewSummary;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
 
 public class ReviewConvert {
     public static ReviewResponseDTO toResponseDTO(Review review) {
@@ -15,6 +21,27 @@ public class ReviewConvert {
         dto.setCreateTime(review.getCreateTime());
         return dto;
     }
-}
-
 
+    /**
+     * 评价汇总转换为响应DTO
+     * @param snackId 零食ID
+     * @param summary 评价汇总，没有评价时为空
+     */
+    public static ReviewSummaryResponseDTO toSummaryResponseDTO(Long snackId, ReviewSummary summary) {
+        if (summary == null || summary.getReviewCount() == null || summary.getReviewCount() <= 0) {
+            return ReviewSummaryResponseDTO.builder()
+                    .snackId(snackId)
+                    .reviewCount(0)
+                    .ratingCounts(List.of(0, 0, 0, 0, 0))
+                    .build();
+        }
+        return ReviewSummaryResponseDTO.builder()
+                .snackId(snackId)
+                .reviewCount(summary.getReviewCount())
+                .averageRating(BigDecimal.valueOf(summary.getRatingSum())
+                        .divide(BigDecimal.valueOf(summary.getReviewCount()), 2, RoundingMode.HALF_UP))
+                .ratingCounts(List.of(summary.getRating1(), summary.getRating2(), summary.getRating3(),
+                        summary.getRating4(), summary.getRating5()))
+                .build();
+    }
+}
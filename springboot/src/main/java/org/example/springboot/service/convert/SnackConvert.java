@@ -7,8 +7,10 @@ import org.example.springboot.DTO.command.SnackCreateDTO;
 import org.example.springboot.DTO.command.SnackUpdateDTO;
 import org.example.springboot.DTO.response.SnackListResponseDTO;
 import org.example.springboot.DTO.response.SnackResponseDTO;
+import org.example.springboot.config.ImageDerivativeConfig;
 import org.example.springboot.entity.Snack;
 import org.example.springboot.enumClass.SnackStatus;
+import org.example.springboot.util.FileUtil;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -67,9 +69,10 @@ public class SnackConvert {
      * Snack实体转换为响应DTO
      * @param snack Snack实体
      * @param categoryName 分类名称
+     * @param stock 库存引擎给出的可用库存
      * @return 零食响应DTO
      */
-    public static SnackResponseDTO entityToResponse(Snack snack, String categoryName) {
+    public static SnackResponseDTO entityToResponse(Snack snack, String categoryName, int stock) {
         return SnackResponseDTO.builder()
                 .id(snack.getId())
                 .categoryId(snack.getCategoryId())
@@ -77,7 +80,7 @@ public class SnackConvert {
                 .name(snack.getName())
                 .description(snack.getDescription())
                 .price(snack.getPriceInYuan())
-                .stock(snack.getStock())
+                .stock(stock)
                 .coverImage(snack.getCoverImage())
                 .detailImages(jsonStringToList(snack.getDetailImages()))
                 .status(snack.getStatus())
@@ -86,8 +89,8 @@ public class SnackConvert {
                 .createTime(snack.getCreateTime())
                 .updateTime(snack.getUpdateTime())
                 .onSale(snack.isOnSale())
-                .hasStock(snack.hasStock())
-                .canPurchase(snack.canPurchase())
+                .hasStock(stock > 0)
+                .canPurchase(snack.isOnSale() && stock > 0)
                 .build();
     }
 
@@ -95,9 +98,10 @@ public class SnackConvert {
      * Snack实体转换为列表响应DTO
      * @param snack Snack实体
      * @param categoryName 分类名称
+     * @param stock 库存引擎给出的可用库存
      * @return 零食列表响应DTO
      */
-    public static SnackListResponseDTO entityToListResponse(Snack snack, String categoryName) {
+    public static SnackListResponseDTO entityToListResponse(Snack snack, String categoryName, int stock) {
         return SnackListResponseDTO.builder()
                 .id(snack.getId())
                 .categoryId(snack.getCategoryId())
@@ -105,19 +109,65 @@ public class SnackConvert {
                 .name(snack.getName())
                 .description(snack.getDescription())
                 .price(snack.getPriceInYuan())
-                .stock(snack.getStock())
+                .stock(stock)
                 .coverImage(snack.getCoverImage())
+                .coverThumbnail(thumbnailUrl(snack.getCoverImage()))
                 .status(snack.getStatus())
                 .statusDisplayName(snack.getStatusDisplayName())
                 .salesCount(snack.getSalesCount())
+                .reviewCount(snack.getReviewCount())
+                .averageRating(snack.getReviewCount() == null || snack.getReviewCount() == 0 ? null : snack.getRatingAvg())
                 .createTime(snack.getCreateTime())
                 .updateTime(snack.getUpdateTime())
                 .onSale(snack.isOnSale())
-                .hasStock(snack.hasStock())
-                .canPurchase(snack.canPurchase())
+                .hasStock(stock > 0)
+                .canPurchase(snack.isOnSale() && stock > 0)
                 .build();
     }
 
+    /**
+     * 用实时库存替换响应DTO中的库存，返回副本，不修改缓存中的原对象
+     * @param response 零食响应DTO
+     * @param stock 实时库存
+     * @return 库存一致时返回原对象，否则返回副本
+     */
+    public static SnackResponseDTO withStock(SnackResponseDTO response, int stock) {
+        if (response.getStock() != null && response.getStock() == stock) {
+            return response;
+        }
+        return response.toBuilder()
+                .stock(stock)
+                .hasStock(stock > 0)
+                .canPurchase(Boolean.TRUE.equals(response.getOnSale()) && stock > 0)
+                .build();
+    }
+
+    /**
+     * 用实时库存替换列表响应DTO中的库存，返回副本，不修改缓存中的原对象
+     * @param response 零食列表响应DTO
+     * @param stock 实时库存
+     * @return 库存一致时返回原对象，否则返回副本
+     */
+    public static SnackListResponseDTO withStock(SnackListResponseDTO response, int stock) {
+        if (response.getStock() != null && response.getStock() == stock) {
+            return response;
+        }
+        return response.toBuilder()
+                .stock(stock)
+                .hasStock(stock > 0)
+                .canPurchase(Boolean.TRUE.equals(response.getOnSale()) && stock > 0)
+                .build();
+    }
+
+    /**
+     * 图片缩略图地址，本地上传的图片追加宽度参数，外部地址原样返回
+     * @param imageUrl 图片地址
+     * @return 缩略图地址
+     */
+    public static String thumbnailUrl(String imageUrl) {
+        return FileUtil.imageVariantUrl(imageUrl, ImageDerivativeConfig.THUMBNAIL_WIDTH);
+    }
+
     /**
      * List转换为JSON字符串
      * @param list 列表
@@ -62,13 +62,15 @@ public class UserConvert {
     /**
      * 构建登录响应DTO
      * @param token JWT令牌
+     * @param refreshToken 刷新令牌
      * @param userInfo 用户信息
      * @return 登录响应DTO
      */
-    public static UserLoginResponseDTO buildLoginResponse(String token, UserDetailResponseDTO userInfo) {
+    public static UserLoginResponseDTO buildLoginResponse(String token, String refreshToken, UserDetailResponseDTO userInfo) {
         return UserLoginResponseDTO.builder()
                 .userInfo(userInfo)
                 .token(token)
+                .refreshToken(refreshToken)
                 .roleType(userInfo.getUserType())
                 .build();
     }
@@ -0,0 +1,62 @@
+package org.example.springboot.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.example.springboot.config.MetricsConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 业务服务方法耗时切面
+ * 记录 service 包下各 @Service 类公开方法的耗时（app.service.calls），按类名、方法名和异常类型区分
+ * 同一个类内部的方法调用不经过代理，不单独计时
+ * @author system
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    private static final String NO_EXCEPTION = "none";
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Resource
+    private MetricsConfig metricsConfig;
+
+    private final Map<Signature, Timer> successTimers = new ConcurrentHashMap<>();
+
+    @Around("within(org.example.springboot.service..*) && @within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!metricsConfig.getServiceEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            // 正常返回的计时器按方法缓存，避免每次调用都到注册表查找
+            sample.stop(successTimers.computeIfAbsent(joinPoint.getSignature(), signature -> timer(signature, NO_EXCEPTION)));
+            return result;
+        } catch (Throwable e) {
+            sample.stop(timer(joinPoint.getSignature(), e.getClass().getSimpleName()));
+            throw e;
+        }
+    }
+
+    private Timer timer(Signature signature, String exception) {
+        return Timer.builder("app.service.calls")
+                .description("业务服务方法耗时")
+                .tags("class", signature.getDeclaringType().getSimpleName(),
+                        "method", signature.getName(),
+                        "exception", exception)
+                .register(meterRegistry);
+    }
+}
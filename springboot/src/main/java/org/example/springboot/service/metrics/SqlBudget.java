@@ -0,0 +1,23 @@
+package org.example.springboot.service.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明方法一次调用最多执行的 SQL 条数（含分页 count 查询和线程池中执行的查询）
+ * 超出时记录告警和指标；metrics.sql-budget-strict=true 时抛出 SqlBudgetExceededError，用于让集成测试失败
+ * @author system
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    /**
+     * 最多执行的 SQL 条数
+     */
+    int value();
+}
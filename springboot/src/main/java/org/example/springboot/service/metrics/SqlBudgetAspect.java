@@ -0,0 +1,67 @@
+package org.example.springboot.service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.example.springboot.config.MetricsConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * SQL 预算检查切面
+ * 为标注 @SqlBudget 的方法开启内层计数范围，方法正常返回后比较实际执行的 SQL 条数与预算
+ * @author system
+ */
+@Slf4j
+@Aspect
+@Component
+public class SqlBudgetAspect {
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Resource
+    private MetricsConfig metricsConfig;
+
+    @Around("@annotation(budget)")
+    public Object check(ProceedingJoinPoint joinPoint, SqlBudget budget) throws Throwable {
+        if (!metricsConfig.getSqlEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        SqlStatementCounter.begin();
+        SqlStatementCounter.Scope scope;
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } finally {
+            scope = SqlStatementCounter.end();
+        }
+        if (scope.total() > budget.value()) {
+            onExceeded(joinPoint, budget, scope);
+        }
+        return result;
+    }
+
+    private void onExceeded(ProceedingJoinPoint joinPoint, SqlBudget budget, SqlStatementCounter.Scope scope) {
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        Map<String, Integer> repeated = scope.repeated(metricsConfig.getRepeatedStatementThreshold());
+        String message = String.format("%s 执行了%d条SQL，超出预算%d条，重复执行的语句: %s",
+                method, scope.total(), budget.value(), repeated.isEmpty() ? "无" : repeated);
+
+        DistributionSummary.builder("app.sql.budget.exceeded")
+                .description("超出 SQL 预算的条数")
+                .tags("method", method)
+                .register(meterRegistry)
+                .record(scope.total() - budget.value());
+        log.warn(message);
+        if (metricsConfig.getSqlBudgetStrict()) {
+            throw new SqlBudgetExceededError(message);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.springboot.service.metrics;
+
+/**
+ * SQL 预算超出
+ * 继承 AssertionError 而不是业务异常，不会被全局异常处理器转换为错误响应，测试中直接失败
+ * @author system
+ */
+public class SqlBudgetExceededError extends AssertionError {
+
+    public SqlBudgetExceededError(String message) {
+        super(message);
+    }
+}
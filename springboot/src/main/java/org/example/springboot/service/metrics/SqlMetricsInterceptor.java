@@ -0,0 +1,106 @@
+package org.example.springboot.service.metrics;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.example.springboot.config.MetricsConfig;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL 指标拦截器
+ *
+ * 在 StatementHandler 层拦截，分页插件生成的 count 查询同样会被记录：
+ * - app.sql.statements：每条映射语句的执行耗时（含结果映射），按语句ID、类型和结果区分
+ * - app.sql.rows：查询返回行数或更新影响行数
+ * @author system
+ */
+@Component
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class})
+})
+public class SqlMetricsInterceptor implements Interceptor {
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Resource
+    private MetricsConfig metricsConfig;
+
+    private final Map<String, StatementMeters> meters = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (!metricsConfig.getSqlEnabled()) {
+            return invocation.proceed();
+        }
+
+        StatementHandler handler = PluginUtils.realTarget(invocation.getTarget());
+        MappedStatement mappedStatement = PluginUtils.mpStatementHandler(handler).mappedStatement();
+        StatementMeters statementMeters = meters.computeIfAbsent(mappedStatement.getId(),
+                id -> new StatementMeters(meterRegistry, shortId(id), mappedStatement.getSqlCommandType().name()));
+
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            statementMeters.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (result instanceof List<?> rows) {
+                statementMeters.rows.record(rows.size());
+            } else if (result instanceof Integer affected) {
+                statementMeters.rows.record(affected);
+            }
+            return result;
+        } catch (Throwable e) {
+            statementMeters.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * 语句ID去掉包名，保留 Mapper 类名和方法名，如 SnackMapper.selectList
+     */
+    private static String shortId(String id) {
+        int method = id.lastIndexOf('.');
+        int mapper = method > 0 ? id.lastIndexOf('.', method - 1) : -1;
+        return id.substring(mapper + 1);
+    }
+
+    private static final class StatementMeters {
+
+        private final Timer success;
+
+        private final Timer error;
+
+        private final DistributionSummary rows;
+
+        private StatementMeters(MeterRegistry registry, String statement, String type) {
+            this.success = Timer.builder("app.sql.statements")
+                    .description("SQL 语句执行耗时")
+                    .tags("statement", statement, "type", type, "outcome", "success")
+                    .register(registry);
+            this.error = Timer.builder("app.sql.statements")
+                    .description("SQL 语句执行耗时")
+                    .tags("statement", statement, "type", type, "outcome", "error")
+                    .register(registry);
+            this.rows = DistributionSummary.builder("app.sql.rows")
+                    .description("SQL 语句返回或影响的行数")
+                    .tags("statement", statement, "type", type)
+                    .register(registry);
+        }
+    }
+}
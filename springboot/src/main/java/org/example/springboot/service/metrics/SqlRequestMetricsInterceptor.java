@@ -0,0 +1,62 @@
+package org.example.springboot.service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.config.MetricsConfig;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 每请求 SQL 条数统计
+ * 请求进入控制器前开始计数，完成后按接口路径模板记录：
+ * - app.sql.statements.per.request：本次请求执行的 SQL 条数
+ * - app.sql.repeated.statements：同一语句形态重复执行达到阈值时记录次数并输出告警，标明对应的映射语句ID
+ * @author system
+ */
+@Slf4j
+@Component
+public class SqlRequestMetricsInterceptor implements HandlerInterceptor {
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Resource
+    private MetricsConfig metricsConfig;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (metricsConfig.getSqlEnabled()) {
+            SqlStatementCounter.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlStatementCounter.Scope scope = SqlStatementCounter.end();
+        if (scope == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("app.sql.statements.per.request")
+                .description("单次请求执行的 SQL 条数")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry)
+                .record(scope.total());
+
+        scope.repeated(metricsConfig.getRepeatedStatementThreshold()).forEach((statementId, count) -> {
+            log.warn("疑似N+1查询：{} {} 中 {} 执行了{}次", request.getMethod(), uri, statementId, count);
+            DistributionSummary.builder("app.sql.repeated.statements")
+                    .description("单次请求中同一语句形态重复执行的次数")
+                    .tags("method", request.getMethod(), "uri", uri, "statement", statementId)
+                    .register(meterRegistry)
+                    .record(count);
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.springboot.service.metrics;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+
+import java.sql.Connection;
+
+/**
+ * 请求内 SQL 计数插件
+ * 在语句预编译前记录映射语句ID和 SQL 文本，分页插件生成的 count 查询同样计入；
+ * 当前线程未开启计数范围时不做任何事
+ * @author system
+ */
+public class SqlStatementCountInnerInterceptor implements InnerInterceptor {
+
+    @Override
+    public void beforePrepare(StatementHandler sh, Connection connection, Integer transactionTimeout) {
+        if (!SqlStatementCounter.isActive()) {
+            return;
+        }
+        PluginUtils.MPStatementHandler handler = PluginUtils.mpStatementHandler(sh);
+        SqlStatementCounter.record(handler.mappedStatement().getId(), handler.boundSql().getSql());
+    }
+}
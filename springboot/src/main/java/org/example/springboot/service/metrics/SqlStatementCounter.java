@@ -0,0 +1,143 @@
+package org.example.springboot.service.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 请求内 SQL 计数器
+ *
+ * 工作方式：
+ * 1. 请求开始时开启计数范围并绑定到当前线程，SqlStatementCountInnerInterceptor 每执行一条语句记录一次
+ * 2. 按 SQL 文本（参数为占位符）归并语句形态，同一形态在一次请求中反复执行即疑似 N+1 查询
+ * 3. 范围可嵌套，内层记录的语句同时计入外层，用于按方法声明的 SQL 预算
+ * 4. 请求把查询分发到其他线程池时，用 propagate 包装任务，子线程执行的语句同样计入该请求
+ * @author system
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * 开启计数范围，已有范围时作为其内层
+     */
+    public static void begin() {
+        CURRENT.set(new Scope(CURRENT.get()));
+    }
+
+    /**
+     * 结束当前计数范围，恢复外层范围
+     * @return 本范围的计数结果，未开启计数返回null
+     */
+    public static Scope end() {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return null;
+        }
+        if (scope.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(scope.parent);
+        }
+        return scope;
+    }
+
+    /**
+     * @return 当前线程是否在计数
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static void record(String statementId, String sql) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.add(statementId, sql);
+        }
+    }
+
+    /**
+     * 包装提交到其他线程执行的任务，使其中的 SQL 计入当前请求
+     * @param task 任务
+     * @return 包装后的任务，当前线程未在计数时原样返回
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return task;
+        }
+        return () -> {
+            Scope previous = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * 一个计数范围内执行的语句
+     */
+    public static final class Scope {
+
+        private final Scope parent;
+
+        private final AtomicInteger total = new AtomicInteger();
+
+        /**
+         * SQL 文本 -> 该形态的语句
+         */
+        private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        private void add(String statementId, String sql) {
+            total.incrementAndGet();
+            shapes.computeIfAbsent(sql, key -> new Shape(statementId)).count.incrementAndGet();
+        }
+
+        /**
+         * @return 执行的语句总数
+         */
+        public int total() {
+            return total.get();
+        }
+
+        /**
+         * 重复执行的语句形态
+         * @param threshold 同一形态执行次数达到该值视为重复
+         * @return 映射语句ID -> 执行次数，按次数从多到少排列
+         */
+        public Map<String, Integer> repeated(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            shapes.values().stream()
+                    .filter(shape -> shape.count.get() >= threshold)
+                    .sorted((a, b) -> Integer.compare(b.count.get(), a.count.get()))
+                    .forEach(shape -> repeated.merge(shape.statementId, shape.count.get(), Math::max));
+            return repeated;
+        }
+    }
+
+    private static final class Shape {
+
+        private final String statementId;
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Shape(String statementId) {
+            this.statementId = statementId;
+        }
+    }
+}
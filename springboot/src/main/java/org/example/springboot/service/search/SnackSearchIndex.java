@@ -0,0 +1,510 @@
+package org.example.springboot.service.search;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.enumClass.SnackStatus;
+import org.example.springboot.mapper.SnackMapper;
+import org.example.springboot.util.TransactionUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 零食全文检索索引
+ *
+ * 工作方式：
+ * 1. 名称和描述规范化（全角转半角、转小写）后切分为单字和相邻二字组，建立倒排表
+ * 2. 查询词同样切分，单字查询用单字倒排，其余用二字组倒排，要求全部命中
+ * 3. 按 TF-IDF 打分，名称权重高于描述，名称完全相同、前缀相同、连续包含再额外加分
+ * 4. 名称另建有序索引，支持前缀联想
+ * 5. 零食增删改、销量和评分变化在事务提交后增量更新，也可从数据库全量重建；
+ *    重建期间到达的增量更新会在新索引替换后重放，不会被旧快照覆盖
+ * 索引只存在于当前进程，每个节点启动时各自从数据库重建
+ * @author system
+ */
+@Slf4j
+@Component
+public class SnackSearchIndex {
+
+    /**
+     * 名称命中权重
+     */
+    private static final double NAME_WEIGHT = 3.0;
+
+    /**
+     * 价格分段上限（分），最后一段不设上限
+     */
+    private static final int[] PRICE_BUCKET_BOUNDS = {1000, 2000, 5000, 10000};
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, IndexedSnack> documents = new HashMap<>();
+
+    private Map<String, Map<Long, Posting>> postings = new HashMap<>();
+
+    private TreeMap<String, Set<Long>> nameIndex = new TreeMap<>();
+
+    private volatile boolean ready;
+
+    /**
+     * 是否正在重建，重建期间记录增量更新的零食ID
+     */
+    private volatile boolean rebuilding;
+
+    private final Set<Long> refreshedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 应用启动完成后从数据库构建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("零食检索索引构建失败，搜索将退回数据库模糊查询", e);
+        }
+    }
+
+    /**
+     * 从数据库全量重建索引
+     * 新索引构建完成后整体替换，构建期间查询继续使用旧索引；
+     * 构建期间增量更新的零食可能不在快照中，替换后按最新数据重放
+     * @return 索引的零食数量
+     */
+    public synchronized int rebuild() {
+        long start = System.currentTimeMillis();
+        refreshedDuringRebuild.clear();
+        rebuilding = true;
+        List<Snack> snacks;
+        try {
+            snacks = snackMapper.selectList(null);
+        } catch (RuntimeException e) {
+            rebuilding = false;
+            throw e;
+        }
+
+        Map<Long, IndexedSnack> newDocuments = new HashMap<>(snacks.size() * 2);
+        Map<String, Map<Long, Posting>> newPostings = new HashMap<>();
+        TreeMap<String, Set<Long>> newNameIndex = new TreeMap<>();
+        for (Snack snack : snacks) {
+            addDocument(IndexedSnack.of(snack), newDocuments, newPostings, newNameIndex);
+        }
+
+        lock.writeLock().lock();
+        try {
+            documents = newDocuments;
+            postings = newPostings;
+            nameIndex = newNameIndex;
+            ready = true;
+            rebuilding = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Long> replayIds = new ArrayList<>(refreshedDuringRebuild);
+        refreshedDuringRebuild.clear();
+        if (!replayIds.isEmpty()) {
+            applyRefresh(replayIds);
+        }
+        log.info("零食检索索引重建完成，零食数: {}，词项数: {}，重放增量: {}，耗时{}ms",
+                newDocuments.size(), newPostings.size(), replayIds.size(), System.currentTimeMillis() - start);
+        return newDocuments.size();
+    }
+
+    /**
+     * 零食变动后增量更新索引
+     * 有事务时在提交后执行，从数据库读取最新数据，已删除的零食从索引移除
+     * @param snackIds 变动的零食ID
+     */
+    public void refresh(Collection<Long> snackIds) {
+        if (snackIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(snackIds);
+        TransactionUtils.afterCommit(() -> {
+            try {
+                applyRefresh(ids);
+            } catch (Exception e) {
+                log.error("零食检索索引增量更新失败，零食ID: {}", ids, e);
+            }
+        });
+    }
+
+    /**
+     * 从数据库读取最新数据更新索引
+     * 先登记再读库：重建快照早于本次读取时，替换后会再按这些ID重放
+     */
+    private void applyRefresh(List<Long> ids) {
+        if (rebuilding) {
+            refreshedDuringRebuild.addAll(ids);
+        }
+        Map<Long, Snack> snacks = new HashMap<>();
+        for (Snack snack : snackMapper.selectBatchIds(ids)) {
+            snacks.put(snack.getId(), snack);
+        }
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                removeDocument(id);
+                Snack snack = snacks.get(id);
+                if (snack != null) {
+                    addDocument(IndexedSnack.of(snack), documents, postings, nameIndex);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 索引是否已构建完成
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 关键词检索
+     * @param keyword 关键词，多个词用空格分隔，要求全部命中
+     * @param filter 过滤条件
+     * @return 命中的零食，按相关度降序
+     */
+    public List<SearchHit> search(String keyword, Filter filter) {
+        List<List<String>> terms = queryTerms(keyword);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        String phrase = normalize(keyword).trim();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (List<String> grams : terms) {
+                for (String gram : grams) {
+                    Map<Long, Posting> postingList = postings.get(gram);
+                    if (postingList == null) {
+                        return List.of();
+                    }
+                    double idf = Math.log(1 + (double) documents.size() / postingList.size());
+                    Map<Long, Double> next = new HashMap<>();
+                    for (Map.Entry<Long, Posting> entry : postingList.entrySet()) {
+                        if (scores != null && !scores.containsKey(entry.getKey())) {
+                            continue;
+                        }
+                        double base = scores == null ? 0.0 : scores.get(entry.getKey());
+                        next.put(entry.getKey(), base + idf * entry.getValue().score());
+                    }
+                    scores = next;
+                    if (scores.isEmpty()) {
+                        return List.of();
+                    }
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>();
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                IndexedSnack snack = documents.get(entry.getKey());
+                if (filter == null || filter.test(snack)) {
+                    hits.add(new SearchHit(snack, entry.getValue() + phraseBonus(snack, phrase)));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(SearchHit::score).reversed()
+                    .thenComparing(hit -> hit.snack().salesCount(), Comparator.reverseOrder())
+                    .thenComparing(hit -> hit.snack().id(), Comparator.reverseOrder()));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 名称前缀联想，只返回上架商品，按销量排序
+     * @param prefix 前缀
+     * @param limit 最多返回条数
+     * @return 零食名称列表
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix).trim();
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<IndexedSnack> matches = new ArrayList<>();
+            for (Set<Long> ids : nameIndex.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+                for (Long id : ids) {
+                    IndexedSnack snack = documents.get(id);
+                    if (snack.onSale()) {
+                        matches.add(snack);
+                    }
+                }
+            }
+            return matches.stream()
+                    .sorted(Comparator.comparing(IndexedSnack::salesCount, Comparator.reverseOrder())
+                            .thenComparing(IndexedSnack::name))
+                    .map(IndexedSnack::name)
+                    .distinct()
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 统计检索结果的分面计数
+     * @param hits 检索结果
+     * @return 分类计数和价格分段计数
+     */
+    public Facets facets(List<SearchHit> hits) {
+        Map<Long, Long> categoryCounts = new LinkedHashMap<>();
+        long[] bucketCounts = new long[PRICE_BUCKET_BOUNDS.length + 1];
+        for (SearchHit hit : hits) {
+            categoryCounts.merge(hit.snack().categoryId(), 1L, Long::sum);
+            bucketCounts[priceBucket(hit.snack().price())]++;
+        }
+
+        List<PriceBucket> priceBuckets = new ArrayList<>();
+        for (int i = 0; i < bucketCounts.length; i++) {
+            Integer min = i == 0 ? 0 : PRICE_BUCKET_BOUNDS[i - 1];
+            Integer max = i < PRICE_BUCKET_BOUNDS.length ? PRICE_BUCKET_BOUNDS[i] : null;
+            priceBuckets.add(new PriceBucket(min, max, bucketCounts[i]));
+        }
+        return new Facets(categoryCounts, priceBuckets);
+    }
+
+    /**
+     * 索引中的零食数量
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void addDocument(IndexedSnack snack, Map<Long, IndexedSnack> documents,
+                                    Map<String, Map<Long, Posting>> postings, TreeMap<String, Set<Long>> nameIndex) {
+        documents.put(snack.id(), snack);
+
+        Map<String, int[]> frequencies = new HashMap<>();
+        for (String gram : grams(snack.normalizedName())) {
+            frequencies.computeIfAbsent(gram, key -> new int[2])[0]++;
+        }
+        for (String gram : grams(snack.normalizedDescription())) {
+            frequencies.computeIfAbsent(gram, key -> new int[2])[1]++;
+        }
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new HashMap<>())
+                    .put(snack.id(), new Posting(entry.getValue()[0], entry.getValue()[1]));
+        }
+        nameIndex.computeIfAbsent(snack.normalizedName(), key -> new LinkedHashSet<>()).add(snack.id());
+    }
+
+    /**
+     * 移除文档，调用方需持有写锁
+     */
+    private void removeDocument(Long id) {
+        IndexedSnack snack = documents.remove(id);
+        if (snack == null) {
+            return;
+        }
+        Set<String> allGrams = new LinkedHashSet<>(grams(snack.normalizedName()));
+        allGrams.addAll(grams(snack.normalizedDescription()));
+        for (String gram : allGrams) {
+            Map<Long, Posting> postingList = postings.get(gram);
+            if (postingList != null) {
+                postingList.remove(id);
+                if (postingList.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        Set<Long> ids = nameIndex.get(snack.normalizedName());
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                nameIndex.remove(snack.normalizedName());
+            }
+        }
+    }
+
+    private static double phraseBonus(IndexedSnack snack, String phrase) {
+        String name = snack.normalizedName();
+        if (name.equals(phrase)) {
+            return 10.0;
+        }
+        if (name.startsWith(phrase)) {
+            return 5.0;
+        }
+        if (name.contains(phrase)) {
+            return 3.0;
+        }
+        return snack.normalizedDescription().contains(phrase) ? 1.0 : 0.0;
+    }
+
+    private static int priceBucket(int price) {
+        for (int i = 0; i < PRICE_BUCKET_BOUNDS.length; i++) {
+            if (price < PRICE_BUCKET_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return PRICE_BUCKET_BOUNDS.length;
+    }
+
+    /**
+     * 查询词切分：按空白拆成多个词，单字词用单字，其余用二字组
+     */
+    private static List<List<String>> queryTerms(String keyword) {
+        List<List<String>> terms = new ArrayList<>();
+        if (!StringUtils.hasText(keyword)) {
+            return terms;
+        }
+        for (String term : normalize(keyword).trim().split("\\s+")) {
+            if (term.length() == 1) {
+                terms.add(List.of(term));
+            } else if (term.length() > 1) {
+                List<String> bigrams = new ArrayList<>(new LinkedHashSet<>(bigrams(term)));
+                terms.add(bigrams);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * 文档切分：每个空白分隔的片段产生单字和二字组
+     */
+    private static List<String> grams(String text) {
+        List<String> grams = new ArrayList<>();
+        for (String segment : text.split("\\s+")) {
+            for (int i = 0; i < segment.length(); i++) {
+                grams.add(segment.substring(i, i + 1));
+            }
+            grams.addAll(bigrams(segment));
+        }
+        return grams;
+    }
+
+    private static List<String> bigrams(String segment) {
+        List<String> bigrams = new ArrayList<>();
+        for (int i = 0; i + 1 < segment.length(); i++) {
+            bigrams.add(segment.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+
+    /**
+     * 规范化：全角转半角、转小写，标点视为空白
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase();
+        return normalized.replaceAll("[\\p{Punct}\\p{IsPunctuation}\\s]+", " ");
+    }
+
+    /**
+     * 检索过滤条件
+     * @param categoryId 分类ID
+     * @param status 零食状态
+     * @param minPrice 最低价格（分）
+     * @param maxPrice 最高价格（分）
+     * @param minRating 最低平均评分
+     */
+    public record Filter(Long categoryId, String status, Integer minPrice, Integer maxPrice, BigDecimal minRating) {
+
+        public Filter(Long categoryId, String status, Integer minPrice, Integer maxPrice) {
+            this(categoryId, status, minPrice, maxPrice, null);
+        }
+
+        boolean test(IndexedSnack snack) {
+            return (categoryId == null || categoryId.equals(snack.categoryId()))
+                    && (status == null || status.equals(snack.status()))
+                    && (minPrice == null || snack.price() >= minPrice)
+                    && (maxPrice == null || snack.price() <= maxPrice)
+                    && (minRating == null || snack.ratingAvg().compareTo(minRating) >= 0);
+        }
+    }
+
+    /**
+     * 索引中的零食文档
+     */
+    public record IndexedSnack(Long id, Long categoryId, String name, String status, int price, int salesCount,
+                               BigDecimal ratingAvg, int reviewCount,
+                               LocalDateTime createTime, String normalizedName, String normalizedDescription) {
+
+        static IndexedSnack of(Snack snack) {
+            return new IndexedSnack(snack.getId(), snack.getCategoryId(), snack.getName(), snack.getStatus(),
+                    snack.getPrice() == null ? 0 : snack.getPrice(),
+                    snack.getSalesCount() == null ? 0 : snack.getSalesCount(),
+                    snack.getRatingAvg() == null ? BigDecimal.ZERO : snack.getRatingAvg(),
+                    snack.getReviewCount() == null ? 0 : snack.getReviewCount(),
+                    snack.getCreateTime(), normalize(snack.getName()).trim(), normalize(snack.getDescription()).trim());
+        }
+
+        boolean onSale() {
+            return SnackStatus.ON_SALE.getCode().equals(status);
+        }
+    }
+
+    /**
+     * 检索命中
+     * @param snack 零食文档
+     * @param score 相关度得分
+     */
+    public record SearchHit(IndexedSnack snack, double score) {
+    }
+
+    /**
+     * 分面统计
+     * @param categoryCounts 分类ID到命中数的映射
+     * @param priceBuckets 价格分段命中数
+     */
+    public record Facets(Map<Long, Long> categoryCounts, List<PriceBucket> priceBuckets) {
+    }
+
+    /**
+     * 价格分段
+     * @param minPrice 最低价格（分，含）
+     * @param maxPrice 最高价格（分，不含），null表示不设上限
+     * @param count 命中数
+     */
+    public record PriceBucket(Integer minPrice, Integer maxPrice, long count) {
+    }
+
+    /**
+     * 倒排项：词项在名称和描述中的出现次数
+     */
+    private record Posting(int nameCount, int descriptionCount) {
+
+        double score() {
+            return NAME_WEIGHT * nameCount / (nameCount + 1.0) + (double) descriptionCount / (descriptionCount + 1.0);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package org.example.springboot.service.stock;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.config.StockConfig;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.entity.StockLedger;
+import org.example.springboot.exception.BusinessException;
+import org.example.springboot.mapper.SnackMapper;
+import org.example.springboot.mapper.StockLedgerMapper;
+import org.example.springboot.service.cache.CatalogCache;
+import org.example.springboot.util.TransactionUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 内存库存引擎
+ *
+ * 工作方式：
+ * 1. 每个商品一个 AtomicInteger 计数器，预占/释放通过 CAS 完成，不再争抢 t_snack 行锁
+ * 2. 每次库存变动随业务事务写入 t_stock_ledger 流水（仅 INSERT，无热点行）
+ * 3. 回写任务定期合并流水，按商品净变动量批量更新 t_snack.stock，并删除已应用的流水
+ * 4. 启动时先把遗留流水全部回写（崩溃恢复），计数器再按需从数据库加载
+ *    尚未加载计数器的商品在本进程内没有库存变动，t_snack.stock 即为实时库存，读取时不必加载
+ * 5. 回写后失效对应商品的目录缓存，缓存重新加载时读到回写后的库存
+ *
+ * 计数器只存在于当前进程，仅适用于单实例部署
+ * @author system
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "stock", name = "engine", havingValue = StockConfig.ENGINE_MEMORY)
+public class MemoryStockEngine implements StockEngine {
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @Resource
+    private StockLedgerMapper stockLedgerMapper;
+
+    @Resource
+    private StockConfig stockConfig;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    @Resource
+    private CatalogCache catalogCache;
+
+    private final Map<Long, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flushExecutor;
+
+    /**
+     * 启动时回写遗留流水，并开启定时回写
+     */
+    @PostConstruct
+    public void init() {
+        int recovered = flush();
+        counters.clear();
+        log.info("内存库存引擎启动，已回写遗留库存流水{}条", recovered);
+
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "stock-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = stockConfig.getFlushInterval();
+        flushExecutor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 关闭时停止定时任务并做最后一次回写，失败的流水会在下次启动时恢复
+     */
+    @PreDestroy
+    public void destroy() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            try {
+                flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushQuietly();
+    }
+
+    @Override
+    public int getAvailableStock(Snack snack) {
+        AtomicInteger counter = counters.get(snack.getId());
+        if (counter != null) {
+            return counter.get();
+        }
+        return snack.getStock() == null ? 0 : snack.getStock();
+    }
+
+    @Override
+    public Integer peekAvailableStock(Long snackId) {
+        AtomicInteger counter = counters.get(snackId);
+        return counter == null ? null : counter.get();
+    }
+
+    @Override
+    public boolean tracksLiveStock() {
+        return true;
+    }
+
+    @Override
+    public void deduct(Map<Long, Integer> stockMap) {
+        Map<Long, Integer> reserved = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : stockMap.entrySet()) {
+            if (!tryReserve(getCounter(entry.getKey()), entry.getValue())) {
+                release(reserved);
+                log.warn("扣减库存失败，商品库存不足: snackId={}, quantity={}", entry.getKey(), entry.getValue());
+                throw new BusinessException("商品库存不足，请刷新后重试");
+            }
+            reserved.put(entry.getKey(), entry.getValue());
+        }
+
+        Map<Long, Integer> deltaMap = stockMap.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> -entry.getValue()));
+        try {
+            stockLedgerMapper.insertBatch(deltaMap);
+        } catch (RuntimeException e) {
+            release(reserved);
+            throw e;
+        }
+        TransactionUtils.afterRollback(() -> release(reserved));
+        log.info("预占商品库存: {}", stockMap);
+    }
+
+    @Override
+    public void restore(Map<Long, Integer> stockMap) {
+        stockLedgerMapper.insertBatch(stockMap);
+        // 事务提交后才释放到计数器，避免回滚的库存被其他订单预占
+        TransactionUtils.afterCommit(() -> release(stockMap));
+        log.info("恢复商品库存: {}", stockMap);
+    }
+
+    @Override
+    public int adjust(Long snackId, int delta) {
+        AtomicInteger counter = getCounter(snackId);
+        if (delta < 0) {
+            if (!tryReserve(counter, -delta)) {
+                throw new BusinessException("库存不足，操作失败");
+            }
+            stockLedgerMapper.insertBatch(Map.of(snackId, delta));
+            TransactionUtils.afterRollback(() -> counter.addAndGet(-delta));
+        } else if (delta > 0) {
+            stockLedgerMapper.insertBatch(Map.of(snackId, delta));
+            TransactionUtils.afterCommit(() -> counter.addAndGet(delta));
+        }
+        return counter.get() + Math.max(delta, 0);
+    }
+
+    @Override
+    public void setStock(Long snackId, int stock) {
+        AtomicInteger counter = getCounter(snackId);
+        int current = counter.getAndSet(stock);
+        int delta = stock - current;
+        if (delta != 0) {
+            stockLedgerMapper.insertBatch(Map.of(snackId, delta));
+            TransactionUtils.afterRollback(() -> counter.addAndGet(-delta));
+        }
+    }
+
+    /**
+     * 合并回写库存流水，直到没有待回写的流水
+     * @return 本次回写的流水条数
+     */
+    public synchronized int flush() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> flushBatch());
+            total += batch;
+        } while (batch >= stockConfig.getFlushBatchSize());
+        return total;
+    }
+
+    /**
+     * 回写一批流水：按商品合并净变动量，单条语句更新 t_snack，再删除已应用的流水
+     */
+    private int flushBatch() {
+        LambdaQueryWrapper<StockLedger> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.orderByAsc(StockLedger::getId)
+                    .last("LIMIT " + stockConfig.getFlushBatchSize());
+        List<StockLedger> ledgers = stockLedgerMapper.selectList(queryWrapper);
+        if (ledgers.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Integer> deltaMap = ledgers.stream()
+                .collect(Collectors.groupingBy(StockLedger::getSnackId,
+                        Collectors.summingInt(StockLedger::getDelta)));
+        deltaMap.values().removeIf(delta -> delta == 0);
+        if (!deltaMap.isEmpty()) {
+            snackMapper.addStockBatch(deltaMap);
+            catalogCache.invalidateSnackDetails(deltaMap.keySet());
+        }
+
+        List<Long> ledgerIds = new ArrayList<>(ledgers.size());
+        for (StockLedger ledger : ledgers) {
+            ledgerIds.add(ledger.getId());
+        }
+        stockLedgerMapper.deleteByIds(ledgerIds);
+        log.debug("回写库存流水{}条: {}", ledgers.size(), deltaMap);
+        return ledgers.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("回写库存流水失败，将在下次回写时重试", e);
+        }
+    }
+
+    /**
+     * 获取商品计数器，首次访问时按 t_snack.stock + 未回写流水 初始化
+     */
+    private AtomicInteger getCounter(Long snackId) {
+        return counters.computeIfAbsent(snackId, id -> {
+            Integer stock = stockLedgerMapper.selectEffectiveStock(id);
+            if (stock == null) {
+                throw new BusinessException("商品不存在");
+            }
+            return new AtomicInteger(stock);
+        });
+    }
+
+    /**
+     * CAS 预占库存，库存不足时返回 false
+     */
+    private boolean tryReserve(AtomicInteger counter, int quantity) {
+        while (true) {
+            int current = counter.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(Map<Long, Integer> stockMap) {
+        stockMap.forEach((snackId, quantity) -> getCounter(snackId).addAndGet(quantity));
+    }
+}
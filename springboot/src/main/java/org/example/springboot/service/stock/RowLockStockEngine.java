@@ -0,0 +1,66 @@
+package org.example.springboot.service.stock;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.config.StockConfig;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.exception.BusinessException;
+import org.example.springboot.mapper.SnackMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 行锁库存引擎（默认）
+ * 每次库存变动直接更新 t_snack，由带 stock 守卫的 UPDATE 保证不超卖
+ * @author system
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "stock", name = "engine", havingValue = StockConfig.ENGINE_ROW_LOCK, matchIfMissing = true)
+public class RowLockStockEngine implements StockEngine {
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @Override
+    public int getAvailableStock(Snack snack) {
+        return snack.getStock() == null ? 0 : snack.getStock();
+    }
+
+    @Override
+    public void deduct(Map<Long, Integer> stockMap) {
+        int result = snackMapper.deductStockBatch(stockMap);
+        if (result != stockMap.size()) {
+            log.warn("扣减库存失败，部分商品库存不足: expected={}, actual={}, stockMap={}",
+                    stockMap.size(), result, stockMap);
+            throw new BusinessException("商品库存不足，请刷新后重试");
+        }
+        log.info("扣减商品库存: {}", stockMap);
+    }
+
+    @Override
+    public void restore(Map<Long, Integer> stockMap) {
+        snackMapper.addStockBatch(stockMap);
+        log.info("恢复商品库存: {}", stockMap);
+    }
+
+    @Override
+    public int adjust(Long snackId, int delta) {
+        int result = snackMapper.adjustStock(snackId, delta);
+        if (result <= 0) {
+            throw new BusinessException("库存不足，操作失败");
+        }
+        return snackMapper.selectById(snackId).getStock();
+    }
+
+    @Override
+    public void setStock(Long snackId, int stock) {
+        LambdaUpdateWrapper<Snack> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(Snack::getId, snackId)
+                     .set(Snack::getStock, stock);
+        snackMapper.update(null, updateWrapper);
+    }
+}
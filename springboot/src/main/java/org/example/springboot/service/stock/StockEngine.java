@@ -0,0 +1,68 @@
+package org.example.springboot.service.stock;
+
+import org.example.springboot.entity.Snack;
+
+import java.util.Map;
+
+/**
+ * 库存引擎
+ * 封装库存的预占、释放与调整，具体实现由配置 stock.engine 选择：
+ * - row-lock：直接在 t_snack 上执行带守卫的 UPDATE，依赖数据库行锁
+ * - memory：在内存计数器上预占，库存流水随事务落库并异步批量回写 t_snack
+ * @author system
+ */
+public interface StockEngine {
+
+    /**
+     * 获取商品当前可用库存
+     * @param snack 已查询出的零食实体
+     * @return 可用库存
+     */
+    int getAvailableStock(Snack snack);
+
+    /**
+     * 不访问数据库读取商品的实时库存，用于覆盖缓存结果中可能过时的库存
+     * @param snackId 商品ID
+     * @return 实时库存，当前进程不掌握时返回null，调用方保留原值
+     */
+    default Integer peekAvailableStock(Long snackId) {
+        return null;
+    }
+
+    /**
+     * 是否在进程内掌握实时库存
+     * 掌握时缓存的列表由 peekAvailableStock 叠加实时库存，库存变动只需清理详情缓存；
+     * 不掌握时库存变动需同时失效列表缓存
+     */
+    default boolean tracksLiveStock() {
+        return false;
+    }
+
+    /**
+     * 扣减库存，所有商品要么全部扣减成功，要么全部不扣减
+     * 库存不足时抛出 BusinessException
+     * @param stockMap 商品ID -> 扣减数量
+     */
+    void deduct(Map<Long, Integer> stockMap);
+
+    /**
+     * 恢复库存
+     * @param stockMap 商品ID -> 恢复数量
+     */
+    void restore(Map<Long, Integer> stockMap);
+
+    /**
+     * 调整单个商品库存，调整后库存不能小于0
+     * @param snackId 商品ID
+     * @param delta 调整数量（正数增加，负数减少）
+     * @return 调整后的库存
+     */
+    int adjust(Long snackId, int delta);
+
+    /**
+     * 将商品库存设置为指定值
+     * @param snackId 商品ID
+     * @param stock 目标库存
+     */
+    void setStock(Long snackId, int stock);
+}
@@ -0,0 +1,294 @@
+package org.example.springboot.service.storage;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.entity.SysFileInfo;
+import org.example.springboot.exception.BusinessException;
+import org.example.springboot.mapper.SysFileInfoMapper;
+import org.example.springboot.util.FileUtil;
+import org.example.springboot.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 内容寻址文件存储
+ *
+ * 工作方式：
+ * 1. 上传流经 NIO 通道以固定大小缓冲区边写临时文件边计算 SHA-256，写完后原子移动到 cas/ab/cd/{hash}.{ext}
+ *    前两级目录取哈希前四位，避免单个目录下文件过多
+ * 2. 相同内容（且扩展名相同）只存一份，已存在时直接丢弃临时文件
+ *    扩展名只保留1-10位小写字母或数字，其他扩展名不拼入路径，文件按无扩展名保存
+ * 3. 文件被 sys_file_info 中状态正常的记录引用，引用数即该文件路径的记录数
+ *    记录删除的事务提交后引用数为0时才删除物理文件
+ * 4. 刚写入但引用记录尚未提交的文件被标记为使用中，期间不会被删除；事务回滚后无引用的文件随即删除
+ * 5. 文件名由内容决定，同一路径的内容永不改变，可以长期缓存
+ * @author system
+ */
+@Slf4j
+@Component
+public class ContentAddressedFileStore {
+
+    /**
+     * 内容寻址目录（相对文件根目录）
+     */
+    public static final String CAS_DIR = "cas";
+
+    /**
+     * 内容寻址文件访问路径前缀
+     */
+    public static final String URL_PREFIX = "/files/" + CAS_DIR + "/";
+
+    /**
+     * 上传临时文件目录（相对文件根目录，隐藏目录不能直接访问）
+     */
+    public static final String TMP_DIR = ".upload-tmp";
+
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * 写入缓冲区大小，单个上传的内存占用与文件大小无关
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 允许拼入存储路径的扩展名（不含点号，已转小写）
+     */
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+
+    @Resource
+    private SysFileInfoMapper fileInfoMapper;
+
+    /**
+     * 文件根目录，默认与 FileUtil 一致
+     */
+    private Path basePath;
+
+    /**
+     * 文件相对路径 -> 尚未提交引用记录的写入次数
+     */
+    private final ConcurrentHashMap<String, Integer> pins = new ConcurrentHashMap<>();
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    @PostConstruct
+    public void init() {
+        if (basePath == null) {
+            basePath = Paths.get(FileUtil.FILE_BASE_PATH);
+        }
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * 保存上传文件，调用方应在同一事务内写入引用该文件的 sys_file_info 记录
+     * @param file 上传的文件
+     * @return 存储结果
+     */
+    public StoredFile store(MultipartFile file) {
+        String extension = FileUtil.getFileExtension(file.getOriginalFilename());
+        if (StrUtil.isBlank(extension)) {
+            throw new BusinessException("文件没有扩展名");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return store(in, extension);
+        } catch (IOException e) {
+            log.error("文件保存失败，文件名：{}，错误：{}", file.getOriginalFilename(), e.getMessage(), e);
+            throw new BusinessException("文件保存失败");
+        }
+    }
+
+    /**
+     * 保存文件内容，边读边写入磁盘，内存占用只有一个固定大小的缓冲区
+     * @param in 文件内容，由调用方关闭
+     * @param extension 扩展名（含点号），不符合白名单格式时按无扩展名保存
+     * @return 存储结果
+     * @throws BusinessException 内容超过文件大小上限
+     */
+    public StoredFile store(InputStream in, String extension) throws IOException {
+        Path tmpDir = basePath.resolve(TMP_DIR);
+        Files.createDirectories(tmpDir);
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = copy(in, tmp, digest);
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String relativePath = CAS_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/"
+                    + hash + safeExtension(extension);
+            Path target = basePath.resolve(relativePath);
+
+            boolean deduplicated;
+            synchronized (lockOf(relativePath)) {
+                deduplicated = Files.exists(target);
+                if (!deduplicated) {
+                    Files.createDirectories(target.getParent());
+                    moveAtomically(tmp, target);
+                }
+                pins.merge(relativePath, 1, Integer::sum);
+            }
+            TransactionUtils.afterCommit(() -> unpin(relativePath));
+            TransactionUtils.afterRollback(() -> {
+                unpin(relativePath);
+                deleteIfUnreferenced(relativePath);
+            });
+
+            log.info("文件保存成功：{}，大小：{}，{}", relativePath, size, deduplicated ? "内容已存在" : "新写入");
+            return new StoredFile("/files/" + relativePath, hash, size, deduplicated);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 是否为内容寻址存储的文件路径
+     * @param filePath 文件访问路径
+     */
+    public boolean isContentAddressed(String filePath) {
+        return filePath != null && filePath.startsWith(URL_PREFIX);
+    }
+
+    /**
+     * 引用记录已删除，在当前事务提交后检查引用数，无引用时删除物理文件
+     * @param filePath 文件访问路径
+     */
+    public void dereference(String filePath) {
+        if (!isContentAddressed(filePath)) {
+            return;
+        }
+        String relativePath = FileUtil.convertToRelativePath(filePath);
+        TransactionUtils.afterCommit(() -> deleteIfUnreferenced(relativePath));
+    }
+
+    /**
+     * 文件根目录
+     */
+    public Path getBasePath() {
+        return basePath;
+    }
+
+    /**
+     * 解析文件的物理路径
+     * @param filePath 文件访问路径
+     * @return 物理路径
+     */
+    public Path resolve(String filePath) {
+        return basePath.resolve(FileUtil.convertToRelativePath(filePath));
+    }
+
+    private void deleteIfUnreferenced(String relativePath) {
+        try {
+            synchronized (lockOf(relativePath)) {
+                if (pins.containsKey(relativePath)) {
+                    return;
+                }
+                Long references = fileInfoMapper.selectCount(new LambdaQueryWrapper<SysFileInfo>()
+                        .eq(SysFileInfo::getFilePath, "/files/" + relativePath)
+                        .eq(SysFileInfo::getStatus, 1));
+                if (references != null && references > 0) {
+                    log.debug("文件仍被引用，保留：{}，引用数：{}", relativePath, references);
+                    return;
+                }
+                if (Files.deleteIfExists(basePath.resolve(relativePath))) {
+                    log.info("文件已无引用，删除：{}", relativePath);
+                }
+            }
+        } catch (Exception e) {
+            log.error("删除无引用文件失败：{}，错误：{}", relativePath, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 通过 NIO 通道把输入流写入临时文件，同时计算摘要，超过文件大小上限立即中止
+     * @return 写入的字节数
+     */
+    private static long copy(InputStream in, Path target, MessageDigest digest) throws IOException {
+        long maxSize = FileUtil.getMaxFileSize();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        ReadableByteChannel source = Channels.newChannel(in);
+        long size = 0;
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                size += buffer.remaining();
+                if (size > maxSize) {
+                    throw new BusinessException("文件大小超出限制，最大允许: " + maxSize + " 字节");
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 规范化扩展名，不在白名单格式内的返回空串
+     * @param extension 扩展名（含点号）
+     * @return 以点号开头的小写扩展名，或空串
+     */
+    private static String safeExtension(String extension) {
+        if (extension == null) {
+            return "";
+        }
+        String normalized = (extension.startsWith(".") ? extension.substring(1) : extension).toLowerCase(Locale.ROOT);
+        return SAFE_EXTENSION.matcher(normalized).matches() ? "." + normalized : "";
+    }
+
+    private void unpin(String relativePath) {
+        pins.computeIfPresent(relativePath, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private Object lockOf(String relativePath) {
+        return locks[Math.floorMod(relativePath.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM 不支持 SHA-256", e);
+        }
+    }
+
+    /**
+     * 存储结果
+     * @param filePath 文件访问路径
+     * @param hash 内容 SHA-256（十六进制）
+     * @param size 文件大小（字节）
+     * @param deduplicated 内容是否已存在
+     */
+    public record StoredFile(String filePath, String hash, long size, boolean deduplicated) {
+    }
+}
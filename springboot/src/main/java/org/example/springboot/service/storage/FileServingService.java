@@ -0,0 +1,310 @@
+package org.example.springboot.service.storage;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.config.FileServingConfig;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上传文件访问服务
+ *
+ * 工作方式：
+ * 1. 容器支持时把文件路径和区间交给 Tomcat sendfile，由内核直接发送，不经过应用缓冲区
+ *    不支持时用 FileChannel.transferTo 写入响应通道
+ * 2. 支持单个区间的 Range 请求（视频拖动进度），多区间请求按完整文件返回
+ * 3. 内容寻址文件的 ETag 为文件名中的内容哈希（强校验）
+ *    其他文件的 ETag 由大小和修改时间组成（弱校验），请求线程不读取文件内容
+ * 4. If-None-Match 按弱比较，命中返回 304；If-Range 按强比较，与当前 ETag 不一致或为弱校验时忽略 Range
+ * 5. 图片带 w 参数时返回对应宽度的衍生图，ETag 为原图 ETag 加宽度，缓存策略与原图一致
+ *    衍生图尚未生成时返回原图并要求协商，原图不大于该宽度时直接按原图返回和缓存
+ * @author system
+ */
+@Slf4j
+@Service
+public class FileServingService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String MODE_SENDFILE = "sendfile";
+
+    private static final String MODE_CHANNEL = "channel";
+
+    private static final String MODE_NONE = "none";
+
+    @Resource
+    private FileServingConfig fileServingConfig;
+
+    @Resource
+    private ContentAddressedFileStore contentAddressedFileStore;
+
+    @Resource
+    private ImageDerivativeService imageDerivativeService;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 发送文件
+     * @param filePath 文件访问路径（/files/...）
+     * @param width 请求的图片宽度，不为空且文件是图片时返回对应宽度的衍生图
+     * @param request 请求
+     * @param response 响应
+     */
+    public void serve(String filePath, Integer width, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        Path path = resolve(filePath);
+        if (path == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        boolean contentAddressed = contentAddressedFileStore.isContentAddressed(filePath);
+        String tag = contentAddressed ? contentHash(path) : versionTag(attributes);
+
+        CacheControl cacheControl = cacheControl(filePath);
+        if (width != null && width > 0 && imageDerivativeService.isSupported(filePath)) {
+            int variantWidth = imageDerivativeService.normalizeWidth(width);
+            String sourceKey = contentAddressed ? tag : sha256Hex(filePath + "|" + tag);
+            Path variant = imageDerivativeService.getVariant(path, sourceKey, variantWidth);
+            if (variant == null) {
+                // 衍生图正在异步生成，暂时返回原图并要求客户端每次协商，生成后即可拿到衍生图
+                cacheControl = CacheControl.noCache();
+            } else if (!variant.equals(path)) {
+                try {
+                    attributes = Files.readAttributes(variant, BasicFileAttributes.class);
+                    path = variant;
+                    tag = tag + "-w" + variantWidth;
+                } catch (NoSuchFileException e) {
+                    cacheControl = CacheControl.noCache();
+                }
+            }
+        }
+        send(path, attributes, contentAddressed ? "\"" + tag + "\"" : "W/\"" + tag + "\"", cacheControl,
+                request, response);
+    }
+
+    /**
+     * 发送文件内容，处理协商缓存和 Range
+     */
+    private void send(Path path, BasicFileAttributes attributes, String etag, CacheControl cacheControl,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = attributes.size();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, attributes.lastModifiedTime().toMillis());
+
+        if (matchesNoneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            record(MODE_NONE, HttpServletResponse.SC_NOT_MODIFIED, 0);
+            return;
+        }
+
+        long start = 0;
+        long count = length;
+        int status = HttpServletResponse.SC_OK;
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        boolean rangeAllowed = ifRange == null || (!etag.startsWith("W/") && ifRange.equals(etag));
+        String range = rangeAllowed ? request.getHeader(HttpHeaders.RANGE) : null;
+        if (range != null) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                record(MODE_NONE, HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, 0);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                count = bounds[1] - bounds[0] + 1;
+                status = HttpServletResponse.SC_PARTIAL_CONTENT;
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + bounds[0] + "-" + bounds[1] + "/" + length);
+            }
+        }
+
+        response.setStatus(status);
+        response.setContentType(MediaTypeFactory.getMediaType(path.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod())) {
+            record(MODE_NONE, status, 0);
+            return;
+        }
+        record(transfer(path, start, count, request, response), status, count);
+    }
+
+    /**
+     * 解析 Range 请求头
+     * @param range 请求头
+     * @param length 文件大小
+     * @return 单个区间返回 [起始, 结束]（含），忽略 Range 返回空数组，无法满足返回null
+     */
+    static long[] parseRange(String range, long length) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // 后缀区间：最后N个字节
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                if (start >= length || end < start) {
+                    return null;
+                }
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    /**
+     * 解析为文件根目录下的普通文件，越界、隐藏路径（如上传临时目录）或不存在返回null
+     */
+    private Path resolve(String filePath) {
+        if (filePath == null || !filePath.startsWith("/files/")) {
+            return null;
+        }
+        for (String segment : filePath.substring("/files/".length()).split("/")) {
+            if (segment.isEmpty() || segment.startsWith(".")) {
+                return null;
+            }
+        }
+        Path base = contentAddressedFileStore.getBasePath().toAbsolutePath().normalize();
+        Path path = contentAddressedFileStore.resolve(filePath).toAbsolutePath().normalize();
+        if (!path.startsWith(base) || !Files.isRegularFile(path)) {
+            return null;
+        }
+        return path;
+    }
+
+    /**
+     * 内容寻址文件的内容哈希，取自文件名
+     */
+    private static String contentHash(Path path) {
+        String fileName = path.getFileName().toString();
+        int dot = fileName.indexOf('.');
+        return dot < 0 ? fileName : fileName.substring(0, dot);
+    }
+
+    /**
+     * 非内容寻址文件的版本标识：大小-修改时间（十六进制）
+     */
+    private static String versionTag(BasicFileAttributes attributes) {
+        return Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis());
+    }
+
+    private CacheControl cacheControl(String filePath) {
+        if (contentAddressedFileStore.isContentAddressed(filePath)) {
+            return CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        }
+        return CacheControl.maxAge(fileServingConfig.getCacheMaxAge(), TimeUnit.SECONDS).cachePublic();
+    }
+
+    private static boolean matchesNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = opaqueTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || opaqueTag(value).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private String transfer(Path path, long start, long count, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        if (fileServingConfig.getSendfileEnabled() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return MODE_SENDFILE;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+        return MODE_CHANNEL;
+    }
+
+    private void record(String mode, int status, long bytes) {
+        DistributionSummary.builder("app.file.served.bytes")
+                .description("上传文件单次响应发送的字节数")
+                .tags("mode", mode, "status", String.valueOf(status))
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * 非内容寻址图片的衍生图以路径和版本标识的摘要命名，只对短字符串计算，不读取文件内容
+     */
+    private static String sha256Hex(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM 不支持 SHA-256", e);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package org.example.springboot.service.storage;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.config.FileCleanupConfig;
+import org.example.springboot.entity.SysFileInfo;
+import org.example.springboot.mapper.SysFileInfoMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 文件存储维护服务
+ *
+ * 工作方式：
+ * 1. 过期临时文件按 (expire_time, id) 游标分批读取，每批在独立事务中删除记录，提交后删除不再被引用的文件
+ *    内存占用只与批大小有关，单批失败跳过该批，不影响后续批次
+ * 2. 孤立文件扫描遍历文件根目录，按批核对磁盘文件是否仍有有效记录引用，只处理超过宽限期的文件
+ *    内容寻址文件无引用即删除；其他目录的文件可能被业务表直接引用，默认只统计
+ *    上传中断残留的临时文件直接删除；衍生图目录由衍生图服务按容量淘汰，不参与扫描
+ * 3. 回收的字节数按来源记录到 app.file.cleanup.reclaimed.bytes
+ * 4. 存储监控统计各目录文件数和占用空间、记录数和磁盘剩余空间，剩余空间不足时告警
+ * @author system
+ */
+@Slf4j
+@Service
+public class FileStorageMaintenanceService {
+
+    private static final String SOURCE_TEMP = "temp";
+
+    private static final String SOURCE_ORPHAN = "orphan";
+
+    private static final String SOURCE_UPLOAD_TMP = "upload-tmp";
+
+    @Resource
+    private FileCleanupConfig fileCleanupConfig;
+
+    @Resource
+    private SysFileInfoMapper fileInfoMapper;
+
+    @Resource
+    private ContentAddressedFileStore contentAddressedFileStore;
+
+    @Resource
+    private ImageDerivativeService imageDerivativeService;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private volatile Map<String, Object> lastOrphanSweep = Map.of();
+
+    private volatile Map<String, Object> lastReport = Map.of();
+
+    /**
+     * 分批清理过期临时文件
+     * @return 删除的记录数
+     */
+    public int cleanupExpiredTempFiles() {
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = fileCleanupConfig.getBatchSize();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        LocalDateTime lastExpireTime = null;
+        Long lastId = null;
+        int removed = 0;
+        long reclaimed = 0;
+        while (true) {
+            List<SysFileInfo> batch = fileInfoMapper.selectList(
+                    expiredTempQuery(now, lastExpireTime, lastId, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            SysFileInfo last = batch.get(batch.size() - 1);
+            lastExpireTime = last.getExpireTime();
+            lastId = last.getId();
+
+            try {
+                List<Long> ids = batch.stream().map(SysFileInfo::getId).toList();
+                Integer deleted = transactionTemplate.execute(status -> fileInfoMapper.deleteByIds(ids));
+                removed += deleted == null ? 0 : deleted;
+
+                // 记录已提交删除，再删除不再被引用的文件；内容相同的其他记录仍引用时保留
+                Set<String> filePaths = batch.stream().map(SysFileInfo::getFilePath)
+                        .collect(Collectors.toCollection(LinkedHashSet::new));
+                Set<String> referenced = referencedPaths(filePaths);
+                for (String filePath : filePaths) {
+                    if (!referenced.contains(filePath)) {
+                        reclaimed += deleteFile(filePath);
+                    }
+                }
+            } catch (Exception e) {
+                log.error("清理过期临时文件批次失败，跳过该批: 起始ID={}, 错误={}", batch.get(0).getId(), e.getMessage(), e);
+            }
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        recordReclaimed(SOURCE_TEMP, reclaimed);
+        log.info("清理过期临时文件完成: 清理数量={}, 回收空间={}字节", removed, reclaimed);
+        return removed;
+    }
+
+    /**
+     * 扫描并清理孤立文件（磁盘上存在但没有有效记录引用）
+     * @return 删除的文件数
+     */
+    public int cleanupOrphanFiles() {
+        Path basePath = contentAddressedFileStore.getBasePath();
+        if (!Files.isDirectory(basePath)) {
+            return 0;
+        }
+        OrphanSweep sweep = new OrphanSweep(basePath,
+                System.currentTimeMillis() - fileCleanupConfig.getOrphanGracePeriod());
+        try {
+            Files.walkFileTree(basePath, sweep);
+            sweep.flush();
+        } catch (IOException e) {
+            log.error("扫描孤立文件失败: 错误={}", e.getMessage(), e);
+        }
+
+        recordReclaimed(SOURCE_ORPHAN, sweep.reclaimed);
+        recordReclaimed(SOURCE_UPLOAD_TMP, sweep.uploadTmpReclaimed);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("time", LocalDateTime.now().toString());
+        result.put("scannedFiles", sweep.scanned);
+        result.put("orphanFiles", sweep.orphans);
+        result.put("deletedFiles", sweep.deleted);
+        result.put("reclaimedBytes", sweep.reclaimed);
+        result.put("keptOrphanBytes", sweep.keptBytes);
+        result.put("uploadTmpReclaimedBytes", sweep.uploadTmpReclaimed);
+        lastOrphanSweep = result;
+
+        log.info("孤立文件扫描完成: 扫描={}, 孤立={}, 删除={}, 回收空间={}字节, 保留的孤立文件占用={}字节",
+                sweep.scanned, sweep.orphans, sweep.deleted, sweep.reclaimed + sweep.uploadTmpReclaimed, sweep.keptBytes);
+        return sweep.deleted;
+    }
+
+    /**
+     * 统计文件存储使用情况
+     * @return 各目录文件数和字节数、记录数、衍生图缓存、磁盘空间和最近一次孤立文件扫描结果
+     */
+    public Map<String, Object> monitorStorage() {
+        Path basePath = contentAddressedFileStore.getBasePath();
+        Map<String, long[]> areas = new TreeMap<>();
+        if (Files.isDirectory(basePath)) {
+            try {
+                Files.walkFileTree(basePath, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        Path relative = basePath.relativize(file);
+                        String area = relative.getNameCount() > 1 ? relative.getName(0).toString() : "/";
+                        long[] usage = areas.computeIfAbsent(area, key -> new long[2]);
+                        usage[0]++;
+                        usage[1] += attrs.size();
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                log.error("统计文件存储失败: 错误={}", e.getMessage(), e);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("time", LocalDateTime.now().toString());
+        report.put("totalFiles", areas.values().stream().mapToLong(usage -> usage[0]).sum());
+        report.put("totalBytes", areas.values().stream().mapToLong(usage -> usage[1]).sum());
+        Map<String, Object> areaReport = new LinkedHashMap<>();
+        areas.forEach((area, usage) -> areaReport.put(area, Map.of("files", usage[0], "bytes", usage[1])));
+        report.put("areas", areaReport);
+
+        report.put("activeRecords", fileInfoMapper.selectCount(new LambdaQueryWrapper<SysFileInfo>()
+                .eq(SysFileInfo::getStatus, 1)));
+        report.put("tempRecords", fileInfoMapper.selectCount(new LambdaQueryWrapper<SysFileInfo>()
+                .eq(SysFileInfo::getIsTemp, 1)));
+        report.put("expiredTempRecords", fileInfoMapper.selectCount(new LambdaQueryWrapper<SysFileInfo>()
+                .eq(SysFileInfo::getIsTemp, 1)
+                .lt(SysFileInfo::getExpireTime, LocalDateTime.now())));
+        report.put("derivatives", imageDerivativeService.getStats());
+
+        if (Files.isDirectory(basePath)) {
+            try {
+                FileStore store = Files.getFileStore(basePath);
+                long total = store.getTotalSpace();
+                long usable = store.getUsableSpace();
+                report.put("diskTotalBytes", total);
+                report.put("diskUsableBytes", usable);
+                if (total > 0 && usable < total * fileCleanupConfig.getDiskWarnFreeRatio()) {
+                    log.warn("文件存储磁盘可用空间不足: 可用={}字节, 总计={}字节", usable, total);
+                }
+            } catch (IOException e) {
+                log.warn("读取磁盘空间失败: 错误={}", e.getMessage());
+            }
+        }
+        report.put("lastOrphanSweep", lastOrphanSweep);
+        lastReport = report;
+        return report;
+    }
+
+    /**
+     * 最近一次存储监控结果
+     */
+    public Map<String, Object> getStats() {
+        return lastReport;
+    }
+
+    /**
+     * 过期临时文件查询，按 (expire_time, id) 升序从上一批末尾继续
+     */
+    private LambdaQueryWrapper<SysFileInfo> expiredTempQuery(LocalDateTime now, LocalDateTime lastExpireTime,
+                                                             Long lastId, int batchSize) {
+        LambdaQueryWrapper<SysFileInfo> wrapper = new LambdaQueryWrapper<SysFileInfo>()
+                .select(SysFileInfo::getId, SysFileInfo::getFilePath, SysFileInfo::getExpireTime)
+                .eq(SysFileInfo::getIsTemp, 1)
+                .lt(SysFileInfo::getExpireTime, now);
+        if (lastId != null) {
+            wrapper.and(w -> w.gt(SysFileInfo::getExpireTime, lastExpireTime)
+                    .or(o -> o.eq(SysFileInfo::getExpireTime, lastExpireTime).gt(SysFileInfo::getId, lastId)));
+        }
+        wrapper.orderByAsc(SysFileInfo::getExpireTime, SysFileInfo::getId);
+        wrapper.last("LIMIT " + batchSize);
+        return wrapper;
+    }
+
+    /**
+     * 查询仍被有效记录引用的文件路径
+     */
+    private Set<String> referencedPaths(Collection<String> filePaths) {
+        if (filePaths.isEmpty()) {
+            return Set.of();
+        }
+        return fileInfoMapper.selectList(new LambdaQueryWrapper<SysFileInfo>()
+                        .select(SysFileInfo::getFilePath)
+                        .in(SysFileInfo::getFilePath, filePaths)
+                        .eq(SysFileInfo::getStatus, 1))
+                .stream()
+                .map(SysFileInfo::getFilePath)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 删除无引用的文件，内容寻址文件交给存储按引用数和未提交写入再次确认
+     * @return 回收的字节数
+     */
+    private long deleteFile(String filePath) {
+        Path basePath = contentAddressedFileStore.getBasePath();
+        Path path = contentAddressedFileStore.resolve(filePath).normalize();
+        if (!path.startsWith(basePath.normalize()) || !Files.isRegularFile(path)) {
+            return 0;
+        }
+        try {
+            long size = Files.size(path);
+            if (contentAddressedFileStore.isContentAddressed(filePath)) {
+                contentAddressedFileStore.dereference(filePath);
+            } else {
+                Files.deleteIfExists(path);
+            }
+            return Files.exists(path) ? 0 : size;
+        } catch (IOException e) {
+            log.warn("删除文件失败: 路径={}, 错误={}", filePath, e.getMessage());
+            return 0;
+        }
+    }
+
+    private void recordReclaimed(String source, long bytes) {
+        DistributionSummary.builder("app.file.cleanup.reclaimed.bytes")
+                .description("单次文件清理回收的字节数")
+                .tags("source", source)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * 孤立文件扫描，磁盘文件按批核对引用，不一次性加载全部路径
+     */
+    private class OrphanSweep extends SimpleFileVisitor<Path> {
+
+        private final Path basePath;
+
+        private final Path uploadTmpDir;
+
+        private final Path derivativeDir;
+
+        private final long cutoff;
+
+        private final List<String> pending = new ArrayList<>();
+
+        private long scanned;
+
+        private int orphans;
+
+        private int deleted;
+
+        private long reclaimed;
+
+        private long keptBytes;
+
+        private long uploadTmpReclaimed;
+
+        OrphanSweep(Path basePath, long cutoff) {
+            this.basePath = basePath;
+            this.uploadTmpDir = basePath.resolve(ContentAddressedFileStore.TMP_DIR);
+            this.derivativeDir = basePath.resolve(ImageDerivativeService.DERIVATIVE_DIR);
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if (dir.equals(basePath) || dir.equals(uploadTmpDir)) {
+                return FileVisitResult.CONTINUE;
+            }
+            // 衍生图目录和其他隐藏目录不属于上传文件
+            return dir.getFileName().toString().startsWith(".") ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (attrs.lastModifiedTime().toMillis() >= cutoff) {
+                return FileVisitResult.CONTINUE;
+            }
+            if (file.startsWith(uploadTmpDir)) {
+                try {
+                    Files.deleteIfExists(file);
+                    uploadTmpReclaimed += attrs.size();
+                } catch (IOException e) {
+                    log.warn("删除上传残留临时文件失败: 路径={}, 错误={}", file, e.getMessage());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+            if (file.getFileName().toString().startsWith(".") || file.startsWith(derivativeDir)) {
+                return FileVisitResult.CONTINUE;
+            }
+            scanned++;
+            StringBuilder filePath = new StringBuilder("/files");
+            basePath.relativize(file).forEach(name -> filePath.append('/').append(name));
+            pending.add(filePath.toString());
+            if (pending.size() >= fileCleanupConfig.getBatchSize()) {
+                flush();
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+            log.warn("读取文件失败，跳过: 路径={}, 错误={}", file, e.getMessage());
+            return FileVisitResult.CONTINUE;
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Set<String> referenced = referencedPaths(pending);
+            for (String filePath : pending) {
+                if (referenced.contains(filePath)) {
+                    continue;
+                }
+                orphans++;
+                if (contentAddressedFileStore.isContentAddressed(filePath) || fileCleanupConfig.getDeleteLegacyOrphans()) {
+                    long size = deleteFile(filePath);
+                    if (size > 0) {
+                        deleted++;
+                        reclaimed += size;
+                        log.debug("删除孤立文件: {}", filePath);
+                    }
+                } else {
+                    try {
+                        keptBytes += Files.size(contentAddressedFileStore.resolve(filePath));
+                    } catch (IOException ignored) {
+                        // 文件已被并发删除
+                    }
+                    log.debug("发现孤立文件（未删除）: {}", filePath);
+                }
+            }
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package org.example.springboot.service.storage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.springboot.config.ImageDerivativeConfig;
+import org.example.springboot.util.FileUtil;
+import org.example.springboot.util.TransactionUtils;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 图片衍生图服务
+ *
+ * 工作方式：
+ * 1. 上传图片的事务提交后，按配置的全部宽度提交到有界线程池异步生成缩略图，队列满时放弃
+ * 2. 访问 /files/...?w=宽度 时宽度向上取整到配置的一档；衍生图已生成直接返回，未生成则提交异步生成并立即返回原图
+ *    请求线程不等待生成结果，原图过大或无法解码时同样返回原图
+ * 3. 衍生图以原图内容哈希和宽度命名，存放在文件根目录下的隐藏目录中，原图内容不变则衍生图无需重新生成
+ *    原图不大于目标宽度时写入空的标记文件（{哈希}-w{宽度}.orig），之后该宽度直接使用原图，不再尝试生成
+ * 4. 磁盘缓存超过上限时按最近最少访问淘汰，启动时按修改时间恢复访问顺序
+ * 5. 只使用 JDK 自带的 ImageIO 编解码（JPEG/PNG/GIF/BMP），无需本地库和图形环境
+ *    有透明通道的格式（PNG/GIF）输出 PNG，其余输出 JPEG
+ * @author system
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+
+    /**
+     * 衍生图目录（相对文件根目录，隐藏目录不能直接访问）
+     */
+    public static final String DERIVATIVE_DIR = ".derivatives";
+
+    private static final Set<String> SOURCE_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".gif", ".bmp");
+
+    private static final Set<String> ALPHA_EXTENSIONS = Set.of(".png", ".gif");
+
+    /**
+     * 使用原图的标记文件后缀
+     */
+    private static final String ORIGINAL_MARKER_SUFFIX = ".orig";
+
+    @Resource
+    private ImageDerivativeConfig imageDerivativeConfig;
+
+    @Resource
+    private ContentAddressedFileStore contentAddressedFileStore;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private Path derivativeDir;
+
+    private ThreadPoolExecutor workers;
+
+    /**
+     * 正在生成的衍生图文件名
+     */
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 衍生图（或使用原图标记）文件名 -> 文件大小，按访问顺序排列，受自身锁保护
+     */
+    private final LinkedHashMap<String, Long> cached = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedBytes;
+
+    @PostConstruct
+    public void init() {
+        derivativeDir = contentAddressedFileStore.getBasePath().resolve(DERIVATIVE_DIR);
+        int threads = imageDerivativeConfig.getWorkerThreads();
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(imageDerivativeConfig.getQueueCapacity()), r -> {
+                    Thread thread = new Thread(r, "image-derivative-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        loadExisting();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * 文件是否可以生成衍生图
+     * @param filePath 文件访问路径
+     */
+    public boolean isSupported(String filePath) {
+        return imageDerivativeConfig.getEnabled() && SOURCE_EXTENSIONS.contains(extensionOf(filePath));
+    }
+
+    /**
+     * 请求宽度向上取整到配置的一档，超过最大档取最大档
+     * @param requested 请求宽度
+     * @return 衍生图宽度
+     */
+    public int normalizeWidth(int requested) {
+        List<Integer> widths = imageDerivativeConfig.getWidths().stream().sorted().toList();
+        for (Integer width : widths) {
+            if (width >= requested) {
+                return width;
+            }
+        }
+        return widths.get(widths.size() - 1);
+    }
+
+    /**
+     * 上传图片后在当前事务提交时预生成全部宽度的衍生图
+     * @param filePath 内容寻址文件访问路径
+     */
+    public void scheduleVariants(String filePath) {
+        if (!isSupported(filePath) || !contentAddressedFileStore.isContentAddressed(filePath)) {
+            return;
+        }
+        Path source = contentAddressedFileStore.resolve(filePath);
+        String fileName = source.getFileName().toString();
+        String hash = fileName.substring(0, fileName.indexOf('.'));
+        TransactionUtils.afterCommit(() -> imageDerivativeConfig.getWidths()
+                .forEach(width -> submit(source, hash, extensionOf(filePath), width)));
+    }
+
+    /**
+     * 获取衍生图，未生成时提交异步生成，不等待结果
+     * @param source 原图物理路径
+     * @param hash 原图内容哈希
+     * @param width 衍生图宽度（已取整）
+     * @return 衍生图物理路径；原图不大于目标宽度时返回原图路径；尚未生成时返回null
+     */
+    public Path getVariant(Path source, String hash, int width) {
+        String extension = extensionOf(source.getFileName().toString());
+        String name = variantName(hash, extension, width);
+        synchronized (cached) {
+            if (cached.get(name) != null) {
+                return derivativeDir.resolve(name);
+            }
+            if (cached.get(markerName(hash, width)) != null) {
+                return source;
+            }
+        }
+        submit(source, hash, extension, width);
+        return null;
+    }
+
+    /**
+     * 衍生图缓存统计
+     * @return 衍生图数量、占用字节数和排队任务数
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (cached) {
+            stats.put("derivatives", cached.size());
+            stats.put("bytes", cachedBytes);
+        }
+        stats.put("queued", workers.getQueue().size());
+        return stats;
+    }
+
+    private void submit(Path source, String hash, String extension, int width) {
+        String name = variantName(hash, extension, width);
+        if (!inFlight.add(name)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    generate(source, hash, name, extension, width);
+                } catch (Throwable e) {
+                    log.warn("生成衍生图失败：{}，原因：{}", name, e.getMessage());
+                } finally {
+                    inFlight.remove(name);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(name);
+            log.debug("衍生图任务队列已满，放弃生成：{}", name);
+        }
+    }
+
+    /**
+     * 生成衍生图，原图不大于目标宽度时写入使用原图标记，过大或无法解码时不生成
+     */
+    private void generate(Path source, String hash, String name, String extension, int width) throws IOException {
+        Path target = derivativeDir.resolve(name);
+        if (Files.exists(target)) {
+            register(name, Files.size(target));
+            return;
+        }
+        long start = System.nanoTime();
+        BufferedImage image = read(source, hash, width);
+        if (image == null) {
+            return;
+        }
+        boolean alpha = ALPHA_EXTENSIONS.contains(extension);
+        BufferedImage scaled = scale(image, width, alpha);
+
+        Files.createDirectories(derivativeDir);
+        Path tmp = Files.createTempFile(derivativeDir, "derivative-", ".part");
+        try {
+            write(scaled, tmp, alpha);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        register(name, Files.size(target));
+        Timer.builder("app.image.derivative.generate")
+                .description("生成一张衍生图的耗时")
+                .tags("width", String.valueOf(width))
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.debug("衍生图生成完成：{}，{}x{}", name, scaled.getWidth(), scaled.getHeight());
+    }
+
+    /**
+     * 记录该宽度直接使用原图，标记为空文件，与衍生图一起加载和淘汰
+     */
+    private void markOriginal(String hash, int width) throws IOException {
+        String marker = markerName(hash, width);
+        Files.createDirectories(derivativeDir);
+        Files.write(derivativeDir.resolve(marker), new byte[0]);
+        register(marker, 0);
+        log.debug("原图不大于目标宽度，直接使用原图：{}", marker);
+    }
+
+    /**
+     * 解码原图，先读取尺寸，不需要缩小或像素超限时不解码
+     */
+    private BufferedImage read(Path source, String hash, int width) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long sourceWidth = reader.getWidth(0);
+                long sourceHeight = reader.getHeight(0);
+                if (sourceWidth <= width) {
+                    markOriginal(hash, width);
+                    return null;
+                }
+                if (sourceWidth * sourceHeight > imageDerivativeConfig.getMaxSourcePixels()) {
+                    log.warn("原图像素超出上限，不生成衍生图：{}，{}x{}", source, sourceWidth, sourceHeight);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 逐次减半缩小到目标宽度的两倍以内，再一次缩放到目标宽度，兼顾速度和画质
+     */
+    private static BufferedImage scale(BufferedImage image, int width, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        do {
+            int nextWidth = currentWidth / 2 >= width ? currentWidth / 2 : width;
+            int nextHeight = Math.max(1, (int) Math.round((double) image.getHeight() * nextWidth / image.getWidth()));
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                if (!alpha) {
+                    // JPEG 没有透明通道，透明区域填充白色
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, nextWidth, nextHeight);
+                }
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+            currentWidth = nextWidth;
+            currentHeight = nextHeight;
+        } while (currentWidth > width);
+        return current;
+    }
+
+    private void write(BufferedImage image, Path target, boolean alpha) throws IOException {
+        if (alpha) {
+            ImageIO.write(image, "png", target.toFile());
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(imageDerivativeConfig.getJpegQuality());
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * 记录衍生图并按最近最少访问淘汰超出上限的部分
+     */
+    private void register(String name, long size) {
+        synchronized (cached) {
+            Long previous = cached.put(name, size);
+            cachedBytes += size - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<String, Long>> iterator = cached.entrySet().iterator();
+            while (cachedBytes > imageDerivativeConfig.getCacheMaxBytes() && iterator.hasNext()) {
+                Map.Entry<String, Long> eldest = iterator.next();
+                if (eldest.getKey().equals(name)) {
+                    continue;
+                }
+                try {
+                    Files.deleteIfExists(derivativeDir.resolve(eldest.getKey()));
+                } catch (IOException e) {
+                    log.warn("淘汰衍生图失败：{}，原因：{}", eldest.getKey(), e.getMessage());
+                }
+                cachedBytes -= eldest.getValue();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 启动时加载已有衍生图，按修改时间从旧到新恢复访问顺序
+     */
+    private void loadExisting() {
+        if (!Files.isDirectory(derivativeDir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(derivativeDir)) {
+            files.filter(path -> !path.getFileName().toString().endsWith(".part"))
+                    .sorted(Comparator.comparingLong(ImageDerivativeService::lastModified))
+                    .forEach(path -> {
+                        try {
+                            register(path.getFileName().toString(), Files.size(path));
+                        } catch (IOException e) {
+                            log.warn("读取衍生图失败：{}", path);
+                        }
+                    });
+            log.info("加载已有衍生图{}张，共{}字节", cached.size(), cachedBytes);
+        } catch (IOException e) {
+            log.warn("加载已有衍生图失败: {}", e.getMessage());
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static String variantName(String hash, String extension, int width) {
+        return hash + "-w" + width + (ALPHA_EXTENSIONS.contains(extension) ? ".png" : ".jpg");
+    }
+
+    private static String markerName(String hash, int width) {
+        return hash + "-w" + width + ORIGINAL_MARKER_SUFFIX;
+    }
+
+    private static String extensionOf(String fileName) {
+        return FileUtil.getFileExtension(fileName).toLowerCase();
+    }
+}
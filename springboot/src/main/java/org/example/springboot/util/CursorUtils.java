@@ -0,0 +1,129 @@
+package org.example.springboot.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import org.example.springboot.common.CursorPage;
+import org.example.springboot.exception.BusinessException;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页工具类
+ * 游标是 (创建时间, ID) 的 Base64 编码，对客户端不透明；查询按两列倒序，
+ * 以 create_time < t OR (create_time = t AND id < i) 定位下一页，配合 (…, create_time, id) 联合索引不再扫描已翻过的行
+ */
+public class CursorUtils {
+
+    /**
+     * 默认每页大小
+     */
+    public static final int DEFAULT_SIZE = 10;
+
+    /**
+     * 最大每页大小
+     */
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * 规范化每页大小
+     * @param size 请求的每页大小
+     * @return 1 到 MAX_SIZE 之间的大小
+     */
+    public static int normalizeSize(Long size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_SIZE;
+        }
+        return (int) Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * 编码游标
+     * @param createTime 最后一条记录的创建时间
+     * @param id 最后一条记录的ID
+     * @return 游标字符串
+     */
+    public static String encode(LocalDateTime createTime, Long id) {
+        String raw = createTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     * @param cursor 游标字符串
+     * @return 游标位置，首页（游标为空）返回null
+     */
+    public static Cursor decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 为查询追加游标定位条件、倒序排序和 LIMIT size + 1（多取一条用于判断是否还有下一页）
+     * @param wrapper 已设置过滤条件的查询
+     * @param cursor 游标字符串
+     * @param timeColumn 创建时间列
+     * @param idColumn ID列
+     * @param size 每页大小
+     * @return 传入的查询
+     */
+    public static <T> LambdaQueryWrapper<T> seek(LambdaQueryWrapper<T> wrapper, String cursor,
+                                                SFunction<T, LocalDateTime> timeColumn, SFunction<T, Long> idColumn, int size) {
+        Cursor position = decode(cursor);
+        if (position != null) {
+            wrapper.and(w -> w.lt(timeColumn, position.createTime())
+                    .or(o -> o.eq(timeColumn, position.createTime()).lt(idColumn, position.id())));
+        }
+        wrapper.orderByDesc(timeColumn).orderByDesc(idColumn);
+        wrapper.last("LIMIT " + (size + 1));
+        return wrapper;
+    }
+
+    /**
+     * 组装游标分页结果
+     * @param rows 按 seek 查询得到的数据（最多 size + 1 条）
+     * @param size 每页大小
+     * @param timeGetter 取创建时间
+     * @param idGetter 取ID
+     * @param converter 实体列表转换为响应列表
+     * @param total 总记录数，不统计时传null
+     * @return 游标分页结果
+     */
+    public static <E, T> CursorPage<T> toPage(List<E> rows, int size, Function<E, LocalDateTime> timeGetter,
+                                              Function<E, Long> idGetter, Function<List<E>, List<T>> converter, Long total) {
+        boolean hasMore = rows.size() > size;
+        List<E> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            E last = pageRows.get(pageRows.size() - 1);
+            nextCursor = encode(timeGetter.apply(last), idGetter.apply(last));
+        }
+        return CursorPage.<T>builder()
+                .records(converter.apply(pageRows))
+                .size(size)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .total(total)
+                .build();
+    }
+
+    /**
+     * 游标位置
+     * @param createTime 创建时间
+     * @param id 记录ID
+     */
+    public record Cursor(LocalDateTime createTime, Long id) {
+    }
+}
@@ -39,6 +39,19 @@ public class FileUtil {
     public final static String FILE_BASE_PATH = System.getProperty("user.dir") + "/files/";
     private static final String ROOT_PATH = "/files/";
     
+    /**
+     * 图片衍生图地址，本地上传的图片追加宽度参数，外部地址或已带参数的地址原样返回
+     * @param imageUrl 图片访问路径
+     * @param width 衍生图宽度
+     * @return 衍生图访问路径
+     */
+    public static String imageVariantUrl(String imageUrl, int width) {
+        if (imageUrl == null || !imageUrl.startsWith(ROOT_PATH) || imageUrl.contains("?")) {
+            return imageUrl;
+        }
+        return imageUrl + "?w=" + width;
+    }
+
     /**
      * 将访问路径转换为相对物理路径
      * @param filename 访问路径，可能包含/files/前缀
@@ -1,5 +1,7 @@
 package org.example.springboot.util;
 
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.crypto.digest.DigestUtil;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
@@ -41,11 +43,46 @@ public class JwtTokenUtils {
      */
     private static final long EXPIRE_TIME = 7 * 24 * 60 * 60 * 1000L;
 
+    /**
+     * 刷新token过期时间（30天）
+     */
+    private static final long REFRESH_EXPIRE_TIME = 30 * 24 * 60 * 60 * 1000L;
+
+    /**
+     * 已签发token的最长有效期，超过此时长的吊销记录可以清除
+     */
+    public static final long MAX_TOKEN_LIFETIME = Math.max(EXPIRE_TIME, REFRESH_EXPIRE_TIME);
+
+    /**
+     * token类型：访问token、刷新token
+     */
+    public static final String TOKEN_TYPE_ACCESS = "access";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
+    /**
+     * 认证过滤器拒绝请求中携带的token时写入的请求属性
+     */
+    public static final String AUTH_REJECTED_ATTRIBUTE = "authRejected";
+
+    /**
+     * 毫秒精度的签发时间声明，标准 iat 只精确到秒
+     */
+    private static final String CLAIM_ISSUED_AT_MILLIS = "iatMs";
+
     /**
      * Token发行者
      */
     private static final String ISSUER = "drone-management-system";
 
+    /**
+     * 签名算法和校验器（线程安全，全局复用，避免每次校验重新构建）
+     */
+    private static final Algorithm ALGORITHM = Algorithm.HMAC256(SECRET);
+
+    private static final JWTVerifier VERIFIER = JWT.require(ALGORITHM)
+            .withIssuer(ISSUER)
+            .build();
+
     /**
      * 生成JWT token
      * @param userId 用户ID
@@ -54,18 +91,36 @@ public class JwtTokenUtils {
      * @return JWT token
      */
     public static String generateToken(Long userId, String username, String roleType) {
+        return createToken(userId, username, roleType, TOKEN_TYPE_ACCESS, EXPIRE_TIME);
+    }
+
+    /**
+     * 生成刷新token，只能用于换取新的token，不能访问接口
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param roleType 角色代码
+     * @return 刷新token
+     */
+    public static String generateRefreshToken(Long userId, String username, String roleType) {
+        return createToken(userId, username, roleType, TOKEN_TYPE_REFRESH, REFRESH_EXPIRE_TIME);
+    }
+
+    private static String createToken(Long userId, String username, String roleType, String tokenType, long expireTime) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(SECRET);
-            Date expireDate = new Date(System.currentTimeMillis() + EXPIRE_TIME);
+            long now = System.currentTimeMillis();
+            Date expireDate = new Date(now + expireTime);
 
             return JWT.create()
+                    .withJWTId(IdUtil.fastSimpleUUID())
+                    .withClaim("tokenType", tokenType)
                     .withClaim("userId", userId)
                     .withClaim("username", username)
                     .withClaim("roleType", roleType)
+                    .withClaim(CLAIM_ISSUED_AT_MILLIS, now)
                     .withExpiresAt(expireDate)
-                    .withIssuedAt(new Date())
+                    .withIssuedAt(new Date(now))
                     .withIssuer(ISSUER)
-                    .sign(algorithm);
+                    .sign(ALGORITHM);
         } catch (Exception e) {
             log.error("生成JWT token失败", e);
             throw new RuntimeException("生成JWT token失败", e);
@@ -79,11 +134,41 @@ public class JwtTokenUtils {
      * @throws JWTVerificationException token验证失败
      */
     public static DecodedJWT verifyToken(String token) throws JWTVerificationException {
-        Algorithm algorithm = Algorithm.HMAC256(SECRET);
-        JWTVerifier verifier = JWT.require(algorithm)
-                .withIssuer(ISSUER)
-                .build();
-        return verifier.verify(token);
+        return VERIFIER.verify(token);
+    }
+
+    /**
+     * 获取token类型，早期签发的token没有类型声明，按访问token处理
+     * @param jwt 解码后的JWT
+     * @return token类型
+     */
+    public static String getTokenType(DecodedJWT jwt) {
+        String tokenType = jwt.getClaim("tokenType").asString();
+        return tokenType == null ? TOKEN_TYPE_ACCESS : tokenType;
+    }
+
+    /**
+     * 获取token唯一标识，早期签发的token没有jti，使用token摘要代替
+     * @param jwt 解码后的JWT
+     * @return token唯一标识
+     */
+    public static String getTokenId(DecodedJWT jwt) {
+        String tokenId = jwt.getId();
+        return tokenId != null ? tokenId : DigestUtil.sha256Hex(jwt.getToken());
+    }
+
+    /**
+     * 获取token毫秒精度的签发时间
+     * 早期签发的token只有精确到秒的 iat，取该秒的第一毫秒，与吊销同一秒内签发的旧token按已吊销处理
+     * @param jwt 解码后的JWT
+     * @return 签发时间（毫秒）
+     */
+    public static long getIssuedAtMillis(DecodedJWT jwt) {
+        Long issuedAt = jwt.getClaim(CLAIM_ISSUED_AT_MILLIS).asLong();
+        if (issuedAt != null) {
+            return issuedAt;
+        }
+        return jwt.getIssuedAt() == null ? 0L : jwt.getIssuedAt().getTime();
     }
 
     /**
@@ -176,53 +261,59 @@ public class JwtTokenUtils {
 
     /**
      * 从请求中获取当前用户ID
+     * 只读取认证过滤器写入的请求属性：过滤器会检查吊销状态、token类型和用户状态，
+     * 这里不再自行解析token，未认证或token被拒绝（见 AUTH_REJECTED_ATTRIBUTE）时返回null
      * @param request HTTP请求
      * @return 用户ID
      */
     public static Long getCurrentUserIdFromRequest(HttpServletRequest request) {
-        String token = extractTokenFromRequest(request);
-        if (token != null) {
-            return getUserIdFromToken(token);
+        if (request == null) {
+            return null;
         }
-        return null;
+        return (Long) request.getAttribute("currentUserId");
     }
 
     /**
      * 从请求中获取当前用户名
+     * 只读取认证过滤器写入的请求属性：过滤器会检查吊销状态、token类型和用户状态，
+     * 这里不再自行解析token，未认证或token被拒绝（见 AUTH_REJECTED_ATTRIBUTE）时返回null
      * @param request HTTP请求
      * @return 用户名
      */
     public static String getCurrentUsernameFromRequest(HttpServletRequest request) {
-        String token = extractTokenFromRequest(request);
-        if (token != null) {
-            return getUsernameFromToken(token);
+        if (request == null) {
+            return null;
         }
-        return null;
+        return (String) request.getAttribute("currentUsername");
     }
 
     /**
      * 从请求中获取当前用户角色
+     * 只读取认证过滤器写入的请求属性：过滤器会检查吊销状态、token类型和用户状态，
+     * 这里不再自行解析token，未认证或token被拒绝（见 AUTH_REJECTED_ATTRIBUTE）时返回null
      * @param request HTTP请求
      * @return 角色代码
      */
     public static String getCurrentRoleFromRequest(HttpServletRequest request) {
-        String token = extractTokenFromRequest(request);
-        if (token != null) {
-            return getRoleTypeFromToken(token);
+        if (request == null) {
+            return null;
         }
-        return null;
+        return (String) request.getAttribute("currentUserRole");
     }
 
     /**
      * 刷新token（生成新的token）
      * @param oldToken 旧的token
      * @return 新的token，失败返回null
+     * @deprecated 不校验吊销状态也不轮换刷新token，请使用 UserService#refreshToken
      */
+    @Deprecated
     public static String refreshToken(String oldToken) {
         try {
-            Long userId = getUserIdFromToken(oldToken);
-            String username = getUsernameFromToken(oldToken);
-            String roleType = getRoleTypeFromToken(oldToken);
+            DecodedJWT jwt = verifyToken(oldToken);
+            Long userId = jwt.getClaim("userId").asLong();
+            String username = jwt.getClaim("username").asString();
+            String roleType = jwt.getClaim("roleType").asString();
 
             if (userId != null && username != null && roleType != null) {
                 return generateToken(userId, username, roleType);
@@ -0,0 +1,122 @@
+package org.example.springboot.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 雪花算法ID生成器
+ *
+ * ID结构（64位，最高位恒为0）：
+ * - 41位：相对纪元的毫秒时间戳，可用约69年
+ * - 10位：节点ID（0-1023），多实例部署时必须互不相同
+ * - 12位：同一毫秒内的序列号（0-4095）
+ *
+ * 并发控制：
+ * - 最近时间戳和序列号打包在一个 AtomicLong 中，通过 CAS 推进，无锁
+ * - 同一毫秒序列号用尽时自旋等待时钟进入下一毫秒，单节点上限约每秒409万个ID
+ * - 时钟回拨不超过容忍值时沿用上次时间戳继续分配；超过容忍值抛出异常，拒绝生成可能重复的ID
+ *
+ * @author system
+ */
+public class SnowflakeIdGenerator {
+
+    /**
+     * 默认纪元：2025-01-01 00:00:00 UTC
+     */
+    public static final long DEFAULT_EPOCH = 1735689600000L;
+
+    private static final int NODE_BITS = 10;
+
+    private static final int SEQUENCE_BITS = 12;
+
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    private final long epoch;
+
+    private final long nodeBits;
+
+    private final long maxBackwardMillis;
+
+    private final LongSupplier clock;
+
+    /**
+     * 高位为最近分配的时间戳（相对纪元），低12位为该毫秒已分配的序列号
+     */
+    private final AtomicLong state;
+
+    /**
+     * @param nodeId 节点ID（0-1023）
+     * @param epoch 纪元时间戳（毫秒）
+     * @param maxBackwardMillis 可容忍的时钟回拨毫秒数
+     */
+    public SnowflakeIdGenerator(long nodeId, long epoch, long maxBackwardMillis) {
+        this(nodeId, epoch, maxBackwardMillis, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long nodeId, long epoch, long maxBackwardMillis, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点ID必须在0到" + MAX_NODE_ID + "之间: " + nodeId);
+        }
+        if (epoch > clock.getAsLong()) {
+            throw new IllegalArgumentException("纪元时间不能晚于当前时间: " + epoch);
+        }
+        this.epoch = epoch;
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.clock = clock;
+        this.state = new AtomicLong((clock.getAsLong() - epoch) << SEQUENCE_BITS);
+    }
+
+    /**
+     * 生成下一个ID
+     * @return 全局唯一且单调递增的ID
+     * @throws IllegalStateException 时钟回拨超过容忍值
+     */
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long now = clock.getAsLong() - epoch;
+
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if (lastTimestamp - now > maxBackwardMillis) {
+                throw new IllegalStateException("系统时钟回拨" + (lastTimestamp - now) + "毫秒，超过容忍值，拒绝生成ID");
+            } else if ((current & MAX_SEQUENCE) < MAX_SEQUENCE) {
+                next = current + 1;
+            } else {
+                // 序列号用尽，等待下一毫秒
+                Thread.onSpinWait();
+                continue;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << TIMESTAMP_SHIFT) | nodeBits | (next & MAX_SEQUENCE);
+            }
+        }
+    }
+
+    /**
+     * 解析ID中的生成时间
+     * @param id 生成的ID
+     * @return 生成时间戳（毫秒）
+     */
+    public long extractTimestamp(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + epoch;
+    }
+
+    /**
+     * 解析ID中的节点ID
+     * @param id 生成的ID
+     * @return 节点ID
+     */
+    public static long extractNodeId(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
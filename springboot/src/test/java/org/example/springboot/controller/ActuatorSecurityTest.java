@@ -0,0 +1,98 @@
+package org.example.springboot.controller;
+
+import jakarta.annotation.Resource;
+import org.example.springboot.DTO.response.UserDetailResponseDTO;
+import org.example.springboot.config.AuthCacheConfig;
+import org.example.springboot.config.SecurityConfig;
+import org.example.springboot.config.TokenRevocationConfig;
+import org.example.springboot.enumClass.UserStatus;
+import org.example.springboot.service.CartService;
+import org.example.springboot.service.UserService;
+import org.example.springboot.service.auth.TokenRevocationService;
+import org.example.springboot.service.cache.AuthPrincipalCache;
+import org.example.springboot.service.metrics.SqlRequestMetricsInterceptor;
+import org.example.springboot.util.JwtTokenUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 运维端点访问控制测试
+ * 切片测试不加载 actuator 端点，只验证安全配置的授权结果
+ * @author system
+ */
+@WebMvcTest(CartController.class)
+@Import({SecurityConfig.class, TokenRevocationService.class, TokenRevocationConfig.class,
+        AuthPrincipalCache.class, AuthCacheConfig.class})
+@TestPropertySource(properties = {
+        "auth.revocation.broadcast-enabled=false",
+        "auth.cache.broadcast-enabled=false"
+})
+@DisplayName("运维端点访问控制测试")
+class ActuatorSecurityTest {
+
+    @Resource
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private CartService cartService;
+
+    @MockitoBean
+    private SqlRequestMetricsInterceptor sqlRequestMetricsInterceptor;
+
+    @MockitoBean(name = "redisTemplate")
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        UserDetailResponseDTO user = new UserDetailResponseDTO();
+        user.setStatus(UserStatus.ACTIVE.getCode());
+        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(sqlRequestMetricsInterceptor.preHandle(any(), any(), any())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("运行指标端点只允许管理员访问")
+    void testMetricsRequireAdmin() throws Exception {
+        String userToken = JwtTokenUtils.generateToken(1L, "user", "USER");
+        String adminToken = JwtTokenUtils.generateToken(3L, "admin", "ADMIN");
+
+        for (String path : List.of("/actuator/prometheus", "/actuator/metrics", "/actuator/metrics/http.server.requests")) {
+            mockMvc.perform(get(path))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(get(path).header("Authorization", "Bearer " + userToken))
+                    .andExpect(status().isForbidden());
+            int adminStatus = mockMvc.perform(get(path).header("Authorization", "Bearer " + adminToken))
+                    .andReturn().getResponse().getStatus();
+            assertNotEquals(401, adminStatus, path);
+            assertNotEquals(403, adminStatus, path);
+        }
+    }
+
+    @Test
+    @DisplayName("健康检查允许匿名访问")
+    void testHealthIsPublic() throws Exception {
+        int status = mockMvc.perform(get("/actuator/health")).andReturn().getResponse().getStatus();
+
+        assertNotEquals(401, status);
+        assertNotEquals(403, status);
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.springboot.controller;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.annotation.Resource;
+import org.example.springboot.DTO.response.CartListResponseDTO;
+import org.example.springboot.DTO.response.UserDetailResponseDTO;
+import org.example.springboot.config.AuthCacheConfig;
+import org.example.springboot.config.SecurityConfig;
+import org.example.springboot.config.TokenRevocationConfig;
+import org.example.springboot.enumClass.UserStatus;
+import org.example.springboot.exception.BusinessException;
+import org.example.springboot.service.CartService;
+import org.example.springboot.service.UserService;
+import org.example.springboot.service.auth.TokenRevocationService;
+import org.example.springboot.service.cache.AuthPrincipalCache;
+import org.example.springboot.service.metrics.SqlRequestMetricsInterceptor;
+import org.example.springboot.util.JwtTokenUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 控制器认证测试
+ * 业务接口在安全配置中公开放行，验证被拒绝的token在控制器层同样得到401
+ * @author system
+ */
+@WebMvcTest(CartController.class)
+@Import({SecurityConfig.class, TokenRevocationService.class, TokenRevocationConfig.class,
+        AuthPrincipalCache.class, AuthCacheConfig.class})
+@TestPropertySource(properties = {
+        "auth.revocation.broadcast-enabled=false",
+        "auth.cache.broadcast-enabled=false"
+})
+@DisplayName("控制器认证测试")
+class CartControllerAuthTest {
+
+    @Resource
+    private MockMvc mockMvc;
+
+    @Resource
+    private TokenRevocationService tokenRevocationService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private CartService cartService;
+
+    @MockitoBean
+    private SqlRequestMetricsInterceptor sqlRequestMetricsInterceptor;
+
+    @MockitoBean(name = "redisTemplate")
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        UserDetailResponseDTO user = new UserDetailResponseDTO();
+        user.setStatus(UserStatus.ACTIVE.getCode());
+        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(cartService.getCartList(anyLong())).thenReturn(new CartListResponseDTO());
+        when(sqlRequestMetricsInterceptor.preHandle(any(), any(), any())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("有效token正常访问，当前用户来自过滤器")
+    void testValidToken() throws Exception {
+        String token = JwtTokenUtils.generateToken(1L, "user", "USER");
+
+        mockMvc.perform(get("/api/cart/list").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"));
+
+        verify(cartService).getCartList(1L);
+    }
+
+    @Test
+    @DisplayName("已吊销的token返回401，不会进入控制器")
+    void testRevokedToken() throws Exception {
+        String token = JwtTokenUtils.generateToken(1L, "user", "USER");
+        DecodedJWT jwt = JwtTokenUtils.verifyToken(token);
+        tokenRevocationService.revokeToken(JwtTokenUtils.getTokenId(jwt), jwt.getExpiresAt().getTime());
+
+        mockMvc.perform(get("/api/cart/list").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value("401"));
+
+        verify(cartService, never()).getCartList(any());
+    }
+
+    @Test
+    @DisplayName("用户级吊销后已缓存的认证主体同样返回401")
+    void testRevokedUserWithCachedPrincipal() throws Exception {
+        // 用户级吊销在上下文内一直有效，使用其他测试不用的用户
+        String token = JwtTokenUtils.generateToken(2L, "other", "USER");
+        mockMvc.perform(get("/api/cart/list").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        tokenRevocationService.revokeUser(2L);
+
+        mockMvc.perform(get("/api/cart/list").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+        verify(cartService, times(1)).getCartList(2L);
+    }
+
+    @Test
+    @DisplayName("刷新token不能访问业务接口")
+    void testRefreshTokenRejected() throws Exception {
+        String token = JwtTokenUtils.generateRefreshToken(1L, "user", "USER");
+
+        mockMvc.perform(get("/api/cart/list").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+        verify(cartService, never()).getCartList(any());
+    }
+
+    @Test
+    @DisplayName("用户已不存在时返回401")
+    void testDeletedUser() throws Exception {
+        when(userService.getUserById(5L)).thenThrow(new BusinessException("用户不存在"));
+        String token = JwtTokenUtils.generateToken(5L, "deleted", "USER");
+
+        mockMvc.perform(get("/api/cart/list").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("加载用户时数据库故障返回503，不当作token失效")
+    void testInfrastructureFailure() throws Exception {
+        when(userService.getUserById(4L)).thenThrow(new DataAccessResourceFailureException("连接超时"));
+        String token = JwtTokenUtils.generateToken(4L, "blip", "USER");
+
+        mockMvc.perform(get("/api/cart/list").header("Authorization", "Bearer " + token))
+                .andExpect(status().isServiceUnavailable());
+
+        verify(cartService, never()).getCartList(any());
+    }
+
+    @Test
+    @DisplayName("非业务接口的公开路径携带无效token时按匿名请求放行")
+    void testInvalidTokenOnPublicResource() throws Exception {
+        int status = mockMvc.perform(get("/files/img/1.png").header("Authorization", "Bearer invalid"))
+                .andReturn().getResponse().getStatus();
+
+        assertNotEquals(401, status);
+    }
+}
@@ -0,0 +1,288 @@
+package org.example.springboot.controller;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.Resource;
+import org.example.springboot.DTO.response.OrderResponseDTO;
+import org.example.springboot.common.Result;
+import org.example.springboot.config.CatalogCacheConfig;
+import org.example.springboot.config.DashboardConfig;
+import org.example.springboot.config.MetricsConfig;
+import org.example.springboot.config.MybatisPlusConfig;
+import org.example.springboot.entity.Address;
+import org.example.springboot.entity.Cart;
+import org.example.springboot.entity.Category;
+import org.example.springboot.entity.Order;
+import org.example.springboot.entity.OrderItem;
+import org.example.springboot.entity.Review;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.entity.User;
+import org.example.springboot.mapper.AddressMapper;
+import org.example.springboot.mapper.CartMapper;
+import org.example.springboot.mapper.CategoryMapper;
+import org.example.springboot.mapper.OrderItemMapper;
+import org.example.springboot.mapper.OrderMapper;
+import org.example.springboot.mapper.ReviewMapper;
+import org.example.springboot.mapper.SnackMapper;
+import org.example.springboot.mapper.UserMapper;
+import org.example.springboot.service.AddressService;
+import org.example.springboot.service.BussinessFileValidationService;
+import org.example.springboot.service.CartService;
+import org.example.springboot.service.DashboardRollupService;
+import org.example.springboot.service.DashboardStatsService;
+import org.example.springboot.service.FileService;
+import org.example.springboot.service.OrderService;
+import org.example.springboot.service.PurchaseVerificationService;
+import org.example.springboot.service.ReviewService;
+import org.example.springboot.service.ReviewSummaryService;
+import org.example.springboot.service.SnackService;
+import org.example.springboot.service.cache.CatalogCache;
+import org.example.springboot.service.cache.CategoryDictionary;
+import org.example.springboot.service.metrics.SqlBudgetAspect;
+import org.example.springboot.service.search.SnackSearchIndex;
+import org.example.springboot.service.stock.RowLockStockEngine;
+import org.example.springboot.service.storage.ContentAddressedFileStore;
+import org.example.springboot.service.storage.FileStorageMaintenanceService;
+import org.example.springboot.service.storage.ImageDerivativeService;
+import org.example.springboot.util.SnowflakeIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 接口 SQL 预算测试
+ * 直接调用标注 @SqlBudget 的控制器方法，业务服务和 Mapper 使用真实实现，开启严格模式，
+ * 每个接口准备多条数据，逐条查询关联数据（N+1）时会超出预算并抛出错误；
+ * H2 没有 MySQL 的 DATE_FORMAT，同名函数在测试 schema.sql 中注册
+ * @author system
+ */
+@MybatisPlusTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sql-budget-endpoint;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "metrics.sql-budget-strict=true",
+        "catalog.cache.enabled=false",
+        "catalog.cache.redis-enabled=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MybatisPlusConfig.class, MetricsConfig.class, SqlBudgetAspect.class, AopAutoConfiguration.class,
+        CatalogCacheConfig.class, DashboardConfig.class,
+        CartController.class, ReviewController.class, SnackController.class, IndexController.class, OrderController.class,
+        CartService.class, ReviewService.class, ReviewSummaryService.class, SnackService.class, OrderService.class,
+        DashboardStatsService.class, DashboardRollupService.class, AddressService.class, FileService.class,
+        CategoryDictionary.class, CatalogCache.class, SnackSearchIndex.class, RowLockStockEngine.class,
+        SqlBudgetEndpointTest.TestConfig.class})
+@DisplayName("接口SQL预算测试")
+class SqlBudgetEndpointTest {
+
+    private static final int ROWS = 5;
+
+    @Resource
+    private CartController cartController;
+
+    @Resource
+    private ReviewController reviewController;
+
+    @Resource
+    private SnackController snackController;
+
+    @Resource
+    private IndexController indexController;
+
+    @Resource
+    private OrderController orderController;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private CategoryMapper categoryMapper;
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @Resource
+    private CartMapper cartMapper;
+
+    @Resource
+    private ReviewMapper reviewMapper;
+
+    @Resource
+    private AddressMapper addressMapper;
+
+    @Resource
+    private OrderMapper orderMapper;
+
+    @Resource
+    private OrderItemMapper orderItemMapper;
+
+    @Resource
+    private CategoryDictionary categoryDictionary;
+
+    @MockitoBean
+    private PurchaseVerificationService purchaseVerificationService;
+
+    @MockitoBean
+    private SnowflakeIdGenerator snowflakeIdGenerator;
+
+    @MockitoBean
+    private BussinessFileValidationService bussinessFileValidationService;
+
+    @MockitoBean
+    private ContentAddressedFileStore contentAddressedFileStore;
+
+    @MockitoBean
+    private ImageDerivativeService imageDerivativeService;
+
+    @MockitoBean
+    private FileStorageMaintenanceService fileStorageMaintenanceService;
+
+    @MockitoBean(name = "redisTemplate")
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private Long userId;
+
+    private final List<Long> snackIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder().username("budget").password("x").nickname("预算测试")
+                .userType("USER").status("ACTIVE").build();
+        userMapper.insert(user);
+        userId = user.getId();
+
+        List<Long> categoryIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Category category = Category.builder().name("预算分类" + i).sortOrder(i).status("ACTIVE").build();
+            categoryMapper.insert(category);
+            categoryIds.add(category.getId());
+        }
+        categoryDictionary.refresh();
+        for (int i = 0; i < ROWS; i++) {
+            Snack snack = Snack.builder()
+                    .categoryId(categoryIds.get(i % categoryIds.size()))
+                    .name("预算测试商品" + i)
+                    .price(100 + i)
+                    .stock(10)
+                    .status("ON_SALE")
+                    .salesCount(i)
+                    .build();
+            snackMapper.insert(snack);
+            snackIds.add(snack.getId());
+            cartMapper.insert(Cart.builder().userId(userId).snackId(snack.getId()).quantity(1).build());
+            reviewMapper.insert(Review.builder().snackId(snackIds.get(0)).userId(userId).rating(5)
+                    .content("评价" + i).createTime(LocalDateTime.now().minusMinutes(i)).build());
+        }
+
+        Address address = Address.builder().userId(userId).consigneeName("收货人").phone("13800000000")
+                .detailedAddress("测试地址").isDefault(true).build();
+        addressMapper.insert(address);
+        for (int i = 0; i < ROWS; i++) {
+            Order order = Order.builder().orderNo("BUDGET" + i).userId(userId).addressId(address.getId())
+                    .totalAmount(200).status("UNPAID").createTime(LocalDateTime.now().minusMinutes(i)).build();
+            orderMapper.insert(order);
+            for (int j = 0; j < 2; j++) {
+                orderItemMapper.insert(OrderItem.builder().orderId(order.getId()).snackId(snackIds.get(j))
+                        .quantity(1).price(100).snackName("预算测试商品" + j).build());
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderItemMapper.delete(new LambdaQueryWrapper<>());
+        orderMapper.delete(new LambdaQueryWrapper<>());
+        addressMapper.delete(new LambdaQueryWrapper<>());
+        reviewMapper.delete(new LambdaQueryWrapper<>());
+        cartMapper.delete(new LambdaQueryWrapper<>());
+        snackMapper.delete(new LambdaQueryWrapper<>());
+        categoryMapper.delete(new LambdaQueryWrapper<>());
+        userMapper.delete(new LambdaQueryWrapper<>());
+        snackIds.clear();
+    }
+
+    @Test
+    @DisplayName("购物车列表")
+    void testCartList() {
+        assertEquals(ROWS, cartController.getCartList(userRequest()).getData().getItems().size());
+    }
+
+    @Test
+    @DisplayName("评价分页、游标分页和汇总")
+    void testReviews() {
+        Long snackId = snackIds.get(0);
+
+        assertEquals(ROWS, reviewController.page(1L, 10L, snackId, null, null).getData().getRecords().size());
+        assertEquals(ROWS, reviewController.cursor(null, 10L, snackId, null, null, true).getData().getRecords().size());
+        assertNotNull(reviewController.summary(snackId).getData());
+    }
+
+    @Test
+    @DisplayName("零食详情和前台分页")
+    void testSnacks() {
+        assertEquals(snackIds.get(0), snackController.getSnackById(snackIds.get(0)).getData().getId());
+        assertEquals(ROWS, snackController.getFrontendSnackPage(1L, 12L, null, null, null, null, null, null, null)
+                .getData().getRecords().size());
+        assertEquals(ROWS, snackController.getFrontendSnackPage(1L, 12L, null, null, "rating", "desc", null, null, null)
+                .getData().getRecords().size());
+    }
+
+    @Test
+    @DisplayName("用户订单分页和管理员订单分页，展开订单项和地址")
+    void testOrders() {
+        Result<Page<OrderResponseDTO>> userPage = orderController.getUserOrderPage(1L, 10L, null, "items,address", userRequest());
+        assertEquals(ROWS, userPage.getData().getRecords().size());
+        assertEquals(2, userPage.getData().getRecords().get(0).getOrderItems().size());
+
+        assertEquals(ROWS, orderController.getAllOrderPage(1L, 10L, null, null, "items,address").getData().getRecords().size());
+    }
+
+    @Test
+    @DisplayName("强制刷新仪表板统计")
+    void testDashboardRefresh() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("currentUserRole", "ADMIN");
+
+        assertNotNull(indexController.refreshDashboardStats(request).getData());
+    }
+
+    private MockHttpServletRequest userRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("currentUserId", userId);
+        request.setAttribute("currentUserRole", "USER");
+        return request;
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.Snack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 库存条件扣减测试
+ * 使用内嵌 H2 数据库，关闭测试事务以便多线程真实并发提交
+ * @author system
+ */
+@MybatisPlusTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("库存条件扣减测试")
+class SnackMapperStockTest {
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        snackMapper.delete(null);
+    }
+
+    @Test
+    @DisplayName("多线程抢购同一商品 - 不超卖")
+    void testConcurrentDeduct_NoOversell() throws InterruptedException {
+        int initialStock = 50;
+        int threads = 16;
+        int attemptsPerThread = 20;
+        Snack snack = insertSnack("热门零食", initialStock);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < attemptsPerThread; j++) {
+                        if (snackMapper.deductStockBatch(Map.of(snack.getId(), 1)) == 1) {
+                            success.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(initialStock, success.get());
+        assertEquals(threads * attemptsPerThread - initialStock, failed.get());
+        assertEquals(0, snackMapper.selectById(snack.getId()).getStock());
+    }
+
+    @Test
+    @DisplayName("多商品扣减 - 任一商品库存不足时整单回滚")
+    void testDeductBatch_RollbackWhenAnyLineShort() {
+        Snack enough = insertSnack("库存充足", 10);
+        Snack shortage = insertSnack("库存不足", 1);
+
+        Map<Long, Integer> stockMap = new LinkedHashMap<>();
+        stockMap.put(enough.getId(), 3);
+        stockMap.put(shortage.getId(), 2);
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        assertThrows(IllegalStateException.class, () -> tx.executeWithoutResult(status -> {
+            int rows = snackMapper.deductStockBatch(stockMap);
+            if (rows != stockMap.size()) {
+                throw new IllegalStateException("库存不足");
+            }
+        }));
+
+        assertEquals(10, snackMapper.selectById(enough.getId()).getStock());
+        assertEquals(1, snackMapper.selectById(shortage.getId()).getStock());
+    }
+
+    @Test
+    @DisplayName("多商品扣减 - 库存充足时全部扣减")
+    void testDeductBatch_AllLinesEnough() {
+        Snack first = insertSnack("零食A", 5);
+        Snack second = insertSnack("零食B", 5);
+
+        Map<Long, Integer> stockMap = new LinkedHashMap<>();
+        stockMap.put(first.getId(), 5);
+        stockMap.put(second.getId(), 2);
+
+        assertEquals(2, snackMapper.deductStockBatch(stockMap));
+        assertEquals(0, snackMapper.selectById(first.getId()).getStock());
+        assertEquals(3, snackMapper.selectById(second.getId()).getStock());
+    }
+
+    private Snack insertSnack(String name, int stock) {
+        Snack snack = Snack.builder()
+                .categoryId(1L)
+                .name(name)
+                .price(100)
+                .stock(stock)
+                .status("ON_SALE")
+                .salesCount(0)
+                .build();
+        snackMapper.insert(snack);
+        return snack;
+    }
+}
@@ -0,0 +1,315 @@
+package org.example.springboot.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.Cart;
+import org.example.springboot.entity.Favorite;
+import org.example.springboot.entity.Order;
+import org.example.springboot.entity.OrderItem;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.entity.StatsDaily;
+import org.example.springboot.entity.StatsGauge;
+import org.example.springboot.entity.StatsMonthly;
+import org.example.springboot.entity.User;
+import org.example.springboot.mapper.CartMapper;
+import org.example.springboot.mapper.FavoriteMapper;
+import org.example.springboot.mapper.OrderItemMapper;
+import org.example.springboot.mapper.OrderMapper;
+import org.example.springboot.mapper.SnackMapper;
+import org.example.springboot.mapper.StatsCategorySalesMapper;
+import org.example.springboot.mapper.StatsDailyMapper;
+import org.example.springboot.mapper.StatsGaugeMapper;
+import org.example.springboot.mapper.StatsMonthlyMapper;
+import org.example.springboot.mapper.UserMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 仪表板统计汇总服务测试
+ * 增量在事务提交后执行，测试方法本身不开启事务，事件直接落库；
+ * 重建按月汇总用到 MySQL 的 DATE_FORMAT，同名函数在测试 schema.sql 中注册
+ * @author system
+ */
+@MybatisPlusTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:dashboard-rollup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(DashboardRollupService.class)
+@DisplayName("仪表板统计汇总服务测试")
+class DashboardRollupServiceTest {
+
+    private static final String UNPAID = StatsGauge.ORDER_STATUS_PREFIX + "UNPAID";
+
+    private static final String PAID = StatsGauge.ORDER_STATUS_PREFIX + "PAID";
+
+    @Resource
+    private DashboardRollupService dashboardRollupService;
+
+    @Resource
+    private StatsDailyMapper statsDailyMapper;
+
+    @Resource
+    private StatsMonthlyMapper statsMonthlyMapper;
+
+    @Resource
+    private StatsCategorySalesMapper statsCategorySalesMapper;
+
+    @Resource
+    private StatsGaugeMapper statsGaugeMapper;
+
+    @Resource
+    private CartMapper cartMapper;
+
+    @Resource
+    private OrderMapper orderMapper;
+
+    @Resource
+    private OrderItemMapper orderItemMapper;
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private FavoriteMapper favoriteMapper;
+
+    @AfterEach
+    void tearDown() {
+        statsDailyMapper.delete(null);
+        statsMonthlyMapper.delete(null);
+        statsCategorySalesMapper.delete(null);
+        statsGaugeMapper.delete(null);
+        cartMapper.delete(new LambdaQueryWrapper<>());
+        orderItemMapper.delete(new LambdaQueryWrapper<>());
+        orderMapper.delete(new LambdaQueryWrapper<>());
+        snackMapper.delete(new LambdaQueryWrapper<>());
+        favoriteMapper.delete(new LambdaQueryWrapper<>());
+        userMapper.delete(new LambdaQueryWrapper<>());
+    }
+
+    @Test
+    @DisplayName("订单、用户、收藏事件累加到当天和当月")
+    void testIncrementalRollup() {
+        LocalDateTime time = LocalDateTime.of(2024, 3, 15, 10, 0);
+        dashboardRollupService.onOrderCreated(time, 1200, Map.of(1L, 2L));
+        dashboardRollupService.onOrderCreated(time.plusHours(1), 800, Map.of());
+        dashboardRollupService.onOrderCompleted(time.plusHours(2));
+        dashboardRollupService.onUserRegistered(time, "ACTIVE");
+        dashboardRollupService.onUserRegistered(time, "ACTIVE");
+        dashboardRollupService.onUserDeleted(time, "ACTIVE");
+        dashboardRollupService.onFavoriteAdded(time);
+
+        StatsDaily daily = dashboardRollupService.getDaily(time.toLocalDate());
+        assertEquals(2L, daily.getOrderCount());
+        assertEquals(2000L, daily.getOrderAmount());
+        assertEquals(1L, daily.getCompletedOrders());
+        assertEquals(1L, daily.getNewUsers());
+        assertEquals(1L, daily.getNewFavorites());
+
+        StatsMonthly monthly = dashboardRollupService.getMonthly(time.toLocalDate());
+        assertEquals("2024-03", monthly.getStatMonth());
+        assertEquals(2L, monthly.getOrderCount());
+        assertEquals(2000L, monthly.getOrderAmount());
+        assertEquals(1L, monthly.getNewUsers());
+
+        assertEquals(2L, statsCategorySalesMapper.selectById(1L).getSalesCount());
+        assertEquals(1L, dashboardRollupService.getGauges().get(StatsGauge.ACTIVE_USERS));
+    }
+
+    @Test
+    @DisplayName("跨天跨月的事件分别计入各自的日期和月份")
+    void testDayBoundary() {
+        LocalDateTime lastSecond = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        LocalDateTime firstSecond = LocalDateTime.of(2024, 2, 1, 0, 0, 1);
+        dashboardRollupService.onOrderCreated(lastSecond, 100, Map.of());
+        dashboardRollupService.onOrderCreated(firstSecond, 300, Map.of());
+        dashboardRollupService.onOrderCreated(firstSecond, 500, Map.of());
+
+        assertEquals(1L, dashboardRollupService.getDaily(lastSecond.toLocalDate()).getOrderCount());
+        assertEquals(100L, dashboardRollupService.getDaily(lastSecond.toLocalDate()).getOrderAmount());
+        assertEquals(2L, dashboardRollupService.getDaily(firstSecond.toLocalDate()).getOrderCount());
+        assertEquals(800L, dashboardRollupService.getDaily(firstSecond.toLocalDate()).getOrderAmount());
+
+        assertEquals(1L, dashboardRollupService.getMonthly(lastSecond.toLocalDate()).getOrderCount());
+        assertEquals(2L, dashboardRollupService.getMonthly(firstSecond.toLocalDate()).getOrderCount());
+        assertEquals(3L, statsMonthlyMapper.selectTotals().getOrderCount());
+        assertEquals(900L, statsMonthlyMapper.selectTotals().getOrderAmount());
+
+        // 没有事件的日期返回全0
+        StatsDaily empty = dashboardRollupService.getDaily(LocalDate.of(2024, 1, 30));
+        assertEquals(0L, empty.getOrderCount());
+        assertEquals(2, statsDailyMapper.selectCount(null));
+    }
+
+    @Test
+    @DisplayName("订单和用户状态变化调整当前状态汇总")
+    void testStatusGauges() {
+        LocalDateTime now = LocalDateTime.now();
+        dashboardRollupService.onOrderCreated(now, 100, Map.of());
+        dashboardRollupService.onOrderCreated(now, 100, Map.of());
+        dashboardRollupService.onOrderStatusChanged("UNPAID", "PAID");
+        dashboardRollupService.onOrderStatusChanged("PAID", "PAID");
+        dashboardRollupService.onUserRegistered(now, "ACTIVE");
+        dashboardRollupService.onUserStatusChanged("ACTIVE", "BANNED");
+        dashboardRollupService.onUserStatusChanged("BANNED", "INACTIVE");
+
+        Map<String, Long> gauges = dashboardRollupService.getGauges();
+        assertEquals(1L, gauges.get(UNPAID));
+        assertEquals(1L, gauges.get(PAID));
+        assertEquals(0L, gauges.get(StatsGauge.ACTIVE_USERS));
+    }
+
+    @Test
+    @DisplayName("购物车数按用户计，清空后减一")
+    void testCartGauges() {
+        addCart(1L, 10L, 2);
+        dashboardRollupService.onCartChanged(1L, 2, 1);
+        addCart(1L, 11L, 3);
+        dashboardRollupService.onCartChanged(1L, 3, 1);
+        addCart(2L, 10L, 1);
+        dashboardRollupService.onCartChanged(2L, 1, 1);
+
+        Map<String, Long> gauges = dashboardRollupService.getGauges();
+        assertEquals(2L, gauges.get(StatsGauge.CART_USERS));
+        assertEquals(6L, gauges.get(StatsGauge.CART_ITEMS));
+
+        cartMapper.delete(new LambdaQueryWrapper<Cart>().eq(Cart::getSnackId, 10L).eq(Cart::getUserId, 1L));
+        dashboardRollupService.onCartChanged(1L, -2, -1);
+        assertEquals(2L, dashboardRollupService.getGauges().get(StatsGauge.CART_USERS));
+
+        cartMapper.delete(new LambdaQueryWrapper<Cart>().eq(Cart::getUserId, 1L));
+        dashboardRollupService.onCartChanged(1L, -3, -1);
+        gauges = dashboardRollupService.getGauges();
+        assertEquals(1L, gauges.get(StatsGauge.CART_USERS));
+        assertEquals(1L, gauges.get(StatsGauge.CART_ITEMS));
+    }
+
+    @Test
+    @DisplayName("重建从业务表回填每日、每月、分类销量和当前状态汇总")
+    void testRebuild() {
+        LocalDateTime march = LocalDateTime.of(2024, 3, 15, 10, 0);
+        LocalDateTime april = LocalDateTime.of(2024, 4, 1, 9, 0);
+        Snack snack = Snack.builder().categoryId(7L).name("重建测试商品").price(100).stock(10)
+                .status("ON_SALE").salesCount(0).build();
+        snackMapper.insert(snack);
+        Order completed = addOrder("R1", 1200, "COMPLETED", march);
+        completed.setCompleteTime(april);
+        orderMapper.updateById(completed);
+        addOrder("R2", 800, "UNPAID", march);
+        Order cancelled = addOrder("R3", 500, "CANCELLED", april);
+        addOrderItem(completed.getId(), snack.getId(), 3);
+        addOrderItem(cancelled.getId(), snack.getId(), 5);
+        userMapper.insert(User.builder().username("rebuild1").password("x").userType("USER")
+                .status("ACTIVE").createTime(march).build());
+        userMapper.insert(User.builder().username("rebuild2").password("x").userType("USER")
+                .status("BANNED").createTime(april).build());
+        favoriteMapper.insert(Favorite.builder().userId(1L).snackId(snack.getId()).createTime(april).build());
+        addCart(1L, snack.getId(), 2);
+        // 重建前的增量数据会被清空
+        dashboardRollupService.onOrderCreated(march, 9999, Map.of(99L, 9L));
+
+        dashboardRollupService.rebuild();
+
+        StatsDaily marchDaily = dashboardRollupService.getDaily(march.toLocalDate());
+        assertEquals(2L, marchDaily.getOrderCount());
+        assertEquals(2000L, marchDaily.getOrderAmount());
+        assertEquals(1L, marchDaily.getNewUsers());
+        StatsDaily aprilDaily = dashboardRollupService.getDaily(april.toLocalDate());
+        assertEquals(1L, aprilDaily.getOrderCount());
+        assertEquals(1L, aprilDaily.getCompletedOrders());
+        assertEquals(1L, aprilDaily.getNewFavorites());
+
+        StatsMonthly marchMonthly = dashboardRollupService.getMonthly(march.toLocalDate());
+        assertEquals(2L, marchMonthly.getOrderCount());
+        assertEquals(2000L, marchMonthly.getOrderAmount());
+        assertEquals(1L, dashboardRollupService.getMonthly(april.toLocalDate()).getCompletedOrders());
+
+        assertEquals(3L, statsCategorySalesMapper.selectById(7L).getSalesCount());
+        assertNull(statsCategorySalesMapper.selectById(99L));
+
+        Map<String, Long> gauges = dashboardRollupService.getGauges();
+        assertEquals(1L, gauges.get(StatsGauge.ACTIVE_USERS));
+        assertEquals(1L, gauges.get(UNPAID));
+        assertEquals(1L, gauges.get(StatsGauge.CART_USERS));
+        assertEquals(2L, gauges.get(StatsGauge.CART_ITEMS));
+    }
+
+    @Test
+    @DisplayName("增量更新失败时标记待重建，修复任务从业务表重建")
+    void testFailedDeltaSchedulesRebuild() {
+        LocalDateTime time = LocalDateTime.of(2024, 5, 20, 12, 0);
+        addOrder("F1", 600, "UNPAID", time);
+        StatsDailyMapper failingMapper = mock(StatsDailyMapper.class);
+        when(failingMapper.upsertDelta(any())).thenThrow(new DataAccessResourceFailureException("连接超时"));
+        ReflectionTestUtils.setField(dashboardRollupService, "statsDailyMapper", failingMapper);
+        try {
+            dashboardRollupService.onOrderCreated(time, 600, Map.of());
+        } finally {
+            ReflectionTestUtils.setField(dashboardRollupService, "statsDailyMapper", statsDailyMapper);
+        }
+        assertTrue(dashboardRollupService.isRebuildPending());
+        assertEquals(0L, dashboardRollupService.getDaily(time.toLocalDate()).getOrderCount());
+
+        dashboardRollupService.rebuildIfPending();
+
+        assertFalse(dashboardRollupService.isRebuildPending());
+        assertEquals(1L, dashboardRollupService.getDaily(time.toLocalDate()).getOrderCount());
+        assertEquals(600L, dashboardRollupService.getMonthly(time.toLocalDate()).getOrderAmount());
+    }
+
+    private Order addOrder(String orderNo, int totalAmount, String status, LocalDateTime createTime) {
+        Order order = Order.builder()
+                .orderNo(orderNo)
+                .userId(1L)
+                .addressId(1L)
+                .totalAmount(totalAmount)
+                .status(status)
+                .createTime(createTime)
+                .build();
+        orderMapper.insert(order);
+        return order;
+    }
+
+    private void addOrderItem(Long orderId, Long snackId, int quantity) {
+        orderItemMapper.insert(OrderItem.builder()
+                .orderId(orderId)
+                .snackId(snackId)
+                .quantity(quantity)
+                .price(100)
+                .snackName("重建测试商品")
+                .build());
+    }
+
+    private void addCart(Long userId, Long snackId, int quantity) {
+        cartMapper.insert(Cart.builder()
+                .userId(userId)
+                .snackId(snackId)
+                .quantity(quantity)
+                .build());
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.springboot.service;
+
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import jakarta.annotation.Resource;
+import org.example.springboot.DTO.FileInfoDTO;
+import org.example.springboot.entity.SysFileInfo;
+import org.example.springboot.enumClass.FileBusinessTypeEnum;
+import org.example.springboot.mapper.SysFileInfoMapper;
+import org.example.springboot.service.storage.ContentAddressedFileStore;
+import org.example.springboot.service.storage.FileStorageMaintenanceService;
+import org.example.springboot.service.storage.ImageDerivativeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 业务文件服务测试
+ * 使用内嵌 H2 数据库
+ * @author system
+ */
+@MybatisPlusTest
+@Import(FileService.class)
+@DisplayName("业务文件服务测试")
+class FileServiceTest {
+
+    private static final String COMMENT_IMAGE = FileBusinessTypeEnum.COMMENT_IMAGE.getCode();
+
+    @Resource
+    private FileService fileService;
+
+    @Resource
+    private SysFileInfoMapper fileInfoMapper;
+
+    @MockitoBean
+    private BussinessFileValidationService bussinessFileValidationService;
+
+    @MockitoBean
+    private ContentAddressedFileStore contentAddressedFileStore;
+
+    @MockitoBean
+    private ImageDerivativeService imageDerivativeService;
+
+    @MockitoBean
+    private FileStorageMaintenanceService fileStorageMaintenanceService;
+
+    private final LocalDateTime baseTime = LocalDateTime.now();
+
+    private int inserted;
+
+    @Test
+    @DisplayName("批量查询按业务对象分组，结果与逐条查询一致")
+    void testGetFilesByBusinessIds() {
+        insertFile(COMMENT_IMAGE, "1", "/comment/1-a.png", 1);
+        insertFile(COMMENT_IMAGE, "1", "/comment/1-b.png", 1);
+        insertFile(COMMENT_IMAGE, "2", "/comment/2-a.png", 1);
+        insertFile(COMMENT_IMAGE, "2", "/comment/2-deleted.png", 0);
+        insertFile(FileBusinessTypeEnum.CAROUSEL_IMAGE.getCode(), "1", "/carousel/1.png", 1);
+
+        Map<String, List<FileInfoDTO>> files = fileService.getFilesByBusinessIds(COMMENT_IMAGE, List.of("1", "2", "3"));
+
+        assertEquals(2, files.size());
+        assertFalse(files.containsKey("3"));
+        for (String businessId : List.of("1", "2")) {
+            assertEquals(
+                    fileService.getFilesByBusiness(COMMENT_IMAGE, businessId).stream().map(FileInfoDTO::getId).toList(),
+                    files.get(businessId).stream().map(FileInfoDTO::getId).toList());
+        }
+        assertEquals(List.of("/comment/2-a.png"), files.get("2").stream().map(FileInfoDTO::getFilePath).toList());
+    }
+
+    @Test
+    @DisplayName("业务ID为空时不查询")
+    void testGetFilesByBusinessIdsEmpty() {
+        assertTrue(fileService.getFilesByBusinessIds(COMMENT_IMAGE, List.of()).isEmpty());
+        assertTrue(fileService.getFilesByBusinessIds(COMMENT_IMAGE, null).isEmpty());
+    }
+
+    private void insertFile(String businessType, String businessId, String filePath, int status) {
+        SysFileInfo fileInfo = new SysFileInfo();
+        fileInfo.setOriginalName(filePath.substring(filePath.lastIndexOf('/') + 1));
+        fileInfo.setFilePath(filePath);
+        fileInfo.setFileSize(1024L);
+        fileInfo.setFileType("IMG");
+        fileInfo.setBusinessType(businessType);
+        fileInfo.setBusinessId(businessId);
+        fileInfo.setUploadUserId(1L);
+        fileInfo.setIsTemp(0);
+        fileInfo.setStatus(status);
+        fileInfo.setCreateTime(baseTime.plusSeconds(inserted++));
+        fileInfoMapper.insert(fileInfo);
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.springboot.service;
+
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import jakarta.annotation.Resource;
+import org.example.springboot.config.PurchaseCacheConfig;
+import org.example.springboot.entity.Order;
+import org.example.springboot.entity.OrderItem;
+import org.example.springboot.mapper.OrderItemMapper;
+import org.example.springboot.mapper.OrderMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 购买记录校验服务测试
+ * 不开启测试事务，订单完成后的缓存更新立即生效；每个用例使用独立的用户ID互不影响
+ * @author system
+ */
+@MybatisPlusTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PurchaseVerificationService.class, PurchaseCacheConfig.class})
+@DisplayName("购买记录校验服务测试")
+class PurchaseVerificationServiceTest {
+
+    private static final AtomicLong USER_IDS = new AtomicLong(1000);
+
+    @Resource
+    private PurchaseVerificationService purchaseVerificationService;
+
+    @Resource
+    private PurchaseCacheConfig purchaseCacheConfig;
+
+    @Resource
+    private OrderMapper orderMapper;
+
+    @Resource
+    private OrderItemMapper orderItemMapper;
+
+    @MockitoBean
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        purchaseCacheConfig.setEnabled(true);
+        purchaseCacheConfig.setBroadcastEnabled(false);
+        userId = USER_IDS.incrementAndGet();
+    }
+
+    @Test
+    @DisplayName("只有已完成订单中的零食可以评价")
+    void testExistsCompletedPurchase() {
+        createOrder("COMPLETED", 1L, 2L);
+        createOrder("SHIPPED", 3L);
+
+        assertTrue(orderItemMapper.existsCompletedPurchase(userId, 1L));
+        assertTrue(orderItemMapper.existsCompletedPurchase(userId, 2L));
+        assertFalse(orderItemMapper.existsCompletedPurchase(userId, 3L));
+        assertFalse(orderItemMapper.existsCompletedPurchase(userId + 10000, 1L));
+    }
+
+    @Test
+    @DisplayName("关闭缓存时与 EXISTS 查询结果一致")
+    void testDisabled() {
+        purchaseCacheConfig.setEnabled(false);
+        createOrder("COMPLETED", 1L);
+        createOrder("UNPAID", 2L);
+
+        assertTrue(purchaseVerificationService.hasPurchased(userId, 1L));
+        assertFalse(purchaseVerificationService.hasPurchased(userId, 2L));
+        assertFalse(purchaseVerificationService.hasPurchased(null, 1L));
+    }
+
+    @Test
+    @DisplayName("缓存加载后订单完成把订单中的零食加入缓存")
+    void testOrderCompletedUpdatesCache() {
+        createOrder("COMPLETED", 1L);
+        assertTrue(purchaseVerificationService.hasPurchased(userId, 1L));
+        assertFalse(purchaseVerificationService.hasPurchased(userId, 2L));
+
+        Long orderId = createOrder("SHIPPED", 2L, 3L);
+        Order order = orderMapper.selectById(orderId);
+        order.setStatus("COMPLETED");
+        orderMapper.updateById(order);
+        // 未经服务通知时仍使用缓存结果
+        assertFalse(purchaseVerificationService.hasPurchased(userId, 2L));
+
+        purchaseVerificationService.onOrderCompleted(userId, orderId);
+
+        assertTrue(purchaseVerificationService.hasPurchased(userId, 2L));
+        assertTrue(purchaseVerificationService.hasPurchased(userId, 3L));
+        assertFalse(purchaseVerificationService.hasPurchased(userId, 4L));
+    }
+
+    private Long createOrder(String status, Long... snackIds) {
+        Order order = Order.builder()
+                .orderNo("T" + userId + "-" + System.nanoTime())
+                .userId(userId)
+                .addressId(1L)
+                .totalAmount(100 * snackIds.length)
+                .status(status)
+                .build();
+        orderMapper.insert(order);
+        for (Long snackId : snackIds) {
+            orderItemMapper.insert(OrderItem.builder()
+                    .orderId(order.getId())
+                    .snackId(snackId)
+                    .quantity(1)
+                    .price(100)
+                    .snackName("测试零食" + snackId)
+                    .build());
+        }
+        return order.getId();
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.springboot.service;
+
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import jakarta.annotation.Resource;
+import org.example.springboot.DTO.response.ReviewSummaryResponseDTO;
+import org.example.springboot.entity.Review;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.exception.BusinessException;
+import org.example.springboot.mapper.ReviewMapper;
+import org.example.springboot.mapper.SnackMapper;
+import org.example.springboot.service.cache.CatalogCache;
+import org.example.springboot.service.search.SnackSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * 评价汇总服务测试
+ * 汇总累加使用 MySQL 的 ON DUPLICATE KEY UPDATE，内嵌 H2 以 MySQL 兼容模式运行
+ * @author system
+ */
+@MybatisPlusTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:review-summary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@Import(ReviewSummaryService.class)
+@DisplayName("评价汇总服务测试")
+class ReviewSummaryServiceTest {
+
+    @Resource
+    private ReviewSummaryService reviewSummaryService;
+
+    @Resource
+    private ReviewMapper reviewMapper;
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @MockitoBean
+    private CatalogCache catalogCache;
+
+    @MockitoBean
+    private SnackSearchIndex snackSearchIndex;
+
+    private Long snackId;
+
+    @BeforeEach
+    void setUp() {
+        Snack snack = Snack.builder()
+                .categoryId(1L)
+                .name("评价汇总测试商品")
+                .price(100)
+                .stock(10)
+                .status("ON_SALE")
+                .salesCount(0)
+                .build();
+        snackMapper.insert(snack);
+        snackId = snack.getId();
+    }
+
+    @Test
+    @DisplayName("新增和删除评价增量维护评价数、平均分和星级分布")
+    void testIncremental() {
+        addReview(5);
+        addReview(4);
+        addReview(4);
+        Review removed = addReview(1);
+        reviewMapper.deleteById(removed.getId());
+        reviewSummaryService.onReviewDeleted(snackId, 1);
+
+        ReviewSummaryResponseDTO summary = reviewSummaryService.getSummary(snackId);
+        assertEquals(3, summary.getReviewCount());
+        assertEquals(new BigDecimal("4.33"), summary.getAverageRating());
+        assertEquals(List.of(0, 0, 0, 2, 1), summary.getRatingCounts());
+
+        Snack snack = snackMapper.selectById(snackId);
+        assertEquals(3, snack.getReviewCount());
+        assertEquals(0, new BigDecimal("4.33").compareTo(snack.getRatingAvg()));
+
+        // 只清除该零食的详情缓存，列表缓存保留
+        verify(catalogCache, times(5)).invalidateSnackDetails(List.of(snackId));
+        verify(catalogCache, never()).invalidateSnacks(anyCollection());
+    }
+
+    @Test
+    @DisplayName("没有评价时评价数为0，平均分为空")
+    void testEmpty() {
+        ReviewSummaryResponseDTO summary = reviewSummaryService.getSummary(snackId);
+
+        assertEquals(0, summary.getReviewCount());
+        assertNull(summary.getAverageRating());
+        assertEquals(List.of(0, 0, 0, 0, 0), summary.getRatingCounts());
+    }
+
+    @Test
+    @DisplayName("从评价表重建的结果与增量维护一致")
+    void testRebuildMatchesIncremental() {
+        addReview(3);
+        addReview(5);
+        addReview(2);
+        ReviewSummaryResponseDTO incremental = reviewSummaryService.getSummary(snackId);
+
+        reviewSummaryService.rebuild();
+
+        assertEquals(incremental, reviewSummaryService.getSummary(snackId));
+        assertEquals(3, snackMapper.selectById(snackId).getReviewCount());
+    }
+
+    @Test
+    @DisplayName("评分超出范围时拒绝")
+    void testInvalidRating() {
+        assertThrows(BusinessException.class, () -> reviewSummaryService.onReviewCreated(snackId, 6));
+        assertThrows(BusinessException.class, () -> reviewSummaryService.onReviewCreated(snackId, null));
+    }
+
+    private Review addReview(int rating) {
+        Review review = new Review();
+        review.setSnackId(snackId);
+        review.setUserId(1L);
+        review.setRating(rating);
+        review.setContent("评价内容");
+        review.setCreateTime(LocalDateTime.now());
+        reviewMapper.insert(review);
+        reviewSummaryService.onReviewCreated(snackId, rating);
+        return review;
+    }
+}
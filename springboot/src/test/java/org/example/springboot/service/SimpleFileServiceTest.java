@@ -0,0 +1,169 @@
+package org.example.springboot.service;
+
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import jakarta.annotation.Resource;
+import org.example.springboot.common.Result;
+import org.example.springboot.config.FileUploadConfig;
+import org.example.springboot.entity.SysFileInfo;
+import org.example.springboot.mapper.SysFileInfoMapper;
+import org.example.springboot.service.storage.ContentAddressedFileStore;
+import org.example.springboot.service.storage.ImageDerivativeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * 简单文件上传服务测试
+ * 上传方法自己开启事务，测试方法本身不开启事务，回滚后的文件清理随之执行
+ * @author system
+ */
+@MybatisPlusTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:simple-file;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SimpleFileService.class, ContentAddressedFileStore.class, FileUploadConfig.class})
+@DisplayName("简单文件上传服务测试")
+class SimpleFileServiceTest {
+
+    /**
+     * 内容 "hello" 的存储路径
+     */
+    private static final String HELLO_PATH =
+            "/files/cas/2c/f2/2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824.png";
+
+    @TempDir
+    Path basePath;
+
+    @Resource
+    private SimpleFileService simpleFileService;
+
+    @Resource
+    private ContentAddressedFileStore contentAddressedFileStore;
+
+    @Resource
+    private SysFileInfoMapper fileInfoMapper;
+
+    @MockitoBean
+    private ImageDerivativeService imageDerivativeService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(contentAddressedFileStore, "basePath", basePath);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        fileInfoMapper.delete(null);
+    }
+
+    @Test
+    @DisplayName("上传成功时保存文件和引用记录")
+    void testUpload() {
+        Result<String> result = simpleFileService.uploadSimpleFile(file("a.png", "ok"), "IMG");
+
+        assertTrue(result.isSuccess());
+        assertTrue(Files.exists(contentAddressedFileStore.resolve(result.getData())));
+        assertEquals(1, fileInfoMapper.selectCount(null));
+    }
+
+    @Test
+    @DisplayName("上传失败时返回错误并回滚，删除已写入的无引用文件")
+    void testFailureRollsBack() throws Exception {
+        doThrow(new IllegalStateException("派生图提交失败")).when(imageDerivativeService).scheduleVariants(anyString());
+
+        Result<String> result = simpleFileService.uploadSimpleFile(file("b.png", "rollback"), "IMG");
+
+        assertFalse(result.isSuccess());
+        assertEquals(0, fileInfoMapper.selectCount(null));
+        assertEquals(0, regularFiles());
+    }
+
+    @Test
+    @DisplayName("批量上传中失败的文件单独回滚")
+    void testBatchFailureRollsBack() throws Exception {
+        doThrow(new IllegalStateException("派生图提交失败")).when(imageDerivativeService).scheduleVariants(HELLO_PATH);
+
+        Result<List<String>> result = simpleFileService.uploadMultipleFiles(new MockMultipartFile[]{
+                file("ok.png", "batch"), file("fail.png", "hello")}, "IMG");
+
+        assertTrue(result.isSuccess());
+        assertEquals(1, result.getData().size());
+        assertEquals(1, fileInfoMapper.selectCount(null));
+        assertEquals(1, regularFiles());
+    }
+
+    @Test
+    @DisplayName("相同内容的两个上传者，一方删除只失效自己的引用，文件保留到最后一个引用删除")
+    void testDeleteSharedFile() {
+        loginAs(1L);
+        String path = simpleFileService.uploadSimpleFile(file("mine.png", "hello"), "IMG").getData();
+        loginAs(2L);
+        assertEquals(path, simpleFileService.uploadSimpleFile(file("yours.png", "hello"), "IMG").getData());
+        String filename = path.substring("/files/".length());
+
+        loginAs(1L);
+        assertTrue(simpleFileService.deleteFile(filename).isSuccess());
+        assertTrue(Files.exists(contentAddressedFileStore.resolve(path)));
+        assertEquals(List.of(2L), activeUploaders());
+        // 自己的引用已删除，不能再删除别人的引用
+        assertFalse(simpleFileService.deleteFile(filename).isSuccess());
+        assertEquals(List.of(2L), activeUploaders());
+
+        loginAs(2L);
+        assertTrue(simpleFileService.deleteFile(filename).isSuccess());
+        assertTrue(activeUploaders().isEmpty());
+        assertFalse(Files.exists(contentAddressedFileStore.resolve(path)));
+    }
+
+    private List<Long> activeUploaders() {
+        return fileInfoMapper.selectList(null).stream()
+                .filter(info -> info.getStatus() == 1)
+                .map(SysFileInfo::getUploadUserId)
+                .toList();
+    }
+
+    private void loginAs(Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("currentUserId", userId);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private long regularFiles() throws Exception {
+        try (Stream<Path> files = Files.walk(basePath)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "image/png", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,188 @@
+package org.example.springboot.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import jakarta.annotation.Resource;
+import org.example.springboot.DTO.command.OrderCreateDTO;
+import org.example.springboot.DTO.response.OrderResponseDTO;
+import org.example.springboot.config.CatalogCacheConfig;
+import org.example.springboot.entity.Address;
+import org.example.springboot.entity.Category;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.mapper.AddressMapper;
+import org.example.springboot.mapper.CategoryMapper;
+import org.example.springboot.mapper.OrderItemMapper;
+import org.example.springboot.mapper.OrderMapper;
+import org.example.springboot.mapper.SnackMapper;
+import org.example.springboot.service.cache.CatalogCache;
+import org.example.springboot.service.cache.CategoryDictionary;
+import org.example.springboot.service.search.SnackSearchIndex;
+import org.example.springboot.service.stock.RowLockStockEngine;
+import org.example.springboot.util.SnowflakeIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * 零食列表缓存与库存一致性测试
+ * 行锁库存引擎不掌握实时库存，下单、取消后缓存的列表也要反映新库存
+ * @author system
+ */
+@MybatisPlusTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snack-stock-cache;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "catalog.cache.enabled=true",
+        "catalog.cache.redis-enabled=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SnackService.class, OrderService.class, AddressService.class, CatalogCacheConfig.class,
+        CatalogCache.class, CategoryDictionary.class, RowLockStockEngine.class})
+@DisplayName("零食列表缓存与库存一致性测试")
+class SnackStockCacheTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Resource
+    private SnackService snackService;
+
+    @Resource
+    private OrderService orderService;
+
+    @Resource
+    private CatalogCache catalogCache;
+
+    @Resource
+    private CategoryDictionary categoryDictionary;
+
+    @Resource
+    private CategoryMapper categoryMapper;
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @Resource
+    private AddressMapper addressMapper;
+
+    @Resource
+    private OrderMapper orderMapper;
+
+    @Resource
+    private OrderItemMapper orderItemMapper;
+
+    @MockitoBean
+    private DashboardRollupService dashboardRollupService;
+
+    @MockitoBean
+    private ReviewSummaryService reviewSummaryService;
+
+    @MockitoBean
+    private SnackSearchIndex snackSearchIndex;
+
+    @MockitoBean
+    private PurchaseVerificationService purchaseVerificationService;
+
+    @MockitoBean
+    private SnowflakeIdGenerator snowflakeIdGenerator;
+
+    @MockitoBean(name = "redisTemplate")
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private final AtomicLong orderNo = new AtomicLong(1000);
+
+    private Long snackId;
+
+    private Long addressId;
+
+    @BeforeEach
+    void setUp() {
+        when(snowflakeIdGenerator.nextId()).thenAnswer(invocation -> orderNo.incrementAndGet());
+
+        Category category = Category.builder().name("库存缓存分类").sortOrder(0).status("ACTIVE").build();
+        categoryMapper.insert(category);
+        categoryDictionary.refresh();
+
+        Snack snack = Snack.builder()
+                .categoryId(category.getId())
+                .name("库存缓存测试商品")
+                .price(100)
+                .stock(10)
+                .status("ON_SALE")
+                .salesCount(0)
+                .build();
+        snackMapper.insert(snack);
+        snackId = snack.getId();
+
+        Address address = Address.builder().userId(USER_ID).consigneeName("收货人").phone("13800000000")
+                .detailedAddress("测试地址").isDefault(true).build();
+        addressMapper.insert(address);
+        addressId = address.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderItemMapper.delete(new LambdaQueryWrapper<>());
+        orderMapper.delete(new LambdaQueryWrapper<>());
+        addressMapper.delete(new LambdaQueryWrapper<>());
+        snackMapper.delete(new LambdaQueryWrapper<>());
+        categoryMapper.delete(new LambdaQueryWrapper<>());
+    }
+
+    @Test
+    @DisplayName("下单和取消后前台分页与推荐列表的库存随之变化")
+    void testListStockAfterOrder() {
+        assertEquals(10, pageStock());
+        assertEquals(10, recommendedStock());
+        // 再次读取命中缓存
+        long localHits = (long) catalogCache.getStats().get("localHits");
+        assertEquals(10, pageStock());
+        assertTrue((long) catalogCache.getStats().get("localHits") > localHits);
+
+        OrderResponseDTO order = orderService.createOrder(directOrder(3), USER_ID);
+
+        assertEquals(7, pageStock());
+        assertEquals(7, recommendedStock());
+        assertEquals(7, snackService.getSnackDetail(snackId).getStock());
+
+        orderService.cancelOrder(order.getId(), USER_ID);
+
+        assertEquals(10, pageStock());
+        assertEquals(10, recommendedStock());
+    }
+
+    private int pageStock() {
+        return snackService.getFrontendSnackPage(1L, 12L, null, null, null, null, null, null, null)
+                .getRecords().get(0).getStock();
+    }
+
+    private int recommendedStock() {
+        return snackService.getRecommendedSnacks(8).get(0).getStock();
+    }
+
+    private OrderCreateDTO directOrder(int quantity) {
+        OrderCreateDTO.DirectOrderItem item = new OrderCreateDTO.DirectOrderItem();
+        item.setSnackId(snackId);
+        item.setQuantity(quantity);
+        OrderCreateDTO createDTO = new OrderCreateDTO();
+        createDTO.setOrderType("DIRECT_ORDER");
+        createDTO.setAddressId(addressId);
+        createDTO.setDirectOrderItem(item);
+        return createDTO;
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.springboot.service.auth;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.example.springboot.config.TokenRevocationConfig;
+import org.example.springboot.util.JwtTokenUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 令牌吊销服务测试
+ * @author system
+ */
+@DisplayName("令牌吊销服务测试")
+class TokenRevocationServiceTest {
+
+    private TokenRevocationService service;
+
+    private TokenRevocationConfig config;
+
+    private long now;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        config = new TokenRevocationConfig();
+        config.setBroadcastEnabled(false);
+        config.setExpectedInsertions(1000);
+        service = new TokenRevocationService();
+        ReflectionTestUtils.setField(service, "tokenRevocationConfig", config);
+        ReflectionTestUtils.setField(service, "redisTemplate", mock(RedisTemplate.class));
+        ReflectionTestUtils.setField(service, "listenerContainerProvider", mock(ObjectProvider.class));
+        service.init();
+        now = System.currentTimeMillis();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    @DisplayName("吊销单个令牌只影响该令牌")
+    void testRevokeToken() {
+        service.revokeToken("jti-a", now + 60000);
+
+        assertTrue(service.isRevoked("jti-a", now + 60000, 1L, now));
+        assertFalse(service.isRevoked("jti-b", now + 60000, 1L, now));
+    }
+
+    @Test
+    @DisplayName("已过期的令牌无需记录")
+    void testExpiredTokenIgnored() {
+        service.revokeToken("jti-a", now - 1);
+
+        assertEquals(0, service.getStats().get("revokedTokens"));
+    }
+
+    @Test
+    @DisplayName("用户级吊销使此前签发的令牌失效，之后签发的不受影响")
+    void testRevokeUser() {
+        long issuedBefore = (now / 1000 - 5) * 1000;
+        service.revokeUser(1L);
+
+        assertTrue(service.isRevoked("jti-a", now + 60000, 1L, issuedBefore));
+        assertFalse(service.isRevoked("jti-a", now + 60000, 2L, issuedBefore));
+        assertFalse(service.isRevoked("jti-a", now + 60000, 1L, now + 5000));
+    }
+
+    @Test
+    @DisplayName("用户级吊销后立即重新登录签发的令牌不受影响，早期秒级令牌按该秒起点比较")
+    void testRevokeUserSameSecond() throws Exception {
+        String legacyToken = JWT.create().withIssuedAt(new Date(now)).sign(Algorithm.none());
+        service.revokeUser(1L);
+        Thread.sleep(2);
+        String token = JwtTokenUtils.generateToken(1L, "user", "USER");
+
+        long issuedAt = JwtTokenUtils.getIssuedAtMillis(JwtTokenUtils.verifyToken(token));
+        assertFalse(service.isRevoked("jti-a", now + 60000, 1L, issuedAt));
+        long legacyIssuedAt = JwtTokenUtils.getIssuedAtMillis(JWT.decode(legacyToken));
+        assertEquals(now / 1000 * 1000, legacyIssuedAt);
+        assertTrue(service.isRevoked("jti-b", now + 60000, 1L, legacyIssuedAt));
+    }
+
+    @Test
+    @DisplayName("同一令牌并发消费只有一个请求成功")
+    void testConsumeTokenOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return service.consumeToken("jti-refresh", now + 60000);
+            }));
+        }
+        start.countDown();
+        int consumed = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get(10, TimeUnit.SECONDS)) {
+                consumed++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, consumed);
+        assertTrue(service.isRevoked("jti-refresh", now + 60000, 1L, now));
+    }
+
+    @Test
+    @DisplayName("其他节点已消费的令牌在本节点消费失败")
+    @SuppressWarnings("unchecked")
+    void testConsumeTokenClaimedByOtherNode() {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("auth:consumed:jti-refresh"), any(), anyLong(), any(TimeUnit.class)))
+                .thenReturn(false);
+        ReflectionTestUtils.setField(service, "redisTemplate", redisTemplate);
+        config.setBroadcastEnabled(true);
+
+        assertFalse(service.consumeToken("jti-refresh", now + 60000));
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("过期分桶清理后重建过滤器，未过期的吊销记录保留")
+    void testPurgeKeepsLiveEntries() {
+        config.setBucketInterval(1000L);
+        service.revokeToken("jti-live", now + 3600000);
+        ReflectionTestUtils.invokeMethod(service, "addToken", "jti-expired", now - 5000);
+
+        service.purge();
+
+        assertTrue(service.isRevoked("jti-live", now + 3600000, 1L, now));
+        assertFalse(service.isRevoked("jti-expired", now - 5000, 1L, now));
+        assertEquals(1, service.getStats().get("revokedTokens"));
+    }
+
+    @Test
+    @DisplayName("布隆过滤器无漏判且误判率接近目标")
+    void testBloomFilter() {
+        RevocationBloomFilter filter = new RevocationBloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put("token-" + i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain("token-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "误判数: " + falsePositives);
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.springboot.service.cache;
+
+import org.example.springboot.config.AuthCacheConfig;
+import org.example.springboot.service.cache.AuthPrincipalCache.AuthPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 认证主体缓存测试
+ * @author system
+ */
+@DisplayName("认证主体缓存测试")
+class AuthPrincipalCacheTest {
+
+    private AuthPrincipalCache cache;
+
+    private AuthCacheConfig config;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        config = new AuthCacheConfig();
+        config.setBroadcastEnabled(false);
+        cache = new AuthPrincipalCache();
+        ReflectionTestUtils.setField(cache, "authCacheConfig", config);
+        ReflectionTestUtils.setField(cache, "redisTemplate", mock(RedisTemplate.class));
+        ReflectionTestUtils.setField(cache, "listenerContainerProvider", mock(ObjectProvider.class));
+        cache.init();
+    }
+
+    @Test
+    @DisplayName("同一token只验证一次")
+    void testCachedAfterFirstLoad() {
+        AtomicInteger loads = new AtomicInteger();
+
+        AuthPrincipal first = cache.get("token-a", () -> load(1L, loads));
+        AuthPrincipal second = cache.get("token-a", () -> load(1L, loads));
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertEquals(1L, cache.getStats().get("hits"));
+    }
+
+    @Test
+    @DisplayName("认证失败不缓存")
+    void testFailureNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get("token-a", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        cache.get("token-a", () -> load(1L, loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("清除用户后其全部token重新验证，其他用户不受影响")
+    void testEvictUser() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("token-a", () -> load(1L, loads));
+        cache.get("token-b", () -> load(1L, loads));
+        cache.get("token-c", () -> load(2L, loads));
+
+        cache.evictUser(1L);
+
+        cache.get("token-a", () -> load(1L, loads));
+        cache.get("token-b", () -> load(1L, loads));
+        cache.get("token-c", () -> load(2L, loads));
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    @DisplayName("加载期间发生清除时不回填")
+    void testEvictDuringLoadNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("token-a", () -> {
+            AuthPrincipal principal = load(1L, loads);
+            cache.evictUser(1L);
+            return principal;
+        });
+        cache.get("token-a", () -> load(1L, loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("token过期后不再命中")
+    void testTokenExpiry() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("token-a", () -> {
+            loads.incrementAndGet();
+            return new AuthPrincipal(1L, "user1", "USER", null, "jti-1", 0L, System.currentTimeMillis() - 1);
+        });
+
+        cache.get("token-a", () -> load(1L, loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("关闭缓存时每次都验证")
+    void testDisabled() {
+        config.setEnabled(false);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("token-a", () -> load(1L, loads));
+        cache.get("token-a", () -> load(1L, loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    private AuthPrincipal load(Long userId, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new AuthPrincipal(userId, "user" + userId, "USER", null, "jti-" + userId, 0L, System.currentTimeMillis() + 60000);
+    }
+}
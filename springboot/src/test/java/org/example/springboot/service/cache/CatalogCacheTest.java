@@ -0,0 +1,284 @@
+package org.example.springboot.service.cache;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.example.springboot.DTO.response.SnackListResponseDTO;
+import org.example.springboot.DTO.response.SnackResponseDTO;
+import org.example.springboot.config.CatalogCacheConfig;
+import org.example.springboot.config.RedisConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 商品目录两级缓存测试
+ * 使用内存版 Redis 替身：值按 RedisConfig 的序列化器存取，发布的消息投递给所有节点
+ * @author system
+ */
+@DisplayName("商品目录两级缓存测试")
+class CatalogCacheTest {
+
+    private FakeRedis redis;
+
+    private CatalogCache nodeA;
+
+    private CatalogCache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        redis = new FakeRedis();
+        nodeA = redis.newNode();
+        nodeB = redis.newNode();
+    }
+
+    @Test
+    @DisplayName("详情读穿：首次查库，之后命中本地缓存")
+    void testDetailReadThrough() {
+        AtomicInteger loads = new AtomicInteger();
+
+        SnackResponseDTO first = nodeA.getSnackDetail(1L, () -> loadSnack(1L, loads));
+        SnackResponseDTO second = nodeA.getSnackDetail(1L, () -> loadSnack(1L, loads));
+
+        assertEquals(1, loads.get());
+        assertEquals(first, second);
+        assertEquals(1L, nodeA.getStats().get("localHits"));
+        assertEquals(1L, nodeA.getStats().get("misses"));
+    }
+
+    @Test
+    @DisplayName("其他节点从Redis二级缓存读取，无需查库")
+    void testSharedRedisTier() {
+        AtomicInteger loads = new AtomicInteger();
+
+        SnackResponseDTO loaded = nodeA.getSnackDetail(1L, () -> loadSnack(1L, loads));
+        SnackResponseDTO fromRedis = nodeB.getSnackDetail(1L, () -> loadSnack(1L, loads));
+        nodeB.getSnackDetail(1L, () -> loadSnack(1L, loads));
+
+        assertEquals(1, loads.get());
+        assertEquals(loaded, fromRedis);
+        assertEquals(1L, nodeB.getStats().get("redisHits"));
+        assertEquals(1L, nodeB.getStats().get("localHits"));
+    }
+
+    @Test
+    @DisplayName("分页结果经JSON序列化后可还原")
+    void testPageRoundTrip() {
+        Page<SnackListResponseDTO> page = new Page<>(1, 12);
+        page.setTotal(1);
+        page.setRecords(List.of(SnackListResponseDTO.builder()
+                .id(1L).name("薯片原味").price(new BigDecimal("5.99")).stock(100)
+                .createTime(LocalDateTime.of(2025, 1, 27, 10, 30)).onSale(true).build()));
+
+        nodeA.getList("page:1:12", () -> page);
+        Page<SnackListResponseDTO> fromRedis = nodeB.getList("page:1:12", () -> fail("不应查库"));
+
+        assertEquals(1L, fromRedis.getTotal());
+        assertEquals(page.getRecords(), fromRedis.getRecords());
+    }
+
+    @Test
+    @DisplayName("失效通知清理所有节点的详情和列表缓存")
+    void testCrossNodeInvalidation() {
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger listLoads = new AtomicInteger();
+        nodeA.getSnackDetail(1L, () -> loadSnack(1L, loads));
+        nodeB.getSnackDetail(1L, () -> loadSnack(1L, loads));
+        nodeB.getList("recommended:8", () -> loadList(listLoads));
+        assertEquals(1, loads.get());
+        assertEquals(1, listLoads.get());
+
+        nodeA.invalidateSnacks(List.of(1L));
+
+        nodeB.getSnackDetail(1L, () -> loadSnack(1L, loads));
+        nodeB.getList("recommended:8", () -> loadList(listLoads));
+        assertEquals(2, loads.get());
+        assertEquals(2, listLoads.get());
+        assertEquals(nodeA.getStats().get("listGeneration"), nodeB.getStats().get("listGeneration"));
+    }
+
+    @Test
+    @DisplayName("加载期间发生失效时不回填缓存")
+    void testInvalidationDuringLoad() {
+        AtomicInteger loads = new AtomicInteger();
+
+        nodeA.getSnackDetail(1L, () -> {
+            nodeB.invalidateSnacks(List.of(1L));
+            return loadSnack(1L, loads);
+        });
+        nodeA.getSnackDetail(1L, () -> loadSnack(1L, loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("库存变动只清理各节点的详情缓存，列表缓存保留")
+    void testDetailOnlyInvalidation() {
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger listLoads = new AtomicInteger();
+        nodeA.getSnackDetail(1L, () -> loadSnack(1L, loads));
+        nodeB.getSnackDetail(1L, () -> loadSnack(1L, loads));
+        nodeB.getList("recommended:8", () -> loadList(listLoads));
+
+        nodeA.invalidateSnackDetails(List.of(1L));
+
+        nodeB.getSnackDetail(1L, () -> loadSnack(1L, loads));
+        nodeB.getList("recommended:8", () -> loadList(listLoads));
+        assertEquals(2, loads.get());
+        assertEquals(1, listLoads.get());
+        assertEquals(0L, nodeB.getStats().get("listGeneration"));
+    }
+
+    @Test
+    @DisplayName("写入Redis期间发生失效时撤回写入的值")
+    void testInvalidationDuringRedisWrite() {
+        AtomicInteger loads = new AtomicInteger();
+        redis.beforeSet = () -> {
+            redis.beforeSet = null;
+            nodeB.invalidateSnackDetails(List.of(1L));
+        };
+
+        nodeA.getSnackDetail(1L, () -> loadSnack(1L, loads));
+        nodeB.getSnackDetail(1L, () -> loadSnack(1L, loads));
+        nodeA.getSnackDetail(1L, () -> loadSnack(1L, loads));
+
+        // 两个节点都不会读到失效前写入的值：B 重新查库，A 的本地缓存也已撤回，改从 B 回填的 Redis 读取
+        assertEquals(2, loads.get());
+        assertEquals(0L, nodeA.getStats().get("localHits"));
+        assertEquals(1L, nodeA.getStats().get("redisHits"));
+    }
+
+    @Test
+    @DisplayName("Redis不可用时降级查库，并暂停访问Redis")
+    void testRedisFailureFallsBackToDatabase() {
+        redis.down = true;
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNotNull(nodeA.getSnackDetail(1L, () -> loadSnack(1L, loads)));
+        assertNotNull(nodeA.getSnackDetail(2L, () -> loadSnack(2L, loads)));
+
+        assertEquals(2, loads.get());
+        assertEquals(1L, nodeA.getStats().get("redisErrors"));
+    }
+
+    private SnackResponseDTO loadSnack(Long id, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return SnackResponseDTO.builder()
+                .id(id).name("零食" + id).price(new BigDecimal("9.90")).stock(10)
+                .detailImages(List.of("/files/snack/detail/" + id + ".jpg"))
+                .createTime(LocalDateTime.now().withNano(0)).build();
+    }
+
+    private List<SnackListResponseDTO> loadList(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new ArrayList<>(List.of(SnackListResponseDTO.builder().id(1L).name("零食1").build()));
+    }
+
+    /**
+     * 内存版 Redis 替身
+     */
+    @SuppressWarnings("unchecked")
+    private static class FakeRedis {
+
+        private final Map<String, byte[]> store = new ConcurrentHashMap<>();
+
+        private final List<CatalogCache> subscribers = new ArrayList<>();
+
+        private final RedisSerializer<Object> serializer;
+
+        private final RedisTemplate<String, Object> template = mock(RedisTemplate.class);
+
+        private volatile boolean down;
+
+        /**
+         * 写入前执行的动作，用于模拟写入与失效交错
+         */
+        private volatile Runnable beforeSet;
+
+        FakeRedis() {
+            serializer = (RedisSerializer<Object>) new RedisConfig()
+                    .redisTemplate(mock(RedisConnectionFactory.class)).getValueSerializer();
+            ValueOperations<String, Object> ops = mock(ValueOperations.class);
+
+            when(template.getValueSerializer()).thenAnswer(invocation -> serializer);
+            when(template.opsForValue()).thenAnswer(invocation -> {
+                checkUp();
+                return ops;
+            });
+            when(ops.get(anyString())).thenAnswer(invocation -> {
+                byte[] bytes = store.get(invocation.<String>getArgument(0));
+                return bytes == null ? null : serializer.deserialize(bytes);
+            });
+            doAnswer(invocation -> {
+                Runnable action = beforeSet;
+                if (action != null) {
+                    action.run();
+                }
+                store.put(invocation.getArgument(0), serializer.serialize(invocation.getArgument(1)));
+                return null;
+            }).when(ops).set(anyString(), any(), anyLong(), any());
+            when(ops.increment(anyString())).thenAnswer(invocation -> {
+                String key = invocation.getArgument(0);
+                byte[] bytes = store.get(key);
+                long value = (bytes == null ? 0L : ((Number) serializer.deserialize(bytes)).longValue()) + 1;
+                store.put(key, serializer.serialize(value));
+                return value;
+            });
+            when(template.delete(anyCollection())).thenAnswer(invocation -> {
+                checkUp();
+                long removed = 0;
+                for (String key : invocation.<List<String>>getArgument(0)) {
+                    removed += store.remove(key) != null ? 1 : 0;
+                }
+                return removed;
+            });
+            when(template.delete(anyString())).thenAnswer(invocation -> {
+                checkUp();
+                return store.remove(invocation.<String>getArgument(0)) != null;
+            });
+            when(template.convertAndSend(anyString(), any())).thenAnswer(invocation -> {
+                checkUp();
+                byte[] channel = invocation.<String>getArgument(0).getBytes(StandardCharsets.UTF_8);
+                byte[] body = serializer.serialize(invocation.getArgument(1));
+                subscribers.forEach(node -> node.onMessage(new DefaultMessage(channel, body), null));
+                return (long) subscribers.size();
+            });
+        }
+
+        CatalogCache newNode() {
+            CatalogCache node = new CatalogCache();
+            ReflectionTestUtils.setField(node, "catalogCacheConfig", new CatalogCacheConfig());
+            ReflectionTestUtils.setField(node, "redisTemplate", template);
+            ReflectionTestUtils.setField(node, "listenerContainerProvider", mock(ObjectProvider.class));
+            ReflectionTestUtils.setField(node, "categoryDictionary", mock(CategoryDictionary.class));
+            node.init();
+            subscribers.add(node);
+            return node;
+        }
+
+        private void checkUp() {
+            if (down) {
+                throw new RedisConnectionFailureException("Redis替身已关闭");
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.springboot.service.cache;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import jakarta.annotation.Resource;
+import org.example.springboot.config.CatalogCacheConfig;
+import org.example.springboot.config.RedisConfig;
+import org.example.springboot.entity.Category;
+import org.example.springboot.mapper.CategoryMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 分类名称字典测试
+ * @author system
+ */
+@MybatisPlusTest
+@Import({CatalogCacheConfig.class, CategoryDictionary.class})
+@TestPropertySource(properties = "catalog.cache.redis-enabled=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("分类名称字典测试")
+class CategoryDictionaryTest {
+
+    @Resource
+    private CategoryDictionary categoryDictionary;
+
+    @Resource
+    private CategoryMapper categoryMapper;
+
+    @MockitoBean
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @AfterEach
+    void tearDown() {
+        categoryMapper.delete(null);
+        categoryDictionary.refresh();
+    }
+
+    @Test
+    @DisplayName("刷新后可按ID查到分类名称，版本号递增")
+    void testRefresh() {
+        Category snacks = insertCategory("膨化食品");
+        Category candy = insertCategory("糖果");
+        long version = categoryDictionary.getVersion();
+
+        categoryDictionary.refresh();
+
+        assertEquals(version + 1, categoryDictionary.getVersion());
+        assertEquals("膨化食品", categoryDictionary.getName(snacks.getId()));
+        assertEquals(Map.of(snacks.getId(), "膨化食品", candy.getId(), "糖果"),
+                categoryDictionary.getNames(List.of(snacks.getId(), candy.getId(), -1L)));
+        assertNull(categoryDictionary.getName(null));
+    }
+
+    @Test
+    @DisplayName("读取不访问数据库，直到分类变更后刷新")
+    void testReadsServedFromSnapshot() {
+        Category category = insertCategory("膨化食品");
+        categoryDictionary.refresh();
+
+        categoryMapper.update(null, new LambdaUpdateWrapper<Category>()
+                .eq(Category::getId, category.getId())
+                .set(Category::getName, "薯片"));
+        assertEquals("膨化食品", categoryDictionary.getName(category.getId()));
+
+        categoryDictionary.refresh();
+        assertEquals("薯片", categoryDictionary.getName(category.getId()));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("收到更高版本的变更通知时重新加载，旧版本忽略")
+    void testRemoteVersionNotification() {
+        RedisSerializer<Object> serializer = (RedisSerializer<Object>) new RedisConfig()
+                .redisTemplate(mock(RedisConnectionFactory.class)).getValueSerializer();
+        when(redisTemplate.getValueSerializer()).thenAnswer(invocation -> serializer);
+        byte[] channel = CatalogCacheConfig.CATEGORY_CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+        Category category = insertCategory("糖果");
+        long version = categoryDictionary.getVersion();
+
+        categoryDictionary.onMessage(new DefaultMessage(channel, serializer.serialize(version)), null);
+        assertNull(categoryDictionary.getName(category.getId()));
+
+        categoryDictionary.onMessage(new DefaultMessage(channel, serializer.serialize(version + 5)), null);
+        assertEquals("糖果", categoryDictionary.getName(category.getId()));
+        assertEquals(version + 5, categoryDictionary.getVersion());
+    }
+
+    private Category insertCategory(String name) {
+        Category category = Category.builder().name(name).sortOrder(0).status("ACTIVE").build();
+        categoryMapper.insert(category);
+        return category;
+    }
+}
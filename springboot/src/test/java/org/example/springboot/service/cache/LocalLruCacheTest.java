@@ -0,0 +1,82 @@
+package org.example.springboot.service.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 本地LRU缓存测试
+ * @author system
+ */
+@DisplayName("本地LRU缓存测试")
+class LocalLruCacheTest {
+
+    @Test
+    @DisplayName("超过容量时淘汰最久未访问的条目")
+    void testEvictLeastRecentlyUsed() throws Exception {
+        LocalLruCache<Integer, String> cache = new LocalLruCache<>(10, 60000);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "v" + i);
+            Thread.sleep(1);
+        }
+        cache.get(0);
+
+        cache.put(10, "v10");
+
+        assertEquals(9, cache.size());
+        assertEquals("v0", cache.get(0));
+        assertEquals("v10", cache.get(10));
+        assertNull(cache.get(1));
+        assertNull(cache.get(2));
+    }
+
+    @Test
+    @DisplayName("过期条目不再命中")
+    void testExpiry() throws Exception {
+        LocalLruCache<String, String> cache = new LocalLruCache<>(10, 1);
+        cache.put("a", "1");
+        Thread.sleep(5);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("并发读写结果正确且条目数收敛到容量以内")
+    void testConcurrentAccess() throws Exception {
+        LocalLruCache<Integer, Integer> cache = new LocalLruCache<>(1000, 60000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int offset = t * 10000;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 10000; i++) {
+                    cache.put(offset + i, i);
+                    Integer value = cache.get(offset + i);
+                    assertTrue(value == null || value == i);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        // 并发写入期间可能短暂超出容量，下一次写入时收敛
+        cache.put(-1, -1);
+
+        assertTrue(cache.size() <= 1000, "条目数: " + cache.size());
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.springboot.service.metrics;
+
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.Resource;
+import org.example.springboot.config.MetricsConfig;
+import org.example.springboot.config.MybatisPlusConfig;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.mapper.SnackMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL 预算检查测试
+ * 使用内嵌 H2 数据库，开启严格模式，超出预算的方法直接抛出错误
+ * @author system
+ */
+@MybatisPlusTest
+@Import({MybatisPlusConfig.class, MetricsConfig.class, SqlBudgetAspect.class, AopAutoConfiguration.class,
+        SqlBudgetAspectTest.TestConfig.class})
+@TestPropertySource(properties = "metrics.sql-budget-strict=true")
+@DisplayName("SQL预算检查测试")
+class SqlBudgetAspectTest {
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @Resource
+    private SnackLoader snackLoader;
+
+    private final List<Long> snackIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 6; i++) {
+            Snack snack = Snack.builder()
+                    .categoryId(1L)
+                    .name("预算测试商品" + i)
+                    .price(100)
+                    .stock(10)
+                    .status("ON_SALE")
+                    .salesCount(0)
+                    .build();
+            snackMapper.insert(snack);
+            snackIds.add(snack.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        snackMapper.deleteByIds(snackIds);
+    }
+
+    @Test
+    @DisplayName("逐条查询超出预算时抛出错误并指出重复语句")
+    void testExceeded() {
+        SqlBudgetExceededError error = assertThrows(SqlBudgetExceededError.class, () -> snackLoader.loadOneByOne(snackIds));
+
+        assertTrue(error.getMessage().contains("SnackMapper.selectById"), error.getMessage());
+    }
+
+    @Test
+    @DisplayName("批量查询在预算内正常返回")
+    void testWithinBudget() {
+        assertEquals(snackIds.size(), snackLoader.loadBatch(snackIds).size());
+    }
+
+    @Test
+    @DisplayName("嵌套在请求计数范围内时同样计入外层")
+    void testNestedInRequestScope() {
+        SqlStatementCounter.begin();
+        snackLoader.loadBatch(snackIds.subList(0, 3));
+        snackLoader.loadBatch(snackIds.subList(3, 6));
+
+        assertEquals(2, SqlStatementCounter.end().total());
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        SnackLoader snackLoader() {
+            return new SnackLoader();
+        }
+    }
+
+    static class SnackLoader {
+
+        @Resource
+        private SnackMapper snackMapper;
+
+        @SqlBudget(2)
+        public List<Snack> loadOneByOne(List<Long> ids) {
+            return ids.stream().map(snackMapper::selectById).toList();
+        }
+
+        @SqlBudget(1)
+        public List<Snack> loadBatch(List<Long> ids) {
+            return snackMapper.selectBatchIds(ids);
+        }
+    }
+}
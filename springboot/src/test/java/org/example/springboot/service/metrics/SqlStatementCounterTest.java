@@ -0,0 +1,110 @@
+package org.example.springboot.service.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 请求内 SQL 计数器测试
+ * @author system
+ */
+@DisplayName("请求内SQL计数器测试")
+class SqlStatementCounterTest {
+
+    @AfterEach
+    void tearDown() {
+        while (SqlStatementCounter.end() != null) {
+            // 清理测试遗留的计数范围
+        }
+    }
+
+    @Test
+    @DisplayName("未开始计数时不记录")
+    void testNotStarted() {
+        SqlStatementCounter.record("mapper.select", "SELECT 1");
+
+        assertFalse(SqlStatementCounter.isActive());
+        assertNull(SqlStatementCounter.end());
+    }
+
+    @Test
+    @DisplayName("计数在结束后解除绑定")
+    void testBeginEnd() {
+        SqlStatementCounter.begin();
+        SqlStatementCounter.record("mapper.select", "SELECT 1");
+        SqlStatementCounter.record("mapper.select", "SELECT 1");
+
+        assertEquals(2, SqlStatementCounter.end().total());
+        assertNull(SqlStatementCounter.end());
+    }
+
+    @Test
+    @DisplayName("内层范围的语句同时计入外层")
+    void testNestedScope() {
+        SqlStatementCounter.begin();
+        SqlStatementCounter.record("mapper.selectA", "SELECT a");
+        SqlStatementCounter.begin();
+        SqlStatementCounter.record("mapper.selectB", "SELECT b");
+        SqlStatementCounter.record("mapper.selectB", "SELECT b");
+
+        assertEquals(2, SqlStatementCounter.end().total());
+        assertTrue(SqlStatementCounter.isActive());
+        assertEquals(3, SqlStatementCounter.end().total());
+    }
+
+    @Test
+    @DisplayName("同一语句形态重复执行达到阈值时识别为N+1")
+    void testRepeated() {
+        SqlStatementCounter.begin();
+        SqlStatementCounter.record("mapper.selectPage", "SELECT * FROM review LIMIT ?");
+        for (int i = 0; i < 6; i++) {
+            SqlStatementCounter.record("mapper.selectFiles", "SELECT * FROM file WHERE business_id = ?");
+        }
+        for (int i = 0; i < 8; i++) {
+            SqlStatementCounter.record("mapper.selectUser", "SELECT * FROM user WHERE id = ?");
+        }
+        for (int i = 0; i < 3; i++) {
+            SqlStatementCounter.record("mapper.selectSnack", "SELECT * FROM snack WHERE id = ?");
+        }
+
+        Map<String, Integer> repeated = SqlStatementCounter.end().repeated(5);
+
+        assertEquals(List.of("mapper.selectUser", "mapper.selectFiles"), List.copyOf(repeated.keySet()));
+        assertEquals(8, repeated.get("mapper.selectUser"));
+        assertEquals(6, repeated.get("mapper.selectFiles"));
+    }
+
+    @Test
+    @DisplayName("线程池中执行的语句计入发起请求")
+    void testPropagate() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            SqlStatementCounter.begin();
+            SqlStatementCounter.record("mapper.select", "SELECT 1");
+            CompletableFuture<Void> first = CompletableFuture.supplyAsync(SqlStatementCounter.propagate(() -> {
+                SqlStatementCounter.record("mapper.select", "SELECT 1");
+                SqlStatementCounter.record("mapper.select", "SELECT 1");
+                return null;
+            }), executor);
+            CompletableFuture<Void> second = CompletableFuture.supplyAsync(SqlStatementCounter.propagate(() -> {
+                SqlStatementCounter.record("mapper.select", "SELECT 1");
+                return null;
+            }), executor);
+            CompletableFuture.allOf(first, second).join();
+
+            assertEquals(4, SqlStatementCounter.end().total());
+            // 工作线程执行完后不残留计数器
+            assertFalse(CompletableFuture.supplyAsync(SqlStatementCounter::isActive, executor).join());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
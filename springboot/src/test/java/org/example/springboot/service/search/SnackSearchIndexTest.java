@@ -0,0 +1,182 @@
+package org.example.springboot.service.search;
+
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.mapper.SnackMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 零食全文检索索引测试
+ * @author system
+ */
+@MybatisPlusTest
+@Import(SnackSearchIndex.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("零食全文检索索引测试")
+class SnackSearchIndexTest {
+
+    @Resource
+    private SnackSearchIndex searchIndex;
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @AfterEach
+    void tearDown() {
+        snackMapper.delete(null);
+    }
+
+    @Test
+    @DisplayName("中文子串命中，名称命中排在描述命中之前")
+    void testChineseSubstringRanking() {
+        Snack chips = insertSnack(1L, "薯片原味", "香脆可口", 599, 10);
+        Snack cracker = insertSnack(1L, "苏打饼干", "口感类似薯片的饼干", 899, 50);
+        insertSnack(2L, "奶糖", "浓郁奶香", 1299, 5);
+        searchIndex.rebuild();
+
+        List<SnackSearchIndex.SearchHit> hits = searchIndex.search("薯片", null);
+
+        assertEquals(List.of(chips.getId(), cracker.getId()), ids(hits));
+        assertTrue(searchIndex.search("巧克力", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("多个关键词要求全部命中，支持全角和大小写")
+    void testMultipleTermsAndNormalization() {
+        Snack cola = insertSnack(3L, "可口可乐 Cola", "经典碳酸饮料", 350, 0);
+        insertSnack(3L, "雪碧", "柠檬味碳酸饮料", 350, 0);
+        searchIndex.rebuild();
+
+        assertEquals(List.of(cola.getId()), ids(searchIndex.search("ＣＯＬＡ", null)));
+        assertEquals(List.of(cola.getId()), ids(searchIndex.search("碳酸 可乐", null)));
+        assertEquals(2, searchIndex.search("饮", null).size());
+    }
+
+    @Test
+    @DisplayName("按分类、状态和价格过滤")
+    void testFilter() {
+        insertSnack(1L, "原味薯片", null, 500, 0);
+        Snack spicy = insertSnack(2L, "麻辣薯片", null, 1500, 0);
+        Snack offSale = insertSnack(2L, "番茄薯片", null, 800, 0);
+        offSale.setStatus("OFF_SALE");
+        snackMapper.updateById(offSale);
+        searchIndex.rebuild();
+
+        SnackSearchIndex.Filter filter = new SnackSearchIndex.Filter(2L, "ON_SALE", 1000, null);
+        assertEquals(List.of(spicy.getId()), ids(searchIndex.search("薯片", filter)));
+    }
+
+    @Test
+    @DisplayName("前缀联想只返回上架商品，按销量排序")
+    void testSuggest() {
+        insertSnack(1L, "薯片原味", null, 500, 10);
+        insertSnack(1L, "薯片烧烤味", null, 500, 30);
+        insertSnack(1L, "虾条", null, 500, 100);
+        searchIndex.rebuild();
+
+        assertEquals(List.of("薯片烧烤味", "薯片原味"), searchIndex.suggest("薯片", 10));
+        assertEquals(List.of("薯片烧烤味"), searchIndex.suggest("薯", 1));
+        assertTrue(searchIndex.suggest("", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("分面统计分类和价格区间")
+    void testFacets() {
+        insertSnack(1L, "原味薯片", null, 500, 0);
+        insertSnack(1L, "烧烤薯片", null, 1200, 0);
+        insertSnack(2L, "进口薯片", null, 12000, 0);
+        searchIndex.rebuild();
+
+        SnackSearchIndex.Facets facets = searchIndex.facets(searchIndex.search("薯片", null));
+
+        assertEquals(Map.of(1L, 2L, 2L, 1L), facets.categoryCounts());
+        assertEquals(5, facets.priceBuckets().size());
+        assertEquals(1L, facets.priceBuckets().get(0).count());
+        assertEquals(1L, facets.priceBuckets().get(1).count());
+        assertEquals(1L, facets.priceBuckets().get(4).count());
+        assertNull(facets.priceBuckets().get(4).maxPrice());
+    }
+
+    @Test
+    @DisplayName("增量更新：改名、新增、删除")
+    void testIncrementalRefresh() {
+        Snack snack = insertSnack(1L, "原味薯片", null, 500, 0);
+        searchIndex.rebuild();
+
+        snack.setName("海苔卷");
+        snackMapper.updateById(snack);
+        Snack added = insertSnack(1L, "海苔脆片", null, 500, 0);
+        searchIndex.refresh(List.of(snack.getId(), added.getId()));
+
+        assertTrue(searchIndex.search("薯片", null).isEmpty());
+        assertEquals(2, searchIndex.search("海苔", null).size());
+        assertEquals(List.of("海苔卷"), searchIndex.suggest("海苔卷", 10));
+
+        snackMapper.deleteById(added.getId());
+        searchIndex.refresh(List.of(added.getId()));
+
+        assertEquals(List.of(snack.getId()), ids(searchIndex.search("海苔", null)));
+        assertEquals(1, searchIndex.size());
+    }
+
+    @Test
+    @DisplayName("重建期间的增量更新在替换后重放，不被旧快照覆盖")
+    void testRefreshDuringRebuild() {
+        Snack original = insertSnack(1L, "薯片原味", null, 500, 10);
+        insertSnack(1L, "薯片烧烤味", null, 500, 30);
+        searchIndex.rebuild();
+
+        // 重建读取快照之后，商品销量被修改并触发增量更新
+        SnackMapper slowMapper = mock(SnackMapper.class, AdditionalAnswers.delegatesTo(snackMapper));
+        doAnswer(invocation -> {
+            List<Snack> snapshot = snackMapper.selectList(null);
+            Snack update = new Snack();
+            update.setId(original.getId());
+            update.setSalesCount(40);
+            snackMapper.updateById(update);
+            searchIndex.refresh(List.of(original.getId()));
+            return snapshot;
+        }).when(slowMapper).selectList(isNull());
+        ReflectionTestUtils.setField(searchIndex, "snackMapper", slowMapper);
+        try {
+            searchIndex.rebuild();
+        } finally {
+            ReflectionTestUtils.setField(searchIndex, "snackMapper", snackMapper);
+        }
+
+        assertEquals(List.of("薯片原味", "薯片烧烤味"), searchIndex.suggest("薯片", 10));
+    }
+
+    private Snack insertSnack(Long categoryId, String name, String description, int price, int salesCount) {
+        Snack snack = new Snack();
+        snack.setCategoryId(categoryId);
+        snack.setName(name);
+        snack.setDescription(description);
+        snack.setPrice(price);
+        snack.setStock(100);
+        snack.setStatus("ON_SALE");
+        snack.setSalesCount(salesCount);
+        snackMapper.insert(snack);
+        return snack;
+    }
+
+    private List<Long> ids(List<SnackSearchIndex.SearchHit> hits) {
+        return hits.stream().map(hit -> hit.snack().id()).toList();
+    }
+}
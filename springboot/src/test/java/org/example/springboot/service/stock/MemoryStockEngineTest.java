@@ -0,0 +1,176 @@
+package org.example.springboot.service.stock;
+
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import jakarta.annotation.Resource;
+import org.example.springboot.config.StockConfig;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.entity.StockLedger;
+import org.example.springboot.exception.BusinessException;
+import org.example.springboot.mapper.SnackMapper;
+import org.example.springboot.mapper.StockLedgerMapper;
+import org.example.springboot.service.cache.CatalogCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 内存库存引擎测试
+ * @author system
+ */
+@MybatisPlusTest
+@Import({StockConfig.class, MemoryStockEngine.class})
+@TestPropertySource(properties = {"stock.engine=memory", "stock.flush-interval=3600000"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("内存库存引擎测试")
+class MemoryStockEngineTest {
+
+    @Resource
+    private MemoryStockEngine stockEngine;
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @Resource
+    private StockLedgerMapper stockLedgerMapper;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private CatalogCache catalogCache;
+
+    @AfterEach
+    void tearDown() {
+        stockLedgerMapper.delete(null);
+        snackMapper.delete(null);
+    }
+
+    @Test
+    @DisplayName("多线程预占同一商品 - 不超卖且回写后数据库库存一致")
+    void testConcurrentDeduct_NoOversellAndFlush() throws InterruptedException {
+        Snack snack = insertSnack("热门零食", 50);
+        int threads = 16;
+        int attemptsPerThread = 20;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger success = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < attemptsPerThread; j++) {
+                        try {
+                            stockEngine.deduct(Map.of(snack.getId(), 1));
+                            success.incrementAndGet();
+                        } catch (BusinessException ignored) {
+                            // 库存不足
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(50, success.get());
+        assertEquals(0, stockEngine.getAvailableStock(snack));
+        // 回写前数据库库存不变，流水记录了全部扣减
+        assertEquals(50, snackMapper.selectById(snack.getId()).getStock());
+        assertEquals(50L, stockLedgerMapper.selectCount(null));
+
+        stockEngine.flush();
+        assertEquals(0, snackMapper.selectById(snack.getId()).getStock());
+        assertEquals(0L, stockLedgerMapper.selectCount(null));
+        verify(catalogCache).invalidateSnackDetails(argThat(ids -> ids.contains(snack.getId())));
+    }
+
+    @Test
+    @DisplayName("事务回滚 - 释放已预占的内存库存且不留流水")
+    void testDeduct_ReleasedOnRollback() {
+        Snack first = insertSnack("零食A", 10);
+        Snack second = insertSnack("零食B", 10);
+        Map<Long, Integer> stockMap = new LinkedHashMap<>();
+        stockMap.put(first.getId(), 3);
+        stockMap.put(second.getId(), 4);
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        assertThrows(IllegalStateException.class, () -> tx.executeWithoutResult(status -> {
+            stockEngine.deduct(stockMap);
+            throw new IllegalStateException("创建订单失败");
+        }));
+
+        assertEquals(10, stockEngine.getAvailableStock(first));
+        assertEquals(10, stockEngine.getAvailableStock(second));
+        assertEquals(0L, stockLedgerMapper.selectCount(null));
+    }
+
+    @Test
+    @DisplayName("多商品预占 - 任一商品不足时全部不扣减")
+    void testDeduct_AllOrNothing() {
+        Snack enough = insertSnack("库存充足", 10);
+        Snack shortage = insertSnack("库存不足", 1);
+        Map<Long, Integer> stockMap = new LinkedHashMap<>();
+        stockMap.put(enough.getId(), 3);
+        stockMap.put(shortage.getId(), 2);
+
+        assertThrows(BusinessException.class, () -> stockEngine.deduct(stockMap));
+        assertEquals(10, stockEngine.getAvailableStock(enough));
+        assertEquals(1, stockEngine.getAvailableStock(shortage));
+    }
+
+    @Test
+    @DisplayName("启动恢复 - 遗留流水回写到数据库")
+    void testInit_RecoverPendingLedger() {
+        Snack snack = insertSnack("遗留流水", 20);
+        stockLedgerMapper.insert(StockLedger.builder().snackId(snack.getId()).delta(-5).build());
+        stockLedgerMapper.insert(StockLedger.builder().snackId(snack.getId()).delta(2).build());
+
+        // 未回写前，计数器按 数据库库存 + 流水 初始化
+        assertEquals(17, stockLedgerMapper.selectEffectiveStock(snack.getId()));
+
+        stockEngine.destroy();
+        stockEngine.init();
+
+        assertEquals(17, snackMapper.selectById(snack.getId()).getStock());
+        assertEquals(0L, stockLedgerMapper.selectCount(null));
+        // 计数器未加载时直接使用数据库库存，不额外查询
+        assertNull(stockEngine.peekAvailableStock(snack.getId()));
+        assertEquals(17, stockEngine.getAvailableStock(snackMapper.selectById(snack.getId())));
+    }
+
+    private Snack insertSnack(String name, int stock) {
+        Snack snack = Snack.builder()
+                .categoryId(1L)
+                .name(name)
+                .price(100)
+                .stock(stock)
+                .status("ON_SALE")
+                .salesCount(0)
+                .build();
+        snackMapper.insert(snack);
+        return snack;
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.springboot.service.storage;
+
+import org.example.springboot.exception.BusinessException;
+import org.example.springboot.mapper.SysFileInfoMapper;
+import org.example.springboot.service.storage.ContentAddressedFileStore.StoredFile;
+import org.example.springboot.util.FileUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 内容寻址文件存储测试
+ * @author system
+ */
+@DisplayName("内容寻址文件存储测试")
+class ContentAddressedFileStoreTest {
+
+    @TempDir
+    Path basePath;
+
+    private ContentAddressedFileStore store;
+
+    private SysFileInfoMapper fileInfoMapper;
+
+    @BeforeEach
+    void setUp() {
+        fileInfoMapper = mock(SysFileInfoMapper.class);
+        store = new ContentAddressedFileStore();
+        ReflectionTestUtils.setField(store, "fileInfoMapper", fileInfoMapper);
+        ReflectionTestUtils.setField(store, "basePath", basePath);
+        store.init();
+    }
+
+    @Test
+    @DisplayName("按内容哈希分目录存放，文件名为 SHA-256")
+    void testShardedLayout() {
+        StoredFile stored = store.store(image("a.PNG", "hello"));
+
+        // echo -n hello | sha256sum
+        String hash = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+        assertEquals(hash, stored.hash());
+        assertEquals("/files/cas/2c/f2/" + hash + ".png", stored.filePath());
+        assertEquals(5, stored.size());
+        assertFalse(stored.deduplicated());
+        assertTrue(Files.exists(store.resolve(stored.filePath())));
+    }
+
+    @Test
+    @DisplayName("相同内容只存一份，不残留临时文件")
+    void testDeduplicate() throws Exception {
+        StoredFile first = store.store(image("a.png", "same"));
+        StoredFile second = store.store(image("b.png", "same"));
+        StoredFile other = store.store(image("c.png", "other"));
+
+        assertEquals(first.filePath(), second.filePath());
+        assertTrue(second.deduplicated());
+        assertNotEquals(first.filePath(), other.filePath());
+        try (Stream<Path> files = Files.walk(basePath)) {
+            assertEquals(2, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("仍有引用时保留文件，无引用时删除")
+    void testDereference() throws Exception {
+        StoredFile stored = store.store(new ByteArrayInputStream("data".getBytes(StandardCharsets.UTF_8)), ".txt");
+        Path path = store.resolve(stored.filePath());
+
+        when(fileInfoMapper.selectCount(any())).thenReturn(1L);
+        store.dereference(stored.filePath());
+        assertTrue(Files.exists(path));
+
+        when(fileInfoMapper.selectCount(any())).thenReturn(0L);
+        store.dereference(stored.filePath());
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    @DisplayName("流式写入超过大小上限时中止，不残留文件")
+    void testOversizeStreamRejected() throws Exception {
+        InputStream oversize = new InputStream() {
+            private long remaining = FileUtil.getMaxFileSize() + 1;
+
+            @Override
+            public int read() {
+                return remaining-- > 0 ? 'x' : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int n = (int) Math.min(len, remaining);
+                remaining -= n;
+                return n;
+            }
+        };
+
+        assertThrows(BusinessException.class, () -> store.store(oversize, ".bin"));
+        try (Stream<Path> files = Files.walk(basePath)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("扩展名不符合白名单格式时按无扩展名保存")
+    void testUnsafeExtensionDropped() throws Exception {
+        String hash = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+        String expected = "/files/cas/2c/f2/" + hash;
+
+        assertEquals(expected, store.store(hello(), ".js/../../x").filePath());
+        assertEquals(expected, store.store(hello(), ".html%00").filePath());
+        assertEquals(expected, store.store(hello(), ".abcdefghijk").filePath());
+        assertEquals(expected + ".jpeg", store.store(hello(), ".JPEG").filePath());
+        try (Stream<Path> files = Files.walk(basePath)) {
+            assertTrue(files.filter(Files::isRegularFile).allMatch(path -> path.startsWith(basePath.resolve("cas"))));
+        }
+    }
+
+    @Test
+    @DisplayName("非内容寻址路径不处理")
+    void testLegacyPathIgnored() {
+        assertFalse(store.isContentAddressed("/files/bussiness/snack_cover/1757924124435.jpg"));
+        store.dereference("/files/bussiness/snack_cover/1757924124435.jpg");
+
+        verifyNoInteractions(fileInfoMapper);
+    }
+
+    private InputStream hello() {
+        return new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MockMultipartFile image(String name, String content) {
+        return new MockMultipartFile("file", name, "image/png", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
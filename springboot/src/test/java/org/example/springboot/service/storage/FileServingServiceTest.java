@@ -0,0 +1,213 @@
+package org.example.springboot.service.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.springboot.config.FileServingConfig;
+import org.example.springboot.mapper.SysFileInfoMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 上传文件访问服务测试
+ * @author system
+ */
+@DisplayName("上传文件访问服务测试")
+class FileServingServiceTest {
+
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    Path basePath;
+
+    private FileServingService service;
+
+    private ImageDerivativeService imageDerivativeService;
+
+    private String casPath;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ContentAddressedFileStore store = new ContentAddressedFileStore();
+        ReflectionTestUtils.setField(store, "fileInfoMapper", mock(SysFileInfoMapper.class));
+        ReflectionTestUtils.setField(store, "basePath", basePath);
+        store.init();
+        casPath = store.store(new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)), ".mp4").filePath();
+
+        service = new FileServingService();
+        ReflectionTestUtils.setField(service, "fileServingConfig", new FileServingConfig());
+        ReflectionTestUtils.setField(service, "contentAddressedFileStore", store);
+        imageDerivativeService = mock(ImageDerivativeService.class);
+        ReflectionTestUtils.setField(service, "imageDerivativeService", imageDerivativeService);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("完整响应带内容哈希 ETag 和不可变缓存头")
+    void testFullResponse() throws Exception {
+        MockHttpServletResponse response = serve(casPath, null);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("video/mp4", response.getContentType());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        String hash = casPath.substring(casPath.lastIndexOf('/') + 1, casPath.lastIndexOf('.'));
+        assertEquals("\"" + hash + "\"", response.getHeader("ETag"));
+        assertTrue(response.getHeader("Cache-Control").contains("immutable"));
+    }
+
+    @Test
+    @DisplayName("If-None-Match 命中返回304且不发送内容")
+    void testNotModified() throws Exception {
+        String etag = serve(casPath, null).getHeader("ETag");
+
+        MockHttpServletRequest request = request(casPath);
+        request.addHeader("If-None-Match", "W/\"other\", " + etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(casPath, null, request, response);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("Range 请求返回206和对应区间")
+    void testRange() throws Exception {
+        MockHttpServletResponse response = serve(casPath, "bytes=2-5");
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+
+        MockHttpServletResponse suffix = serve(casPath, "bytes=-3");
+        assertEquals("789", suffix.getContentAsString());
+
+        MockHttpServletResponse open = serve(casPath, "bytes=7-");
+        assertEquals("789", open.getContentAsString());
+
+        assertEquals(416, serve(casPath, "bytes=10-").getStatus());
+        assertEquals(200, serve(casPath, "bytes=0-1,4-5").getStatus());
+    }
+
+    @Test
+    @DisplayName("If-Range 与当前 ETag 不一致时返回完整内容")
+    void testIfRangeMismatch() throws Exception {
+        MockHttpServletRequest request = request(casPath);
+        request.addHeader("Range", "bytes=2-5");
+        request.addHeader("If-Range", "\"stale\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(casPath, null, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("容器支持 sendfile 时交给容器发送")
+    void testSendfile() throws Exception {
+        MockHttpServletRequest request = request(casPath);
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(casPath, null, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(2L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(6L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    @Test
+    @DisplayName("非内容寻址文件按大小和修改时间生成弱 ETag")
+    void testLegacyFileEtag() throws Exception {
+        Path legacy = basePath.resolve("img/1757924124435.jpg");
+        Files.createDirectories(legacy.getParent());
+        Files.writeString(legacy, CONTENT);
+        Files.setLastModifiedTime(legacy, FileTime.fromMillis(1757924124000L));
+        String filePath = "/files/img/1757924124435.jpg";
+
+        MockHttpServletResponse response = serve(filePath, null);
+        assertEquals(200, response.getStatus());
+        assertEquals("W/\"a-" + Long.toHexString(1757924124000L) + "\"", response.getHeader("ETag"));
+        assertFalse(response.getHeader("Cache-Control").contains("immutable"));
+
+        // If-None-Match 按弱比较命中
+        MockHttpServletRequest conditional = request(filePath);
+        conditional.addHeader("If-None-Match", response.getHeader("ETag"));
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        service.serve(filePath, null, conditional, notModified);
+        assertEquals(304, notModified.getStatus());
+
+        // 弱 ETag 不能用于 If-Range，返回完整内容
+        MockHttpServletRequest ranged = request(filePath);
+        ranged.addHeader("Range", "bytes=2-5");
+        ranged.addHeader("If-Range", response.getHeader("ETag"));
+        MockHttpServletResponse full = new MockHttpServletResponse();
+        service.serve(filePath, null, ranged, full);
+        assertEquals(200, full.getStatus());
+        assertEquals(CONTENT, full.getContentAsString());
+
+        // 修改时间变化后 ETag 随之变化
+        Files.setLastModifiedTime(legacy, FileTime.fromMillis(1757924125000L));
+        assertNotEquals(response.getHeader("ETag"), serve(filePath, null).getHeader("ETag"));
+    }
+
+    @Test
+    @DisplayName("衍生图未生成时返回原图并要求协商，原图不大于该宽度时按原图永久缓存")
+    void testVariantFallback() throws Exception {
+        when(imageDerivativeService.isSupported(casPath)).thenReturn(true);
+        when(imageDerivativeService.normalizeWidth(320)).thenReturn(320);
+        String etag = serve(casPath, null).getHeader("ETag");
+
+        MockHttpServletResponse pending = new MockHttpServletResponse();
+        service.serve(casPath, 320, request(casPath), pending);
+        assertEquals(CONTENT, pending.getContentAsString());
+        assertEquals(etag, pending.getHeader("ETag"));
+        assertEquals("no-cache", pending.getHeader("Cache-Control"));
+
+        when(imageDerivativeService.getVariant(any(), anyString(), eq(320))).thenAnswer(invocation -> invocation.getArgument(0));
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        service.serve(casPath, 320, request(casPath), original);
+        assertEquals(CONTENT, original.getContentAsString());
+        assertEquals(etag, original.getHeader("ETag"));
+        assertTrue(original.getHeader("Cache-Control").contains("immutable"));
+    }
+
+    @Test
+    @DisplayName("越界、隐藏目录和不存在的文件返回404")
+    void testNotFound() throws Exception {
+        assertEquals(404, serve("/files/../secret.txt", null).getStatus());
+        assertEquals(404, serve("/files/.upload-tmp/upload-1.part", null).getStatus());
+        assertEquals(404, serve("/files/img/missing.jpg", null).getStatus());
+    }
+
+    private MockHttpServletResponse serve(String filePath, String range) throws Exception {
+        MockHttpServletRequest request = request(filePath);
+        if (range != null) {
+            request.addHeader("Range", range);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(filePath, null, request, response);
+        return response;
+    }
+
+    private MockHttpServletRequest request(String filePath) {
+        return new MockHttpServletRequest("GET", filePath);
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.springboot.service.storage;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.Resource;
+import org.example.springboot.config.FileCleanupConfig;
+import org.example.springboot.entity.SysFileInfo;
+import org.example.springboot.mapper.SysFileInfoMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 文件存储维护服务测试
+ * 清理按批在独立事务中提交，测试方法本身不开启事务
+ * @author system
+ */
+@MybatisPlusTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({FileStorageMaintenanceService.class, ContentAddressedFileStore.class, FileCleanupConfig.class,
+        FileStorageMaintenanceServiceTest.MetricsConfig.class})
+@DisplayName("文件存储维护服务测试")
+class FileStorageMaintenanceServiceTest {
+
+    @TempDir
+    Path basePath;
+
+    @Resource
+    private FileStorageMaintenanceService maintenanceService;
+
+    @Resource
+    private ContentAddressedFileStore contentAddressedFileStore;
+
+    @Resource
+    private FileCleanupConfig fileCleanupConfig;
+
+    @Resource
+    private SysFileInfoMapper fileInfoMapper;
+
+    @MockitoBean
+    private ImageDerivativeService imageDerivativeService;
+
+    private final FileTime longAgo = FileTime.fromMillis(System.currentTimeMillis() - 7 * 86400000L);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(contentAddressedFileStore, "basePath", basePath);
+        fileCleanupConfig.setBatchSize(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fileInfoMapper.delete(new LambdaQueryWrapper<>());
+    }
+
+    @Test
+    @DisplayName("过期临时记录分批全部清理，仍被正式记录引用的文件保留")
+    void testCleanupExpiredTempFiles() throws Exception {
+        String shared = store("shared");
+        String[] expired = new String[5];
+        for (int i = 0; i < expired.length; i++) {
+            expired[i] = store("expired-" + i);
+            insert(expired[i], 1, LocalDateTime.now().minusHours(1 + i));
+        }
+        insert(shared, 1, LocalDateTime.now().minusHours(1));
+        insert(shared, 0, null);
+        String live = store("live");
+        insert(live, 1, LocalDateTime.now().plusHours(1));
+
+        assertEquals(6, maintenanceService.cleanupExpiredTempFiles());
+
+        for (String filePath : expired) {
+            assertFalse(Files.exists(contentAddressedFileStore.resolve(filePath)));
+        }
+        assertTrue(Files.exists(contentAddressedFileStore.resolve(shared)));
+        assertTrue(Files.exists(contentAddressedFileStore.resolve(live)));
+        assertEquals(2, fileInfoMapper.selectCount(null));
+    }
+
+    @Test
+    @DisplayName("超过宽限期的无引用内容寻址文件和上传残留删除，其他目录的孤立文件只统计")
+    void testCleanupOrphanFiles() throws Exception {
+        String referenced = store("referenced");
+        insert(referenced, 0, null);
+        String orphan = store("orphan");
+        String fresh = store("fresh");
+        Path legacy = write("bussiness/snack_cover/1.jpg");
+        Path uploadTmp = write(ContentAddressedFileStore.TMP_DIR + "/upload-1.part");
+        Path derivative = write(ImageDerivativeService.DERIVATIVE_DIR + "/a_320.jpg");
+        for (Path path : new Path[]{contentAddressedFileStore.resolve(referenced),
+                contentAddressedFileStore.resolve(orphan), legacy, uploadTmp, derivative}) {
+            Files.setLastModifiedTime(path, longAgo);
+        }
+
+        assertEquals(1, maintenanceService.cleanupOrphanFiles());
+
+        assertTrue(Files.exists(contentAddressedFileStore.resolve(referenced)));
+        assertFalse(Files.exists(contentAddressedFileStore.resolve(orphan)));
+        assertTrue(Files.exists(contentAddressedFileStore.resolve(fresh)));
+        assertTrue(Files.exists(legacy));
+        assertFalse(Files.exists(uploadTmp));
+        assertTrue(Files.exists(derivative));
+
+        Map<String, Object> report = maintenanceService.monitorStorage();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> sweep = (Map<String, Object>) report.get("lastOrphanSweep");
+        assertEquals(2, sweep.get("orphanFiles"));
+        assertEquals(1L, report.get("activeRecords"));
+    }
+
+    private String store(String content) throws Exception {
+        return contentAddressedFileStore.store(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), ".jpg").filePath();
+    }
+
+    private Path write(String relativePath) throws Exception {
+        Path path = basePath.resolve(relativePath);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, relativePath);
+        return path;
+    }
+
+    private void insert(String filePath, int isTemp, LocalDateTime expireTime) {
+        SysFileInfo fileInfo = new SysFileInfo();
+        fileInfo.setOriginalName("a.jpg");
+        fileInfo.setFilePath(filePath);
+        fileInfo.setFileSize(1L);
+        fileInfo.setFileType("IMG");
+        fileInfo.setBusinessType(isTemp == 1 ? "TEMP_FILE" : "SNACK_COVER");
+        fileInfo.setBusinessId("0");
+        fileInfo.setIsTemp(isTemp);
+        fileInfo.setStatus(1);
+        fileInfo.setCreateTime(LocalDateTime.now());
+        fileInfo.setExpireTime(expireTime);
+        fileInfoMapper.insert(fileInfo);
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.springboot.service.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.springboot.config.ImageDerivativeConfig;
+import org.example.springboot.mapper.SysFileInfoMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 图片衍生图服务测试
+ * @author system
+ */
+@DisplayName("图片衍生图服务测试")
+class ImageDerivativeServiceTest {
+
+    @TempDir
+    Path basePath;
+
+    private ImageDerivativeService service;
+
+    private ImageDerivativeConfig config;
+
+    @BeforeEach
+    void setUp() {
+        ContentAddressedFileStore store = new ContentAddressedFileStore();
+        ReflectionTestUtils.setField(store, "fileInfoMapper", mock(SysFileInfoMapper.class));
+        ReflectionTestUtils.setField(store, "basePath", basePath);
+        store.init();
+
+        config = new ImageDerivativeConfig();
+        service = new ImageDerivativeService();
+        ReflectionTestUtils.setField(service, "imageDerivativeConfig", config);
+        ReflectionTestUtils.setField(service, "contentAddressedFileStore", store);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    @DisplayName("请求宽度向上取整到配置的一档")
+    void testNormalizeWidth() {
+        assertEquals(160, service.normalizeWidth(1));
+        assertEquals(320, service.normalizeWidth(161));
+        assertEquals(640, service.normalizeWidth(640));
+        assertEquals(1280, service.normalizeWidth(641));
+        assertEquals(1280, service.normalizeWidth(4000));
+    }
+
+    @Test
+    @DisplayName("按宽度等比缩小，透明图输出PNG，其余输出JPEG")
+    void testGenerateVariant() throws Exception {
+        Path jpeg = image("photo.jpg", 800, 600, "jpg");
+        Path png = image("logo.png", 1000, 500, "png");
+
+        Path jpegVariant = awaitVariant(jpeg, "aaaa", 320);
+        Path pngVariant = awaitVariant(png, "bbbb", 160);
+
+        assertEquals("aaaa-w320.jpg", jpegVariant.getFileName().toString());
+        BufferedImage scaled = ImageIO.read(jpegVariant.toFile());
+        assertEquals(320, scaled.getWidth());
+        assertEquals(240, scaled.getHeight());
+        assertTrue(Files.size(jpegVariant) < Files.size(jpeg));
+
+        assertEquals("bbbb-w160.png", pngVariant.getFileName().toString());
+        assertEquals(80, ImageIO.read(pngVariant.toFile()).getHeight());
+        assertTrue(pngVariant.startsWith(basePath.resolve(ImageDerivativeService.DERIVATIVE_DIR)));
+    }
+
+    @Test
+    @DisplayName("未生成时立即返回并异步生成，不阻塞请求线程")
+    void testMissDoesNotBlock() throws Exception {
+        Path source = image("photo.jpg", 800, 600, "jpg");
+
+        assertNull(service.getVariant(source, "eeee", 640));
+
+        Path variant = awaitVariant(source, "eeee", 640);
+        assertEquals("eeee-w640.jpg", variant.getFileName().toString());
+    }
+
+    @Test
+    @DisplayName("原图不大于目标宽度时记录标记，之后直接返回原图")
+    void testSmallSourceUsesOriginal() throws Exception {
+        Path small = image("small.jpg", 100, 100, "jpg");
+
+        assertEquals(small, awaitVariant(small, "cccc", 160));
+        Path marker = basePath.resolve(ImageDerivativeService.DERIVATIVE_DIR).resolve("cccc-w160.orig");
+        assertTrue(Files.exists(marker));
+
+        // 重启后从标记文件恢复，首次访问即返回原图
+        service.destroy();
+        service.init();
+        assertEquals(small, service.getVariant(small, "cccc", 160));
+    }
+
+    @Test
+    @DisplayName("原图像素超限时不生成，一直返回原图")
+    void testSkipHugeSource() throws Exception {
+        config.setMaxSourcePixels(1000L);
+        Path large = image("large.jpg", 800, 600, "jpg");
+
+        assertNull(service.getVariant(large, "dddd", 160));
+        Thread.sleep(200);
+        assertNull(service.getVariant(large, "dddd", 160));
+        assertFalse(Files.exists(basePath.resolve(ImageDerivativeService.DERIVATIVE_DIR).resolve("dddd-w160.orig")));
+    }
+
+    @Test
+    @DisplayName("超出磁盘缓存上限时淘汰最久未访问的衍生图")
+    void testEviction() throws Exception {
+        Path source = image("photo.jpg", 800, 600, "jpg");
+        Path first = awaitVariant(source, "1111", 160);
+        config.setCacheMaxBytes(Files.size(first) + 1);
+
+        Path second = awaitVariant(source, "2222", 160);
+
+        assertFalse(Files.exists(first));
+        assertTrue(Files.exists(second));
+        assertEquals(1, service.getStats().get("derivatives"));
+    }
+
+    /**
+     * 轮询直到衍生图可用
+     */
+    private Path awaitVariant(Path source, String hash, int width) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline) {
+            Path variant = service.getVariant(source, hash, width);
+            if (variant != null) {
+                return variant;
+            }
+            Thread.sleep(10);
+        }
+        return fail("衍生图未在10秒内生成");
+    }
+
+    private Path image(String name, int width, int height, String format) throws Exception {
+        BufferedImage image = new BufferedImage(width, height,
+                "png".equals(format) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, 0xFF000000 | (x * 255 / width) << 16 | (y * 255 / height) << 8);
+            }
+        }
+        Path path = basePath.resolve(name);
+        ImageIO.write(image, format, path.toFile());
+        return path;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.springboot.support;
+
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * H2 缺少的 MySQL 函数，供测试和基准测试共用
+ * 测试和基准测试分别在 schema.sql、benchmark/schema.sql 中以 CREATE ALIAS 注册；
+ * 类和方法需为 public 才能被 H2 反射调用
+ * @author system
+ */
+public final class H2Functions {
+
+    private H2Functions() {
+    }
+
+    /**
+     * MySQL DATE_FORMAT，支持 %Y %m %d %H %i %s
+     * @param time 时间
+     * @param format MySQL格式串
+     * @return 格式化结果，时间为空返回null
+     */
+    public static String dateFormat(Timestamp time, String format) {
+        if (time == null || format == null) {
+            return null;
+        }
+        String pattern = format.replace("%Y", "yyyy").replace("%m", "MM").replace("%d", "dd")
+                .replace("%H", "HH").replace("%i", "mm").replace("%s", "ss");
+        return time.toLocalDateTime().format(DateTimeFormatter.ofPattern(pattern));
+    }
+}
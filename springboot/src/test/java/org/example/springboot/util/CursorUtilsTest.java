@@ -0,0 +1,119 @@
+package org.example.springboot.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import jakarta.annotation.Resource;
+import org.example.springboot.common.CursorPage;
+import org.example.springboot.entity.Snack;
+import org.example.springboot.exception.BusinessException;
+import org.example.springboot.mapper.SnackMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 游标分页测试
+ * @author system
+ */
+@MybatisPlusTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("游标分页测试")
+class CursorUtilsTest {
+
+    @Resource
+    private SnackMapper snackMapper;
+
+    @AfterEach
+    void tearDown() {
+        snackMapper.delete(null);
+    }
+
+    @Test
+    @DisplayName("逐页翻完所有数据，创建时间相同的记录不重复不遗漏")
+    void testWalkAllPages() {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<Snack> inserted = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            // 每3条共用一个创建时间，验证以ID打破平局
+            inserted.add(insertSnack(i % 2 == 0 ? 1L : 2L, base.plusMinutes(i / 3)));
+        }
+        List<Long> expected = inserted.stream()
+                .sorted(Comparator.comparing(Snack::getCreateTime).thenComparing(Snack::getId).reversed())
+                .map(Snack::getId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Long> page = fetch(new LambdaQueryWrapper<>(), cursor, 10);
+            walked.addAll(page.getRecords());
+            cursor = page.getNextCursor();
+            assertEquals(cursor != null, page.getHasMore());
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    @DisplayName("游标与过滤条件组合")
+    void testWithFilter() {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        for (int i = 0; i < 6; i++) {
+            insertSnack(i < 4 ? 1L : 2L, base.plusMinutes(i));
+        }
+
+        CursorPage<Long> first = fetch(new LambdaQueryWrapper<Snack>().eq(Snack::getCategoryId, 1L), null, 3);
+        CursorPage<Long> second = fetch(new LambdaQueryWrapper<Snack>().eq(Snack::getCategoryId, 1L), first.getNextCursor(), 3);
+
+        assertEquals(3, first.getRecords().size());
+        assertEquals(1, second.getRecords().size());
+        assertFalse(second.getHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("无效游标和每页大小规范化")
+    void testInvalidCursorAndSize() {
+        assertThrows(BusinessException.class, () -> CursorUtils.decode("not-a-cursor"));
+        assertNull(CursorUtils.decode(" "));
+        assertEquals(CursorUtils.DEFAULT_SIZE, CursorUtils.normalizeSize(null));
+        assertEquals(CursorUtils.MAX_SIZE, CursorUtils.normalizeSize(10000L));
+
+        LocalDateTime time = LocalDateTime.of(2025, 3, 4, 5, 6, 7, 800_000_000);
+        CursorUtils.Cursor cursor = CursorUtils.decode(CursorUtils.encode(time, 42L));
+        assertEquals(time, cursor.createTime());
+        assertEquals(42L, cursor.id());
+    }
+
+    private CursorPage<Long> fetch(LambdaQueryWrapper<Snack> filter, String cursor, int size) {
+        List<Snack> rows = snackMapper.selectList(CursorUtils.seek(filter, cursor, Snack::getCreateTime, Snack::getId, size));
+        return CursorUtils.toPage(rows, size, Snack::getCreateTime, Snack::getId,
+                list -> list.stream().map(Snack::getId).toList(), null);
+    }
+
+    private Snack insertSnack(Long categoryId, LocalDateTime createTime) {
+        Snack snack = new Snack();
+        snack.setCategoryId(categoryId);
+        snack.setName("零食" + createTime);
+        snack.setPrice(500);
+        snack.setStock(10);
+        snack.setStatus("ON_SALE");
+        snack.setSalesCount(0);
+        snack.setCreateTime(createTime);
+        snackMapper.insert(snack);
+        return snack;
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.springboot.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 雪花算法ID生成器测试
+ * @author system
+ */
+@DisplayName("雪花算法ID生成器测试")
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    @DisplayName("多线程并发生成的ID全局唯一且各线程内单调递增")
+    void testConcurrentUniqueness() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, SnowflakeIdGenerator.DEFAULT_EPOCH, 5);
+        int threads = 8;
+        int perThread = 100_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet(threads * perThread);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long previous = Long.MIN_VALUE;
+                    for (int i = 0; i < perThread; i++) {
+                        long id = generator.nextId();
+                        if (id <= previous || !ids.add(id)) {
+                            return false;
+                        }
+                        previous = id;
+                    }
+                    return true;
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    @DisplayName("ID中包含节点ID和生成时间")
+    void testLayout() {
+        long now = System.currentTimeMillis();
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1023, SnowflakeIdGenerator.DEFAULT_EPOCH, 5, () -> now);
+
+        long id = generator.nextId();
+
+        assertTrue(id > 0);
+        assertEquals(1023, SnowflakeIdGenerator.extractNodeId(id));
+        assertEquals(now, generator.extractTimestamp(id));
+    }
+
+    @Test
+    @DisplayName("同一毫秒序列号用尽后等待下一毫秒")
+    void testSequenceOverflow() {
+        long now = System.currentTimeMillis();
+        AtomicLong calls = new AtomicLong();
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, SnowflakeIdGenerator.DEFAULT_EPOCH, 5,
+                () -> calls.incrementAndGet() > 4200 ? now + 1 : now);
+
+        long previous = 0;
+        for (int i = 0; i < 5000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertEquals(now + 1, generator.extractTimestamp(previous));
+    }
+
+    @Test
+    @DisplayName("容忍范围内的时钟回拨继续递增，超出范围拒绝生成")
+    void testClockBackward() {
+        AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, SnowflakeIdGenerator.DEFAULT_EPOCH, 5, clock::get);
+
+        long before = generator.nextId();
+        clock.addAndGet(-3);
+        long during = generator.nextId();
+        assertTrue(during > before);
+
+        clock.addAndGet(-10);
+        assertThrows(IllegalStateException.class, generator::nextId);
+
+        clock.addAndGet(20);
+        assertTrue(generator.nextId() > during);
+    }
+
+    @Test
+    @DisplayName("非法节点ID")
+    void testInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(1024, SnowflakeIdGenerator.DEFAULT_EPOCH, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(-1, SnowflakeIdGenerator.DEFAULT_EPOCH, 5));
+    }
+}